@@ -6,9 +6,11 @@ import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaAuditing
+@EnableScheduling
 @EnableJpaRepositories(basePackages = "com.esewa.javabackend.repository.JpaRepository")
 @EnableElasticsearchRepositories(basePackages = "com.esewa.javabackend.repository.ElasticSearchRepository")
 @EntityScan(basePackages = "com.esewa.javabackend.module")
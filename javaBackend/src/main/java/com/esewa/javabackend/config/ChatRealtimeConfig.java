@@ -0,0 +1,56 @@
+package com.esewa.javabackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for real-time chat delivery over WebSocket/STOMP.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.chat.realtime")
+@Getter
+@Setter
+public class ChatRealtimeConfig {
+
+    /**
+     * Redis pub/sub channel that relays chat events between nodes (default: chat:events)
+     */
+    private String channel = "chat:events";
+
+    /**
+     * STOMP heartbeat interval in both directions; keeps idle sockets alive through proxies (default: 25000)
+     */
+    private long heartbeatMs = 25_000;
+
+    /**
+     * How long a user counts as online after the last presence refresh from any node (default: 90)
+     */
+    private int presenceTtlSeconds = 90;
+
+    /**
+     * How long a typing indicator lasts without a new typing event (default: 6)
+     */
+    private int typingTtlSeconds = 6;
+
+    /**
+     * Largest inbound STOMP frame in bytes (default: 65536)
+     */
+    private int messageSizeLimit = 64 * 1024;
+
+    /**
+     * Bytes buffered per slow session before it is closed (default: 524288)
+     */
+    private int sendBufferSizeLimit = 512 * 1024;
+
+    /**
+     * Milliseconds a single send to one session may take before it is closed (default: 10000)
+     */
+    private int sendTimeLimitMs = 10_000;
+
+    /**
+     * Most recipients per relayed event when a group message is pushed to its online members (default: 500)
+     */
+    private int groupFanoutBatchSize = 500;
+}
@@ -0,0 +1,35 @@
+package com.esewa.javabackend.config;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+/**
+ * Runs the SQL migrations in {@code db/migration} after Hibernate has updated the schema.
+ *
+ * Tables and columns come from the entities ({@code ddl-auto: update}); the migrations add
+ * what Hibernate cannot: partial and GIN indexes, constraint changes and backfills of
+ * denormalized columns. They reference tables only Hibernate creates on an empty database, so
+ * instead of Flyway's usual run before the EntityManagerFactory they run right after it, still
+ * before the web server takes requests. A database without a history table is baselined at
+ * version 1, so V2 onwards run exactly once.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy deferredFlywayMigration() {
+        // Boot would migrate here, before Hibernate; see migrateAfterHibernate
+        return flyway -> {
+        };
+    }
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public InitializingBean migrateAfterHibernate(Flyway flyway) {
+        return flyway::migrate;
+    }
+}
@@ -0,0 +1,38 @@
+package com.esewa.javabackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for the in-memory follow graph.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.follow-graph")
+@Getter
+@Setter
+public class FollowGraphConfig {
+
+    /**
+     * Whether follow checks are answered from memory; when off, or until the first load finishes, they query
+     * the follows table (default: true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Redis pub/sub channel that relays follow changes between nodes (default: follow-graph:changes)
+     */
+    private String channel = "follow-graph:changes";
+
+    /**
+     * How often the graph is rebuilt from the database, folding in recent changes and repairing anything a
+     * node missed (default: 600000)
+     */
+    private long rebuildIntervalMs = 600_000;
+
+    /**
+     * Changes held in the overlay that trigger an early rebuild (default: 100000)
+     */
+    private int maxOverlayEntries = 100_000;
+}
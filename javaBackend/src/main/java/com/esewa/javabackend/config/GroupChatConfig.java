@@ -0,0 +1,38 @@
+package com.esewa.javabackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for group chats.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.chat.groups")
+@Getter
+@Setter
+public class GroupChatConfig {
+
+    /**
+     * How often other members' inbox order and unread counts catch up with new group messages (default: 5000)
+     */
+    private long flushIntervalMs = 5_000;
+
+    /**
+     * How often offline members with unread group messages are notified; at most one notification per group
+     * until they read it (default: 300000)
+     */
+    private long notifyIntervalMs = 300_000;
+
+    /**
+     * Largest number of members a group may have (default: 5000)
+     */
+    private int maxMembers = 5_000;
+
+    /**
+     * Highest unread count stored for a group member; counts are recounted from the read watermark and
+     * stop here (default: 99)
+     */
+    private int maxUnreadCount = 99;
+}
@@ -0,0 +1,68 @@
+package com.esewa.javabackend.config;
+
+import com.esewa.javabackend.config.kafka.serde.BinaryEventSerializer;
+import com.esewa.javabackend.config.kafka.serde.InteractionEventCodec;
+import com.esewa.javabackend.config.kafka.serde.NotificationEventCodec;
+import com.esewa.javabackend.dto.event.InteractionEvent;
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Kafka producer configuration with the value format selectable per topic.
+ * Consumers read both formats, so a topic can be switched from JSON to binary at any time.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.kafka.serde")
+@Getter
+@Setter
+public class KafkaProducerConfig {
+
+    public enum EventFormat {
+        JSON,
+        BINARY
+    }
+
+    /**
+     * Value format for the "interactions" topic (default: JSON)
+     */
+    private EventFormat interactions = EventFormat.JSON;
+
+    /**
+     * Value format for the "notifications" topic (default: JSON)
+     */
+    private EventFormat notifications = EventFormat.JSON;
+
+    @Bean
+    public KafkaTemplate<String, InteractionEvent> interactionKafkaTemplate(KafkaProperties kafkaProperties) {
+        Serializer<InteractionEvent> serializer = interactions == EventFormat.BINARY
+                ? new BinaryEventSerializer<>(new InteractionEventCodec())
+                : new JsonSerializer<>();
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                producerProperties(kafkaProperties), new StringSerializer(), serializer));
+    }
+
+    @Bean
+    public KafkaTemplate<String, NotificationEvent> notificationKafkaTemplate(KafkaProperties kafkaProperties) {
+        Serializer<NotificationEvent> serializer = notifications == EventFormat.BINARY
+                ? new BinaryEventSerializer<>(new NotificationEventCodec())
+                : new JsonSerializer<>();
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(
+                producerProperties(kafkaProperties), new StringSerializer(), serializer));
+    }
+
+    private Map<String, Object> producerProperties(KafkaProperties kafkaProperties) {
+        return kafkaProperties.buildProducerProperties(null);
+    }
+}
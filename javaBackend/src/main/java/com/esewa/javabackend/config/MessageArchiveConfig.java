@@ -0,0 +1,52 @@
+package com.esewa.javabackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for archiving the messages of idle conversations into compressed segments.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.messages.archive")
+@Getter
+@Setter
+public class MessageArchiveConfig {
+
+    /**
+     * Whether the scheduled archival run is active (default: true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Months without a new message after which a conversation's messages are archived (default: 6)
+     */
+    private int idleMonths = 6;
+
+    /**
+     * Messages per archive segment, moved in one transaction (default: 1000)
+     */
+    private int segmentSize = 1000;
+
+    /**
+     * Upper bound on segments written per run so one run cannot monopolise the database (default: 2000)
+     */
+    private int maxSegmentsPerRun = 2000;
+
+    /**
+     * Pause between segments in milliseconds (default: 50)
+     */
+    private long pauseBetweenSegmentsMs = 50;
+
+    /**
+     * Archive segments kept decompressed in memory for paging (default: 128)
+     */
+    private int cacheSize = 128;
+
+    /**
+     * Most archived messages returned with a whole conversation; older ones are reached through the paginated
+     * history (default: 1000)
+     */
+    private int fullConversationLimit = 1000;
+}
@@ -0,0 +1,61 @@
+package com.esewa.javabackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for e-mail digests of unread notifications.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications.digest")
+@Getter
+@Setter
+public class NotificationDigestConfig {
+
+    /**
+     * Whether the scheduled digest run is active (default: false)
+     */
+    private boolean enabled = false;
+
+    /**
+     * Sender address of digest mails
+     */
+    private String from = "no-reply@recipe.local";
+
+    /**
+     * Subject line; {{unreadCount}} is replaced with the user's unread count
+     */
+    private String subject = "You have {{unreadCount}} unread notifications";
+
+    /**
+     * Link to the notifications page included in every digest
+     */
+    private String link = "http://localhost:5173/notifications";
+
+    /**
+     * First window length in hours when no digest has run before (default: 24)
+     */
+    private int initialWindowHours = 24;
+
+    /**
+     * Notifications listed per digest; the rest are summarised as a count (default: 10)
+     */
+    private int maxItems = 10;
+
+    /**
+     * Parallel sending workers; each holds one SMTP session per chunk (default: 4)
+     */
+    private int workers = 4;
+
+    /**
+     * Digests sent over one SMTP session (default: 50)
+     */
+    private int messagesPerConnection = 50;
+
+    /**
+     * Users per checkpoint; a restarted run resumes after the last completed batch (default: 500)
+     */
+    private int checkpointEvery = 500;
+}
@@ -0,0 +1,65 @@
+package com.esewa.javabackend.config;
+
+import com.esewa.javabackend.enums.NotificationType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration for the notification retention job: how long notifications live, when read
+ * ones are compacted away, and how the archival work is chunked.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications.retention")
+@Getter
+@Setter
+public class NotificationRetentionConfig {
+
+    /**
+     * Whether the scheduled retention run is active (default: true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Days a notification is kept, read or not, per type; types not listed use defaultTtlDays
+     */
+    private Map<NotificationType, Integer> ttlDays = new EnumMap<>(NotificationType.class);
+
+    /**
+     * Days a notification is kept when its type has no entry in ttlDays (default: 180)
+     */
+    private int defaultTtlDays = 180;
+
+    /**
+     * Days after which read notifications are moved to the archive (default: 30)
+     */
+    private int compactReadAfterDays = 30;
+
+    /**
+     * Rows moved per transaction; keeps row locks short (default: 1000)
+     */
+    private int chunkSize = 1000;
+
+    /**
+     * Upper bound on chunks per run so one run cannot monopolise the database (default: 500)
+     */
+    private int maxChunksPerRun = 500;
+
+    /**
+     * Pause between chunks in milliseconds (default: 50)
+     */
+    private long pauseBetweenChunksMs = 50;
+
+    /**
+     * Days archive chunks are kept before being purged; 0 keeps them forever (default: 365)
+     */
+    private int archiveRetentionDays = 365;
+
+    public int ttlDaysFor(NotificationType type) {
+        return ttlDays.getOrDefault(type, defaultTtlDays);
+    }
+}
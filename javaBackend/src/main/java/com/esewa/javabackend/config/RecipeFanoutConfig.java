@@ -0,0 +1,48 @@
+package com.esewa.javabackend.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for notifying followers about new recipes.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.notifications.fanout")
+@Getter
+@Setter
+public class RecipeFanoutConfig {
+
+    /**
+     * Whether new recipes are announced to followers at all (default: true)
+     */
+    private boolean enabled = true;
+
+    /**
+     * Authors with at least this many followers are not fanned out; their followers pull new
+     * recipes instead (default: 10000)
+     */
+    private int pullThreshold = 10_000;
+
+    /**
+     * Followers read and notifications inserted per transaction (default: 1000)
+     */
+    private int pageSize = 1000;
+
+    /**
+     * Upper bound on fan-out notifications written per second across all jobs (default: 5000)
+     */
+    private int maxPerSecond = 5000;
+
+    /**
+     * How far back the pull feed looks for recipes from followed high-follower authors (default: 7)
+     */
+    private int pullWindowDays = 7;
+
+    /**
+     * Consecutive failed pages after which a job is marked FAILED and the worker moves on
+     * (default: 5)
+     */
+    private int maxAttempts = 5;
+}
@@ -0,0 +1,38 @@
+package com.esewa.javabackend.config;
+
+import com.esewa.javabackend.service.UserActivityTracker;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private static final String USER_HEADER = "X-User-Id";
+
+    private final UserActivityTracker activityTracker;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // every request from an identified user counts as activity
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                String userId = request.getHeader(USER_HEADER);
+                if (userId != null) {
+                    try {
+                        activityTracker.record(Integer.valueOf(userId.trim()));
+                    } catch (NumberFormatException ignored) {
+                        // controllers reject malformed ids themselves
+                    }
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/**");
+    }
+}
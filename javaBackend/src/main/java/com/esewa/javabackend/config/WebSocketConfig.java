@@ -0,0 +1,101 @@
+package com.esewa.javabackend.config;
+
+import com.esewa.javabackend.service.ChatRealtimeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.config.ChannelRegistration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.security.Principal;
+
+/**
+ * STOMP over WebSocket for chat.
+ *
+ * Clients connect to {@code /ws} with an {@code X-User-Id} header on the STOMP CONNECT frame
+ * (the same identity the REST API takes), subscribe to {@code /user/queue/chat}, and send to
+ * {@code /app/chat.*}. The in-memory broker only reaches sockets on this node; events for
+ * other nodes travel over Redis (see {@code ChatRealtimeService}).
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    private static final String USER_HEADER = "X-User-Id";
+
+    private final ChatRealtimeConfig config;
+
+    // created by the STOMP infrastructure itself; lazy because it is built after this configurer
+    @Lazy
+    @Autowired
+    @Qualifier("messageBrokerTaskScheduler")
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns("http://localhost:*", "http://127.0.0.1:*");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.setApplicationDestinationPrefixes("/app");
+        registry.setUserDestinationPrefix("/user");
+        registry.enableSimpleBroker("/queue")
+                .setHeartbeatValue(new long[]{config.getHeartbeatMs(), config.getHeartbeatMs()})
+                .setTaskScheduler(messageBrokerTaskScheduler);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // idle sockets cost only their buffers; cap what a slow client can hold
+        registration.setMessageSizeLimit(config.getMessageSizeLimit())
+                .setSendBufferSizeLimit(config.getSendBufferSizeLimit())
+                .setSendTimeLimit(config.getSendTimeLimitMs());
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
+                    String userId = accessor.getFirstNativeHeader(USER_HEADER);
+                    if (userId == null || !userId.matches("\\d+")) {
+                        throw new IllegalArgumentException("STOMP CONNECT requires a numeric " + USER_HEADER + " header");
+                    }
+                    Principal principal = () -> userId;
+                    accessor.setUser(principal);
+                }
+                return message;
+            }
+        });
+    }
+
+    @Bean
+    public RedisMessageListenerContainer chatRelayListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                    ChatRealtimeService realtimeService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(realtimeService, new ChannelTopic(config.getChannel()));
+        return container;
+    }
+}
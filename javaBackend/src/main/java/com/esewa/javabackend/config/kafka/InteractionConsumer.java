@@ -8,18 +8,35 @@ import com.esewa.javabackend.module.AIML.Interaction;
 import com.esewa.javabackend.module.User;
 import com.esewa.javabackend.repository.JpaRepository.InteractionRepository;
 import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import com.esewa.javabackend.service.AIML.InteractionSummaryCache;
+import com.esewa.javabackend.service.AIML.TasteProfileService;
+import com.esewa.javabackend.utils.TimeBucketedBloomFilter;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
 import java.util.Optional;
 
+/**
+ * Stores interactions and feeds each newly stored one to the summary cache and the taste
+ * profiles. Redelivered events are dropped here, once, for all of them: the Bloom filter
+ * answers most lookups and the unique {@code event_id} catches the rest.
+ */
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class InteractionConsumer {
 
     private final InteractionRepository interactionRepository;
     private final UserRepository userRepository;
+    private final InteractionSummaryCache summaryCache;
+    private final TasteProfileService tasteProfileService;
+
+    // event ids seen in the last hour; a miss means the event is new without asking the DB
+    private final TimeBucketedBloomFilter seenEvents =
+            new TimeBucketedBloomFilter(10 * 60 * 1000L, 6, 500_000, 0.01);
 
     @KafkaListener(
             topics = "interactions",
@@ -27,10 +44,13 @@ public class InteractionConsumer {
             containerFactory = "interactionKafkaListenerContainerFactory"
     )
     public void consume(InteractionEvent event) {
+        if (isDuplicate(event)) {
+            return;
+        }
 
         Optional<User> userOpt = userRepository.findById(event.getUserId());
         if (userOpt.isEmpty()) {
-            System.out.println("⚠ User not found: " + event.getUserId());
+            log.warn("Skipping interaction event {}: user {} not found", event.getEventId(), event.getUserId());
             return;
         }
 
@@ -43,10 +63,47 @@ public class InteractionConsumer {
                 .action(event.getAction() != null ? event.getAction() : InteractionAction.VIEW)
                 .value(event.getValue())
                 .isNew(true)
+                .eventId(event.getEventId())
                 .build();
 
-        interactionRepository.save(interaction);
+        try {
+            interactionRepository.save(interaction);
+            summaryCache.increment(user.getId(), interaction.getAction());
+        } catch (DataIntegrityViolationException e) {
+            // only a row with the same event_id makes this a redelivery (after the filter window
+            // or a restart); any other constraint failing is a real error
+            if (event.getEventId() == null || !interactionRepository.existsByEventId(event.getEventId())) {
+                throw e;
+            }
+            log.debug("Duplicate interaction event {} ignored", event.getEventId());
+            remember(event);
+            return;
+        }
+        remember(event);
+        recordTaste(event);
+    }
 
+    private void recordTaste(InteractionEvent event) {
+        try {
+            tasteProfileService.record(event);
+        } catch (Exception e) {
+            // a profile is a best-effort aggregate; never block the partition on one event
+            log.warn("Skipping interaction {} for taste profile: {}", event.getEventId(), e.getMessage());
+        }
+    }
+
+    private void remember(InteractionEvent event) {
+        if (event.getEventId() != null) {
+            seenEvents.put(event.getEventId());
+        }
+    }
+
+    private boolean isDuplicate(InteractionEvent event) {
+        if (event.getEventId() == null || !seenEvents.mightContain(event.getEventId())) {
+            return false;
+        }
+        // possible false positive, confirm against the table
+        return interactionRepository.existsByEventId(event.getEventId());
     }
 }
 
@@ -1,18 +1,23 @@
 package com.esewa.javabackend.config.kafka;
 
+import com.esewa.javabackend.config.kafka.spool.EventSpool;
 import com.esewa.javabackend.dto.event.InteractionEvent;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.UUID;
+
 @Component
 @RequiredArgsConstructor
 public class InteractionProducer {
 
-    private final KafkaTemplate<String, InteractionEvent> kafkaTemplate;
-    private static final String TOPICS = "interactions";
+    // sends to the "interactions" topic, spooling locally while Kafka is down
+    private final EventSpool<InteractionEvent> interactionSpool;
 
     public void sendInteraction(InteractionEvent event) {
-        kafkaTemplate.send(TOPICS, event);
+        if (event.getEventId() == null) {
+            event.setEventId(UUID.randomUUID());
+        }
+        interactionSpool.publish(event);
     }
 }
@@ -1,42 +1,198 @@
 package com.esewa.javabackend.config.kafka;
 
 
+import com.esewa.javabackend.dto.NotificationDTO;
 import com.esewa.javabackend.dto.event.NotificationEvent;
-import com.esewa.javabackend.module.Notification;
-import com.esewa.javabackend.module.User;
 import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
-import com.esewa.javabackend.repository.JpaRepository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.esewa.javabackend.service.NotificationCounterService;
+import com.esewa.javabackend.service.NotificationIngestService;
+import com.esewa.javabackend.service.NotificationPushService;
+import com.esewa.javabackend.service.UserDirectoryCache;
+import com.esewa.javabackend.utils.TimeBucketedBloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
 
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Batch consumer for the notifications topic.
+ *
+ * Each poll is validated against a cached set of known user ids, de-duplicated, and handed to
+ * {@link NotificationIngestService} as one transaction. Records that can never succeed are
+ * routed aside instead of stalling the partition: undecodable records are logged and
+ * counted, events with missing fields or unknown users go to {@value #DEAD_LETTER_TOPIC}.
+ * If the batch fails to store, its events are stored one at a time and those that still fail
+ * are dead-lettered too; a transient database failure is left to the container to retry.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class NotificationConsumer {
 
+    static final String DEAD_LETTER_TOPIC = "notifications.dlt";
+    private static final String REASON_HEADER = "x-dead-letter-reason";
+
     private final NotificationRepository notificationRepository;
-    private final UserRepository userRepository;
+    private final NotificationIngestService ingestService;
+    private final UserDirectoryCache userDirectory;
+    private final NotificationPushService pushService;
+    private final NotificationCounterService counterService;
+    private final KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+
+    private final Counter poisonRecords;
+    private final Counter deadLettered;
+
+    // event ids seen in the last hour; a miss means the event is new without asking the DB
+    private final TimeBucketedBloomFilter seenEvents =
+            new TimeBucketedBloomFilter(10 * 60 * 1000L, 6, 500_000, 0.01);
+
+    public NotificationConsumer(NotificationRepository notificationRepository,
+                                NotificationIngestService ingestService,
+                                UserDirectoryCache userDirectory,
+                                NotificationPushService pushService,
+                                NotificationCounterService counterService,
+                                KafkaTemplate<String, NotificationEvent> kafkaTemplate,
+                                MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.ingestService = ingestService;
+        this.userDirectory = userDirectory;
+        this.pushService = pushService;
+        this.counterService = counterService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.poisonRecords = meterRegistry.counter("notification.ingest.poison");
+        this.deadLettered = meterRegistry.counter("notification.ingest.dead.lettered");
+    }
 
     @KafkaListener(
             topics = "notifications",
             groupId = "notification-group",
             containerFactory = "notificationKafkaListenerContainerFactory"
     )
-    public void consume(NotificationEvent event) {
-        User sender = userRepository.findById(event.getSenderId())
-                .orElseThrow(() -> new RuntimeException("Sender not found"));
-        User receiver = userRepository.findById(event.getReceiverId())
-                .orElseThrow(() -> new RuntimeException("Receiver not found"));
-
-        Notification notification = Notification.builder()
-                .sender(sender)
-                .receiver(receiver)
-                .type(event.getType())
-                .message(event.getMessage())
-                .referenceId(event.getReferenceId())
-                .isRead(false)
-                .build();
-
-        notificationRepository.save(notification);}
-}
+    public void consume(List<ConsumerRecord<String, NotificationEvent>> records) {
+        List<NotificationEvent> events = new ArrayList<>(records.size());
+        Set<UUID> batchEventIds = new HashSet<>();
+        Set<Integer> userIds = new HashSet<>();
+
+        for (ConsumerRecord<String, NotificationEvent> record : records) {
+            NotificationEvent event = record.value();
+            if (event == null) {
+                // the value failed to deserialize; the cause travels in the record headers
+                poisonRecords.increment();
+                log.error("Skipping undecodable notification record {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                continue;
+            }
+            if (event.getSenderId() == null || event.getReceiverId() == null || event.getType() == null) {
+                deadLetter(event, "missing sender, receiver or type");
+                continue;
+            }
+            if (event.getEventId() == null) {
+                event.setEventId(UUID.randomUUID());
+            }
+            if (!batchEventIds.add(event.getEventId()) || isDuplicate(event)) {
+                continue;
+            }
+            events.add(event);
+            userIds.add(event.getSenderId());
+            userIds.add(event.getReceiverId());
+        }
+        if (events.isEmpty()) {
+            return;
+        }
 
+        Map<Integer, String> usernames = userDirectory.resolve(userIds);
+        List<NotificationEvent> valid = new ArrayList<>(events.size());
+        for (NotificationEvent event : events) {
+            if (usernames.containsKey(event.getSenderId()) && usernames.containsKey(event.getReceiverId())) {
+                valid.add(event);
+            } else {
+                deadLetter(event, "unknown sender or receiver");
+            }
+        }
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        NotificationIngestService.Result result;
+        try {
+            result = ingestService.ingest(valid, usernames);
+        } catch (RuntimeException e) {
+            if (isTransient(e)) {
+                throw e;
+            }
+            log.warn("Storing {} notification events together failed, storing them one at a time: {}",
+                    valid.size(), e.getMessage());
+            ingestEach(valid, usernames);
+            return;
+        }
+        publish(result);
+        valid.forEach(event -> seenEvents.put(event.getEventId()));
+    }
+
+    // isolates the events that cannot be stored; each stored one is published and remembered at
+    // once, so a transient failure further on does not store it twice when the batch is retried
+    private void ingestEach(List<NotificationEvent> events, Map<Integer, String> usernames) {
+        for (NotificationEvent event : events) {
+            NotificationIngestService.Result result;
+            try {
+                result = ingestService.ingest(List.of(event), usernames);
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    throw e;
+                }
+                deadLetter(event, "could not be stored: " + e.getMessage());
+                continue;
+            }
+            publish(result);
+            seenEvents.put(event.getEventId());
+        }
+    }
+
+    private void publish(NotificationIngestService.Result result) {
+        Map<Integer, Integer> createdPerReceiver = new HashMap<>();
+        for (NotificationDTO created : result.getCreated()) {
+            createdPerReceiver.merge(created.getReceiverId(), 1, Integer::sum);
+            pushService.push(created);
+        }
+        // merged aggregates keep their id; clients replace them in place
+        result.getUpdated().forEach(pushService::push);
+        createdPerReceiver.forEach(counterService::increment);
+    }
+
+    // the database being unreachable or overloaded is not the events' fault
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private boolean isDuplicate(NotificationEvent event) {
+        if (!seenEvents.mightContain(event.getEventId())) {
+            return false;
+        }
+        // possible false positive, confirm against the table
+        return notificationRepository.existsByEventId(event.getEventId());
+    }
+
+    private void deadLetter(NotificationEvent event, String reason) {
+        deadLettered.increment();
+        log.warn("Routing notification event {} to {}: {}", event.getEventId(), DEAD_LETTER_TOPIC, reason);
+        ProducerRecord<String, NotificationEvent> record = new ProducerRecord<>(DEAD_LETTER_TOPIC,
+                event.getReceiverId() != null ? event.getReceiverId().toString() : null, event);
+        record.headers().add(REASON_HEADER, reason.getBytes(StandardCharsets.UTF_8));
+        try {
+            kafkaTemplate.send(record);
+        } catch (Exception e) {
+            log.error("Could not dead-letter notification event {}: {}", event.getEventId(), e.getMessage());
+        }
+    }
+}
@@ -1,20 +1,25 @@
 package com.esewa.javabackend.config.kafka;
 
 
+import com.esewa.javabackend.config.kafka.spool.EventSpool;
 import com.esewa.javabackend.dto.event.NotificationEvent;
 import lombok.RequiredArgsConstructor;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.UUID;
+
 @Service
 @RequiredArgsConstructor
 public class NotificationProducer {
 
-    private final KafkaTemplate<String, NotificationEvent> kafkaTemplate;
-    private static final String TOPIC = "notifications";
+    // sends to the "notifications" topic, spooling locally while Kafka is down
+    private final EventSpool<NotificationEvent> notificationSpool;
 
     public void sendNotification(NotificationEvent event) {
-        kafkaTemplate.send(TOPIC, event);
+        if (event.getEventId() == null) {
+            event.setEventId(UUID.randomUUID());
+        }
+        notificationSpool.publish(event);
     }
 }
 
@@ -0,0 +1,55 @@
+package com.esewa.javabackend.config.kafka.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * Reads binary events and hands anything without the binary magic byte (legacy JSON
+ * written before the topic was switched) to the fallback deserializer.
+ */
+public class BinaryEventDeserializer<T> implements Deserializer<T> {
+
+    private final EventCodec<T> codec;
+    private final Deserializer<T> legacy;
+
+    public BinaryEventDeserializer(EventCodec<T> codec, Deserializer<T> legacy) {
+        this.codec = codec;
+        this.legacy = legacy;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        legacy.configure(configs, isKey);
+    }
+
+    @Override
+    public T deserialize(String topic, byte[] data) {
+        return isBinary(data) ? decode(data) : legacy.deserialize(topic, data);
+    }
+
+    @Override
+    public T deserialize(String topic, Headers headers, byte[] data) {
+        return isBinary(data) ? decode(data) : legacy.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        legacy.close();
+    }
+
+    private T decode(byte[] data) {
+        EventBinaryReader reader = new EventBinaryReader(data, 1);
+        int version = reader.readByte();
+        if (version < 1 || version > codec.version()) {
+            throw new SerializationException("Unsupported binary event version " + version);
+        }
+        return codec.read(reader, version);
+    }
+
+    private static boolean isBinary(byte[] data) {
+        return data != null && data.length > 1 && data[0] == BinaryEventSerializer.MAGIC;
+    }
+}
@@ -0,0 +1,31 @@
+package com.esewa.javabackend.config.kafka.serde;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka serializer for the compact binary event format: [magic][schema version][fields].
+ */
+public class BinaryEventSerializer<T> implements Serializer<T> {
+
+    /**
+     * First byte of every binary record; never the first byte of a JSON document.
+     */
+    public static final byte MAGIC = (byte) 0xE5;
+
+    private final EventCodec<T> codec;
+
+    public BinaryEventSerializer(EventCodec<T> codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public byte[] serialize(String topic, T event) {
+        if (event == null) {
+            return null;
+        }
+        EventBinaryWriter writer = new EventBinaryWriter(32);
+        writer.writeByte(MAGIC).writeByte(codec.version());
+        codec.write(event, writer);
+        return writer.toByteArray();
+    }
+}
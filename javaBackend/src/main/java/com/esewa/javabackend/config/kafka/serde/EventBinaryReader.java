@@ -0,0 +1,88 @@
+package com.esewa.javabackend.config.kafka.serde;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the primitive encodings written by {@link EventBinaryWriter}.
+ */
+public class EventBinaryReader {
+
+    private final byte[] data;
+    private int position;
+
+    public EventBinaryReader(byte[] data, int offset) {
+        this.data = data;
+        this.position = offset;
+    }
+
+    public int readByte() {
+        require(1);
+        return data[position++] & 0xFF;
+    }
+
+    public int readVarInt() {
+        int raw = readUnsignedVarInt();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public long readVarLong() {
+        long raw = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = readByte();
+            raw |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (raw >>> 1) ^ -(raw & 1);
+            }
+        }
+        throw new SerializationException("Malformed varlong in binary event");
+    }
+
+    public int readUnsignedVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new SerializationException("Malformed varint in binary event");
+    }
+
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        int ordinal = readUnsignedVarInt();
+        if (ordinal >= values.length) {
+            throw new SerializationException("Unknown enum ordinal " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    public long readFixedLong() {
+        require(8);
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (data[position++] & 0xFF);
+        }
+        return value;
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readFixedLong());
+    }
+
+    public String readString() {
+        int length = readUnsignedVarInt();
+        require(length);
+        String value = new String(data, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    private void require(int bytes) {
+        if (position + bytes > data.length) {
+            throw new SerializationException("Truncated binary event");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.esewa.javabackend.config.kafka.serde;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the primitive encodings used by the binary event format:
+ * zigzag varints for ints, varint ordinals for enums, 8-byte big-endian doubles and
+ * length-prefixed UTF-8 strings.
+ */
+public class EventBinaryWriter {
+
+    private byte[] buffer;
+    private int size;
+
+    public EventBinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public EventBinaryWriter writeByte(int value) {
+        ensure(1);
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public EventBinaryWriter writeVarInt(int value) {
+        return writeUnsignedVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public EventBinaryWriter writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        ensure(10);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[size++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[size++] = (byte) zigzag;
+        return this;
+    }
+
+    public EventBinaryWriter writeUnsignedVarInt(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[size++] = (byte) value;
+        return this;
+    }
+
+    public EventBinaryWriter writeEnum(Enum<?> value) {
+        return writeUnsignedVarInt(value.ordinal());
+    }
+
+    public EventBinaryWriter writeFixedLong(long value) {
+        ensure(8);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[size++] = (byte) (value >>> shift);
+        }
+        return this;
+    }
+
+    public EventBinaryWriter writeDouble(double value) {
+        return writeFixedLong(Double.doubleToRawLongBits(value));
+    }
+
+    public EventBinaryWriter writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeUnsignedVarInt(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+        }
+    }
+}
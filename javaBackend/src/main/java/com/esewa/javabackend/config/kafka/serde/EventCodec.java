@@ -0,0 +1,17 @@
+package com.esewa.javabackend.config.kafka.serde;
+
+/**
+ * Field layout of one event type in the binary format.
+ *
+ * Fields may only be appended in a new schema version; readers must accept every version
+ * up to {@link #version()} so records written by older producers stay readable. Enums are
+ * stored by ordinal, so new constants must be added at the end of the enum.
+ */
+public interface EventCodec<T> {
+
+    int version();
+
+    void write(T event, EventBinaryWriter writer);
+
+    T read(EventBinaryReader reader, int version);
+}
@@ -0,0 +1,67 @@
+package com.esewa.javabackend.config.kafka.serde;
+
+import com.esewa.javabackend.dto.event.InteractionEvent;
+import com.esewa.javabackend.enums.InteractionAction;
+import com.esewa.javabackend.enums.ResourceType;
+
+import java.util.UUID;
+
+/**
+ * v1: [flags][userId?][resourceType?][resourceId?][action?][value?]
+ * v2: v1 + [eventId? as two fixed longs]
+ */
+public class InteractionEventCodec implements EventCodec<InteractionEvent> {
+
+    private static final int HAS_USER = 1;
+    private static final int HAS_RESOURCE_TYPE = 1 << 1;
+    private static final int HAS_RESOURCE_ID = 1 << 2;
+    private static final int HAS_ACTION = 1 << 3;
+    private static final int HAS_VALUE = 1 << 4;
+    private static final int IS_NEW = 1 << 5;
+    private static final int HAS_EVENT_ID = 1 << 6;
+
+    private static final ResourceType[] RESOURCE_TYPES = ResourceType.values();
+    private static final InteractionAction[] ACTIONS = InteractionAction.values();
+
+    @Override
+    public int version() {
+        return 2;
+    }
+
+    @Override
+    public void write(InteractionEvent event, EventBinaryWriter writer) {
+        int flags = (event.getUserId() != null ? HAS_USER : 0)
+                | (event.getResourceType() != null ? HAS_RESOURCE_TYPE : 0)
+                | (event.getResourceId() != null ? HAS_RESOURCE_ID : 0)
+                | (event.getAction() != null ? HAS_ACTION : 0)
+                | (event.getValue() != null ? HAS_VALUE : 0)
+                | (event.isNew() ? IS_NEW : 0)
+                | (event.getEventId() != null ? HAS_EVENT_ID : 0);
+        writer.writeByte(flags);
+        if (event.getUserId() != null) writer.writeVarInt(event.getUserId());
+        if (event.getResourceType() != null) writer.writeEnum(event.getResourceType());
+        if (event.getResourceId() != null) writer.writeVarInt(event.getResourceId());
+        if (event.getAction() != null) writer.writeEnum(event.getAction());
+        if (event.getValue() != null) writer.writeDouble(event.getValue());
+        if (event.getEventId() != null) {
+            writer.writeFixedLong(event.getEventId().getMostSignificantBits());
+            writer.writeFixedLong(event.getEventId().getLeastSignificantBits());
+        }
+    }
+
+    @Override
+    public InteractionEvent read(EventBinaryReader reader, int version) {
+        int flags = reader.readByte();
+        InteractionEvent event = new InteractionEvent();
+        if ((flags & HAS_USER) != 0) event.setUserId(reader.readVarInt());
+        if ((flags & HAS_RESOURCE_TYPE) != 0) event.setResourceType(reader.readEnum(RESOURCE_TYPES));
+        if ((flags & HAS_RESOURCE_ID) != 0) event.setResourceId(reader.readVarInt());
+        if ((flags & HAS_ACTION) != 0) event.setAction(reader.readEnum(ACTIONS));
+        if ((flags & HAS_VALUE) != 0) event.setValue(reader.readDouble());
+        event.setNew((flags & IS_NEW) != 0);
+        if (version >= 2 && (flags & HAS_EVENT_ID) != 0) {
+            event.setEventId(new UUID(reader.readFixedLong(), reader.readFixedLong()));
+        }
+        return event;
+    }
+}
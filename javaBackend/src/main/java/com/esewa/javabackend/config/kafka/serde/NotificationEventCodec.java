@@ -0,0 +1,62 @@
+package com.esewa.javabackend.config.kafka.serde;
+
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import com.esewa.javabackend.enums.NotificationType;
+
+import java.util.UUID;
+
+/**
+ * v1: [flags][senderId?][receiverId?][type?][message?][referenceId?]
+ * v2: v1 + [eventId? as two fixed longs]
+ */
+public class NotificationEventCodec implements EventCodec<NotificationEvent> {
+
+    private static final int HAS_SENDER = 1;
+    private static final int HAS_RECEIVER = 1 << 1;
+    private static final int HAS_TYPE = 1 << 2;
+    private static final int HAS_MESSAGE = 1 << 3;
+    private static final int HAS_REFERENCE = 1 << 4;
+    private static final int HAS_EVENT_ID = 1 << 5;
+
+    private static final NotificationType[] TYPES = NotificationType.values();
+
+    @Override
+    public int version() {
+        return 2;
+    }
+
+    @Override
+    public void write(NotificationEvent event, EventBinaryWriter writer) {
+        int flags = (event.getSenderId() != null ? HAS_SENDER : 0)
+                | (event.getReceiverId() != null ? HAS_RECEIVER : 0)
+                | (event.getType() != null ? HAS_TYPE : 0)
+                | (event.getMessage() != null ? HAS_MESSAGE : 0)
+                | (event.getReferenceId() != null ? HAS_REFERENCE : 0)
+                | (event.getEventId() != null ? HAS_EVENT_ID : 0);
+        writer.writeByte(flags);
+        if (event.getSenderId() != null) writer.writeVarInt(event.getSenderId());
+        if (event.getReceiverId() != null) writer.writeVarInt(event.getReceiverId());
+        if (event.getType() != null) writer.writeEnum(event.getType());
+        if (event.getMessage() != null) writer.writeString(event.getMessage());
+        if (event.getReferenceId() != null) writer.writeVarInt(event.getReferenceId());
+        if (event.getEventId() != null) {
+            writer.writeFixedLong(event.getEventId().getMostSignificantBits());
+            writer.writeFixedLong(event.getEventId().getLeastSignificantBits());
+        }
+    }
+
+    @Override
+    public NotificationEvent read(EventBinaryReader reader, int version) {
+        int flags = reader.readByte();
+        NotificationEvent event = new NotificationEvent();
+        if ((flags & HAS_SENDER) != 0) event.setSenderId(reader.readVarInt());
+        if ((flags & HAS_RECEIVER) != 0) event.setReceiverId(reader.readVarInt());
+        if ((flags & HAS_TYPE) != 0) event.setType(reader.readEnum(TYPES));
+        if ((flags & HAS_MESSAGE) != 0) event.setMessage(reader.readString());
+        if ((flags & HAS_REFERENCE) != 0) event.setReferenceId(reader.readVarInt());
+        if (version >= 2 && (flags & HAS_EVENT_ID) != 0) {
+            event.setEventId(new UUID(reader.readFixedLong(), reader.readFixedLong()));
+        }
+        return event;
+    }
+}
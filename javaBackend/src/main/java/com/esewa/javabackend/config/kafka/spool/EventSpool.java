@@ -0,0 +1,213 @@
+package com.esewa.javabackend.config.kafka.spool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Kafka publisher for one topic that falls back to a local {@link SpoolJournal} while the
+ * broker is unavailable.
+ *
+ * Events go straight to Kafka while the broker is healthy and the journal is empty. After a
+ * send failure (or while anything is still spooled, to keep ordering) events are appended to
+ * the journal instead, so callers never block on a dead broker. {@link #drain(int, long)}
+ * replays the journal in order and switches back to direct sends once it is empty.
+ *
+ * A dead broker is detected from the producer callbacks, never by waiting on a send: when
+ * sends are outstanding and none has been acknowledged for {@code stallTimeoutMs}, the broker
+ * is treated as down and new events go to the journal instead of piling up in the producer
+ * buffer (which would eventually block callers for {@code max.block.ms}).
+ */
+@Slf4j
+public class EventSpool<T> {
+
+    @Getter
+    private final String topic;
+    private final KafkaTemplate<String, T> kafkaTemplate;
+    private final SpoolJournal journal;
+    private final Serializer<T> serializer;
+    private final Deserializer<T> deserializer;
+    private final Function<T, String> keyFunction;
+
+    private volatile boolean brokerHealthy = true;
+
+    /**
+     * Time without any acknowledgement, while sends are outstanding, after which the broker
+     * is considered down
+     */
+    @Setter
+    private long stallTimeoutMs = 3000;
+
+    // direct sends awaiting their callback, and when one last completed (or the first started)
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile long lastProgressAt = System.currentTimeMillis();
+
+    private final Counter appended;
+    private final Counter drained;
+    private final Counter dropped;
+
+    public EventSpool(String topic, KafkaTemplate<String, T> kafkaTemplate, SpoolJournal journal,
+                      Serializer<T> serializer, Deserializer<T> deserializer, MeterRegistry meterRegistry) {
+        this(topic, kafkaTemplate, journal, serializer, deserializer, event -> null, meterRegistry);
+    }
+
+    /**
+     * @param keyFunction derives the record key (and so the partition) from an event; it is
+     *                    applied again on drain, so keys need not be journaled
+     */
+    public EventSpool(String topic, KafkaTemplate<String, T> kafkaTemplate, SpoolJournal journal,
+                      Serializer<T> serializer, Deserializer<T> deserializer, Function<T, String> keyFunction,
+                      MeterRegistry meterRegistry) {
+        this.topic = topic;
+        this.keyFunction = keyFunction;
+        this.kafkaTemplate = kafkaTemplate;
+        this.journal = journal;
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+
+        this.appended = meterRegistry.counter("event.spool.appended", "topic", topic);
+        this.drained = meterRegistry.counter("event.spool.drained", "topic", topic);
+        this.dropped = meterRegistry.counter("event.spool.dropped", "topic", topic);
+        Gauge.builder("event.spool.pending.bytes", journal, SpoolJournal::pendingBytes)
+                .tag("topic", topic)
+                .register(meterRegistry);
+        Gauge.builder("event.spool.corrupt", journal, SpoolJournal::corruptRecords)
+                .tag("topic", topic)
+                .register(meterRegistry);
+        Gauge.builder("event.spool.broker.healthy", this, s -> s.brokerHealthy ? 1 : 0)
+                .tag("topic", topic)
+                .register(meterRegistry);
+    }
+
+    public void publish(T event) {
+        if (brokerHealthy && isStalled()) {
+            markUnhealthy(new TimeoutException(inFlight.get() + " sends unacknowledged for over "
+                    + stallTimeoutMs + " ms"));
+        }
+        if (brokerHealthy && journal.isEmpty()) {
+            if (inFlight.getAndIncrement() == 0) {
+                lastProgressAt = System.currentTimeMillis();
+            }
+            try {
+                kafkaTemplate.send(topic, keyFunction.apply(event), event).whenComplete((result, ex) -> {
+                    inFlight.decrementAndGet();
+                    if (ex != null) {
+                        markUnhealthy(ex);
+                        spool(event);
+                    } else {
+                        lastProgressAt = System.currentTimeMillis();
+                    }
+                });
+                return;
+            } catch (Exception e) {
+                inFlight.decrementAndGet();
+                markUnhealthy(e);
+            }
+        }
+        spool(event);
+    }
+
+    /**
+     * Replays up to {@code batchSize} spooled events in order. Stops at the first failed send;
+     * the failed event and everything after it stay in the journal for the next run.
+     *
+     * @return number of events delivered
+     */
+    public int drain(int batchSize, long sendTimeoutMs) {
+        List<byte[]> records = journal.peek(batchSize);
+        if (records.isEmpty()) {
+            journal.commit(0);
+            if (journal.isEmpty()) {
+                brokerHealthy = true;
+            }
+            return 0;
+        }
+
+        List<CompletableFuture<?>> sends = new ArrayList<>(records.size());
+        for (byte[] record : records) {
+            T event;
+            try {
+                event = deserializer.deserialize(topic, record);
+            } catch (RuntimeException e) {
+                log.error("Dropping undecodable spooled event on {}: {}", topic, e.getMessage());
+                dropped.increment();
+                sends.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            try {
+                sends.add(kafkaTemplate.send(topic, keyFunction.apply(event), event));
+            } catch (Exception e) {
+                sends.add(CompletableFuture.failedFuture(e));
+                break;
+            }
+        }
+
+        int delivered = 0;
+        for (CompletableFuture<?> send : sends) {
+            try {
+                send.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                delivered++;
+            } catch (Exception e) {
+                markUnhealthy(e);
+                break;
+            }
+        }
+        journal.commit(delivered);
+        drained.increment(delivered);
+        if (delivered == records.size() && journal.isEmpty()) {
+            brokerHealthy = true;
+            log.info("Spool for topic {} drained, resuming direct sends", topic);
+        }
+        return delivered;
+    }
+
+    boolean isStalled() {
+        return inFlight.get() > 0 && System.currentTimeMillis() - lastProgressAt > stallTimeoutMs;
+    }
+
+    public boolean isSpooling() {
+        return !brokerHealthy || !journal.isEmpty();
+    }
+
+    public void flush() {
+        journal.flush();
+    }
+
+    private void spool(T event) {
+        byte[] payload;
+        try {
+            payload = serializer.serialize(topic, event);
+        } catch (RuntimeException e) {
+            log.error("Cannot serialize event for spool on {}: {}", topic, e.getMessage());
+            dropped.increment();
+            return;
+        }
+        if (journal.append(payload)) {
+            appended.increment();
+        } else {
+            dropped.increment();
+            log.error("Spool for topic {} is full, dropping event", topic);
+        }
+    }
+
+    private void markUnhealthy(Throwable cause) {
+        if (brokerHealthy) {
+            log.warn("Kafka send to {} failed, spooling events locally: {}", topic, cause.getMessage());
+        }
+        brokerHealthy = false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.esewa.javabackend.config.kafka.spool;
+
+import com.esewa.javabackend.config.kafka.serde.BinaryEventDeserializer;
+import com.esewa.javabackend.config.kafka.serde.BinaryEventSerializer;
+import com.esewa.javabackend.config.kafka.serde.InteractionEventCodec;
+import com.esewa.javabackend.config.kafka.serde.NotificationEventCodec;
+import com.esewa.javabackend.dto.event.InteractionEvent;
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.file.Path;
+
+/**
+ * Configuration for the local event spool used when Kafka is unavailable.
+ * One journal directory is created per topic under {@link #directory}. Records are stored in
+ * the binary event format; JSON records spooled by older versions are still replayed.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.kafka.spool")
+@Getter
+@Setter
+public class EventSpoolConfig {
+
+    /**
+     * Root directory for spool journals (default: data/spool)
+     */
+    private String directory = "data/spool";
+
+    /**
+     * Size of one memory-mapped segment file in bytes (default: 8 MiB)
+     */
+    private int segmentBytes = 8 * 1024 * 1024;
+
+    /**
+     * Maximum segments kept per topic; bounds disk usage to segmentBytes * maxSegments (default: 64)
+     */
+    private int maxSegments = 64;
+
+    /**
+     * Events replayed per drain run (default: 500)
+     */
+    private int drainBatchSize = 500;
+
+    /**
+     * Time to wait for a replayed batch to be acknowledged in milliseconds (default: 10000ms)
+     */
+    private long sendTimeoutMs = 10000;
+
+    /**
+     * Time without acknowledgements, while direct sends are outstanding, after which events are
+     * spooled instead (default: 3000ms)
+     */
+    private long stallTimeoutMs = 3000;
+
+    @Bean(destroyMethod = "close")
+    public SpoolJournal interactionSpoolJournal() {
+        return new SpoolJournal(Path.of(directory, "interactions"), segmentBytes, maxSegments);
+    }
+
+    @Bean(destroyMethod = "close")
+    public SpoolJournal notificationSpoolJournal() {
+        return new SpoolJournal(Path.of(directory, "notifications"), segmentBytes, maxSegments);
+    }
+
+    @Bean
+    public EventSpool<InteractionEvent> interactionSpool(KafkaTemplate<String, InteractionEvent> kafkaTemplate,
+                                                         MeterRegistry meterRegistry) {
+        InteractionEventCodec codec = new InteractionEventCodec();
+        // keyed by user so one consumer folds all of a user's interactions into their taste vector
+        EventSpool<InteractionEvent> spool = new EventSpool<>("interactions", kafkaTemplate, interactionSpoolJournal(),
+                new BinaryEventSerializer<>(codec),
+                new BinaryEventDeserializer<>(codec, new JsonDeserializer<>(InteractionEvent.class, false)),
+                event -> event.getUserId() != null ? event.getUserId().toString() : null,
+                meterRegistry);
+        spool.setStallTimeoutMs(stallTimeoutMs);
+        return spool;
+    }
+
+    @Bean
+    public EventSpool<NotificationEvent> notificationSpool(KafkaTemplate<String, NotificationEvent> kafkaTemplate,
+                                                           MeterRegistry meterRegistry) {
+        NotificationEventCodec codec = new NotificationEventCodec();
+        // keyed by receiver so one consumer sees all of a user's notifications in order (coalescing relies on it)
+        EventSpool<NotificationEvent> spool = new EventSpool<>("notifications", kafkaTemplate,
+                notificationSpoolJournal(),
+                new BinaryEventSerializer<>(codec),
+                new BinaryEventDeserializer<>(codec, new JsonDeserializer<>(NotificationEvent.class, false)),
+                event -> event.getReceiverId() != null ? event.getReceiverId().toString() : null,
+                meterRegistry);
+        spool.setStallTimeoutMs(stallTimeoutMs);
+        return spool;
+    }
+}
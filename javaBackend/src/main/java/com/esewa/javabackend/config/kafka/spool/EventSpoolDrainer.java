@@ -0,0 +1,55 @@
+package com.esewa.javabackend.config.kafka.spool;
+
+import com.esewa.javabackend.utils.BackgroundJob;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Background job that replays spooled events to Kafka once the broker is reachable again.
+ *
+ * Replays wait for acknowledgements, so they run on their own thread rather than the shared
+ * scheduler thread, which would otherwise stall every other scheduled job while Kafka is down.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventSpoolDrainer {
+
+    private final List<EventSpool<?>> spools;
+    private final EventSpoolConfig config;
+    private final BackgroundJob job = new BackgroundJob("event-spool-drainer");
+
+    @Scheduled(fixedDelayString = "${app.kafka.spool.drain-interval-ms:2000}")
+    public void scheduledDrain() {
+        if (spools.stream().anyMatch(EventSpool::isSpooling)) {
+            job.trigger(this::drain);
+        }
+    }
+
+    public void drain() {
+        for (EventSpool<?> spool : spools) {
+            if (!spool.isSpooling()) {
+                continue;
+            }
+            try {
+                int delivered;
+                do {
+                    delivered = spool.drain(config.getDrainBatchSize(), config.getSendTimeoutMs());
+                } while (delivered == config.getDrainBatchSize());
+                spool.flush();
+            } catch (Exception e) {
+                log.warn("Draining spool for topic {} failed: {}", spool.getTopic(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        job.shutdown();
+    }
+}
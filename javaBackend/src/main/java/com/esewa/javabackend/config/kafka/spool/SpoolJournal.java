@@ -0,0 +1,270 @@
+package com.esewa.javabackend.config.kafka.spool;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped journal split into fixed size segment files.
+ *
+ * Record layout: [int length][int crc32c(payload)][payload]. A zero length marks the
+ * end of the written part of a segment (new segment files are zero filled), so the write
+ * position can be recovered after a restart by scanning the last segment. The read
+ * position is kept in a small mapped "cursor" file and only moves on {@link #commit(int)},
+ * which gives at-least-once replay. Fully drained segments are deleted.
+ */
+@Slf4j
+public class SpoolJournal implements Closeable {
+
+    private static final int RECORD_HEADER = 8;
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String CURSOR_FILE = "cursor";
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+
+    private final TreeMap<Long, MappedByteBuffer> segments = new TreeMap<>();
+    private final MappedByteBuffer cursor;
+
+    private long writeSegment;
+    private int writeOffset;
+    private long readSegment;
+    private int readOffset;
+
+    // positions after each record returned by the last peek, consumed by commit
+    private final List<long[]> peekedEnds = new ArrayList<>();
+    private long corruptRecords;
+
+    public SpoolJournal(Path directory, int segmentBytes, int maxSegments) {
+        if (segmentBytes <= RECORD_HEADER * 2) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maxSegments = Math.max(2, maxSegments);
+        try {
+            Files.createDirectories(directory);
+            this.cursor = map(directory.resolve(CURSOR_FILE), 16);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open spool journal at " + directory, e);
+        }
+    }
+
+    /**
+     * Appends one record. Returns false (and writes nothing) when the journal is at its
+     * disk budget or the payload cannot fit into a single segment.
+     */
+    public synchronized boolean append(byte[] payload) {
+        int recordBytes = RECORD_HEADER + payload.length;
+        if (recordBytes > segmentBytes) {
+            return false;
+        }
+        if (writeOffset + recordBytes > segmentBytes) {
+            if (writeSegment - readSegment + 1 >= maxSegments) {
+                return false;
+            }
+            if (writeOffset + 4 <= segmentBytes) {
+                segment(writeSegment).putInt(writeOffset, 0);
+            }
+            writeSegment++;
+            writeOffset = 0;
+        }
+        MappedByteBuffer buffer = segment(writeSegment);
+        buffer.put(writeOffset + RECORD_HEADER, payload);
+        buffer.putInt(writeOffset + 4, checksum(payload));
+        // length goes last so a torn write is seen as end-of-data on recovery
+        buffer.putInt(writeOffset, payload.length);
+        writeOffset += recordBytes;
+        return true;
+    }
+
+    /**
+     * Returns up to {@code max} records from the read position without consuming them.
+     */
+    public synchronized List<byte[]> peek(int max) {
+        peekedEnds.clear();
+        List<byte[]> records = new ArrayList<>();
+        long segment = readSegment;
+        int offset = readOffset;
+
+        while (records.size() < max) {
+            if (segment == writeSegment && offset >= writeOffset) {
+                break;
+            }
+            MappedByteBuffer buffer = segment(segment);
+            int length = offset + RECORD_HEADER <= segmentBytes ? buffer.getInt(offset) : 0;
+            if (length <= 0 || offset + RECORD_HEADER + length > segmentBytes) {
+                if (segment == writeSegment) {
+                    break;
+                }
+                segment++;
+                offset = 0;
+                peekedEnds.add(new long[]{segment, offset, records.size()});
+                continue;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + RECORD_HEADER, payload);
+            if (checksum(payload) != buffer.getInt(offset + 4)) {
+                corruptRecords++;
+                log.warn("Skipping corrupt spool record in {} segment {}", directory, segment);
+            } else {
+                records.add(payload);
+            }
+            offset += RECORD_HEADER + length;
+            peekedEnds.add(new long[]{segment, offset, records.size()});
+        }
+        return records;
+    }
+
+    /**
+     * Consumes the first {@code count} records returned by the last {@link #peek(int)}.
+     */
+    public synchronized void commit(int count) {
+        long[] end = null;
+        for (long[] candidate : peekedEnds) {
+            if (candidate[2] > count) {
+                break;
+            }
+            end = candidate;
+        }
+        peekedEnds.clear();
+        if (end == null) {
+            return;
+        }
+        while (readSegment < end[0]) {
+            release(readSegment++);
+        }
+        readOffset = (int) end[1];
+        cursor.putLong(0, readSegment);
+        cursor.putInt(8, readOffset);
+    }
+
+    public synchronized boolean isEmpty() {
+        return readSegment == writeSegment && readOffset >= writeOffset;
+    }
+
+    /**
+     * Approximate number of bytes appended but not yet committed.
+     */
+    public synchronized long pendingBytes() {
+        return (writeSegment - readSegment) * segmentBytes + writeOffset - readOffset;
+    }
+
+    public synchronized long corruptRecords() {
+        return corruptRecords;
+    }
+
+    public synchronized void flush() {
+        segments.values().stream().filter(Objects::nonNull).forEach(MappedByteBuffer::force);
+        cursor.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        segments.clear();
+    }
+
+    private void recover() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .forEach(index -> segments.put(index, null));
+        }
+        readSegment = cursor.getLong(0);
+        readOffset = cursor.getInt(8);
+        if (segments.isEmpty()) {
+            writeSegment = readSegment;
+            readOffset = 0;
+            writeOffset = 0;
+            return;
+        }
+        // segments older than the cursor were drained before a crash interrupted their deletion
+        for (Long stale : new ArrayList<>(segments.headMap(readSegment).keySet())) {
+            release(stale);
+        }
+        if (segments.isEmpty() || segments.firstKey() > readSegment) {
+            readSegment = segments.isEmpty() ? readSegment : segments.firstKey();
+            readOffset = 0;
+        }
+        writeSegment = segments.isEmpty() ? readSegment : segments.lastKey();
+        writeOffset = scanEnd(segment(writeSegment));
+        if (writeSegment == readSegment && readOffset > writeOffset) {
+            readOffset = writeOffset;
+        }
+        log.info("Recovered spool journal {}: segments {}..{}, {} bytes pending",
+                directory, readSegment, writeSegment, pendingBytes());
+    }
+
+    private int scanEnd(MappedByteBuffer buffer) {
+        int offset = 0;
+        while (offset + RECORD_HEADER <= segmentBytes) {
+            int length = buffer.getInt(offset);
+            if (length <= 0 || offset + RECORD_HEADER + length > segmentBytes) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(offset + RECORD_HEADER, payload);
+            if (checksum(payload) != buffer.getInt(offset + 4)) {
+                break;
+            }
+            offset += RECORD_HEADER + length;
+        }
+        return offset;
+    }
+
+    private MappedByteBuffer segment(long index) {
+        MappedByteBuffer buffer = segments.get(index);
+        if (buffer == null) {
+            try {
+                buffer = map(segmentPath(index), segmentBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map spool segment " + index, e);
+            }
+            segments.put(index, buffer);
+        }
+        return buffer;
+    }
+
+    private void release(long index) {
+        segments.remove(index);
+        try {
+            Files.deleteIfExists(segmentPath(index));
+        } catch (IOException e) {
+            log.warn("Could not delete drained spool segment {}: {}", segmentPath(index), e.getMessage());
+        }
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private static int checksum(byte[] payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.esewa.javabackend.controller;
 
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
 import com.esewa.javabackend.dto.InteractionDTO;
 import com.esewa.javabackend.dto.aiml.EmbeddingDTO;
 import com.esewa.javabackend.dto.aiml.MLResponseDTO;
+import com.esewa.javabackend.dto.aiml.TasteProfileDTO;
 import com.esewa.javabackend.enums.*;
 import com.esewa.javabackend.module.AIML.Embedding;
 import com.esewa.javabackend.service.AIML.EmbeddingService;
 import com.esewa.javabackend.service.AIML.InteractionService;
 import com.esewa.javabackend.service.AIML.MLBackendService;
+import com.esewa.javabackend.service.AIML.TasteProfileService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,6 +33,8 @@ public class AIMLController {
     private final InteractionService interactionService;
     private final EmbeddingService embeddingService;
     private final MLBackendService mlBackendService;
+    private final TasteProfileService tasteProfileService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/interactions")
     public ResponseEntity<InteractionDTO> logInteraction(
@@ -39,16 +51,43 @@ public class AIMLController {
 
     }
 
+    // Streams the table as a JSON array row by row instead of building the whole list in memory
     @GetMapping("/getAllInteraction")
-    public ResponseEntity<List<InteractionDTO>> getAllInteraction() {
-        return ResponseEntity.ok(interactionService.allInteraction());
+    public ResponseEntity<StreamingResponseBody> getAllInteraction() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                interactionService.streamAllInteractions(dto -> {
+                    try {
+                        objectMapper.writeValue(generator, dto);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
-    // @GetMapping("/interactions/{userId}")
-    // public ResponseEntity<List<Interaction>> getInteractionsByUser(@PathVariable
-    // Integer userId) {
-    // return ResponseEntity.ok(interactionService.getInteractionsByUser(userId));
-    // }
+    @GetMapping("/interactions/{userId}")
+    public ResponseEntity<CursorPageResponse<InteractionDTO>> getInteractionsByUser(
+            @PathVariable Integer userId,
+            @RequestParam(defaultValue = "SAVE") InteractionAction action,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(interactionService.getInteractionsPage(userId, action, cursor, size));
+    }
+
+    @GetMapping("/interactions/{userId}/summary")
+    public ResponseEntity<Map<InteractionAction, Long>> getInteractionSummary(@PathVariable Integer userId) {
+        return ResponseEntity.ok(interactionService.getInteractionSummary(userId));
+    }
+
+    @GetMapping("/taste-profile/{userId}")
+    public ResponseEntity<TasteProfileDTO> getTasteProfile(@PathVariable Integer userId) {
+        return ResponseEntity.ok(tasteProfileService.getProfile(userId));
+    }
 
     @PostMapping("/embeddings")
     public ResponseEntity<Embedding> createOrUpdateEmbedding(
@@ -94,8 +133,12 @@ public class AIMLController {
             @RequestParam(required = false) List<Integer> excludeRecipeIds,
             @RequestParam(required = false) Map<String, Object> filters) {
 
+        // explicit filters win; the taste profile fills in whatever the caller left out
+        Map<String, Object> mergedFilters = filters != null ? new HashMap<>(filters) : new HashMap<>();
+        tasteProfileService.recommendationFilters(userId).forEach(mergedFilters::putIfAbsent);
+
         MLResponseDTO.RecipeRecommendationResponse response = mlBackendService.getRecommendations(userId, topK,
-                excludeRecipeIds, filters);
+                excludeRecipeIds, mergedFilters);
 
         return ResponseEntity.ok(response);
     }
@@ -1,6 +1,5 @@
 package com.esewa.javabackend.controller;
 
-import com.esewa.javabackend.dto.InteractionDTO;
 import com.esewa.javabackend.dto.RecipeDTO;
 import com.esewa.javabackend.dto.UserDTO.FollowDTO;
 import com.esewa.javabackend.dto.UserDTO.UserResponseDTO;
@@ -53,9 +52,7 @@ public class AIMLDataController {
                 .recipes(recipeService.findAllRecipes().stream()
                         .filter(RecipeDTO::isNew)
                         .toList())
-                .interactions(interactionService.allInteraction().stream()
-                        .filter(InteractionDTO::isNew)
-                        .toList())
+                .interactions(interactionService.newInteractions())
                 .follows(followService.getAllFollows().stream()
                         .filter(FollowDTO::isNew)
                         .toList())
@@ -0,0 +1,69 @@
+package com.esewa.javabackend.controller;
+
+import com.esewa.javabackend.dto.MessageDTO;
+import com.esewa.javabackend.service.ChatRealtimeService;
+import com.esewa.javabackend.service.MessageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+import java.security.Principal;
+
+/**
+ * STOMP endpoints under {@code /app}; the connected user comes from the CONNECT frame.
+ * Results reach clients as events on {@code /user/queue/chat}.
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class ChatSocketController {
+
+    private final MessageService messageService;
+    private final ChatRealtimeService realtimeService;
+
+    // same as POST /api/messages/send; the stored message is pushed to both participants
+    @MessageMapping("/chat.send")
+    public void send(Principal principal, @Payload MessageDTO payload) {
+        if (payload.getReceiverId() == null || payload.getBody() == null) {
+            throw new IllegalArgumentException("receiverId and body are required");
+        }
+        messageService.sendMessage(userId(principal), payload.getReceiverId(), payload.getBody());
+    }
+
+    @MessageMapping("/chat.typing")
+    public void typing(Principal principal, @Payload MessageDTO payload) {
+        if (payload.getReceiverId() != null) {
+            realtimeService.typing(userId(principal), payload.getReceiverId());
+        }
+    }
+
+    @MessageMapping("/chat.read")
+    public void read(Principal principal, @Payload MessageDTO payload) {
+        if (payload.getReceiverId() != null) {
+            messageService.markMessagesBetweenUsersAsRead(userId(principal), payload.getReceiverId());
+        }
+    }
+
+    // e.g. messaging someone you do not follow; only the offending session is told
+    @MessageExceptionHandler({IllegalArgumentException.class, IllegalStateException.class})
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public String handleError(RuntimeException e) {
+        return e.getMessage();
+    }
+
+    // anything else may carry internals (SQL, class names) in its message
+    @MessageExceptionHandler
+    @SendToUser(destinations = "/queue/errors", broadcast = false)
+    public String handleUnexpected(Exception e) {
+        log.error("Chat socket request failed", e);
+        return "Something went wrong";
+    }
+
+    private static Integer userId(Principal principal) {
+        return Integer.valueOf(principal.getName());
+    }
+}
@@ -15,12 +15,15 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/follow")
 @RequiredArgsConstructor
 public class FollowController extends BaseController {
 
+        private static final int MAX_BULK_CHECK = 500;
+
         private final FollowService followService;
 
         // --- Follow a user ---
@@ -92,6 +95,22 @@ public class FollowController extends BaseController {
                                 "Follow status checked"));
         }
 
+        // --- Check which of several users the follower follows ---
+        @GetMapping("/check/bulk")
+        public ResponseEntity<GlobalApiResponse<Map<Integer, Boolean>>> isFollowingEach(
+                        @RequestParam Integer followerId,
+                        @RequestParam List<Integer> followeeIds) {
+                if (followeeIds.size() > MAX_BULK_CHECK) {
+                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                                        .body(errorResponse("At most " + MAX_BULK_CHECK + " users can be checked at once",
+                                                        HttpStatus.BAD_REQUEST));
+                }
+                return ResponseEntity.ok(successResponse(
+                                followService.isFollowingEach(followerId, followeeIds),
+                                Messages.SUCCESS,
+                                "Follow statuses checked"));
+        }
+
         @GetMapping("/isMutual")
         public ResponseEntity<GlobalApiResponse<Boolean>> isMutual(
                         @RequestParam Integer followerId,
@@ -0,0 +1,88 @@
+package com.esewa.javabackend.controller;
+
+import com.esewa.javabackend.dto.GroupDTO;
+import com.esewa.javabackend.dto.MessageDTO;
+import com.esewa.javabackend.dto.MessageHistoryDTO;
+import com.esewa.javabackend.service.GroupChatService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/groups")
+@RequiredArgsConstructor
+public class GroupChatController {
+
+    private final GroupChatService groupChatService;
+
+    // Creates a group owned by the current user, who becomes its first member
+    @PostMapping
+    public ResponseEntity<GroupDTO> createGroup(
+            @RequestHeader(value = "X-User-Id", required = false) Integer headerUserId,
+            @RequestBody GroupDTO request) {
+        if (headerUserId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(groupChatService.createGroup(headerUserId, request));
+    }
+
+    @PostMapping("/{groupId}/members")
+    public ResponseEntity<Void> join(
+            @RequestHeader(value = "X-User-Id", required = false) Integer headerUserId,
+            @PathVariable UUID groupId) {
+        if (headerUserId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        groupChatService.join(groupId, headerUserId);
+        return ResponseEntity.ok().build();
+    }
+
+    @DeleteMapping("/{groupId}/members")
+    public ResponseEntity<Void> leave(
+            @RequestHeader(value = "X-User-Id", required = false) Integer headerUserId,
+            @PathVariable UUID groupId) {
+        if (headerUserId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        groupChatService.leave(groupId, headerUserId);
+        return ResponseEntity.ok().build();
+    }
+
+    @PostMapping("/{groupId}/messages")
+    public ResponseEntity<MessageDTO> sendMessage(
+            @RequestHeader(value = "X-User-Id", required = false) Integer headerUserId,
+            @PathVariable UUID groupId,
+            @RequestBody MessageDTO payload) {
+        if (headerUserId == null || payload == null || payload.getBody() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(groupChatService.sendMessage(groupId, headerUserId, payload.getBody()));
+    }
+
+    // Same paging as the direct message history: before=olderCursor, after=newerCursor
+    @GetMapping("/{groupId}/messages")
+    public ResponseEntity<MessageHistoryDTO> getHistory(
+            @RequestHeader(value = "X-User-Id", required = false) Integer headerUserId,
+            @PathVariable UUID groupId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "30") int size) {
+        if (headerUserId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(groupChatService.getHistory(groupId, headerUserId, before, after, size));
+    }
+
+    @PutMapping("/{groupId}/read")
+    public ResponseEntity<Void> markRead(
+            @RequestHeader(value = "X-User-Id", required = false) Integer headerUserId,
+            @PathVariable UUID groupId) {
+        if (headerUserId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        groupChatService.markRead(groupId, headerUserId);
+        return ResponseEntity.ok().build();
+    }
+}
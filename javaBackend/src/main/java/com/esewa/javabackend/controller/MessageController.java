@@ -1,15 +1,22 @@
 package com.esewa.javabackend.controller;
 
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
 import com.esewa.javabackend.dto.ChatDTO;
 import com.esewa.javabackend.dto.ConversationPreviewDTO;
 import com.esewa.javabackend.dto.MessageDTO;
+import com.esewa.javabackend.dto.MessageHistoryDTO;
+import com.esewa.javabackend.dto.MessageSearchHitDTO;
 import com.esewa.javabackend.module.Message;
+import com.esewa.javabackend.service.ChatRealtimeService;
+import com.esewa.javabackend.service.MessageSearchService;
 import com.esewa.javabackend.service.MessageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/messages")
@@ -17,6 +24,8 @@ import java.util.List;
 public class MessageController {
 
     private final MessageService messageService;
+    private final ChatRealtimeService chatRealtimeService;
+    private final MessageSearchService messageSearchService;
 
     @PostMapping("/send")
     public ResponseEntity<MessageDTO> sendMessage(
@@ -50,11 +59,57 @@ public class MessageController {
         return ResponseEntity.ok(messageService.getMessagesBetweenUsers(currentUserId, otherUserId));
     }
 
+    // Paginated history with the current user, newest first; scroll back with before=olderCursor,
+    // fetch new messages with after=newerCursor
+    @GetMapping("/{otherUserId}/history")
+    public ResponseEntity<MessageHistoryDTO> getChatHistory(
+            @RequestHeader(value = "X-User-Id", required = false) Integer headerUserId,
+            @PathVariable Integer otherUserId,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "30") int size) {
+        if (headerUserId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(messageService.getMessageHistory(headerUserId, otherUserId, before, after, size));
+    }
+
+    // Full-text search over the current user's conversations, newest match first, e.g.
+    // GET /api/messages/search?q="paneer tikka" -spicy&with=42; pass nextCursor back for more.
+    // Archived messages of idle conversations are not searched
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageResponse<MessageSearchHitDTO>> searchMessages(
+            @RequestHeader(value = "X-User-Id", required = false) Integer headerUserId,
+            @RequestParam("q") String query,
+            @RequestParam(value = "with", required = false) Integer otherUserId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        if (headerUserId == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(messageSearchService.search(headerUserId, query, otherUserId, cursor, size));
+    }
+
+    // Online status of the given users, e.g. GET /api/messages/presence?userIds=1,2,3
+    @GetMapping("/presence")
+    public ResponseEntity<Map<Integer, Boolean>> getPresence(@RequestParam List<Integer> userIds) {
+        return ResponseEntity.ok(chatRealtimeService.onlineStatus(userIds));
+    }
+
     @GetMapping("/conversations/{userId}")
     public ResponseEntity<List<ConversationPreviewDTO>> getUserInbox(@PathVariable Integer userId) {
         return ResponseEntity.ok(messageService.getUserConversations(userId));
     }
 
+    // Cursor-paginated inbox, most recent conversation first; pass nextCursor back for the following page
+    @GetMapping("/conversations/{userId}/page")
+    public ResponseEntity<CursorPageResponse<ConversationPreviewDTO>> getUserInboxPage(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(messageService.getUserConversationsPage(userId, cursor, size));
+    }
+
     // Frontend calls PUT /api/messages/read/{otherUserId} with X-User-Id header set
     // to current user
     @PutMapping("/read/{otherUserId}")
@@ -67,4 +122,16 @@ public class MessageController {
         messageService.markMessagesBetweenUsersAsRead(currentUserId, otherUserId);
         return ResponseEntity.ok().build();
     }
+
+    // Read receipt: newest message id the other user has read in the conversation
+    @GetMapping("/read/{otherUserId}")
+    public ResponseEntity<Map<String, Integer>> getReadReceipt(
+            @RequestHeader(value = "X-User-Id", required = false) Integer headerUserId,
+            @PathVariable Integer otherUserId) {
+        if (headerUserId == null)
+            return ResponseEntity.badRequest().build();
+        Map<String, Integer> receipt = new HashMap<>();
+        receipt.put("lastReadMessageId", messageService.getLastReadMessageId(headerUserId, otherUserId));
+        return ResponseEntity.ok(receipt);
+    }
 }
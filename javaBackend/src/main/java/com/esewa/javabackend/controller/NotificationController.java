@@ -1,14 +1,24 @@
 package com.esewa.javabackend.controller;
 
 
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
 import com.esewa.javabackend.dto.NotificationDTO;
-import com.esewa.javabackend.module.Notification;
+import com.esewa.javabackend.service.NotificationPushService;
 import com.esewa.javabackend.service.NotificationService;
+import com.esewa.javabackend.service.RecipeFanoutService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -16,6 +26,9 @@ import java.util.List;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationPushService notificationPushService;
+    private final RecipeFanoutService recipeFanoutService;
+    private final ObjectMapper objectMapper;
 
     // Get all notifications for a user
     @GetMapping("/{userId}")
@@ -24,6 +37,38 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
 
+    // Cursor-paginated feed, newest first; pass nextCursor back for the following page
+    @GetMapping("/{userId}/page")
+    public ResponseEntity<CursorPageResponse<NotificationDTO>> getNotificationsPage(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        return ResponseEntity.ok(notificationService.getNotificationsPage(userId, unreadOnly, cursor, size));
+    }
+
+    // New recipes from followed authors with too many followers to fan out; merge into the feed client-side
+    @GetMapping("/{userId}/followed-recipes")
+    public ResponseEntity<List<NotificationDTO>> getFollowedRecipes(
+            @PathVariable Integer userId,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(recipeFanoutService.pullFeed(userId, size));
+    }
+
+    // Unread badge; served from a cached counter
+    @GetMapping("/{userId}/unread/count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(@PathVariable Integer userId) {
+        return ResponseEntity.ok(Map.of("unreadCount", notificationService.getUnreadCount(userId)));
+    }
+
+    // Live stream of new notifications (SSE); reconnecting clients resume after Last-Event-ID
+    @GetMapping(value = "/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(
+            @PathVariable Integer userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationPushService.subscribe(userId, lastEventId);
+    }
+
     // Get unread notifications for a user
     @GetMapping("/{userId}/unread")
     public ResponseEntity<List<NotificationDTO>> getUnreadNotifications(@PathVariable Integer userId) {
@@ -45,8 +90,44 @@ public class NotificationController {
         return ResponseEntity.ok("All notifications marked as read");
     }
 
+    // Mark everything at or older than the given notification (in feed order) as read
+    @PutMapping("/{userId}/read-up-to/{notificationId}")
+    public ResponseEntity<String> markReadUpTo(@PathVariable Integer userId, @PathVariable Integer notificationId) {
+        int updated = notificationService.markReadUpTo(userId, notificationId);
+        return ResponseEntity.ok(updated + " notifications marked as read");
+    }
+
+    // Bulk delete, e.g. DELETE /api/notifications/5?ids=1,2,3
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<String> deleteNotifications(@PathVariable Integer userId, @RequestParam List<Integer> ids) {
+        int deleted = notificationService.deleteNotifications(userId, ids);
+        return ResponseEntity.ok(deleted + " notifications deleted");
+    }
+
+    @DeleteMapping("/{userId}/read")
+    public ResponseEntity<String> deleteReadNotifications(@PathVariable Integer userId) {
+        int deleted = notificationService.deleteReadNotifications(userId);
+        return ResponseEntity.ok(deleted + " notifications deleted");
+    }
+
+    // Admin export as a streamed JSON array in id order; request the next page with afterId = last id received
     @GetMapping("/all")
-    public ResponseEntity<List<NotificationDTO>> allNotifications() {
-        return ResponseEntity.ok(notificationService.allNotifications());
+    public ResponseEntity<StreamingResponseBody> exportNotifications(
+            @RequestParam(defaultValue = "0") Integer afterId,
+            @RequestParam(defaultValue = "10000") int limit) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                notificationService.exportNotifications(afterId, limit, dto -> {
+                    try {
+                        objectMapper.writeValue(generator, dto);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 }
@@ -72,7 +72,7 @@ public class RecipeReactionController extends BaseController {
           notificationProducer.sendNotification(NotificationEvent.builder()
               .senderId(user.getId())
               .receiverId(recipe.getAuthor().getId())
-              .type(NotificationType.POST_REACTION)
+              .type(NotificationType.RECIPE_REACTION)
               .message(user.getUsername() + " " + reactionType.toLowerCase() + "d your recipe")
               .referenceId(recipe.getId())
               .build());
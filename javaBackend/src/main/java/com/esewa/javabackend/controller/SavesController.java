@@ -3,6 +3,8 @@ package com.esewa.javabackend.controller;
 import com.esewa.javabackend.controller.Base.BaseController;
 import com.esewa.javabackend.dto.InteractionDTO;
 import com.esewa.javabackend.dto.Base.GlobalApiResponse;
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
+import com.esewa.javabackend.enums.InteractionAction;
 import com.esewa.javabackend.enums.Messages;
 import com.esewa.javabackend.service.AIML.InteractionService;
 import com.esewa.javabackend.service.LocalSaveService;
@@ -75,6 +77,17 @@ public class SavesController extends BaseController {
     }
   }
 
+  // Cursor-paginated saves, newest first; pass nextCursor back to load the next page
+  @GetMapping("/{userId}/page")
+  public ResponseEntity<GlobalApiResponse<CursorPageResponse<InteractionDTO>>> getSavedPageByUser(
+      @PathVariable Integer userId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "20") int size) {
+    CursorPageResponse<InteractionDTO> page = interactionService.getInteractionsPage(userId, InteractionAction.SAVE,
+        cursor, size);
+    return ResponseEntity.ok(successResponse(page, Messages.SUCCESS, "Saved items fetched"));
+  }
+
   @PostMapping("")
   public ResponseEntity<GlobalApiResponse<InteractionDTO>> saveResource(
       @RequestBody(required = false) java.util.Map<String, Object> body,
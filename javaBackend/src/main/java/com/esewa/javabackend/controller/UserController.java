@@ -8,6 +8,7 @@ import com.esewa.javabackend.dto.UserDTO.UserRequestDTO;
 import com.esewa.javabackend.dto.UserDTO.UserResponseDTO;
 import com.esewa.javabackend.enums.Messages;
 import com.esewa.javabackend.service.MediaService;
+import com.esewa.javabackend.service.UserActivityTracker;
 import com.esewa.javabackend.service.UserService;
 import com.esewa.javabackend.utils.SearchFilter;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -17,6 +18,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -25,10 +27,13 @@ public class UserController extends BaseController {
 
     private final UserService userService;
     private final MediaService mediaService;
+    private final UserActivityTracker activityTracker;
 
-    public UserController(UserService userService, MediaService mediaService) {
+    public UserController(UserService userService, MediaService mediaService,
+                          UserActivityTracker activityTracker) {
         this.userService = userService;
         this.mediaService = mediaService;
+        this.activityTracker = activityTracker;
     }
 
     @PostMapping
@@ -63,6 +68,15 @@ public class UserController extends BaseController {
     // picture updated "));
     // }
 
+    // Online flag and last activity, e.g. GET /api/v1/users/activity?userIds=1,2,3
+    @GetMapping("/activity")
+    public ResponseEntity<GlobalApiResponse<?>> getActivity(@RequestParam List<Integer> userIds) {
+        return ResponseEntity.ok(successResponse(
+                activityTracker.activity(userIds),
+                Messages.SUCCESS,
+                "User activity fetched"));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<GlobalApiResponse<?>> getUser(@PathVariable Integer id) {
         return ResponseEntity.ok(successResponse(
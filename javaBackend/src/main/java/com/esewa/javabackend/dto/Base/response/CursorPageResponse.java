@@ -0,0 +1,21 @@
+package com.esewa.javabackend.dto.Base.response;
+
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. Pass {@code nextCursor} back to get the next page;
+ * it is null when there are no more rows.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageResponse<T> {
+    private List<T> data;
+    private String nextCursor;
+    private boolean hasMore;
+    private int pageSize;
+}
@@ -0,0 +1,37 @@
+package com.esewa.javabackend.dto;
+
+import com.esewa.javabackend.enums.ChatEventType;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * A real-time chat event, relayed between nodes over Redis and delivered to the recipients'
+ * sockets on {@code /user/queue/chat}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatEventDTO {
+
+    private ChatEventType type;
+
+    // users whose sessions receive the event; empty for presence updates
+    private List<Integer> recipientIds;
+
+    // sender, typist, reader, or the user whose presence changed
+    private Integer userId;
+
+    private Integer conversationId;
+
+    // MESSAGE: the message; READ: the reader's new watermark
+    private MessageDTO message;
+    private Integer lastReadMessageId;
+
+    // PRESENCE: users connected to the publishing node, or the user who just left it
+    private List<Integer> onlineUserIds;
+    private boolean online;
+    private String nodeId;
+}
@@ -3,6 +3,7 @@ package com.esewa.javabackend.dto;
 
 import lombok.*;
 import java.time.Instant;
+import java.util.UUID;
 
 @Getter
 @Setter
@@ -16,4 +17,18 @@ public class ConversationPreviewDTO {
     private String lastMessage;
     private Instant lastMessageTime;
     private long unreadCount;
+    private Integer lastMessageId;
+    private Integer lastSenderId;
+
+    // set for group chats instead of the other user
+    private UUID groupId;
+    private String groupName;
+
+    // JPQL constructor projection used by the inbox query (see ConversationMemberRepository)
+    public ConversationPreviewDTO(Integer conversationId, Integer otherUserId, String otherUserName,
+                                  String lastMessage, Instant lastMessageTime, Integer unreadCount,
+                                  Integer lastMessageId, Integer lastSenderId, UUID groupId, String groupName) {
+        this(conversationId, otherUserId, otherUserName, lastMessage != null ? lastMessage : "", lastMessageTime,
+                unreadCount != null ? unreadCount : 0, lastMessageId, lastSenderId, groupId, groupName);
+    }
 }
@@ -10,10 +10,10 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder
 public class GroupDTO {
-    private Integer id;
+    private UUID id;
     private String name;
     private String slug;
     private String description;
-    private UUID ownerId;
+    private Integer ownerId;
     private boolean isPublic;
 }
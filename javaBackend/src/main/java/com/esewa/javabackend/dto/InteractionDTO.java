@@ -24,4 +24,15 @@ public class InteractionDTO {
     private Double value;
     private Instant createdAT;
     private boolean isNew;
+
+    // JPQL constructor projections
+    public InteractionDTO(Integer id, Integer userId, ResourceType resourceType, Integer resourceId,
+                          InteractionAction action, Double value, Instant createdAT) {
+        this(id, userId, resourceType, resourceId, action, value, createdAT, false);
+    }
+
+    public InteractionDTO(Integer id, Integer userId, ResourceType resourceType, Integer resourceId,
+                          InteractionAction action, Double value, Instant createdAT, Boolean isNew) {
+        this(id, userId, resourceType, resourceId, action, value, createdAT, Boolean.TRUE.equals(isNew));
+    }
 }
@@ -19,6 +19,13 @@ public class MessageDTO {
     private String body;
     private Instant sentAt;
     private boolean isRead;
+
+    // JPQL constructor projection used by the history queries (see MessageRepository); read
+    // state is filled in from the viewer's watermark
+    public MessageDTO(Integer id, Integer conversationId, Integer senderId, String senderName, String body,
+                      Instant sentAt) {
+        this(id, conversationId, senderId, senderName, null, body, sentAt, false);
+    }
 }
 
 
@@ -0,0 +1,24 @@
+package com.esewa.javabackend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * One page of a conversation's history, newest message first. Pass {@code olderCursor} as
+ * {@code before} to scroll back and {@code newerCursor} as {@code after} to fetch messages
+ * that arrived since.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageHistoryDTO {
+    private List<MessageDTO> data;
+    private String olderCursor;
+    private String newerCursor;
+    private boolean hasOlder;
+    private boolean hasNewer;
+    private int pageSize;
+}
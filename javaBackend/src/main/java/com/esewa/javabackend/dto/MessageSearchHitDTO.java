@@ -0,0 +1,21 @@
+package com.esewa.javabackend.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MessageSearchHitDTO {
+    private Integer messageId;
+    private Integer conversationId;
+    private Integer senderId;
+    private String senderName;
+    private Instant sentAt;
+
+    // HTML-escaped excerpt of the body with matches wrapped in <mark>...</mark>
+    private String highlight;
+}
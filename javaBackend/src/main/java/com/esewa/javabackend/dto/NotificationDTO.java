@@ -9,6 +9,8 @@ import lombok.NoArgsConstructor;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 
 @Data
 @Builder
@@ -32,6 +34,21 @@ public class NotificationDTO {
 
     private boolean isRead;
 
+    private Integer actorCount;          // > 1 when several actors were coalesced into this notification
+    private List<Integer> sampleActorIds; // most recent actors first
+
     private LocalDateTime createdDate;
+    private LocalDateTime modifiedDate;   // last merge into this aggregate; null until the first
+
+    // JPQL constructor projection (see NotificationRepository); usernames come from the joined users
+    public NotificationDTO(Integer id, Integer senderId, String senderUsername, Integer receiverId,
+                           String receiverUsername, NotificationType type, String message, Integer referenceId,
+                           Boolean isRead, Integer actorCount, int[] sampleActorIds, LocalDateTime createdDate,
+                           LocalDateTime modifiedDate) {
+        this(id, senderId, senderUsername, receiverId, receiverUsername, type, message, referenceId,
+                Boolean.TRUE.equals(isRead), actorCount != null ? actorCount : 1,
+                sampleActorIds != null ? Arrays.stream(sampleActorIds).boxed().toList() : null, createdDate,
+                modifiedDate);
+    }
 }
 
@@ -0,0 +1,21 @@
+package com.esewa.javabackend.dto.UserDTO;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserActivityDTO {
+
+    private Integer userId;
+
+    // has a chat socket open, same as /api/messages/presence
+    private boolean online;
+
+    // null if the user has never been seen
+    private Instant lastActiveAt;
+}
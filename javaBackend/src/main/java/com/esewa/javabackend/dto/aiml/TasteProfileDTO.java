@@ -0,0 +1,24 @@
+package com.esewa.javabackend.dto.aiml;
+
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Decayed taste affinities of a user, strongest first within each dimension.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TasteProfileDTO {
+    private Integer userId;
+    private Instant updatedAt;
+    private Map<String, Float> cuisines;
+    private Map<String, Float> dietaryTypes;
+    private Map<String, Float> tags;
+    private Map<String, Float> cookTimes;    // quick (<=15m), short (<=30m), medium (<=60m), long
+}
@@ -4,12 +4,15 @@ import com.esewa.javabackend.enums.InteractionAction;
 import com.esewa.javabackend.enums.ResourceType;
 import lombok.*;
 
+import java.util.UUID;
+
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class InteractionEvent {
+    private UUID eventId; // assigned by the producer, used by consumers to drop redeliveries
     private Integer userId;
     private ResourceType resourceType;
     private Integer resourceId;
@@ -3,12 +3,15 @@ package com.esewa.javabackend.dto.event;
 import com.esewa.javabackend.enums.NotificationType;
 import lombok.*;
 
+import java.util.UUID;
+
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class NotificationEvent {
+    private UUID eventId; // assigned by the producer, used by consumers to drop redeliveries
     private Integer senderId;
     private Integer receiverId;
     private NotificationType type;
@@ -0,0 +1,8 @@
+package com.esewa.javabackend.enums;
+
+public enum ChatEventType {
+    MESSAGE,
+    TYPING,
+    READ,
+    PRESENCE
+}
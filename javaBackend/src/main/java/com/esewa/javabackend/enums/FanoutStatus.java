@@ -0,0 +1,8 @@
+package com.esewa.javabackend.enums;
+
+public enum FanoutStatus {
+    PENDING,
+    DONE,
+    PULL,       // author is above the fan-out threshold; followers read the recipe on demand
+    FAILED      // gave up after maxAttempts consecutive failed pages
+}
@@ -6,5 +6,8 @@ public enum NotificationType {
     POST_COMMENT,
     POST_REACTION,
     RECIPE_COMMENT,
-    MESSAGE
+    MESSAGE,
+    NEW_RECIPE,
+    GROUP_MESSAGE,
+    RECIPE_REACTION   // keep new constants last: the binary event format stores ordinals
 }
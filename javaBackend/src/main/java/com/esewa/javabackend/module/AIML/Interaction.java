@@ -16,7 +16,9 @@ import java.util.UUID;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "interactions")
+@Table(name = "interactions", indexes = {
+        @Index(name = "idx_interactions_user_action_created", columnList = "user_id, action, created_at, id")
+})
 public class Interaction {
 
     @Id
@@ -40,6 +42,10 @@ public class Interaction {
     @CreationTimestamp
     private Instant createdAt;
 
+    // producer-assigned event id; the unique constraint rejects Kafka redeliveries
+    @Column(name = "event_id", unique = true)
+    private UUID eventId;
+
     @Column(name = "is_new", nullable = false)
     @Builder.Default
     private Boolean isNew = false;
@@ -0,0 +1,25 @@
+package com.esewa.javabackend.module.AIML;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Dictionary entry mapping a taste feature name (e.g. "cuisine:italian") to the
+ * dense index used in {@link TasteProfile} vectors.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "taste_features")
+public class TasteFeature {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, unique = true, length = 160)
+    private String name;
+}
@@ -0,0 +1,33 @@
+package com.esewa.javabackend.module.AIML;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Sparse per-user affinity vector: parallel arrays of {@link TasteFeature} ids (ascending)
+ * and weights, decayed to {@code updatedAt}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "user_taste_profiles")
+public class TasteProfile {
+
+    @Id
+    @Column(name = "user_id")
+    private Integer userId;
+
+    @Column(name = "feature_ids", columnDefinition = "int4[]", nullable = false)
+    private int[] featureIds;
+
+    @Column(columnDefinition = "float4[]", nullable = false)
+    private float[] weights;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
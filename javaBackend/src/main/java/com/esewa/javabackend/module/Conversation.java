@@ -4,6 +4,7 @@ import com.esewa.javabackend.module.base.AuditingEntity;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.Instant;
 import java.util.List;
 
 @Getter
@@ -12,7 +13,10 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "conversations")
+@Table(name = "conversations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_conversations_direct_pair",
+                columnNames = {"direct_user_low", "direct_user_high"}),
+        indexes = @Index(name = "idx_conversations_last_message_at", columnList = "last_message_at"))
 public class Conversation extends AuditingEntity {
 
     @Id
@@ -30,4 +34,29 @@ public class Conversation extends AuditingEntity {
 
     @OneToMany(mappedBy = "conversation", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Message> messages;
+
+    // Canonical (min, max) user ids of a direct conversation; null for group conversations
+    @Column(name = "direct_user_low")
+    private Integer directUserLow;
+
+    @Column(name = "direct_user_high")
+    private Integer directUserHigh;
+
+    // the group whose chat this is; null for direct conversations
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "group_id", unique = true)
+    private Group group;
+
+    // Denormalized last message for inbox previews, updated on every send
+    @Column(name = "last_message_id")
+    private Integer lastMessageId;
+
+    @Column(name = "last_message_preview", length = 255)
+    private String lastMessagePreview;
+
+    @Column(name = "last_message_at")
+    private Instant lastMessageAt;
+
+    @Column(name = "last_sender_id")
+    private Integer lastSenderId;
 }
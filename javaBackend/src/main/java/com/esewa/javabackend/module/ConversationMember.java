@@ -0,0 +1,54 @@
+package com.esewa.javabackend.module;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A participant's view of a conversation: the inbox sort key, unread count and read
+ * watermark, kept current by {@code MessageService} so the inbox is one indexed query and
+ * marking a conversation read is one row update.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "conversation_members",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"conversation_id", "user_id"}),
+        indexes = @Index(name = "idx_conversation_members_inbox", columnList = "user_id, last_message_at, conversation_id"))
+public class ConversationMember {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "conversation_id")
+    private Conversation conversation;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    // the other participant of a direct conversation
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "peer_id")
+    private User peer;
+
+    @Column(name = "last_message_at")
+    private Instant lastMessageAt;
+
+    @Column(name = "unread_count", nullable = false)
+    private int unreadCount;
+
+    // read watermark: every message of the conversation with an id up to this one has been read
+    @Column(name = "last_read_message_id")
+    private Integer lastReadMessageId;
+
+    // group conversations: newest message the member was notified about while offline
+    @Column(name = "last_notified_message_id")
+    private Integer lastNotifiedMessageId;
+}
@@ -17,7 +17,8 @@ import jakarta.persistence.PrePersist;
 @AllArgsConstructor
 @SuperBuilder
 @Entity
-@Table(name = "follows", uniqueConstraints = @UniqueConstraint(columnNames = { "follower_id", "followee_id" }))
+@Table(name = "follows", uniqueConstraints = @UniqueConstraint(columnNames = { "follower_id", "followee_id" }),
+        indexes = @Index(name = "idx_follows_followee_id", columnList = "followee_id, id"))
 public class Follow extends AuditingEntity {
 
     @Id
@@ -5,7 +5,6 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.Instant;
-import java.util.List;
 
 @Getter
 @Setter
@@ -13,7 +12,8 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "messages")
+@Table(name = "messages",
+        indexes = @Index(name = "idx_messages_conversation_sent", columnList = "conversation_id, sent_at, id"))
 public class Message extends AuditingEntity {
 
     @Id
@@ -32,9 +32,4 @@ public class Message extends AuditingEntity {
     private String body;
 
     private Instant sentAt = Instant.now();
-
-    @ElementCollection
-    @CollectionTable(name = "message_read_by", joinColumns = @JoinColumn(name = "message_id"))
-    @Column(name = "user_id")
-    private List<Integer> readBy;
 }
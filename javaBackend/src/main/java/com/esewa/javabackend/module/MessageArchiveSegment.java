@@ -0,0 +1,50 @@
+package com.esewa.javabackend.module;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A run of consecutive messages of one conversation moved out of the live table by the
+ * archival job, stored as a gzip-compressed JSON array. Segments are only ever appended.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "message_archive_segments", indexes = {
+        @Index(name = "idx_message_archive_conversation", columnList = "conversation_id, min_message_id")
+})
+public class MessageArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "conversation_id", nullable = false)
+    private Integer conversationId;
+
+    @Column(name = "message_count", nullable = false)
+    private Integer messageCount;
+
+    @Column(name = "min_message_id", nullable = false)
+    private Integer minMessageId;
+
+    @Column(name = "max_message_id", nullable = false)
+    private Integer maxMessageId;
+
+    @Column(name = "oldest_sent_at")
+    private Instant oldestSentAt;
+
+    @Column(name = "newest_sent_at")
+    private Instant newestSentAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+}
@@ -7,6 +7,7 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
 @Getter
@@ -14,7 +15,9 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_notifications_receiver_created", columnList = "receiver_id, created_date, id")
+})
 public class Notification extends AuditingEntity {
 
     @Id
@@ -39,6 +42,17 @@ public class Notification extends AuditingEntity {
 
     private Boolean isRead = false;
 
+    // coalesced notifications: how many distinct actors this row stands for, and the most recent few
+    @Column(name = "actor_count")
+    private Integer actorCount;
+
+    @Column(name = "sample_actor_ids", columnDefinition = "int4[]")
+    private int[] sampleActorIds;
+
+    // producer-assigned event id; the unique constraint rejects Kafka redeliveries
+    @Column(name = "event_id", unique = true)
+    private UUID eventId;
+
 
 
 }
@@ -0,0 +1,51 @@
+package com.esewa.javabackend.module;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * A batch of notifications removed from the live table by the retention job, stored as a
+ * gzip-compressed JSON array.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "notification_archive_chunks", indexes = {
+        @Index(name = "idx_notification_archive_archived_at", columnList = "archived_at")
+})
+public class NotificationArchiveChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String reason;             // "ttl:<TYPE>" or "compaction"
+
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+
+    @Column(name = "min_notification_id", nullable = false)
+    private Integer minNotificationId;
+
+    @Column(name = "max_notification_id", nullable = false)
+    private Integer maxNotificationId;
+
+    @Column(name = "oldest_created_date")
+    private LocalDateTime oldestCreatedDate;
+
+    @Column(name = "newest_created_date")
+    private LocalDateTime newestCreatedDate;
+
+    @Column(name = "archived_at", nullable = false)
+    private Instant archivedAt;
+
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] payload;
+}
@@ -0,0 +1,47 @@
+package com.esewa.javabackend.module;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * One digest run over the notifications created in [windowStart, windowEnd). Users are
+ * processed in receiver-id order and {@code lastReceiverId} is checkpointed, so an
+ * interrupted run resumes instead of mailing everyone again.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "notification_digest_runs")
+public class NotificationDigestRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "window_start", nullable = false)
+    private LocalDateTime windowStart;
+
+    @Column(name = "window_end", nullable = false)
+    private LocalDateTime windowEnd;
+
+    @Column(name = "last_receiver_id", nullable = false)
+    private Integer lastReceiverId;
+
+    @Column(name = "digests_sent", nullable = false)
+    private Integer digestsSent;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+}
@@ -0,0 +1,55 @@
+package com.esewa.javabackend.module;
+
+import com.esewa.javabackend.enums.FanoutStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Progress of notifying an author's followers about a new recipe. {@code lastFollowId} is the
+ * keyset position in {@code follows}, so a job resumes where it stopped after a restart.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "recipe_fanout_jobs", indexes = {
+        @Index(name = "idx_recipe_fanout_jobs_status", columnList = "status, id")
+})
+public class RecipeFanoutJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Integer recipeId;
+
+    @Column(name = "author_id", nullable = false)
+    private Integer authorId;
+
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private FanoutStatus status;
+
+    @Column(name = "last_follow_id", nullable = false)
+    private Integer lastFollowId;
+
+    @Column(nullable = false)
+    private Integer delivered;
+
+    // consecutive failed pages; reset by every page that commits
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
@@ -6,7 +6,6 @@ import com.esewa.javabackend.module.base.AuditingEntity;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
 import java.util.*;
@@ -57,7 +56,8 @@ public class User extends AuditingEntity {
     @Enumerated(EnumType.STRING)
     private Privacy privacySettings;
 
-    @UpdateTimestamp
+    // maintained by UserActivityTracker; entity saves must not overwrite it
+    @Column(updatable = false)
     private Instant lastActiveAt;
 
     private boolean verified;
@@ -0,0 +1,86 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import com.esewa.javabackend.dto.ConversationPreviewDTO;
+import com.esewa.javabackend.module.ConversationMember;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ConversationMemberRepository extends JpaRepository<ConversationMember, Integer> {
+
+    // Inbox pages are served by idx_conversation_members_inbox (user_id, last_message_at, conversation_id);
+    // the last message itself is read from the conversation row.
+    String SELECT_PREVIEW = "SELECT new com.esewa.javabackend.dto.ConversationPreviewDTO(c.id, p.id, p.username, " +
+            "c.lastMessagePreview, m.lastMessageAt, m.unreadCount, c.lastMessageId, c.lastSenderId, g.id, g.name) " +
+            "FROM ConversationMember m JOIN m.conversation c LEFT JOIN m.peer p LEFT JOIN c.group g ";
+
+    @Query(SELECT_PREVIEW + "WHERE m.user.id = :userId AND m.lastMessageAt IS NOT NULL " +
+            "ORDER BY m.lastMessageAt DESC, c.id DESC")
+    List<ConversationPreviewDTO> findInboxPage(@Param("userId") Integer userId, Pageable pageable);
+
+    @Query(SELECT_PREVIEW + "WHERE m.user.id = :userId AND m.lastMessageAt IS NOT NULL " +
+            "AND (m.lastMessageAt < :lastMessageAt OR (m.lastMessageAt = :lastMessageAt AND c.id < :conversationId)) " +
+            "ORDER BY m.lastMessageAt DESC, c.id DESC")
+    List<ConversationPreviewDTO> findInboxPageBefore(@Param("userId") Integer userId,
+                                                     @Param("lastMessageAt") Instant lastMessageAt,
+                                                     @Param("conversationId") Integer conversationId,
+                                                     Pageable pageable);
+
+    /**
+     * Moves the conversation to the top of every member's inbox and counts the message as
+     * unread for everyone but the sender, whose watermark moves to the message.
+     *
+     * @return number of member rows updated; 0 means the conversation has no members yet
+     */
+    @Modifying
+    @Query("UPDATE ConversationMember m SET m.lastMessageAt = :sentAt, " +
+            "m.unreadCount = CASE WHEN m.user.id = :senderId THEN 0 ELSE m.unreadCount + 1 END, " +
+            "m.lastReadMessageId = CASE WHEN m.user.id = :senderId THEN :messageId ELSE m.lastReadMessageId END " +
+            "WHERE m.conversation.id = :conversationId")
+    int recordMessage(@Param("conversationId") Integer conversationId,
+                      @Param("messageId") Integer messageId,
+                      @Param("senderId") Integer senderId,
+                      @Param("sentAt") Instant sentAt);
+
+    /**
+     * Group variant of {@link #recordMessage}: only the sender's row is touched here, the
+     * other members' rows are brought up to date in coalesced batches (see GroupChatService).
+     */
+    @Modifying
+    @Query("UPDATE ConversationMember m SET m.lastMessageAt = :sentAt, m.unreadCount = 0, " +
+            "m.lastReadMessageId = :messageId " +
+            "WHERE m.conversation.id = :conversationId AND m.user.id = :senderId")
+    int recordOwnMessage(@Param("conversationId") Integer conversationId,
+                         @Param("messageId") Integer messageId,
+                         @Param("senderId") Integer senderId,
+                         @Param("sentAt") Instant sentAt);
+
+    /**
+     * Moves the user's watermark to the conversation's last message.
+     */
+    @Modifying
+    @Query("UPDATE ConversationMember m SET m.unreadCount = 0, m.lastReadMessageId = " +
+            "(SELECT c.lastMessageId FROM Conversation c WHERE c.id = :conversationId) " +
+            "WHERE m.conversation.id = :conversationId AND m.user.id = :userId " +
+            "AND (m.unreadCount <> 0 OR m.lastReadMessageId IS NULL OR m.lastReadMessageId < " +
+            "(SELECT c.lastMessageId FROM Conversation c WHERE c.id = :conversationId))")
+    int markRead(@Param("conversationId") Integer conversationId, @Param("userId") Integer userId);
+
+    @Query("SELECT m.lastReadMessageId FROM ConversationMember m " +
+            "WHERE m.conversation.id = :conversationId AND m.user.id = :userId")
+    Optional<Integer> findLastReadMessageId(@Param("conversationId") Integer conversationId,
+                                            @Param("userId") Integer userId);
+
+    boolean existsByConversationIdAndUserId(Integer conversationId, Integer userId);
+
+    @Query("SELECT m.user.id FROM ConversationMember m WHERE m.conversation.id = :conversationId")
+    List<Integer> findUserIds(@Param("conversationId") Integer conversationId);
+}
@@ -4,9 +4,11 @@ import com.esewa.javabackend.module.Conversation;
 import com.esewa.javabackend.module.User;
 import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,9 +16,24 @@ import java.util.UUID;
 @Repository
 public interface ConversationRepository extends JpaRepository<Conversation, Integer> {
 
-    @Query("SELECT c FROM Conversation c JOIN c.participants p1 JOIN c.participants p2 " +
-            "WHERE p1.id = :user1Id AND p2.id = :user2Id")
-    Optional<Conversation> findBetweenUsers(@Param("user1Id") Integer user1Id, @Param("user2Id") Integer user2Id);
+    // served by uk_conversations_direct_pair; callers pass the pair ordered low, high
+    @Query("SELECT c.id FROM Conversation c WHERE c.directUserLow = :low AND c.directUserHigh = :high")
+    Optional<Integer> findDirectConversationId(@Param("low") Integer low, @Param("high") Integer high);
+
+    // served by uk_conversations_group
+    @Query("SELECT c.id FROM Conversation c WHERE c.group.id = :groupId")
+    Optional<Integer> findGroupConversationId(@Param("groupId") UUID groupId);
+
+    // the last message only moves forward, whatever order concurrent sends commit in
+    @Modifying
+    @Query("UPDATE Conversation c SET c.lastMessageId = :messageId, c.lastMessagePreview = :preview, " +
+            "c.lastMessageAt = :sentAt, c.lastSenderId = :senderId " +
+            "WHERE c.id = :id AND (c.lastMessageId IS NULL OR c.lastMessageId < :messageId)")
+    int recordLastMessage(@Param("id") Integer id,
+                          @Param("messageId") Integer messageId,
+                          @Param("preview") String preview,
+                          @Param("sentAt") Instant sentAt,
+                          @Param("senderId") Integer senderId);
 
     @Query("SELECT DISTINCT c FROM Conversation c " +
             "JOIN FETCH c.participants p " +
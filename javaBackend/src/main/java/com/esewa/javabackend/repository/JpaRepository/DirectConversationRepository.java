@@ -0,0 +1,55 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Race-free creation of direct (two-person) conversations keyed by their canonical user pair.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DirectConversationRepository {
+
+    // a concurrent creator of the same pair wins; the loser inserts nothing and reads its row
+    private static final String INSERT = "INSERT INTO conversations (direct_user_low, direct_user_high, created_date) " +
+            "VALUES (?, ?, ?) ON CONFLICT (direct_user_low, direct_user_high) DO NOTHING RETURNING id";
+
+    private static final String INSERT_PARTICIPANTS = "INSERT INTO conversation_participants (conversation_id, user_id) " +
+            "VALUES (?, ?), (?, ?)";
+
+    private static final String INSERT_MEMBERS = "INSERT INTO conversation_members " +
+            "(conversation_id, user_id, peer_id, unread_count) VALUES (?, ?, ?, 0), (?, ?, ?, 0) " +
+            "ON CONFLICT (conversation_id, user_id) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the conversation of {@code low < high} (or a note-to-self when equal) with its
+     * participants and member rows, unless it already exists.
+     *
+     * @return the new conversation's id, or empty if it already existed
+     */
+    public Optional<Integer> insertIfAbsent(int low, int high) {
+        List<Integer> ids = jdbcTemplate.queryForList(INSERT, Integer.class, low, high,
+                Timestamp.valueOf(LocalDateTime.now()));
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+        Integer id = ids.get(0);
+        if (low == high) {
+            jdbcTemplate.update("INSERT INTO conversation_participants (conversation_id, user_id) VALUES (?, ?)", id, low);
+            jdbcTemplate.update("INSERT INTO conversation_members (conversation_id, user_id, peer_id, unread_count) " +
+                    "VALUES (?, ?, ?, 0)", id, low, low);
+        } else {
+            jdbcTemplate.update(INSERT_PARTICIPANTS, id, low, id, high);
+            jdbcTemplate.update(INSERT_MEMBERS, id, low, high, id, high, low);
+        }
+        return Optional.of(id);
+    }
+}
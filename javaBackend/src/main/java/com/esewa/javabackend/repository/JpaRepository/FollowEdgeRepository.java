@@ -0,0 +1,39 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+
+/**
+ * Streams the whole follow graph as (follower, followee) id pairs, for building the
+ * in-memory follow graph.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FollowEdgeRepository {
+
+    private static final String ALL_EDGES = "SELECT follower_id, followee_id FROM follows";
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @FunctionalInterface
+    public interface EdgeConsumer {
+        void accept(int followerId, int followeeId);
+    }
+
+    public void forEachEdge(EdgeConsumer consumer) {
+        // inside a transaction the driver uses a cursor, so the table is never held in memory at once
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ALL_EDGES);
+            ps.setFetchSize(FETCH_SIZE);
+            return ps;
+        }, rs -> {
+            consumer.accept(rs.getInt(1), rs.getInt(2));
+        }));
+    }
+}
@@ -2,8 +2,11 @@ package com.esewa.javabackend.repository.JpaRepository;
 
 import com.esewa.javabackend.module.Follow;
 import com.esewa.javabackend.module.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -23,4 +26,11 @@ public interface FollowRepository extends JpaRepository<Follow, Integer>, JpaSpe
     List<Follow> findByFollowerId(Integer userId);
 
     boolean existsByFollowerIdAndFolloweeId(Integer followerId, Integer followeeId);
+
+    // Keyset page of a user's followers as (follow id, follower id), served by idx_follows_followee_id
+    @Query("SELECT f.id, f.follower.id FROM Follow f WHERE f.followee.id = :followeeId AND f.id > :afterId " +
+            "AND (f.status IS NULL OR f.status <> com.esewa.javabackend.enums.FollowStatus.BLOCKED) ORDER BY f.id")
+    List<Object[]> findFollowerPage(@Param("followeeId") Integer followeeId,
+                                    @Param("afterId") Integer afterId,
+                                    Pageable pageable);
 }
@@ -0,0 +1,118 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Set-based maintenance of group conversations and their member rows, so no statement here
+ * scales with one round trip per member.
+ */
+@Repository
+@RequiredArgsConstructor
+public class GroupConversationRepository {
+
+    private static final String INSERT = "INSERT INTO conversations (group_id, created_date) VALUES (?, ?) " +
+            "ON CONFLICT (group_id) DO NOTHING RETURNING id";
+
+    // members join with nothing unread: their watermark starts at the current last message
+    private static final String INSERT_MEMBERS = "INSERT INTO conversation_members " +
+            "(conversation_id, user_id, unread_count, last_read_message_id, last_message_at) " +
+            "SELECT c.id, g.user_id, 0, c.last_message_id, c.last_message_at " +
+            "FROM conversations c JOIN group_members g ON g.group_id = c.group_id WHERE c.id = ? " +
+            "ON CONFLICT (conversation_id, user_id) DO NOTHING";
+
+    private static final String INSERT_MEMBER = "INSERT INTO conversation_members " +
+            "(conversation_id, user_id, unread_count, last_read_message_id, last_message_at) " +
+            "SELECT c.id, ?, 0, c.last_message_id, c.last_message_at FROM conversations c WHERE c.id = ? " +
+            "ON CONFLICT (conversation_id, user_id) DO NOTHING";
+
+    private static final String DELETE_MEMBER = "DELETE FROM conversation_members WHERE conversation_id = ? AND user_id = ?";
+
+    // one statement per group: every member's unread count is recounted from their watermark,
+    // capped, so running it twice or on two nodes gives the same result. A row whose watermark
+    // moved since the count was taken is skipped; marking read already zeroed it.
+    private static final String CATCH_UP = "WITH counted AS (SELECT m.id, m.last_read_message_id, " +
+            "c.last_message_at, (SELECT count(*) FROM (SELECT 1 FROM messages msg " +
+            "WHERE msg.conversation_id = m.conversation_id AND msg.id > coalesce(m.last_read_message_id, 0) " +
+            "AND msg.sender_id <> m.user_id LIMIT ?) u) AS unread " +
+            "FROM conversation_members m JOIN conversations c ON c.id = m.conversation_id WHERE c.id = ?) " +
+            "UPDATE conversation_members m SET unread_count = counted.unread, last_message_at = counted.last_message_at " +
+            "FROM counted WHERE m.id = counted.id " +
+            "AND m.last_read_message_id IS NOT DISTINCT FROM counted.last_read_message_id " +
+            "AND (m.unread_count <> counted.unread OR m.last_message_at IS DISTINCT FROM counted.last_message_at)";
+
+    // members with unread messages who have not been notified since they last read
+    private static final String TO_NOTIFY = "SELECT user_id FROM conversation_members " +
+            "WHERE conversation_id = ? AND user_id <> ? AND coalesce(last_read_message_id, 0) < ? " +
+            "AND coalesce(last_notified_message_id, 0) <= coalesce(last_read_message_id, 0)";
+
+    private static final String MARK_NOTIFIED = "UPDATE conversation_members SET last_notified_message_id = ? " +
+            "WHERE conversation_id = ? AND user_id = ANY (?)";
+
+    private static final String GROUP_NAME = "SELECT g.name FROM conversations c JOIN groups g ON g.id = c.group_id " +
+            "WHERE c.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the group's conversation with a member row per current group member, unless it
+     * already exists.
+     *
+     * @return the new conversation's id, or empty if it already existed
+     */
+    public Optional<Integer> insertIfAbsent(UUID groupId) {
+        List<Integer> ids = jdbcTemplate.queryForList(INSERT, Integer.class, groupId,
+                Timestamp.valueOf(LocalDateTime.now()));
+        if (ids.isEmpty()) {
+            return Optional.empty();
+        }
+        jdbcTemplate.update(INSERT_MEMBERS, ids.get(0));
+        return Optional.of(ids.get(0));
+    }
+
+    public void addMember(int conversationId, int userId) {
+        jdbcTemplate.update(INSERT_MEMBER, userId, conversationId);
+    }
+
+    public void removeMember(int conversationId, int userId) {
+        jdbcTemplate.update(DELETE_MEMBER, conversationId, userId);
+    }
+
+    /**
+     * Recounts every member row's unread count from its watermark and moves it up to the
+     * conversation's last message in the inbox.
+     *
+     * @param maxUnread the count stops here
+     * @return number of member rows changed
+     */
+    public int catchUp(int conversationId, int maxUnread) {
+        return jdbcTemplate.update(CATCH_UP, maxUnread, conversationId);
+    }
+
+    /**
+     * Members other than {@code senderId} who have not read up to {@code lastMessageId} and
+     * have not been notified since they last read.
+     */
+    public List<Integer> findToNotify(int conversationId, int lastMessageId, int senderId) {
+        return jdbcTemplate.queryForList(TO_NOTIFY, Integer.class, conversationId, senderId, lastMessageId);
+    }
+
+    public void markNotified(int conversationId, List<Integer> userIds, int messageId) {
+        jdbcTemplate.update(MARK_NOTIFIED, ps -> {
+            ps.setInt(1, messageId);
+            ps.setInt(2, conversationId);
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", userIds.toArray()));
+        });
+    }
+
+    public Optional<String> findGroupName(int conversationId) {
+        return jdbcTemplate.queryForList(GROUP_NAME, String.class, conversationId).stream().findFirst();
+    }
+}
@@ -2,9 +2,21 @@ package com.esewa.javabackend.repository.JpaRepository;
 
 import com.esewa.javabackend.module.GroupMember;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
 
 @Repository
-public interface GroupMemberRepository extends JpaRepository<GroupMember, UUID> {}
+public interface GroupMemberRepository extends JpaRepository<GroupMember, UUID> {
+
+    boolean existsByGroupIdAndUserId(UUID groupId, Integer userId);
+
+    long countByGroupId(UUID groupId);
+
+    @Modifying
+    @Query("DELETE FROM GroupMember m WHERE m.group.id = :groupId AND m.user.id = :userId")
+    int deleteMember(@Param("groupId") UUID groupId, @Param("userId") Integer userId);
+}
@@ -7,4 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.UUID;
 
 @Repository
-public interface GroupRepository extends JpaRepository<Group, UUID> {}
+public interface GroupRepository extends JpaRepository<Group, UUID> {
+
+    boolean existsBySlug(String slug);
+}
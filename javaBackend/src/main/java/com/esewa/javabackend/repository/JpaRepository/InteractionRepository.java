@@ -1,14 +1,70 @@
 package com.esewa.javabackend.repository.JpaRepository;
 
+import com.esewa.javabackend.dto.InteractionDTO;
+import com.esewa.javabackend.enums.InteractionAction;
 import com.esewa.javabackend.module.AIML.Interaction;
 import com.esewa.javabackend.module.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface InteractionRepository extends JpaRepository<Interaction, Integer> {
     List<Interaction> findByUser(User user);
-}
\ No newline at end of file
+
+    boolean existsByEventId(UUID eventId);
+
+    // Projections below read user_id straight from the FK column, so the eager User is never loaded.
+    // Keyset queries are served by idx_interactions_user_action_created (user_id, action, created_at, id).
+
+    @Query("SELECT new com.esewa.javabackend.dto.InteractionDTO(i.id, i.user.id, i.resourceType, i.resourceId, i.action, i.value, i.createdAt) " +
+            "FROM Interaction i WHERE i.user.id = :userId AND i.action = :action " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<InteractionDTO> findPageByUserAndAction(@Param("userId") Integer userId,
+                                                 @Param("action") InteractionAction action,
+                                                 Pageable pageable);
+
+    @Query("SELECT new com.esewa.javabackend.dto.InteractionDTO(i.id, i.user.id, i.resourceType, i.resourceId, i.action, i.value, i.createdAt) " +
+            "FROM Interaction i WHERE i.user.id = :userId AND i.action = :action " +
+            "AND (i.createdAt < :createdAt OR (i.createdAt = :createdAt AND i.id < :id)) " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<InteractionDTO> findPageByUserAndActionBefore(@Param("userId") Integer userId,
+                                                       @Param("action") InteractionAction action,
+                                                       @Param("createdAt") Instant createdAt,
+                                                       @Param("id") Integer id,
+                                                       Pageable pageable);
+
+    @Query("SELECT new com.esewa.javabackend.dto.InteractionDTO(i.id, i.user.id, i.resourceType, i.resourceId, i.action, i.value, i.createdAt) " +
+            "FROM Interaction i WHERE i.user.id = :userId AND i.action = :action " +
+            "ORDER BY i.createdAt DESC, i.id DESC")
+    List<InteractionDTO> findAllByUserAndAction(@Param("userId") Integer userId,
+                                                @Param("action") InteractionAction action);
+
+    @Query("SELECT i.action, COUNT(i) FROM Interaction i WHERE i.user.id = :userId GROUP BY i.action")
+    List<Object[]> countByActionForUser(@Param("userId") Integer userId);
+
+    @Query("SELECT i.user.id FROM Interaction i WHERE i.id = :id")
+    Optional<Integer> findUserIdById(@Param("id") Integer id);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.esewa.javabackend.dto.InteractionDTO(i.id, i.user.id, i.resourceType, i.resourceId, i.action, i.value, i.createdAt, i.isNew) " +
+            "FROM Interaction i ORDER BY i.id")
+    Stream<InteractionDTO> streamAll();
+
+    @Query("SELECT new com.esewa.javabackend.dto.InteractionDTO(i.id, i.user.id, i.resourceType, i.resourceId, i.action, i.value, i.createdAt, i.isNew) " +
+            "FROM Interaction i WHERE i.isNew = true ORDER BY i.id")
+    List<InteractionDTO> findAllNew();
+}
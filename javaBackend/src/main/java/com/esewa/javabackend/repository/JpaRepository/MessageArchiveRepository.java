@@ -0,0 +1,59 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves messages of idle conversations out of the live table for the archival job.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MessageArchiveRepository {
+
+    private static final String FIND_COLD = "SELECT c.id FROM conversations c " +
+            "WHERE c.last_message_at < ? AND c.id > ? " +
+            "AND EXISTS (SELECT 1 FROM messages m WHERE m.conversation_id = c.id) " +
+            "ORDER BY c.id LIMIT ?";
+
+    // oldest first along idx_messages_conversation_sent, without skipping locked rows: every
+    // archived message must stay older than every live one
+    private static final String DELETE_CHUNK = "DELETE FROM messages WHERE id IN (" +
+            "SELECT id FROM messages WHERE conversation_id = ? AND sent_at < ? " +
+            "ORDER BY sent_at, id LIMIT ? FOR UPDATE) " +
+            "RETURNING id, sender_id, body, sent_at";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Conversations with live messages whose last message is older than {@code idleBefore},
+     * in id order after {@code afterId}.
+     */
+    public List<Integer> findColdConversationIds(Instant idleBefore, int afterId, int limit) {
+        return jdbcTemplate.queryForList(FIND_COLD, Integer.class, Timestamp.from(idleBefore), afterId, limit);
+    }
+
+    /**
+     * Deletes up to {@code limit} of the conversation's oldest messages sent before
+     * {@code sentBefore}.
+     *
+     * @return the deleted rows, for archiving, in no particular order
+     */
+    public List<Map<String, Object>> deleteChunk(int conversationId, Instant sentBefore, int limit) {
+        return jdbcTemplate.query(DELETE_CHUNK, (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", rs.getInt("id"));
+            row.put("senderId", rs.getInt("sender_id"));
+            row.put("body", rs.getString("body"));
+            Timestamp sentAt = rs.getTimestamp("sent_at");
+            row.put("sentAt", sentAt != null ? sentAt.toInstant().toEpochMilli() : null);
+            return row;
+        }, conversationId, Timestamp.from(sentBefore), limit);
+    }
+}
@@ -0,0 +1,28 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import com.esewa.javabackend.module.MessageArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface MessageArchiveSegmentRepository extends JpaRepository<MessageArchiveSegment, Long> {
+
+    // segments are appended oldest first, so id order is message order; all served by
+    // idx_message_archive_conversation
+
+    @Query("SELECT s.id FROM MessageArchiveSegment s WHERE s.conversationId = :conversationId ORDER BY s.id DESC")
+    List<Long> findSegmentIdsNewestFirst(@Param("conversationId") Integer conversationId);
+
+    // segments holding a message sent at or before {@code sentAt}, newest first
+    @Query("SELECT s.id FROM MessageArchiveSegment s WHERE s.conversationId = :conversationId " +
+            "AND (s.oldestSentAt IS NULL OR s.oldestSentAt <= :sentAt) ORDER BY s.id DESC")
+    List<Long> findSegmentIdsUpTo(@Param("conversationId") Integer conversationId, @Param("sentAt") Instant sentAt);
+
+    // segments holding a message sent at or after {@code sentAt}, oldest first
+    @Query("SELECT s.id FROM MessageArchiveSegment s WHERE s.conversationId = :conversationId " +
+            "AND s.newestSentAt >= :sentAt ORDER BY s.id ASC")
+    List<Long> findSegmentIdsFrom(@Param("conversationId") Integer conversationId, @Param("sentAt") Instant sentAt);
+}
@@ -1,11 +1,14 @@
 package com.esewa.javabackend.repository.JpaRepository;
 
+import com.esewa.javabackend.dto.MessageDTO;
 import com.esewa.javabackend.module.Message;
 import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,9 +19,38 @@ public interface MessageRepository extends JpaRepository<Message, Integer> {
     @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.sentAt ASC")
     List<Message> findAllByConversationId(@Param("conversationId") Integer conversationId);
 
+    // History reads select MessageDTOs directly and are served by
+    // idx_messages_conversation_sent (conversation_id, sent_at, id).
+    String SELECT_DTO = "SELECT new com.esewa.javabackend.dto.MessageDTO(m.id, m.conversation.id, s.id, s.username, " +
+            "m.body, m.sentAt) FROM Message m JOIN m.sender s ";
+
+    @Query(SELECT_DTO + "WHERE m.conversation.id = :conversationId ORDER BY m.sentAt ASC, m.id ASC")
+    List<MessageDTO> findAllDtosByConversationId(@Param("conversationId") Integer conversationId);
+
+    @Query(SELECT_DTO + "WHERE m.conversation.id = :conversationId ORDER BY m.sentAt DESC, m.id DESC")
+    List<MessageDTO> findLatest(@Param("conversationId") Integer conversationId, Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE m.conversation.id = :conversationId " +
+            "AND (m.sentAt < :sentAt OR (m.sentAt = :sentAt AND m.id < :id)) " +
+            "ORDER BY m.sentAt DESC, m.id DESC")
+    List<MessageDTO> findBefore(@Param("conversationId") Integer conversationId,
+                                @Param("sentAt") Instant sentAt,
+                                @Param("id") Integer id,
+                                Pageable pageable);
+
+    // oldest first, so a page right after the cursor is returned; callers reverse it
+    @Query(SELECT_DTO + "WHERE m.conversation.id = :conversationId " +
+            "AND (m.sentAt > :sentAt OR (m.sentAt = :sentAt AND m.id > :id)) " +
+            "ORDER BY m.sentAt ASC, m.id ASC")
+    List<MessageDTO> findAfter(@Param("conversationId") Integer conversationId,
+                               @Param("sentAt") Instant sentAt,
+                               @Param("id") Integer id,
+                               Pageable pageable);
+
     @Query("SELECT m FROM Message m WHERE m.conversation.id = :conversationId ORDER BY m.sentAt DESC LIMIT 1")
     Optional<Message> findLastMessageByConversationId(@Param("conversationId") Integer conversationId);
 
-    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.id = :conversationId AND :userId NOT IN (SELECT r FROM m.readBy r)")
-    long countUnreadMessages(@Param("conversationId") Integer conversationId, @Param("userId") Integer userId);
+    // unread for a member without a watermark: everything the others sent
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.conversation.id = :conversationId AND m.sender.id <> :userId")
+    long countMessagesFromOthers(@Param("conversationId") Integer conversationId, @Param("userId") Integer userId);
 }
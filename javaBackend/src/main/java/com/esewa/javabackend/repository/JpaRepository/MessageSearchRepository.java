@@ -0,0 +1,78 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import com.esewa.javabackend.dto.MessageSearchHitDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full-text search over {@code messages.body_tsv} (GIN-indexed, see V15), limited to the
+ * conversations the searcher is a member of. Only live messages are searched: history moved
+ * into archive segments by {@code MessageArchiveService} is compressed JSON without an index.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MessageSearchRepository {
+
+    public static final char MATCH_START = '\u0001';
+    public static final char MATCH_END = '\u0002';
+
+    // ts_headline re-parses the whole body, so it runs in the outer query on the page rows only.
+    // Matches are delimited by the control characters MATCH_START / MATCH_END rather than markup,
+    // which are removed from the body first, so the service can escape the excerpt and then
+    // turn only these into tags.
+    private static final String SELECT = "SELECT p.id, p.conversation_id, p.sender_id, u.username, p.sent_at, " +
+            "ts_headline('simple', translate(p.body, chr(1) || chr(2), ''), websearch_to_tsquery('simple', ?), " +
+            "'StartSel=' || chr(1) || ', StopSel=' || chr(2) || ', MaxWords=24, MinWords=8, MaxFragments=2') " +
+            "FROM (SELECT m.id, m.conversation_id, m.sender_id, m.body, m.sent_at FROM messages m " +
+            "JOIN conversation_members cm ON cm.conversation_id = m.conversation_id AND cm.user_id = ? " +
+            "WHERE m.body_tsv @@ websearch_to_tsquery('simple', ?) ";
+
+    private static final String IN_CONVERSATION = "AND m.conversation_id = ? ";
+
+    private static final String BEFORE = "AND (m.sent_at < ? OR (m.sent_at = ? AND m.id < ?)) ";
+
+    private static final String PAGE = "ORDER BY m.sent_at DESC, m.id DESC LIMIT ?) p " +
+            "JOIN users u ON u.id = p.sender_id ORDER BY p.sent_at DESC, p.id DESC";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Newest matches first.
+     *
+     * @param conversationId only search this conversation, or null for all of the user's
+     * @param beforeSentAt   keyset cursor: only matches older than ({@code beforeSentAt}, {@code beforeId}), or null
+     */
+    public List<MessageSearchHitDTO> search(Integer userId, String query, Integer conversationId,
+                                            Instant beforeSentAt, Integer beforeId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT);
+        List<Object> args = new ArrayList<>(List.of(query, userId, query));
+        if (conversationId != null) {
+            sql.append(IN_CONVERSATION);
+            args.add(conversationId);
+        }
+        if (beforeSentAt != null) {
+            Timestamp sentAt = Timestamp.from(beforeSentAt);
+            sql.append(BEFORE);
+            args.add(sentAt);
+            args.add(sentAt);
+            args.add(beforeId);
+        }
+        sql.append(PAGE);
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, i) -> MessageSearchHitDTO.builder()
+                .messageId(rs.getInt(1))
+                .conversationId(rs.getInt(2))
+                .senderId(rs.getInt(3))
+                .senderName(rs.getString(4))
+                .sentAt(rs.getTimestamp(5).toInstant())
+                .highlight(rs.getString(6))
+                .build(), args.toArray());
+    }
+}
@@ -0,0 +1,18 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import com.esewa.javabackend.module.NotificationArchiveChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface NotificationArchiveChunkRepository extends JpaRepository<NotificationArchiveChunk, Long> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM NotificationArchiveChunk c WHERE c.archivedAt < :before")
+    int deleteArchivedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,177 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import com.esewa.javabackend.enums.NotificationType;
+import lombok.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Set-based notification writes that bypass the entity layer.
+ *
+ * {@code notifications} uses identity ids, which keeps Hibernate from batching inserts, so a
+ * consumer batch is written as a single {@code INSERT ... VALUES (...), (...)} statement.
+ * The retention job removes rows in bounded {@code DELETE ... RETURNING} chunks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NotificationBulkRepository {
+
+    // 9 parameters per row keeps a chunk well under PostgreSQL's 32767 bind-parameter limit
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String INSERT = "INSERT INTO notifications " +
+            "(receiver_id, sender_id, type, message, reference_id, is_read, actor_count, sample_actor_ids, event_id, created_date) " +
+            "VALUES ";
+    private static final String ROW = "(?, ?, ?, ?, ?, false, ?, ?, ?, ?)";
+    // redeliveries hit the unique event_id and are skipped
+    private static final String ON_CONFLICT = " ON CONFLICT (event_id) DO NOTHING RETURNING id, event_id";
+
+    private static final String FIRST_ID_SINCE =
+            "SELECT id FROM notifications WHERE created_date >= ? ORDER BY id LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts the rows, skipping any whose event id is already stored. Every row must carry
+     * an event id.
+     *
+     * @return the inserted rows, with {@code id} and {@code createdDate} filled in
+     */
+    public List<Row> insertAll(List<Row> rows) {
+        List<Row> inserted = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += MAX_ROWS_PER_STATEMENT) {
+            insertChunk(rows.subList(from, Math.min(rows.size(), from + MAX_ROWS_PER_STATEMENT)), inserted);
+        }
+        return inserted;
+    }
+
+    private void insertChunk(List<Row> chunk, List<Row> inserted) {
+        Map<UUID, Row> byEventId = new HashMap<>();
+        for (Row row : chunk) {
+            byEventId.put(row.getEventId(), row);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String sql = INSERT + String.join(", ", Collections.nCopies(chunk.size(), ROW)) + ON_CONFLICT;
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            int i = 1;
+            for (Row row : chunk) {
+                Integer[] samples = Arrays.stream(row.getSampleActorIds()).boxed().toArray(Integer[]::new);
+                Array sampleArray = connection.createArrayOf("int4", samples);
+                ps.setInt(i++, row.getReceiverId());
+                ps.setInt(i++, row.getSenderId());
+                ps.setString(i++, row.getType().name());
+                ps.setString(i++, row.getMessage());
+                ps.setObject(i++, row.getReferenceId());
+                ps.setInt(i++, row.getActorCount());
+                ps.setArray(i++, sampleArray);
+                ps.setObject(i++, row.getEventId());
+                ps.setTimestamp(i++, Timestamp.valueOf(now));
+            }
+            return ps;
+        }, rs -> {
+            Row row = byEventId.get(rs.getObject("event_id", UUID.class));
+            if (row != null) {
+                row.setId(rs.getInt("id"));
+                row.setCreatedDate(now);
+                inserted.add(row);
+            }
+        });
+    }
+
+    /**
+     * The lowest notification id created at or after {@code since}, or {@code null} if there is
+     * none. Ids follow creation order, so every row a retention pass with this cutoff can delete
+     * lies below it.
+     */
+    public Integer firstIdCreatedSince(LocalDateTime since) {
+        List<Integer> ids = jdbcTemplate.queryForList(FIRST_ID_SINCE, Integer.class, Timestamp.valueOf(since));
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    /**
+     * Deletes up to {@code limit} notifications of {@code type} last touched before
+     * {@code before}, with ids in {@code (afterId, belowId)}. An aggregate that absorbed new
+     * actors counts from its last update, not from its first actor.
+     *
+     * @return the deleted rows, for archiving
+     */
+    public List<Map<String, Object>> deleteExpired(NotificationType type, LocalDateTime before,
+                                                   int afterId, int belowId, int limit) {
+        return deleteChunk("type = ? AND COALESCE(modified_date, created_date) < ?", afterId, belowId, limit,
+                type.name(), Timestamp.valueOf(before));
+    }
+
+    /**
+     * Deletes up to {@code limit} read notifications created before {@code before}, with ids in
+     * {@code (afterId, belowId)}.
+     *
+     * @return the deleted rows, for archiving
+     */
+    public List<Map<String, Object>> deleteRead(LocalDateTime before, int afterId, int belowId, int limit) {
+        return deleteChunk("is_read = true AND created_date < ?", afterId, belowId, limit,
+                Timestamp.valueOf(before));
+    }
+
+    // Walks the primary key, which tracks created_date, between the previous chunk's last id and
+    // the first id past the cutoff, so no chunk rescans kept rows or walks on into recent ones.
+    // SKIP LOCKED leaves rows being updated by users alone.
+    private List<Map<String, Object>> deleteChunk(String predicate, int afterId, int belowId, int limit,
+                                                  Object... predicateArgs) {
+        String sql = "DELETE FROM notifications WHERE id IN (" +
+                "SELECT id FROM notifications WHERE id > ? AND id < ? AND " + predicate +
+                " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                "RETURNING id, receiver_id, sender_id, type, message, reference_id, is_read, actor_count, " +
+                "sample_actor_ids, event_id, created_date";
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        args.add(belowId);
+        args.addAll(Arrays.asList(predicateArgs));
+        args.add(limit);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", rs.getInt("id"));
+            row.put("receiverId", rs.getInt("receiver_id"));
+            row.put("senderId", rs.getInt("sender_id"));
+            row.put("type", rs.getString("type"));
+            row.put("message", rs.getString("message"));
+            row.put("referenceId", rs.getObject("reference_id"));
+            row.put("isRead", rs.getObject("is_read"));
+            row.put("actorCount", rs.getObject("actor_count"));
+            Array samples = rs.getArray("sample_actor_ids");
+            row.put("sampleActorIds", samples != null ? samples.getArray() : null);
+            row.put("eventId", rs.getObject("event_id"));
+            Timestamp created = rs.getTimestamp("created_date");
+            row.put("createdDate", created != null ? created.toLocalDateTime() : null);
+            return row;
+        }, args.toArray());
+    }
+
+    /**
+     * A notification about to be inserted, possibly already standing for several actors.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Row {
+        private Integer id;
+        private Integer receiverId;
+        private Integer senderId;
+        private NotificationType type;
+        private String message;
+        private Integer referenceId;
+        private int actorCount;
+        private int[] sampleActorIds;
+        private UUID eventId;
+        private LocalDateTime createdDate;
+    }
+}
@@ -0,0 +1,11 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import com.esewa.javabackend.module.NotificationDigestRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface NotificationDigestRunRepository extends JpaRepository<NotificationDigestRun, Integer> {
+
+    Optional<NotificationDigestRun> findFirstByOrderByIdDesc();
+}
@@ -1,19 +1,136 @@
 package com.esewa.javabackend.repository.JpaRepository;
 
+import com.esewa.javabackend.dto.NotificationDTO;
+import com.esewa.javabackend.enums.NotificationType;
 import com.esewa.javabackend.module.Notification;
-import com.esewa.javabackend.module.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
 
-public interface NotificationRepository extends JpaRepository<Notification, Integer> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
-    List<Notification> findByReceiverOrderByCreatedDateDesc(User receiver);
+public interface NotificationRepository extends JpaRepository<Notification, Integer> {
 
-    List<Notification> findByReceiverAndIsReadFalseOrderByCreatedDateDesc(User receiver);
+    // Read paths select NotificationDTOs directly: sender and receiver usernames come from one
+    // join instead of lazy-loading two users per notification.
+    String SELECT_DTO = "SELECT new com.esewa.javabackend.dto.NotificationDTO(n.id, s.id, s.username, r.id, " +
+            "r.username, n.type, n.message, n.referenceId, n.isRead, n.actorCount, n.sampleActorIds, n.createdDate, " +
+            "n.modifiedDate) " +
+            "FROM Notification n LEFT JOIN n.sender s JOIN n.receiver r ";
 
 
     @Query("SELECT n FROM Notification n WHERE n.receiver.id = :userId ORDER BY n.createdDate DESC")
     List<Notification> findAllByUserId(Integer userId);
+
+    boolean existsByEventId(UUID eventId);
+
+    @Query(SELECT_DTO + "WHERE r.id = :userId AND n.id > :afterId ORDER BY n.id")
+    List<NotificationDTO> findDtosAfter(@Param("userId") Integer userId,
+                                        @Param("afterId") Integer afterId,
+                                        Pageable pageable);
+
+    // Stream replay: notifications created or merged into after a (last activity, id) position,
+    // in that order. Served by idx_notifications_receiver_activity (V19).
+    @Query(SELECT_DTO + "WHERE r.id = :userId AND (COALESCE(n.modifiedDate, n.createdDate) > :activity " +
+            "OR (COALESCE(n.modifiedDate, n.createdDate) = :activity AND n.id > :id)) " +
+            "ORDER BY COALESCE(n.modifiedDate, n.createdDate), n.id")
+    List<NotificationDTO> findDtosActiveAfter(@Param("userId") Integer userId,
+                                             @Param("activity") LocalDateTime activity,
+                                             @Param("id") Integer id,
+                                             Pageable pageable);
+
+    // admin export, keyset-paged by id
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(SELECT_DTO + "WHERE n.id > :afterId ORDER BY n.id")
+    Stream<NotificationDTO> streamDtosAfter(@Param("afterId") Integer afterId, Limit limit);
+
+    long countByReceiverIdAndIsReadFalse(Integer receiverId);
+
+    // Set-based state changes: one statement regardless of how many rows match.
+    // clearAutomatically keeps already-loaded entities from showing stale flags afterwards.
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.isRead = false")
+    int markRead(@Param("id") Integer id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.receiver.id = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Integer userId);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.receiver.id = :userId AND n.isRead = false " +
+            "AND (n.createdDate < :createdDate OR (n.createdDate = :createdDate AND n.id <= :id))")
+    int markReadUpTo(@Param("userId") Integer userId,
+                     @Param("createdDate") LocalDateTime createdDate,
+                     @Param("id") Integer id);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.receiver.id = :userId AND n.id IN :ids")
+    int deleteByReceiverAndIds(@Param("userId") Integer userId, @Param("ids") Collection<Integer> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Notification n WHERE n.receiver.id = :userId AND n.isRead = true")
+    int deleteReadByReceiver(@Param("userId") Integer userId);
+
+    @Query("SELECT n.receiver.id FROM Notification n WHERE n.id = :id")
+    Optional<Integer> findReceiverIdById(@Param("id") Integer id);
+
+    @Query("SELECT n.createdDate FROM Notification n WHERE n.id = :id AND n.receiver.id = :userId")
+    Optional<LocalDateTime> findCreatedDateByIdAndReceiver(@Param("id") Integer id, @Param("userId") Integer userId);
+
+    // Digest source: unread notifications of a window as rows of
+    // (receiverId, email, username, message, createdDate), grouped by receiver and streamed
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.id, r.email, r.username, n.message, n.createdDate FROM Notification n JOIN n.receiver r " +
+            "WHERE n.isRead = false AND n.createdDate >= :from AND n.createdDate < :to AND r.id > :afterReceiverId " +
+            "ORDER BY r.id, n.createdDate DESC")
+    Stream<Object[]> streamUnreadForDigest(@Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to,
+                                           @Param("afterReceiverId") Integer afterReceiverId);
+
+    // most recent unread notification a new event of the same kind can be folded into
+    @Query("SELECT n FROM Notification n WHERE n.receiver.id = :receiverId AND n.type = :type " +
+            "AND n.referenceId = :referenceId AND n.isRead = false AND n.createdDate >= :since " +
+            "ORDER BY n.createdDate DESC, n.id DESC")
+    List<Notification> findOpenAggregate(@Param("receiverId") Integer receiverId,
+                                         @Param("type") NotificationType type,
+                                         @Param("referenceId") Integer referenceId,
+                                         @Param("since") LocalDateTime since,
+                                         Pageable pageable);
+
+    // Feed pages are served by idx_notifications_receiver_created (receiver_id, created_date, id).
+
+    @Query(SELECT_DTO + "WHERE r.id = :userId AND (:unreadOnly = false OR n.isRead = false) " +
+            "ORDER BY n.createdDate DESC, n.id DESC")
+    List<NotificationDTO> findFeedPage(@Param("userId") Integer userId,
+                                       @Param("unreadOnly") boolean unreadOnly,
+                                       Pageable pageable);
+
+    @Query(SELECT_DTO + "WHERE r.id = :userId AND (:unreadOnly = false OR n.isRead = false) " +
+            "AND (n.createdDate < :createdDate OR (n.createdDate = :createdDate AND n.id < :id)) " +
+            "ORDER BY n.createdDate DESC, n.id DESC")
+    List<NotificationDTO> findFeedPageBefore(@Param("userId") Integer userId,
+                                             @Param("unreadOnly") boolean unreadOnly,
+                                             @Param("createdDate") LocalDateTime createdDate,
+                                             @Param("id") Integer id,
+                                             Pageable pageable);
 }
@@ -0,0 +1,33 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import com.esewa.javabackend.enums.FanoutStatus;
+import com.esewa.javabackend.module.RecipeFanoutJob;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface RecipeFanoutJobRepository extends JpaRepository<RecipeFanoutJob, Integer> {
+
+    // lock timeout -2 renders FOR UPDATE SKIP LOCKED: each node works on a different job
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT j FROM RecipeFanoutJob j WHERE j.status = :status ORDER BY j.id")
+    List<RecipeFanoutJob> claimNext(@Param("status") FanoutStatus status, Pageable pageable);
+
+    // recipes from followed authors that were not fanned out, for the follower's pull feed
+    @Query("SELECT j FROM RecipeFanoutJob j WHERE j.status = com.esewa.javabackend.enums.FanoutStatus.PULL " +
+            "AND j.createdAt >= :since AND j.authorId IN " +
+            "(SELECT f.followee.id FROM Follow f WHERE f.follower.id = :userId) " +
+            "ORDER BY j.createdAt DESC, j.id DESC")
+    List<RecipeFanoutJob> findPullFeed(@Param("userId") Integer userId,
+                                       @Param("since") Instant since,
+                                       Pageable pageable);
+}
@@ -5,6 +5,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Collection;
@@ -16,4 +18,11 @@ public interface RecipeRepository extends JpaRepository<Recipe, Integer>, JpaSpe
     List<Recipe> findByAuthorId(Integer userId);
 
     Page<Recipe> findByAuthorId(Integer userId, Pageable pageable);
+
+    // [cuisine, dietaryType, cookTime] without loading the recipe graph
+    @Query("SELECT r.cuisine, r.dietaryType, r.cookTime FROM Recipe r WHERE r.id = :id")
+    List<Object[]> findTasteAttributesById(@Param("id") Integer id);
+
+    @Query("SELECT t.name FROM Tag t WHERE t.recipe.id = :id")
+    List<String> findTagNamesByRecipeId(@Param("id") Integer id);
 }
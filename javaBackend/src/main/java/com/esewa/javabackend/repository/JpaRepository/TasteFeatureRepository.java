@@ -0,0 +1,13 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import com.esewa.javabackend.module.AIML.TasteFeature;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TasteFeatureRepository extends JpaRepository<TasteFeature, Integer> {
+
+    Optional<TasteFeature> findByName(String name);
+}
@@ -0,0 +1,25 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import com.esewa.javabackend.module.AIML.TasteProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface TasteProfileRepository extends JpaRepository<TasteProfile, Integer> {
+
+    // in-place update for profiles already persisted, avoids the select that merge() would issue
+    @Modifying
+    @Transactional
+    @Query("UPDATE TasteProfile p SET p.featureIds = :featureIds, p.weights = :weights, p.updatedAt = :updatedAt " +
+            "WHERE p.userId = :userId")
+    int updateVector(@Param("userId") Integer userId,
+                     @Param("featureIds") int[] featureIds,
+                     @Param("weights") float[] weights,
+                     @Param("updatedAt") Instant updatedAt);
+}
@@ -0,0 +1,59 @@
+package com.esewa.javabackend.repository.JpaRepository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Batched reads and writes of {@code users.last_active_at}, bypassing the entity so activity
+ * never rewrites a whole user row.
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserActivityRepository {
+
+    // never moves the column backwards, so a late flush from another node cannot undo a newer one
+    private static final String TOUCH = "UPDATE users SET last_active_at = ? " +
+            "WHERE id = ? AND (last_active_at IS NULL OR last_active_at < ?)";
+
+    private static final String FIND = "SELECT id, last_active_at FROM users " +
+            "WHERE id = ANY (?) AND last_active_at IS NOT NULL";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param lastActive epoch millis of the latest activity by user id
+     */
+    public void touchAll(Map<Integer, Long> lastActive) {
+        List<Map.Entry<Integer, Long>> entries = new ArrayList<>(lastActive.entrySet());
+        jdbcTemplate.batchUpdate(TOUCH, entries, BATCH_SIZE, (ps, entry) -> {
+            Timestamp at = new Timestamp(entry.getValue());
+            ps.setTimestamp(1, at);
+            ps.setInt(2, entry.getKey());
+            ps.setTimestamp(3, at);
+        });
+    }
+
+    /**
+     * Stored last activity in epoch millis; users that never were active are absent.
+     */
+    public Map<Integer, Long> findLastActive(Collection<Integer> userIds) {
+        Map<Integer, Long> result = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return result;
+        }
+        jdbcTemplate.query(FIND, ps -> {
+            Array ids = ps.getConnection().createArrayOf("integer", userIds.toArray());
+            ps.setArray(1, ids);
+        }, rs -> {
+            result.put(rs.getInt(1), rs.getTimestamp(2).getTime());
+        });
+        return result;
+    }
+}
@@ -6,8 +6,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,4 +32,8 @@ public interface UserRepository extends JpaRepository<User, Integer>, JpaSpecifi
   // and orders by recipeCount descending (most recipes first)
   @Query("SELECT u FROM User u JOIN UserStats us ON us.user = u WHERE us.recipeCount > 0 ORDER BY us.recipeCount DESC")
   Page<User> findChefsWithRecipes(Pageable pageable);
+
+  // id -> username for the ids that exist; missing ids are simply absent from the result
+  @Query("SELECT u.id, u.username FROM User u WHERE u.id IN :ids")
+  List<Object[]> findUsernamesByIds(@Param("ids") Collection<Integer> ids);
 }
@@ -16,6 +16,9 @@ public interface UserStatsRepository extends JpaRepository<UserStats, Integer>,
 
     Optional<UserStats> findByUserId(Integer userId);
 
+    @org.springframework.data.jpa.repository.Query("SELECT us.followersCount FROM UserStats us WHERE us.user.id = :userId")
+    Optional<Integer> findFollowersCountByUserId(@org.springframework.data.repository.query.Param("userId") Integer userId);
+
     // Return UserStats ordered by combined score (followers + recipes) desc
     @org.springframework.data.jpa.repository.Query("SELECT us FROM UserStats us ORDER BY (us.followersCount + us.recipeCount) DESC")
     org.springframework.data.domain.Page<UserStats> findTopByCombined(
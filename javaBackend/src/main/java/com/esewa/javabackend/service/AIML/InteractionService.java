@@ -1,5 +1,6 @@
 package com.esewa.javabackend.service.AIML;
 
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
 import com.esewa.javabackend.dto.InteractionDTO;
 import com.esewa.javabackend.enums.InteractionAction;
 import com.esewa.javabackend.enums.ResourceType;
@@ -7,12 +8,18 @@ import com.esewa.javabackend.module.AIML.Interaction;
 import com.esewa.javabackend.module.User;
 import com.esewa.javabackend.repository.JpaRepository.InteractionRepository;
 import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import com.esewa.javabackend.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +27,9 @@ public class InteractionService {
 
         private final InteractionRepository repository;
         private final UserRepository userRepository;
+        private final InteractionSummaryCache summaryCache;
+
+        private static final int MAX_PAGE_SIZE = 100;
 
         // --- Added helpers for saves ---
 
@@ -37,6 +47,7 @@ public class InteractionService {
                                 .createdAt(Instant.now())
                                 .build();
                 repository.save(interaction);
+                summaryCache.increment(id, action);
                 return InteractionDTO.builder()
                                 .userId(id)
                                 .resourceType(type)
@@ -51,37 +62,67 @@ public class InteractionService {
         }
 
         public void deleteInteraction(Integer id) {
+                repository.findUserIdById(id).ifPresent(summaryCache::evict);
                 repository.deleteById(id);
         }
 
         public java.util.List<InteractionDTO> getInteractionsByUserAndAction(Integer userId) {
-                User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-                return repository.findByUser(user).stream()
-                                .filter(i -> i.getAction() == InteractionAction.SAVE)
-                                .map(interaction -> InteractionDTO.builder()
-                                                .id(interaction.getId())
-                                                .userId(interaction.getUser().getId())
-                                                .resourceType(interaction.getResourceType())
-                                                .resourceId(interaction.getResourceId())
-                                                .action(interaction.getAction())
-                                                .value(interaction.getValue())
-                                                .createdAT(interaction.getCreatedAt())
-                                                .build())
-                                .collect(java.util.stream.Collectors.toList());
+                if (!userRepository.existsById(userId)) {
+                        throw new RuntimeException("User not found");
+                }
+                return repository.findAllByUserAndAction(userId, InteractionAction.SAVE);
+        }
+
+        /**
+         * Newest-first page of a user's interactions with one action, keyset paginated on
+         * (createdAt, id) so deep pages cost the same as the first one.
+         */
+        public CursorPageResponse<InteractionDTO> getInteractionsPage(Integer userId, InteractionAction action,
+                        String cursor, int size) {
+                int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                // fetch one extra row to know whether another page exists
+                PageRequest limit = PageRequest.of(0, pageSize + 1);
+                List<InteractionDTO> rows = after == null
+                                ? repository.findPageByUserAndAction(userId, action, limit)
+                                : repository.findPageByUserAndActionBefore(userId, action, after.instant(), after.id(),
+                                                limit);
+
+                boolean hasMore = rows.size() > pageSize;
+                List<InteractionDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+                InteractionDTO last = page.isEmpty() ? null : page.get(page.size() - 1);
+                return CursorPageResponse.<InteractionDTO>builder()
+                                .data(page)
+                                .hasMore(hasMore)
+                                .nextCursor(hasMore && last.getCreatedAT() != null
+                                                ? KeysetCursor.encode(last.getCreatedAT(), last.getId())
+                                                : null)
+                                .pageSize(pageSize)
+                                .build();
         }
 
+        public Map<InteractionAction, Long> getInteractionSummary(Integer userId) {
+                return summaryCache.getSummary(userId);
+        }
+
+        /**
+         * Streams every interaction to {@code sink} without materialising the table in memory.
+         */
+        @Transactional(readOnly = true)
+        public void streamAllInteractions(Consumer<InteractionDTO> sink) {
+                try (Stream<InteractionDTO> stream = repository.streamAll()) {
+                        stream.forEach(sink);
+                }
+        }
+
+        @Transactional(readOnly = true)
         public List<InteractionDTO> allInteraction() {
+                try (Stream<InteractionDTO> stream = repository.streamAll()) {
+                        return stream.collect(Collectors.toList());
+                }
+        }
 
-                return repository.findAll().stream()
-                                .map(interaction -> InteractionDTO.builder()
-                                                .id(interaction.getId())
-                                                .userId(interaction.getUser().getId())
-                                                .resourceType(interaction.getResourceType())
-                                                .resourceId(interaction.getResourceId())
-                                                .action(interaction.getAction())
-                                                .value(interaction.getValue())
-                                                .createdAT(interaction.getCreatedAt())
-                                                .build())
-                                .collect(Collectors.toList());
+        public List<InteractionDTO> newInteractions() {
+                return repository.findAllNew();
         }
 }
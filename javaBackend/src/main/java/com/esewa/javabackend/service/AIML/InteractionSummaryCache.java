@@ -0,0 +1,173 @@
+package com.esewa.javabackend.service.AIML;
+
+import com.esewa.javabackend.enums.InteractionAction;
+import com.esewa.javabackend.repository.JpaRepository.InteractionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.esewa.javabackend.utils.TransactionCallbacks.afterCommit;
+
+/**
+ * Per-user interaction counts by action, kept in a Redis hash so every node reads and updates
+ * the same numbers. Seeded and adjusted like {@link com.esewa.javabackend.service.NotificationCounterService}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InteractionSummaryCache {
+
+    private static final String KEY_PREFIX = "interactions:summary:";
+    private static final Duration TTL = Duration.ofHours(6);
+    private static final Duration RACED_SEED_TTL = Duration.ofSeconds(30);
+    private static final Duration SEEDING_MARKER_TTL = Duration.ofSeconds(30);
+    private static final InteractionAction[] ACTIONS = InteractionAction.values();
+
+    // HINCRBY only if the summary is seeded; without one, an increment during seeding is noted on the marker
+    static final DefaultRedisScript<Long> INCREMENT_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+                    "if redis.call('EXISTS', KEYS[2]) == 1 then redis.call('INCR', KEYS[2]) end " +
+                    "return -1 end " +
+                    "return redis.call('HINCRBY', KEYS[1], ARGV[1], 1)",
+            Long.class);
+
+    // stores every action's count unless another reader seeded first; a load raced by an
+    // increment gets the short TTL. ARGV: ttl, raced ttl, then action/count pairs
+    static final DefaultRedisScript<Long> SEED = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 1 then return 0 end " +
+                    "local raced = tonumber(redis.call('GET', KEYS[2]) or '0') " +
+                    "redis.call('DEL', KEYS[2]) " +
+                    "local ttl = ARGV[1] " +
+                    "if raced > 0 then ttl = ARGV[2] end " +
+                    "for i = 3, #ARGV, 2 do redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+                    "redis.call('EXPIRE', KEYS[1], ttl) " +
+                    "return 1",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+    private final InteractionRepository repository;
+
+    public Map<InteractionAction, Long> getSummary(Integer userId) {
+        long[] counts = counts(userId);
+        Map<InteractionAction, Long> result = new EnumMap<>(InteractionAction.class);
+        for (InteractionAction action : ACTIONS) {
+            if (counts[action.ordinal()] > 0) {
+                result.put(action, counts[action.ordinal()]);
+            }
+        }
+        return result;
+    }
+
+    public long getCount(Integer userId, InteractionAction action) {
+        return counts(userId)[action.ordinal()];
+    }
+
+    /**
+     * Records a new interaction once the surrounding transaction commits; users without a
+     * seeded summary are left alone and counted when it is seeded.
+     */
+    public void increment(Integer userId, InteractionAction action) {
+        if (userId == null || action == null) {
+            return;
+        }
+        afterCommit(() -> {
+            try {
+                redis.execute(INCREMENT_IF_PRESENT, List.of(key(userId), seedingKey(userId)), action.name());
+            } catch (DataAccessException e) {
+                // a missed increment is corrected when the summary expires and is recounted
+                log.debug("Could not count interaction for user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Forgets the summary so the next read recounts from the database.
+     */
+    public void evict(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        try {
+            redis.delete(key(userId));
+        } catch (DataAccessException e) {
+            log.debug("Could not evict interaction summary for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private long[] counts(Integer userId) {
+        String key = key(userId);
+        try {
+            Map<Object, Object> cached = redis.opsForHash().entries(key);
+            if (!cached.isEmpty()) {
+                return parse(cached);
+            }
+            redis.opsForValue().setIfAbsent(seedingKey(userId), "0", SEEDING_MARKER_TTL);
+        } catch (DataAccessException e) {
+            log.debug("Interaction summary unavailable for user {}: {}", userId, e.getMessage());
+            return load(userId);
+        }
+
+        long[] counts = load(userId);
+        try {
+            List<String> args = new ArrayList<>(2 + ACTIONS.length * 2);
+            args.add(Long.toString(TTL.toSeconds()));
+            args.add(Long.toString(RACED_SEED_TTL.toSeconds()));
+            // every action is stored, zeros included, so a user without interactions still has a key
+            for (InteractionAction action : ACTIONS) {
+                args.add(action.name());
+                args.add(Long.toString(counts[action.ordinal()]));
+            }
+            Long seeded = redis.execute(SEED, List.of(key, seedingKey(userId)), args.toArray());
+            if (seeded != null && seeded == 0) {
+                // another reader seeded first, possibly with increments on top
+                Map<Object, Object> stored = redis.opsForHash().entries(key);
+                if (!stored.isEmpty()) {
+                    return parse(stored);
+                }
+            }
+        } catch (DataAccessException e) {
+            log.debug("Could not seed interaction summary for user {}: {}", userId, e.getMessage());
+        }
+        return counts;
+    }
+
+    private long[] load(Integer userId) {
+        long[] counts = new long[ACTIONS.length];
+        for (Object[] row : repository.countByActionForUser(userId)) {
+            if (row[0] != null) {
+                counts[((InteractionAction) row[0]).ordinal()] = ((Number) row[1]).longValue();
+            }
+        }
+        return counts;
+    }
+
+    private static long[] parse(Map<Object, Object> hash) {
+        long[] counts = new long[ACTIONS.length];
+        hash.forEach((field, value) -> {
+            try {
+                counts[InteractionAction.valueOf((String) field).ordinal()] = Long.parseLong((String) value);
+            } catch (IllegalArgumentException e) {
+                // an action that no longer exists
+            }
+        });
+        return counts;
+    }
+
+    // the braces keep a user's summary and marker in one cluster slot, as the scripts need
+    private static String key(Integer userId) {
+        return KEY_PREFIX + "{" + userId + "}";
+    }
+
+    private static String seedingKey(Integer userId) {
+        return key(userId) + ":seeding";
+    }
+}
@@ -0,0 +1,396 @@
+package com.esewa.javabackend.service.AIML;
+
+import com.esewa.javabackend.dto.aiml.TasteProfileDTO;
+import com.esewa.javabackend.dto.event.InteractionEvent;
+import com.esewa.javabackend.enums.InteractionAction;
+import com.esewa.javabackend.enums.ResourceType;
+import com.esewa.javabackend.module.AIML.TasteFeature;
+import com.esewa.javabackend.module.AIML.TasteProfile;
+import com.esewa.javabackend.repository.JpaRepository.RecipeRepository;
+import com.esewa.javabackend.repository.JpaRepository.TasteFeatureRepository;
+import com.esewa.javabackend.repository.JpaRepository.TasteProfileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains per-user taste vectors over recipe cuisines, dietary types, tags and cook-time
+ * buckets from the interaction stream.
+ *
+ * Each recipe interaction adds an action-dependent weight to the recipe's features in the
+ * user's {@link TasteVector}; older signal fades with an exponential half-life. Vectors live
+ * in memory and only the profiles touched since the last flush are written back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TasteProfileService {
+
+    private static final int MAX_FEATURES_PER_PROFILE = 256;
+    private static final int MAX_CACHED_PROFILES = 100_000;
+    private static final int MAX_CACHED_RECIPES = 50_000;
+
+    private static final String CUISINE = "cuisine:";
+    private static final String DIET = "diet:";
+    private static final String TAG = "tag:";
+    private static final String COOK = "cook:";
+
+    private static final Map<InteractionAction, Float> ACTION_WEIGHTS = new EnumMap<>(Map.of(
+            InteractionAction.VIEW, 0.5f,
+            InteractionAction.CLICK, 0.5f,
+            InteractionAction.LIKE, 2f,
+            InteractionAction.UNLIKE, -2f,
+            InteractionAction.COMMENT, 1.5f,
+            InteractionAction.SHARE, 2f,
+            InteractionAction.SAVE, 3f,
+            InteractionAction.COOK, 4f,
+            InteractionAction.CREATE, 2f));
+
+    private final TasteProfileRepository profileRepository;
+    private final TasteFeatureRepository featureRepository;
+    private final RecipeRepository recipeRepository;
+
+    @Value("${app.taste.half-life-days:14}")
+    private double halfLifeDays;
+
+    @Value("${app.taste.read-cache-ttl-ms:60000}")
+    private long readCacheTtlMillis;
+
+    private final Map<Integer, TasteVector> profiles = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> loadedAt = new ConcurrentHashMap<>();
+    private final Set<Integer> persisted = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Integer> featureIds = new ConcurrentHashMap<>();
+    private final Map<Integer, String> featureNames = new ConcurrentHashMap<>();
+    private volatile boolean dictionaryLoaded;
+
+    private final Map<Integer, int[]> recipeFeatures = new ConcurrentHashMap<>();
+
+    /**
+     * Folds one interaction into the user's profile. Non-recipe interactions are ignored.
+     */
+    public void record(InteractionEvent event) {
+        if (event.getUserId() == null || event.getResourceId() == null
+                || event.getResourceType() != ResourceType.RECIPE) {
+            return;
+        }
+        Float weight = ACTION_WEIGHTS.get(event.getAction() != null ? event.getAction() : InteractionAction.VIEW);
+        if (weight == null) {
+            return;
+        }
+        int[] features = featuresOfRecipe(event.getResourceId());
+        if (features.length == 0) {
+            return;
+        }
+
+        Integer userId = event.getUserId();
+        while (true) {
+            TasteVector vector = profile(userId);
+            synchronized (vector) {
+                // evicted between the lookup and the lock; start over with the cached instance
+                if (profiles.get(userId) != vector) {
+                    continue;
+                }
+                vector.decayTo(System.currentTimeMillis(), halfLifeMillis());
+                for (int feature : features) {
+                    vector.add(feature, weight);
+                }
+                vector.truncate(MAX_FEATURES_PER_PROFILE);
+                dirty.add(userId);
+                return;
+            }
+        }
+    }
+
+    public TasteProfileDTO getProfile(Integer userId) {
+        TasteVector vector = readProfile(userId);
+        Map<String, Map<String, Float>> byDimension = dimensions(vector);
+        return TasteProfileDTO.builder()
+                .userId(userId)
+                .updatedAt(Instant.ofEpochMilli(vector.updatedAtMillis()))
+                .cuisines(byDimension.get(CUISINE))
+                .dietaryTypes(byDimension.get(DIET))
+                .tags(byDimension.get(TAG))
+                .cookTimes(byDimension.get(COOK))
+                .build();
+    }
+
+    /**
+     * Strongest positive preferences in the shape the ML backend accepts as recommendation
+     * filters. Empty when the user has no recipe history yet.
+     */
+    public Map<String, Object> recommendationFilters(Integer userId) {
+        Map<String, Map<String, Float>> byDimension = dimensions(readProfile(userId));
+        Map<String, Object> filters = new LinkedHashMap<>();
+        putTop(filters, "preferred_cuisines", byDimension.get(CUISINE), 3);
+        putTop(filters, "preferred_dietary_types", byDimension.get(DIET), 2);
+        putTop(filters, "preferred_tags", byDimension.get(TAG), 5);
+        putTop(filters, "preferred_cook_time", byDimension.get(COOK), 1);
+        return filters;
+    }
+
+    /**
+     * Writes back every profile changed since the previous flush, then trims the cache.
+     */
+    @Scheduled(fixedDelayString = "${app.taste.flush-interval-ms:30000}")
+    public void flush() {
+        int written = 0;
+        for (Integer userId : new ArrayList<>(dirty)) {
+            dirty.remove(userId);
+            TasteVector vector = profiles.get(userId);
+            if (vector == null) {
+                continue;
+            }
+            int[] ids;
+            float[] weights;
+            Instant updatedAt;
+            synchronized (vector) {
+                ids = vector.idsCopy();
+                weights = vector.weightsCopy();
+                updatedAt = Instant.ofEpochMilli(vector.updatedAtMillis());
+            }
+            try {
+                if (!persisted.contains(userId) || profileRepository.updateVector(userId, ids, weights, updatedAt) == 0) {
+                    profileRepository.save(TasteProfile.builder()
+                            .userId(userId)
+                            .featureIds(ids)
+                            .weights(weights)
+                            .updatedAt(updatedAt)
+                            .build());
+                    persisted.add(userId);
+                }
+                written++;
+            } catch (Exception e) {
+                dirty.add(userId);
+                log.warn("Failed to persist taste profile for user {}: {}", userId, e.getMessage());
+            }
+        }
+        evictCleanProfiles();
+        if (written > 0) {
+            log.debug("Persisted {} taste profiles", written);
+        }
+    }
+
+    private Map<String, Map<String, Float>> dimensions(TasteVector vector) {
+        List<int[]> order = new ArrayList<>();
+        float[] weights;
+        int[] ids;
+        synchronized (vector) {
+            vector.decayTo(System.currentTimeMillis(), halfLifeMillis());
+            ids = vector.idsCopy();
+            weights = vector.weightsCopy();
+        }
+        for (int i = 0; i < ids.length; i++) {
+            order.add(new int[]{i});
+        }
+        order.sort((a, b) -> Float.compare(weights[b[0]], weights[a[0]]));
+
+        Map<String, Map<String, Float>> result = new HashMap<>();
+        for (String prefix : List.of(CUISINE, DIET, TAG, COOK)) {
+            result.put(prefix, new LinkedHashMap<>());
+        }
+        for (int[] index : order) {
+            String name = featureName(ids[index[0]]);
+            if (name == null) {
+                continue;
+            }
+            int colon = name.indexOf(':');
+            Map<String, Float> dimension = result.get(name.substring(0, colon + 1));
+            if (dimension != null) {
+                dimension.put(name.substring(colon + 1), weights[index[0]]);
+            }
+        }
+        return result;
+    }
+
+    private static void putTop(Map<String, Object> filters, String key, Map<String, Float> weights, int limit) {
+        List<String> top = weights.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!top.isEmpty()) {
+            filters.put(key, limit == 1 ? top.get(0) : top);
+        }
+    }
+
+    // the cached vector to write to, loading or creating it
+    private TasteVector profile(Integer userId) {
+        TasteVector vector = cached(userId);
+        if (vector != null) {
+            return vector;
+        }
+        return cache(userId, load(userId).orElseGet(() -> TasteVector.empty(System.currentTimeMillis())));
+    }
+
+    // the vector to read; users without a stored profile get an uncached empty one, so
+    // lookups of arbitrary ids never grow the cache
+    private TasteVector readProfile(Integer userId) {
+        TasteVector vector = cached(userId);
+        if (vector != null) {
+            return vector;
+        }
+        return load(userId).map(loaded -> cache(userId, loaded))
+                .orElseGet(() -> TasteVector.empty(System.currentTimeMillis()));
+    }
+
+    // the cached vector, unless it is clean and older than the read TTL. Another node may own
+    // the user's interactions and have written a newer vector since, so that copy is dropped
+    private TasteVector cached(Integer userId) {
+        TasteVector vector = profiles.get(userId);
+        if (vector == null) {
+            return null;
+        }
+        Long loaded = loadedAt.get(userId);
+        if (loaded == null || System.currentTimeMillis() - loaded < readCacheTtlMillis) {
+            return vector;
+        }
+        synchronized (vector) {
+            if (dirty.contains(userId)) {
+                return vector;
+            }
+            if (profiles.remove(userId, vector)) {
+                loadedAt.remove(userId);
+                persisted.remove(userId);
+            }
+        }
+        return null;
+    }
+
+    // loads run without a lock, so two threads can load the same user; the first vector cached
+    // wins and both get it, keeping every write on one instance
+    private TasteVector cache(Integer userId, TasteVector loaded) {
+        TasteVector existing = profiles.putIfAbsent(userId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        loadedAt.put(userId, System.currentTimeMillis());
+        return loaded;
+    }
+
+    private Optional<TasteVector> load(Integer userId) {
+        return profileRepository.findById(userId).map(p -> {
+            persisted.add(userId);
+            return new TasteVector(p.getFeatureIds(), p.getWeights(), p.getUpdatedAt().toEpochMilli());
+        });
+    }
+
+    private void evictCleanProfiles() {
+        if (profiles.size() <= MAX_CACHED_PROFILES) {
+            return;
+        }
+        for (Map.Entry<Integer, TasteVector> entry : profiles.entrySet()) {
+            if (profiles.size() <= MAX_CACHED_PROFILES) {
+                break;
+            }
+            TasteVector vector = entry.getValue();
+            // record() marks a profile dirty under the same lock, so a clean one stays clean here
+            synchronized (vector) {
+                if (!dirty.contains(entry.getKey()) && profiles.remove(entry.getKey(), vector)) {
+                    loadedAt.remove(entry.getKey());
+                    persisted.remove(entry.getKey());
+                }
+            }
+        }
+    }
+
+    private int[] featuresOfRecipe(Integer recipeId) {
+        if (recipeFeatures.size() > MAX_CACHED_RECIPES) {
+            recipeFeatures.clear();
+        }
+        return recipeFeatures.computeIfAbsent(recipeId, id -> {
+            List<String> names = new ArrayList<>();
+            List<Object[]> rows = recipeRepository.findTasteAttributesById(id);
+            if (rows.isEmpty()) {
+                return new int[0];
+            }
+            Object[] row = rows.get(0);
+            addName(names, CUISINE, (String) row[0]);
+            addName(names, DIET, (String) row[1]);
+            if (row[2] != null) {
+                names.add(COOK + cookTimeBucket((Integer) row[2]));
+            }
+            for (String tag : recipeRepository.findTagNamesByRecipeId(id)) {
+                addName(names, TAG, tag);
+            }
+            return names.stream().distinct().mapToInt(this::featureId).sorted().toArray();
+        });
+    }
+
+    private static void addName(List<String> names, String prefix, String value) {
+        if (value != null && !value.isBlank()) {
+            names.add(prefix + value.trim().toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static String cookTimeBucket(int minutes) {
+        if (minutes <= 15) return "quick";
+        if (minutes <= 30) return "short";
+        if (minutes <= 60) return "medium";
+        return "long";
+    }
+
+    private int featureId(String name) {
+        loadDictionary();
+        Integer id = featureIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        synchronized (featureIds) {
+            id = featureIds.get(name);
+            if (id == null) {
+                TasteFeature feature;
+                try {
+                    feature = featureRepository.save(TasteFeature.builder().name(name).build());
+                } catch (DataIntegrityViolationException e) {
+                    // created concurrently by another node
+                    feature = featureRepository.findByName(name).orElseThrow(() -> e);
+                }
+                id = feature.getId();
+                featureIds.put(name, id);
+                featureNames.put(id, name);
+            }
+            return id;
+        }
+    }
+
+    private String featureName(int id) {
+        loadDictionary();
+        String name = featureNames.get(id);
+        if (name == null) {
+            name = featureRepository.findById(id).map(TasteFeature::getName).orElse(null);
+            if (name != null) {
+                featureNames.put(id, name);
+                featureIds.put(name, id);
+            }
+        }
+        return name;
+    }
+
+    private void loadDictionary() {
+        if (dictionaryLoaded) {
+            return;
+        }
+        synchronized (featureIds) {
+            if (!dictionaryLoaded) {
+                for (TasteFeature feature : featureRepository.findAll()) {
+                    featureIds.put(feature.getName(), feature.getId());
+                    featureNames.put(feature.getId(), feature.getName());
+                }
+                dictionaryLoaded = true;
+            }
+        }
+    }
+
+    private double halfLifeMillis() {
+        return halfLifeDays * 24 * 60 * 60 * 1000;
+    }
+}
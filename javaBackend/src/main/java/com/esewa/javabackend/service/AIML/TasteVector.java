@@ -0,0 +1,116 @@
+package com.esewa.javabackend.service.AIML;
+
+import java.util.Arrays;
+
+/**
+ * Mutable sparse float vector with exponential time decay.
+ *
+ * Feature ids are kept sorted in {@code ids} with weights in the parallel {@code weights}
+ * array. Decay is applied lazily: all weights share one reference time, and moving it forward
+ * scales every weight by 2^(-elapsed / halfLife). Not thread-safe; callers synchronize on
+ * the instance.
+ */
+class TasteVector {
+
+    private static final float PRUNE_BELOW = 0.01f;
+
+    private int[] ids;
+    private float[] weights;
+    private int size;
+    private long updatedAtMillis;
+
+    TasteVector(int[] ids, float[] weights, long updatedAtMillis) {
+        this.ids = Arrays.copyOf(ids, Math.max(8, ids.length));
+        this.weights = Arrays.copyOf(weights, Math.max(8, weights.length));
+        this.size = ids.length;
+        this.updatedAtMillis = updatedAtMillis;
+    }
+
+    static TasteVector empty(long now) {
+        return new TasteVector(new int[0], new float[0], now);
+    }
+
+    void decayTo(long now, double halfLifeMillis) {
+        if (now <= updatedAtMillis) {
+            return;
+        }
+        float factor = (float) Math.pow(0.5, (now - updatedAtMillis) / halfLifeMillis);
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            float decayed = weights[i] * factor;
+            if (Math.abs(decayed) >= PRUNE_BELOW) {
+                ids[kept] = ids[i];
+                weights[kept] = decayed;
+                kept++;
+            }
+        }
+        size = kept;
+        updatedAtMillis = now;
+    }
+
+    void add(int id, float delta) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            weights[pos] += delta;
+            return;
+        }
+        int insert = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            weights = Arrays.copyOf(weights, size * 2);
+        }
+        System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+        System.arraycopy(weights, insert, weights, insert + 1, size - insert);
+        ids[insert] = id;
+        weights[insert] = delta;
+        size++;
+    }
+
+    /**
+     * Drops the weakest features until at most {@code maxFeatures} remain.
+     */
+    void truncate(int maxFeatures) {
+        if (size <= maxFeatures) {
+            return;
+        }
+        float[] magnitudes = new float[size];
+        for (int i = 0; i < size; i++) {
+            magnitudes[i] = Math.abs(weights[i]);
+        }
+        Arrays.sort(magnitudes);
+        float threshold = magnitudes[size - maxFeatures];
+        int kept = 0;
+        for (int i = 0; i < size && kept < maxFeatures; i++) {
+            if (Math.abs(weights[i]) >= threshold) {
+                ids[kept] = ids[i];
+                weights[kept] = weights[i];
+                kept++;
+            }
+        }
+        size = kept;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int idAt(int index) {
+        return ids[index];
+    }
+
+    float weightAt(int index) {
+        return weights[index];
+    }
+
+    int[] idsCopy() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    float[] weightsCopy() {
+        return Arrays.copyOf(weights, size);
+    }
+
+    long updatedAtMillis() {
+        return updatedAtMillis;
+    }
+}
@@ -0,0 +1,91 @@
+package com.esewa.javabackend.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory presence and typing state with per-entry expiry. Every node keeps its own copy,
+ * refreshed by the presence events relayed over Redis, so lookups never leave the process.
+ *
+ * Presence is kept per announcing node: a user with sockets on two nodes stays online when
+ * one of them reports the user gone, until the other does too or stops refreshing.
+ */
+@Component
+public class ChatPresenceStore {
+
+    // userId -> announcing node -> epoch millis until which that node counts the user online
+    private final Map<Integer, Map<String, Long>> online = new ConcurrentHashMap<>();
+    // (typist, recipient) -> epoch millis until which the typing indicator holds
+    private final Map<Long, Long> typing = new ConcurrentHashMap<>();
+
+    public void markOnline(Integer userId, String nodeId, long ttlMs) {
+        long until = System.currentTimeMillis() + ttlMs;
+        online.computeIfAbsent(userId, id -> new ConcurrentHashMap<>()).put(nodeId, until);
+    }
+
+    public void markOffline(Integer userId, String nodeId) {
+        online.computeIfPresent(userId, (id, nodes) -> {
+            nodes.remove(nodeId);
+            return nodes.isEmpty() ? null : nodes;
+        });
+    }
+
+    public boolean isOnline(Integer userId) {
+        Map<String, Long> nodes = online.get(userId);
+        if (nodes == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (long until : nodes.values()) {
+            if (until > now) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Map<Integer, Boolean> onlineStatus(Collection<Integer> userIds) {
+        Map<Integer, Boolean> status = new LinkedHashMap<>();
+        for (Integer userId : userIds) {
+            status.put(userId, isOnline(userId));
+        }
+        return status;
+    }
+
+    /**
+     * Records that {@code typistId} is typing to {@code recipientId}.
+     *
+     * @return true if the recipient should be told: the indicator was not showing, or is past
+     *         half its lifetime and needs renewing on the recipient's side
+     */
+    public boolean startTyping(Integer typistId, Integer recipientId, long ttlMs) {
+        long now = System.currentTimeMillis();
+        Long previous = typing.put(key(typistId, recipientId), now + ttlMs);
+        return previous == null || previous - now < ttlMs / 2;
+    }
+
+    public void stopTyping(Integer typistId, Integer recipientId) {
+        typing.remove(key(typistId, recipientId));
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        for (Integer userId : online.keySet()) {
+            online.computeIfPresent(userId, (id, nodes) -> {
+                nodes.values().removeIf(until -> until <= now);
+                return nodes.isEmpty() ? null : nodes;
+            });
+        }
+        typing.values().removeIf(until -> until <= now);
+    }
+
+    private static long key(Integer typistId, Integer recipientId) {
+        return ((long) typistId << 32) | (recipientId & 0xffffffffL);
+    }
+}
@@ -0,0 +1,231 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.ChatRealtimeConfig;
+import com.esewa.javabackend.dto.ChatEventDTO;
+import com.esewa.javabackend.dto.MessageDTO;
+import com.esewa.javabackend.enums.ChatEventType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.esewa.javabackend.utils.TransactionCallbacks.afterCommit;
+
+/**
+ * Pushes chat events to connected users.
+ *
+ * Every event is published once on a Redis channel; each node, including the publisher,
+ * delivers it to whichever recipients have sockets on that node. If Redis is unavailable the
+ * event is delivered locally only. Presence is derived from the sockets each node holds: a
+ * node announces users on connect and disconnect and re-announces all of its users
+ * periodically, and every node keeps the result per announcing node in its
+ * {@link ChatPresenceStore} with a TTL, so users of a node that dies drop offline on their own
+ * and a disconnect on one node does not hide a socket the user still has on another.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatRealtimeService implements MessageListener {
+
+    static final String USER_DESTINATION = "/queue/chat";
+
+    private final ChatRealtimeConfig config;
+    private final ChatPresenceStore presenceStore;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final UserActivityTracker activityTracker;
+
+    // open socket session ids per user on this node
+    private final Map<Integer, Set<String>> localSessions = new ConcurrentHashMap<>();
+    // tags this node's presence announcements; new on every start, stale ones expire by TTL
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Delivers a stored message to both participants' sockets once the sending transaction commits.
+     */
+    public void messageSent(MessageDTO message, Integer receiverId) {
+        afterCommit(() -> publish(ChatEventDTO.builder()
+                .type(ChatEventType.MESSAGE)
+                .recipientIds(List.of(receiverId, message.getSenderId()))
+                .userId(message.getSenderId())
+                .conversationId(message.getConversationId())
+                .message(message)
+                .build()));
+    }
+
+    /**
+     * Delivers a stored group message to the members that are online anywhere, in batches of
+     * recipients, once the sending transaction commits. Offline members are left to
+     * notifications.
+     */
+    public void groupMessageSent(MessageDTO message, List<Integer> memberIds) {
+        afterCommit(() -> {
+            List<Integer> online = memberIds.stream().filter(presenceStore::isOnline).toList();
+            int batchSize = Math.max(1, config.getGroupFanoutBatchSize());
+            for (int from = 0; from < online.size(); from += batchSize) {
+                publish(ChatEventDTO.builder()
+                        .type(ChatEventType.MESSAGE)
+                        .recipientIds(online.subList(from, Math.min(from + batchSize, online.size())))
+                        .userId(message.getSenderId())
+                        .conversationId(message.getConversationId())
+                        .message(message)
+                        .build());
+            }
+        });
+    }
+
+    public boolean isOnline(Integer userId) {
+        return presenceStore.isOnline(userId);
+    }
+
+    public void conversationRead(Integer readerId, Integer otherUserId, Integer conversationId, Integer lastReadMessageId) {
+        afterCommit(() -> publish(ChatEventDTO.builder()
+                .type(ChatEventType.READ)
+                .recipientIds(List.of(otherUserId))
+                .userId(readerId)
+                .conversationId(conversationId)
+                .lastReadMessageId(lastReadMessageId)
+                .build()));
+    }
+
+    public void typing(Integer typistId, Integer recipientId) {
+        long ttlMs = config.getTypingTtlSeconds() * 1000L;
+        if (presenceStore.startTyping(typistId, recipientId, ttlMs)) {
+            publish(ChatEventDTO.builder()
+                    .type(ChatEventType.TYPING)
+                    .recipientIds(List.of(recipientId))
+                    .userId(typistId)
+                    .build());
+        }
+    }
+
+    public Map<Integer, Boolean> onlineStatus(List<Integer> userIds) {
+        return presenceStore.onlineStatus(userIds);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        Integer userId = userId(event.getUser());
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (userId == null || sessionId == null) {
+            return;
+        }
+        boolean[] first = new boolean[1];
+        localSessions.compute(userId, (id, sessions) -> {
+            Set<String> updated = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            first[0] = updated.isEmpty();
+            updated.add(sessionId);
+            return updated;
+        });
+        if (first[0]) {
+            publishPresence(List.of(userId), true);
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        // may be raised more than once per session; removing by session id keeps this idempotent
+        Integer userId = userId(event.getUser());
+        if (userId == null) {
+            return;
+        }
+        boolean[] last = new boolean[1];
+        localSessions.computeIfPresent(userId, (id, sessions) -> {
+            last[0] = sessions.remove(event.getSessionId()) && sessions.isEmpty();
+            return sessions.isEmpty() ? null : sessions;
+        });
+        if (last[0]) {
+            publishPresence(List.of(userId), false);
+        }
+    }
+
+    // re-announce everyone connected here well within the presence TTL
+    @Scheduled(fixedDelayString = "#{${app.chat.realtime.presence-ttl-seconds:90} * 1000 / 3}")
+    public void refreshPresence() {
+        if (!localSessions.isEmpty()) {
+            // an open socket is activity even when no HTTP requests are made
+            localSessions.keySet().forEach(activityTracker::record);
+            publishPresence(new ArrayList<>(localSessions.keySet()), true);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            deliver(objectMapper.readValue(message.getBody(), ChatEventDTO.class));
+        } catch (Exception e) {
+            log.warn("Dropping unreadable chat event: {}", e.getMessage());
+        }
+    }
+
+    private void publishPresence(List<Integer> userIds, boolean online) {
+        publish(ChatEventDTO.builder()
+                .type(ChatEventType.PRESENCE)
+                .recipientIds(List.of())
+                .onlineUserIds(userIds)
+                .online(online)
+                .nodeId(nodeId)
+                .build());
+    }
+
+    private void publish(ChatEventDTO event) {
+        try {
+            redis.convertAndSend(config.getChannel(),
+                    new String(objectMapper.writeValueAsBytes(event), StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize chat event {}: {}", event.getType(), e.getMessage());
+        } catch (DataAccessException e) {
+            // single-node fallback: other nodes miss this event, local sockets still get it
+            log.debug("Chat relay unavailable, delivering locally: {}", e.getMessage());
+            deliver(event);
+        }
+    }
+
+    private void deliver(ChatEventDTO event) {
+        if (event.getType() == ChatEventType.PRESENCE) {
+            long ttlMs = config.getPresenceTtlSeconds() * 1000L;
+            for (Integer userId : event.getOnlineUserIds()) {
+                if (event.isOnline()) {
+                    presenceStore.markOnline(userId, event.getNodeId(), ttlMs);
+                } else {
+                    presenceStore.markOffline(userId, event.getNodeId());
+                }
+            }
+            return;
+        }
+        if (event.getType() == ChatEventType.MESSAGE) {
+            // a message ends the sender's typing indicator
+            event.getRecipientIds().forEach(id -> presenceStore.stopTyping(event.getUserId(), id));
+        }
+        for (Integer recipientId : event.getRecipientIds()) {
+            if (localSessions.containsKey(recipientId)) {
+                messagingTemplate.convertAndSendToUser(recipientId.toString(), USER_DESTINATION, event);
+            }
+        }
+    }
+
+    private static Integer userId(Principal principal) {
+        return principal != null ? Integer.valueOf(principal.getName()) : null;
+    }
+}
@@ -0,0 +1,75 @@
+package com.esewa.javabackend.service;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Mail template with {@code {{name}}} placeholders, parsed once into literal and placeholder
+ * parts so rendering a message is plain string concatenation.
+ */
+class DigestTemplate {
+
+    private final String[] literals;      // literals[i] precedes names[i]; one extra trailing literal
+    private final String[] names;
+    private final boolean html;
+
+    private DigestTemplate(String[] literals, String[] names, boolean html) {
+        this.literals = literals;
+        this.names = names;
+        this.html = html;
+    }
+
+    static DigestTemplate load(String classpathLocation) {
+        try (InputStream in = new ClassPathResource(classpathLocation).getInputStream()) {
+            return parse(new String(in.readAllBytes(), StandardCharsets.UTF_8), classpathLocation.endsWith(".html"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read mail template " + classpathLocation, e);
+        }
+    }
+
+    static DigestTemplate parse(String source, boolean html) {
+        List<String> literals = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            int close = open < 0 ? -1 : source.indexOf("}}", open + 2);
+            if (close < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            literals.add(source.substring(position, open));
+            names.add(source.substring(open + 2, close).trim());
+            position = close + 2;
+        }
+        return new DigestTemplate(literals.toArray(String[]::new), names.toArray(String[]::new), html);
+    }
+
+    /**
+     * @param values placeholder values, escaped for HTML templates
+     * @param raw    placeholder values inserted as-is (already rendered fragments)
+     */
+    String render(Map<String, String> values, Map<String, String> raw) {
+        StringBuilder out = new StringBuilder(256);
+        for (int i = 0; i < names.length; i++) {
+            out.append(literals[i]);
+            String rawValue = raw.get(names[i]);
+            if (rawValue != null) {
+                out.append(rawValue);
+            } else {
+                String value = values.getOrDefault(names[i], "");
+                out.append(html ? HtmlUtils.htmlEscape(value) : value);
+            }
+        }
+        out.append(literals[literals.length - 1]);
+        return out.toString();
+    }
+}
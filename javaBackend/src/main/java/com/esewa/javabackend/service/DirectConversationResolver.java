@@ -0,0 +1,74 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.repository.JpaRepository.ConversationRepository;
+import com.esewa.javabackend.repository.JpaRepository.DirectConversationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.esewa.javabackend.utils.TransactionCallbacks.afterCommit;
+
+/**
+ * Finds the direct conversation of two users through its canonical (min, max) user pair,
+ * which is unique in {@code conversations}, so lookups are a single index probe and two
+ * users racing to start a conversation end up in the same one.
+ *
+ * Resolved ids are cached locally. Conversations created in a transaction are cached only
+ * once it commits, so a rolled-back id is never served.
+ */
+@Component
+@RequiredArgsConstructor
+public class DirectConversationResolver {
+
+    private static final int MAX_ENTRIES = 100_000;
+
+    private final ConversationRepository conversationRepository;
+    private final DirectConversationRepository directConversationRepository;
+    private final Map<Long, Integer> conversationIds = new ConcurrentHashMap<>();
+
+    public Optional<Integer> find(Integer userA, Integer userB) {
+        long key = key(userA, userB);
+        Integer cached = conversationIds.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Integer> found = conversationRepository.findDirectConversationId(
+                Math.min(userA, userB), Math.max(userA, userB));
+        found.ifPresent(id -> cache(key, id));
+        return found;
+    }
+
+    /**
+     * The users' conversation, created with its participants and member rows if missing.
+     */
+    public Integer findOrCreate(Integer userA, Integer userB) {
+        Optional<Integer> existing = find(userA, userB);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        int low = Math.min(userA, userB);
+        int high = Math.max(userA, userB);
+        Optional<Integer> created = directConversationRepository.insertIfAbsent(low, high);
+        if (created.isEmpty()) {
+            // lost a race with a concurrent creator, whose row is committed by now
+            return find(userA, userB).orElseThrow(() -> new IllegalStateException("Conversation not found"));
+        }
+        long key = key(userA, userB);
+        afterCommit(() -> cache(key, created.get()));
+        return created.get();
+    }
+
+    private void cache(long key, Integer conversationId) {
+        if (conversationIds.size() >= MAX_ENTRIES) {
+            conversationIds.clear();
+        }
+        conversationIds.put(key, conversationId);
+    }
+
+    private static long key(Integer userA, Integer userB) {
+        return ((long) Math.min(userA, userB) << 32) | (Math.max(userA, userB) & 0xffffffffL);
+    }
+}
@@ -0,0 +1,426 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.FollowGraphConfig;
+import com.esewa.javabackend.repository.JpaRepository.FollowEdgeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.esewa.javabackend.utils.TransactionCallbacks.afterCommit;
+
+/**
+ * The whole follows table held in memory, so follow checks, mutuality and neighbour lists
+ * never touch the database. Until the first build finishes {@link #isReady()} is false and
+ * callers query the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FollowGraph implements MessageListener {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final FollowGraphConfig config;
+    private final FollowEdgeRepository edgeRepository;
+    private final StringRedisTemplate redis;
+    private final RedisMessageListenerContainer chatRelayListenerContainer;
+
+    private final Object writeLock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "follow-graph-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // readers take one consistent view; only a rebuild replaces it
+    private volatile State state;
+    // changes applied while a rebuild is reading the table, replayed onto its result
+    private List<long[]> journal;
+    private volatile long builtAt;
+
+    @PostConstruct
+    void subscribe() {
+        if (config.isEnabled()) {
+            chatRelayListenerContainer.addMessageListener(this, new ChannelTopic(config.getChannel()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        requestRebuild();
+    }
+
+    @Scheduled(fixedDelay = 10_000)
+    public void maintain() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        State current = state;
+        if (current == null
+                || current.overlay.size() > config.getMaxOverlayEntries()
+                || System.currentTimeMillis() - builtAt >= config.getRebuildIntervalMs()) {
+            requestRebuild();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    public boolean isReady() {
+        return state != null;
+    }
+
+    public boolean follows(int followerId, int followeeId) {
+        State current = requireState();
+        Boolean changed = current.overlay.get(key(followerId, followeeId));
+        return changed != null ? changed : current.out.contains(followerId, followeeId);
+    }
+
+    public boolean isMutual(int userId, int otherUserId) {
+        return follows(userId, otherUserId) && follows(otherUserId, userId);
+    }
+
+    public int followingCount(int userId) {
+        State current = requireState();
+        return current.out.degree(userId) + delta(current, current.changedOut.get(userId), userId, true);
+    }
+
+    public int followerCount(int userId) {
+        State current = requireState();
+        return current.in.degree(userId) + delta(current, current.changedIn.get(userId), userId, false);
+    }
+
+    /** Ids the user follows, ascending. */
+    public int[] following(int userId) {
+        State current = requireState();
+        return neighbours(current, current.out, current.changedOut.get(userId), userId, true);
+    }
+
+    /** Ids following the user, ascending. */
+    public int[] followers(int userId) {
+        State current = requireState();
+        return neighbours(current, current.in, current.changedIn.get(userId), userId, false);
+    }
+
+    /** Ids the user follows that follow the user back, ascending. */
+    public int[] mutuals(int userId) {
+        int[] following = following(userId);
+        int[] followers = followers(userId);
+        int[] both = new int[Math.min(following.length, followers.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < following.length && j < followers.length; ) {
+            if (following[i] < followers[j]) {
+                i++;
+            } else if (following[i] > followers[j]) {
+                j++;
+            } else {
+                both[n++] = following[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(both, n);
+    }
+
+    /** Whether {@code followerId} follows each of {@code followeeIds}. */
+    public Map<Integer, Boolean> followsEach(int followerId, Collection<Integer> followeeIds) {
+        Map<Integer, Boolean> result = new LinkedHashMap<>();
+        for (Integer followeeId : followeeIds) {
+            if (followeeId != null) {
+                result.put(followeeId, follows(followerId, followeeId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Records a follow created in the current transaction, on this node and every other, once
+     * it commits.
+     */
+    public void followed(int followerId, int followeeId) {
+        afterCommit(() -> publish(followerId, followeeId, true));
+    }
+
+    /**
+     * Records a follow deleted in the current transaction, on this node and every other, once
+     * it commits.
+     */
+    public void unfollowed(int followerId, int followeeId) {
+        afterCommit(() -> publish(followerId, followeeId, false));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // "<followerId>:<followeeId>:<1|0>"; applying a change twice is harmless
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+        if (parts.length != 3) {
+            return;
+        }
+        try {
+            apply(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), "1".equals(parts[2]));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed follow graph change {}", Arrays.toString(parts));
+        }
+    }
+
+    private void publish(int followerId, int followeeId, boolean follows) {
+        apply(followerId, followeeId, follows);
+        try {
+            redis.convertAndSend(config.getChannel(), followerId + ":" + followeeId + ":" + (follows ? 1 : 0));
+        } catch (DataAccessException e) {
+            log.warn("Could not relay follow change {} -> {}; other nodes catch up on their next rebuild: {}",
+                    followerId, followeeId, e.getMessage());
+        }
+    }
+
+    private void apply(int followerId, int followeeId, boolean follows) {
+        synchronized (writeLock) {
+            if (journal != null) {
+                journal.add(new long[]{followerId, followeeId, follows ? 1 : 0});
+            }
+            if (state != null) {
+                state.apply(followerId, followeeId, follows);
+            }
+        }
+    }
+
+    private void requestRebuild() {
+        if (config.isEnabled() && rebuilding.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.error("Follow graph rebuild failed", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        }
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        synchronized (writeLock) {
+            journal = new ArrayList<>();
+        }
+        State built;
+        try {
+            EdgeBuffer edges = new EdgeBuffer();
+            edgeRepository.forEachEdge(edges::add);
+            built = new State(Csr.build(edges.from, edges.to, edges.size, edges.maxId),
+                    Csr.build(edges.to, edges.from, edges.size, edges.maxId));
+        } catch (RuntimeException e) {
+            synchronized (writeLock) {
+                journal = null;
+            }
+            throw e;
+        }
+        synchronized (writeLock) {
+            // a change seen during the scan may or may not be in the table snapshot; replaying
+            // it turns it into an overlay entry only where the snapshot disagrees
+            for (long[] change : journal) {
+                built.apply((int) change[0], (int) change[1], change[2] == 1);
+            }
+            journal = null;
+            state = built;
+        }
+        builtAt = System.currentTimeMillis();
+        log.info("Follow graph built with {} edges in {} ms", built.out.targets.length, builtAt - started);
+    }
+
+    private State requireState() {
+        State current = state;
+        if (current == null) {
+            throw new IllegalStateException("Follow graph is not loaded yet");
+        }
+        return current;
+    }
+
+    // net change the overlay makes to a degree: every entry disagrees with the arrays
+    private static int delta(State current, Set<Integer> changed, int userId, boolean outgoing) {
+        if (changed == null) {
+            return 0;
+        }
+        int delta = 0;
+        for (Integer other : changed) {
+            Boolean follows = current.overlay.get(outgoing ? key(userId, other) : key(other, userId));
+            if (follows != null) {
+                delta += follows ? 1 : -1;
+            }
+        }
+        return delta;
+    }
+
+    private static int[] neighbours(State current, Csr csr, Set<Integer> changed, int userId, boolean outgoing) {
+        int[] base = csr.neighbours(userId);
+        if (changed == null || changed.isEmpty()) {
+            return base;
+        }
+        Set<Integer> removed = new HashSet<>();
+        List<Integer> added = new ArrayList<>();
+        for (Integer other : changed) {
+            Boolean follows = current.overlay.get(outgoing ? key(userId, other) : key(other, userId));
+            if (follows == null) {
+                continue;
+            }
+            if (follows) {
+                added.add(other);
+            } else {
+                removed.add(other);
+            }
+        }
+        int[] merged = new int[base.length - removed.size() + added.size()];
+        int n = 0;
+        for (int id : base) {
+            if (!removed.contains(id)) {
+                merged[n++] = id;
+            }
+        }
+        for (Integer id : added) {
+            merged[n++] = id;
+        }
+        merged = Arrays.copyOf(merged, n);
+        Arrays.sort(merged);
+        return merged;
+    }
+
+    private static long key(int followerId, int followeeId) {
+        return ((long) followerId << 32) | (followeeId & 0xffffffffL);
+    }
+
+    private static class State {
+        final Csr out;
+        final Csr in;
+        // pair key -> current answer, only where it differs from the arrays
+        final Map<Long, Boolean> overlay = new ConcurrentHashMap<>();
+        // users touched by the overlay, per follower and per followee
+        final Map<Integer, Set<Integer>> changedOut = new ConcurrentHashMap<>();
+        final Map<Integer, Set<Integer>> changedIn = new ConcurrentHashMap<>();
+
+        State(Csr out, Csr in) {
+            this.out = out;
+            this.in = in;
+        }
+
+        // callers hold the write lock
+        void apply(int followerId, int followeeId, boolean follows) {
+            long key = key(followerId, followeeId);
+            if (out.contains(followerId, followeeId) == follows) {
+                overlay.remove(key);
+                forget(changedOut, followerId, followeeId);
+                forget(changedIn, followeeId, followerId);
+            } else {
+                changedOut.computeIfAbsent(followerId, id -> ConcurrentHashMap.newKeySet()).add(followeeId);
+                changedIn.computeIfAbsent(followeeId, id -> ConcurrentHashMap.newKeySet()).add(followerId);
+                overlay.put(key, follows);
+            }
+        }
+
+        private static void forget(Map<Integer, Set<Integer>> changed, int userId, int otherUserId) {
+            Set<Integer> others = changed.get(userId);
+            if (others != null) {
+                others.remove(otherUserId);
+                if (others.isEmpty()) {
+                    changed.remove(userId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adjacency in compressed-sparse-row form: the neighbours of user {@code u} are
+     * {@code targets[offsets[u] .. offsets[u + 1])}, sorted ascending.
+     */
+    private static class Csr {
+        final int[] offsets;
+        final int[] targets;
+
+        Csr(int[] offsets, int[] targets) {
+            this.offsets = offsets;
+            this.targets = targets;
+        }
+
+        static Csr build(int[] from, int[] to, int size, int maxId) {
+            int[] offsets = new int[maxId + 2];
+            for (int i = 0; i < size; i++) {
+                offsets[from[i] + 1]++;
+            }
+            for (int u = 0; u <= maxId; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+            int[] next = Arrays.copyOf(offsets, maxId + 1);
+            int[] targets = new int[size];
+            for (int i = 0; i < size; i++) {
+                targets[next[from[i]]++] = to[i];
+            }
+            for (int u = 0; u <= maxId; u++) {
+                if (offsets[u + 1] - offsets[u] > 1) {
+                    Arrays.sort(targets, offsets[u], offsets[u + 1]);
+                }
+            }
+            return new Csr(offsets, targets);
+        }
+
+        boolean contains(int userId, int otherUserId) {
+            return degree(userId) > 0
+                    && Arrays.binarySearch(targets, offsets[userId], offsets[userId + 1], otherUserId) >= 0;
+        }
+
+        int degree(int userId) {
+            if (userId < 0 || userId + 1 >= offsets.length) {
+                return 0;
+            }
+            return offsets[userId + 1] - offsets[userId];
+        }
+
+        int[] neighbours(int userId) {
+            if (degree(userId) == 0) {
+                return EMPTY;
+            }
+            return Arrays.copyOfRange(targets, offsets[userId], offsets[userId + 1]);
+        }
+    }
+
+    // growable primitive edge list for the table scan
+    private static class EdgeBuffer {
+        int[] from = new int[1024];
+        int[] to = new int[1024];
+        int size;
+        int maxId;
+
+        void add(int followerId, int followeeId) {
+            if (followerId < 0 || followeeId < 0) {
+                return;
+            }
+            if (size == from.length) {
+                from = Arrays.copyOf(from, size * 2);
+                to = Arrays.copyOf(to, size * 2);
+            }
+            from[size] = followerId;
+            to[size] = followeeId;
+            size++;
+            maxId = Math.max(maxId, Math.max(followerId, followeeId));
+        }
+    }
+}
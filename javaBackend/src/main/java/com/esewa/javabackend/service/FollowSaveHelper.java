@@ -25,6 +25,7 @@ public class FollowSaveHelper {
   private final FollowRepository followRepository;
   private final UserRepository userRepository;
   private final FollowMapper followMapper;
+  private final FollowGraph followGraph;
 
   @Transactional(propagation = Propagation.REQUIRES_NEW)
   public FollowDTO saveInNewTransaction(Integer followerId, Integer followeeId, FollowStatus status, Boolean isNew) {
@@ -44,6 +45,7 @@ public class FollowSaveHelper {
         .build();
 
     Follow saved = followRepository.save(fresh);
+    followGraph.followed(followerId, followeeId);
 
     // Map to DTO inside the same transaction so any lazy fields (profile, etc.) are
     // available
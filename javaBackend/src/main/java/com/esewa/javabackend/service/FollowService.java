@@ -12,11 +12,9 @@ import com.esewa.javabackend.enums.FollowStatus;
 import com.esewa.javabackend.enums.InteractionAction;
 import com.esewa.javabackend.enums.NotificationType;
 import com.esewa.javabackend.mapper.FollowMapper;
-import com.esewa.javabackend.module.Conversation;
 import com.esewa.javabackend.module.Follow;
 import com.esewa.javabackend.module.User;
 import com.esewa.javabackend.module.UserStats;
-import com.esewa.javabackend.repository.JpaRepository.ConversationRepository;
 import com.esewa.javabackend.repository.JpaRepository.FollowRepository;
 import com.esewa.javabackend.repository.JpaRepository.UserRepository;
 import com.esewa.javabackend.repository.JpaRepository.UserStatsRepository;
@@ -33,10 +31,16 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -46,12 +50,14 @@ public class FollowService {
         private final UserRepository userRepository;
         private final UserStatsRepository userStatsRepository;
         private final FollowMapper followMapper;
-        private final ConversationRepository conversationRepository;
+        private final DirectConversationResolver directConversations;
+        private final MessagePermissionCache permissionCache;
         private final NotificationProducer notificationProducer;
         private final InteractionProducer interactionProducer;
         private final StringRedisTemplate stringRedisTemplate;
         private final EntityManager entityManager;
         private final FollowSaveHelper followSaveHelper;
+        private final FollowGraph followGraph;
 
         @Transactional
         public FollowDTO followUser(Integer followerId, Integer followeeId) {
@@ -65,6 +71,7 @@ public class FollowService {
 
                 // Check if already following — make this idempotent and return existing follow
                 // if present
+                permissionCache.evict(followerId, followeeId);
                 Optional<Follow> existingFollow = followRepository.findByFollowerIdAndFolloweeId(followerId,
                                 followeeId);
                 if (existingFollow.isPresent()) {
@@ -165,7 +172,7 @@ public class FollowService {
                 }
 
                 // After following, check if mutual follow exists
-                if (followRepository.existsByFollowerAndFollowee(followee, follower)) {
+                if (isFollowing(followeeId, followerId)) {
                         createConversationIfNotExists(follower, followee);
                 }
 
@@ -206,15 +213,10 @@ public class FollowService {
         }
 
         private void createConversationIfNotExists(User user1, User user2) {
-                boolean exists = conversationRepository.findPrivateConversation(user1, user2).isPresent();
-                if (exists)
+                if (directConversations.find(user1.getId(), user2.getId()).isPresent())
                         return;
 
-                Conversation conversation = Conversation.builder()
-                                .participants(List.of(user1, user2))
-                                .build();
-
-                conversationRepository.save(conversation);
+                directConversations.findOrCreate(user1.getId(), user2.getId());
                 System.out.println("New conversation created between: "
                                 + user1.getUsername() + " and " + user2.getUsername());
         }
@@ -261,6 +263,8 @@ public class FollowService {
                 Follow follow = followRepository.findByFollowerIdAndFolloweeId(followerId, followeeId)
                                 .orElseThrow(() -> new RuntimeException("Follow relationship not found"));
                 followRepository.delete(follow);
+                permissionCache.evict(followerId, followeeId);
+                followGraph.unfollowed(followerId, followeeId);
                 updateUserStats(follow.getFollower(), follow.getFollowee(), false);
                 // Evict cached home chefs so landing page updates quickly
                 try {
@@ -274,30 +278,33 @@ public class FollowService {
 
         @Transactional
         public List<FollowerDTO> getFollowersOfUser(Integer userId) {
+                if (followGraph.isReady()) {
+                        return toFollowerDTOs(loadUsers(followGraph.followers(userId)));
+                }
                 List<Follow> followers = followRepository.findByFolloweeId(userId);
-                return followers.stream()
-                                .map(f -> {
-                                        var u = f.getFollower();
-                                        String profileUrl = (u.getProfile() != null && u.getProfile().getUrl() != null)
-                                                        ? u.getProfile().getUrl()
-                                                        : String.format("https://i.pravatar.cc/150?u=%s",
-                                                                        u.getUsername());
-                                        return FollowerDTO.builder()
-                                                        .id(u.getId())
-                                                        .username(u.getUsername())
-                                                        .displayName(u.getDisplayName())
-                                                        .profile(profileUrl)
-                                                        .build();
-                                })
-                                .toList();
+                return toFollowerDTOs(followers.stream().map(Follow::getFollower).toList());
         }
 
         @Transactional
         public List<FollowerDTO> getFollowing(Integer userId) {
+                if (followGraph.isReady()) {
+                        return toFollowerDTOs(loadUsers(followGraph.following(userId)));
+                }
                 List<Follow> followers = followRepository.findByFollowerId(userId);
-                return followers.stream()
-                                .map(f -> {
-                                        var u = f.getFollowee();
+                return toFollowerDTOs(followers.stream().map(Follow::getFollowee).toList());
+        }
+
+        // users for the given ids in one query, in the order given
+        private List<User> loadUsers(int[] userIds) {
+                List<Integer> ids = Arrays.stream(userIds).boxed().toList();
+                Map<Integer, User> byId = userRepository.findAllById(ids).stream()
+                                .collect(Collectors.toMap(User::getId, Function.identity()));
+                return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+        }
+
+        private List<FollowerDTO> toFollowerDTOs(List<User> users) {
+                return users.stream()
+                                .map(u -> {
                                         String profileUrl = (u.getProfile() != null && u.getProfile().getUrl() != null)
                                                         ? u.getProfile().getUrl()
                                                         : String.format("https://i.pravatar.cc/150?u=%s",
@@ -313,9 +320,29 @@ public class FollowService {
         }
 
         public boolean isFollowing(Integer followerId, Integer followeeId) {
+                if (followGraph.isReady()) {
+                        return followGraph.follows(followerId, followeeId);
+                }
                 return followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId);
         }
 
+        /**
+         * Whether {@code followerId} follows each of {@code followeeIds}, answered in one pass.
+         */
+        public Map<Integer, Boolean> isFollowingEach(Integer followerId, Collection<Integer> followeeIds) {
+                if (followGraph.isReady()) {
+                        return followGraph.followsEach(followerId, followeeIds);
+                }
+                Map<Integer, Boolean> result = new LinkedHashMap<>();
+                followeeIds.forEach(id -> result.put(id, false));
+                followRepository.findByFollowerId(followerId).forEach(f -> {
+                        if (result.containsKey(f.getFollowee().getId())) {
+                                result.put(f.getFollowee().getId(), true);
+                        }
+                });
+                return result;
+        }
+
         @Transactional
         public PaginatedDtoResponse<FollowDTO> searchFollows(SearchFilter filter) {
                 if (filter == null || filter.getPagination() == null) {
@@ -416,6 +443,9 @@ public class FollowService {
         }
 
         public boolean isMutual(Integer followerId, Integer followeeId) {
+                if (followGraph.isReady()) {
+                        return followGraph.isMutual(followerId, followeeId);
+                }
                 boolean follower = followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId);
                 boolean following = followRepository.existsByFollowerIdAndFolloweeId(followeeId, followerId);
                 return follower && following;
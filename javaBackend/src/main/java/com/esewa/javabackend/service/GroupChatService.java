@@ -0,0 +1,312 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.GroupChatConfig;
+import com.esewa.javabackend.config.kafka.NotificationProducer;
+import com.esewa.javabackend.dto.GroupDTO;
+import com.esewa.javabackend.dto.MessageDTO;
+import com.esewa.javabackend.dto.MessageHistoryDTO;
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import com.esewa.javabackend.enums.GroupRole;
+import com.esewa.javabackend.enums.NotificationType;
+import com.esewa.javabackend.module.Group;
+import com.esewa.javabackend.module.GroupMember;
+import com.esewa.javabackend.module.Message;
+import com.esewa.javabackend.repository.JpaRepository.ConversationMemberRepository;
+import com.esewa.javabackend.repository.JpaRepository.ConversationRepository;
+import com.esewa.javabackend.repository.JpaRepository.GroupConversationRepository;
+import com.esewa.javabackend.repository.JpaRepository.GroupMemberRepository;
+import com.esewa.javabackend.repository.JpaRepository.GroupRepository;
+import com.esewa.javabackend.repository.JpaRepository.MessageRepository;
+import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import com.esewa.javabackend.utils.BackgroundJob;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.esewa.javabackend.utils.TransactionCallbacks.afterCommit;
+
+/**
+ * Group chats on top of {@link Group} and {@link GroupMember}: one conversation per group,
+ * with members' inbox rows caught up and offline members notified in periodic batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GroupChatService {
+
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final int PREVIEW_LENGTH = 255;
+
+    private final GroupChatConfig config;
+    private final GroupRepository groupRepository;
+    private final GroupMemberRepository groupMemberRepository;
+    private final GroupConversationRepository groupConversationRepository;
+    private final ConversationRepository conversationRepository;
+    private final ConversationMemberRepository conversationMemberRepository;
+    private final MessageRepository messageRepository;
+    private final UserRepository userRepository;
+    private final UserDirectoryCache userDirectory;
+    private final MessageService messageService;
+    private final ChatRealtimeService chatRealtimeService;
+    private final NotificationProducer notificationProducer;
+
+    // conversations with messages sent on this node whose members' rows have not caught up yet
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+
+    // newest message per conversation whose offline members may still need a notification
+    private final Map<Integer, LastMessage> unnotified = new ConcurrentHashMap<>();
+
+    // notifications are one Kafka send per member, kept off the scheduler thread
+    private final BackgroundJob notifyJob = new BackgroundJob("group-chat-notify");
+
+    @Transactional
+    public GroupDTO createGroup(Integer ownerId, GroupDTO request) {
+        if (request.getName() == null || request.getName().isBlank() || request.getName().length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Group name must be 1 to " + MAX_NAME_LENGTH + " characters");
+        }
+        if (!userDirectory.resolve(List.of(ownerId)).containsKey(ownerId)) {
+            throw new RuntimeException("Owner not found");
+        }
+        String slug = request.getSlug() != null && !request.getSlug().isBlank()
+                ? request.getSlug().trim().toLowerCase(Locale.ROOT)
+                : request.getName().trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+        if (groupRepository.existsBySlug(slug)) {
+            throw new IllegalArgumentException("A group with slug '" + slug + "' already exists");
+        }
+
+        Group group = groupRepository.save(Group.builder()
+                .name(request.getName().trim())
+                .slug(slug)
+                .description(request.getDescription())
+                .owner(userRepository.getReferenceById(ownerId))
+                .isPublic(request.isPublic())
+                .build());
+        groupMemberRepository.save(GroupMember.builder()
+                .group(group)
+                .user(userRepository.getReferenceById(ownerId))
+                .role(GroupRole.ADMIN)
+                .build());
+        groupMemberRepository.flush();
+        conversationId(group.getId());
+
+        return GroupDTO.builder()
+                .id(group.getId())
+                .name(group.getName())
+                .slug(group.getSlug())
+                .description(group.getDescription())
+                .ownerId(ownerId)
+                .isPublic(group.isPublic())
+                .build();
+    }
+
+    @Transactional
+    public void join(UUID groupId, Integer userId) {
+        Group group = groupRepository.findById(groupId).orElseThrow(() -> new RuntimeException("Group not found"));
+        if (groupMemberRepository.existsByGroupIdAndUserId(groupId, userId)) {
+            return;
+        }
+        if (!group.isPublic()) {
+            throw new IllegalStateException("This group is invite-only");
+        }
+        if (groupMemberRepository.countByGroupId(groupId) >= config.getMaxMembers()) {
+            throw new IllegalStateException("This group is full");
+        }
+        if (!userDirectory.resolve(List.of(userId)).containsKey(userId)) {
+            throw new RuntimeException("User not found");
+        }
+        groupMemberRepository.save(GroupMember.builder()
+                .group(group)
+                .user(userRepository.getReferenceById(userId))
+                .role(GroupRole.MEMBER)
+                .build());
+        groupConversationRepository.addMember(conversationId(groupId), userId);
+    }
+
+    @Transactional
+    public void leave(UUID groupId, Integer userId) {
+        Group group = groupRepository.findById(groupId).orElseThrow(() -> new RuntimeException("Group not found"));
+        if (group.getOwner().getId().equals(userId)) {
+            throw new IllegalStateException("The owner cannot leave the group");
+        }
+        if (groupMemberRepository.deleteMember(groupId, userId) > 0) {
+            groupConversationRepository.removeMember(conversationId(groupId), userId);
+        }
+    }
+
+    /**
+     * Stores a message in the group's conversation.
+     */
+    @Transactional
+    public MessageDTO sendMessage(UUID groupId, Integer senderId, String body) {
+        if (body == null || body.isBlank()) {
+            throw new IllegalArgumentException("Message body must not be empty");
+        }
+        Integer conversationId = memberConversationId(groupId, senderId);
+        String senderName = userDirectory.resolve(List.of(senderId)).get(senderId);
+
+        Message saved = messageRepository.save(Message.builder()
+                .conversation(conversationRepository.getReferenceById(conversationId))
+                .sender(userRepository.getReferenceById(senderId))
+                .body(body)
+                .sentAt(Instant.now())
+                .build());
+        conversationRepository.recordLastMessage(conversationId, saved.getId(),
+                body.length() > PREVIEW_LENGTH ? body.substring(0, PREVIEW_LENGTH) : body,
+                saved.getSentAt(), senderId);
+        conversationMemberRepository.recordOwnMessage(conversationId, saved.getId(), senderId, saved.getSentAt());
+
+        MessageDTO sent = MessageDTO.builder()
+                .id(saved.getId())
+                .conversationId(conversationId)
+                .senderId(senderId)
+                .senderName(senderName)
+                .body(saved.getBody())
+                .sentAt(saved.getSentAt())
+                .isRead(false)
+                .build();
+        afterCommit(() -> {
+            pending.add(conversationId);
+            unnotified.merge(conversationId, new LastMessage(sent.getId(), senderId, senderName), LastMessage::newer);
+        });
+        chatRealtimeService.groupMessageSent(sent, conversationMemberRepository.findUserIds(conversationId));
+        return sent;
+    }
+
+    @Transactional
+    public MessageHistoryDTO getHistory(UUID groupId, Integer viewerId, String before, String after, int size) {
+        return messageService.getConversationHistory(memberConversationId(groupId, viewerId), viewerId, before,
+                after, size);
+    }
+
+    @Transactional
+    public void markRead(UUID groupId, Integer userId) {
+        conversationMemberRepository.markRead(memberConversationId(groupId, userId), userId);
+    }
+
+    /**
+     * Brings every member row of the groups with messages sent on this node since the last
+     * run up to date: one UPDATE per active group.
+     */
+    @Scheduled(fixedDelayString = "${app.chat.groups.flush-interval-ms:5000}")
+    public void catchUpMembers() {
+        for (Integer conversationId : new ArrayList<>(pending)) {
+            if (!pending.remove(conversationId)) {
+                continue;
+            }
+            try {
+                groupConversationRepository.catchUp(conversationId, config.getMaxUnreadCount());
+            } catch (Exception e) {
+                pending.add(conversationId);
+                log.warn("Group conversation {} catch-up failed: {}", conversationId, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.chat.groups.notify-interval-ms:300000}")
+    public void scheduleNotifications() {
+        notifyJob.trigger(this::notifyOfflineMembers);
+    }
+
+    /**
+     * Notifies offline members of groups with new messages, unless they were already
+     * notified and have not read the group since. Groups where someone was skipped for being
+     * online stay queued, so they are notified on a later run if they go offline unread.
+     */
+    void notifyOfflineMembers() {
+        for (Integer conversationId : new ArrayList<>(unnotified.keySet())) {
+            LastMessage last = unnotified.remove(conversationId);
+            if (last == null) {
+                continue;
+            }
+            boolean skippedOnline = false;
+            List<Integer> notified = new ArrayList<>();
+            try {
+                String groupName = groupConversationRepository.findGroupName(conversationId).orElse("a group");
+                for (Integer memberId : groupConversationRepository.findToNotify(conversationId, last.messageId,
+                        last.senderId)) {
+                    if (chatRealtimeService.isOnline(memberId)) {
+                        skippedOnline = true;
+                        continue;
+                    }
+                    notificationProducer.sendNotification(NotificationEvent.builder()
+                            .eventId(UUID.nameUUIDFromBytes(("group-message:" + conversationId + ":" + last.messageId
+                                    + ":" + memberId).getBytes(StandardCharsets.UTF_8)))
+                            .senderId(last.senderId)
+                            .receiverId(memberId)
+                            .type(NotificationType.GROUP_MESSAGE)
+                            .message(last.senderName + " posted in " + groupName)
+                            .referenceId(conversationId)
+                            .build());
+                    notified.add(memberId);
+                }
+                log.debug("Notified {} offline members of group conversation {}", notified.size(), conversationId);
+            } catch (Exception e) {
+                skippedOnline = true;
+                log.warn("Group conversation {} notifications failed: {}", conversationId, e.getMessage());
+            }
+            try {
+                if (!notified.isEmpty()) {
+                    groupConversationRepository.markNotified(conversationId, notified, last.messageId);
+                }
+            } catch (Exception e) {
+                // the event ids are per member and message, so resending is deduplicated downstream
+                skippedOnline = true;
+                log.warn("Group conversation {} notified members not recorded: {}", conversationId, e.getMessage());
+            }
+            if (skippedOnline) {
+                unnotified.merge(conversationId, last, LastMessage::newer);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        notifyJob.shutdown();
+    }
+
+    private Integer memberConversationId(UUID groupId, Integer userId) {
+        Integer conversationId = conversationId(groupId);
+        if (!conversationMemberRepository.existsByConversationIdAndUserId(conversationId, userId)) {
+            throw new IllegalStateException("You are not a member of this group");
+        }
+        return conversationId;
+    }
+
+    // groups created before group chats existed get their conversation on first use
+    private Integer conversationId(UUID groupId) {
+        return conversationRepository.findGroupConversationId(groupId)
+                .or(() -> {
+                    if (!groupRepository.existsById(groupId)) {
+                        throw new RuntimeException("Group not found");
+                    }
+                    return groupConversationRepository.insertIfAbsent(groupId);
+                })
+                // lost a creation race; the winner's row is committed by now
+                .orElseGet(() -> conversationRepository.findGroupConversationId(groupId)
+                        .orElseThrow(() -> new IllegalStateException("Group conversation could not be created")));
+    }
+
+    private static class LastMessage {
+        final int messageId;
+        final Integer senderId;
+        final String senderName;
+
+        LastMessage(int messageId, Integer senderId, String senderName) {
+            this.messageId = messageId;
+            this.senderId = senderId;
+            this.senderName = senderName;
+        }
+
+        static LastMessage newer(LastMessage a, LastMessage b) {
+            return a.messageId > b.messageId ? a : b;
+        }
+    }
+}
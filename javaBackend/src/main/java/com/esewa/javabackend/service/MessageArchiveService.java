@@ -0,0 +1,313 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.MessageArchiveConfig;
+import com.esewa.javabackend.dto.MessageDTO;
+import com.esewa.javabackend.module.MessageArchiveSegment;
+import com.esewa.javabackend.repository.JpaRepository.MessageArchiveRepository;
+import com.esewa.javabackend.repository.JpaRepository.MessageArchiveSegmentRepository;
+import com.esewa.javabackend.utils.BackgroundJob;
+import com.esewa.javabackend.utils.KeysetCursor;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves the messages of conversations idle for {@code idleMonths} out of the live table into
+ * append-only {@link MessageArchiveSegment} rows of gzip-compressed JSON, and reads them back
+ * for the history endpoints.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MessageArchiveService {
+
+    private static final int CONVERSATIONS_PER_QUERY = 100;
+
+    private final MessageArchiveConfig config;
+    private final MessageArchiveRepository archiveRepository;
+    private final MessageArchiveSegmentRepository segmentRepository;
+    private final UserDirectoryCache userDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    // segment id -> its messages, oldest first; access order, so the eldest is least recently used
+    private final Map<Long, List<MessageDTO>> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // a run moves thousands of segments with pauses in between, so it gets its own thread
+    private final BackgroundJob job = new BackgroundJob("message-archive");
+
+    @Scheduled(cron = "${app.messages.archive.cron:0 0 4 * * *}")
+    public void scheduledRun() {
+        if (config.isEnabled()) {
+            job.trigger(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        job.shutdown();
+    }
+
+    /**
+     * Runs one archival pass.
+     *
+     * @return number of messages archived
+     */
+    public int run() {
+        Instant idleBefore = ZonedDateTime.now(ZoneOffset.UTC).minusMonths(config.getIdleMonths()).toInstant();
+        int budget = config.getMaxSegmentsPerRun();
+        int moved = 0;
+        int conversations = 0;
+        int afterId = 0;
+
+        while (budget > 0) {
+            List<Integer> ids = archiveRepository.findColdConversationIds(idleBefore, afterId, CONVERSATIONS_PER_QUERY);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Integer conversationId : ids) {
+                afterId = conversationId;
+                while (budget > 0) {
+                    int count = archiveSegment(conversationId, idleBefore);
+                    if (count == 0) {
+                        break;
+                    }
+                    budget--;
+                    moved += count;
+                    pause();
+                    if (count < config.getSegmentSize()) {
+                        break;
+                    }
+                }
+                conversations++;
+                if (budget <= 0) {
+                    break;
+                }
+            }
+        }
+        if (moved > 0) {
+            log.info("Message archival moved {} messages of {} idle conversations", moved, conversations);
+        }
+        return moved;
+    }
+
+    /**
+     * The conversation's newest archived messages, at most {@code full-conversation-limit},
+     * oldest first, with read state unset. Empty if nothing is archived.
+     */
+    public List<MessageDTO> latest(Integer conversationId) {
+        List<MessageDTO> messages = new ArrayList<>(
+                extendHistory(conversationId, List.of(), null, null, config.getFullConversationLimit()));
+        Collections.reverse(messages);
+        return messages;
+    }
+
+    /**
+     * Completes a history page from the archive. {@code rows} is what the live table returned
+     * for the page (newest first, or oldest first when paging with {@code newerThan}) and
+     * {@code limit} the number of rows wanted; archived messages only ever go before live ones.
+     * Only the segments the page reaches are read.
+     */
+    public List<MessageDTO> extendHistory(Integer conversationId, List<MessageDTO> rows, KeysetCursor olderThan,
+                                          KeysetCursor newerThan, int limit) {
+        // older pages only reach the archive once the live rows run out
+        if (newerThan == null && rows.size() >= limit) {
+            return rows;
+        }
+        List<MessageDTO> page = new ArrayList<>(limit);
+        if (newerThan != null) {
+            // usually no segments: the cursor is past everything archived
+            for (Long segmentId : segmentRepository.findSegmentIdsFrom(conversationId, newerThan.instant())) {
+                for (MessageDTO message : segment(segmentId)) {
+                    if (page.size() < limit && isAfter(message, newerThan)) {
+                        page.add(copy(message));
+                    }
+                }
+                if (page.size() >= limit) {
+                    break;
+                }
+            }
+            for (MessageDTO message : rows) {
+                if (page.size() < limit) {
+                    page.add(message);
+                }
+            }
+            return page;
+        }
+        page.addAll(rows);
+        List<Long> segmentIds = olderThan == null
+                ? segmentRepository.findSegmentIdsNewestFirst(conversationId)
+                : segmentRepository.findSegmentIdsUpTo(conversationId, olderThan.instant());
+        for (Long segmentId : segmentIds) {
+            List<MessageDTO> archived = segment(segmentId);
+            for (int i = archived.size() - 1; i >= 0 && page.size() < limit; i--) {
+                MessageDTO message = archived.get(i);
+                if (olderThan == null || isBefore(message, olderThan)) {
+                    page.add(copy(message));
+                }
+            }
+            if (page.size() >= limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    private int archiveSegment(Integer conversationId, Instant idleBefore) {
+        Integer count = transactionTemplate.execute(status -> {
+            List<Map<String, Object>> rows = archiveRepository.deleteChunk(conversationId, idleBefore,
+                    config.getSegmentSize());
+            if (rows.isEmpty()) {
+                return 0;
+            }
+            rows.sort(Comparator.comparing((Map<String, Object> row) -> (Long) row.get("sentAt"),
+                            Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(row -> (Integer) row.get("id")));
+            segmentRepository.save(toSegment(conversationId, rows));
+            return rows.size();
+        });
+        return count != null ? count : 0;
+    }
+
+    private MessageArchiveSegment toSegment(Integer conversationId, List<Map<String, Object>> rows) {
+        IntSummaryStatistics ids = rows.stream().mapToInt(r -> (Integer) r.get("id")).summaryStatistics();
+        Long oldest = (Long) rows.get(0).get("sentAt");
+        Long newest = (Long) rows.get(rows.size() - 1).get("sentAt");
+        return MessageArchiveSegment.builder()
+                .conversationId(conversationId)
+                .messageCount(rows.size())
+                .minMessageId(ids.getMin())
+                .maxMessageId(ids.getMax())
+                .oldestSentAt(oldest != null ? Instant.ofEpochMilli(oldest) : null)
+                .newestSentAt(newest != null ? Instant.ofEpochMilli(newest) : null)
+                .archivedAt(Instant.now())
+                .payload(compress(rows))
+                .build();
+    }
+
+    private List<MessageDTO> segment(Long segmentId) {
+        List<MessageDTO> cached;
+        synchronized (cache) {
+            cached = cache.get(segmentId);
+        }
+        if (cached != null) {
+            return cached;
+        }
+        MessageArchiveSegment segment = segmentRepository.findById(segmentId)
+                .orElseThrow(() -> new IllegalStateException("Archive segment " + segmentId + " not found"));
+        List<MessageDTO> messages = decode(segment);
+        synchronized (cache) {
+            cache.put(segmentId, messages);
+            Iterator<Long> eldest = cache.keySet().iterator();
+            while (cache.size() > config.getCacheSize() && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        return messages;
+    }
+
+    private List<MessageDTO> decode(MessageArchiveSegment segment) {
+        List<ArchivedMessage> archived;
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(segment.getPayload()))) {
+            archived = objectMapper.readValue(gzip, new TypeReference<List<ArchivedMessage>>() {});
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable archive segment " + segment.getId(), e);
+        }
+        Set<Integer> senderIds = new HashSet<>();
+        archived.forEach(message -> senderIds.add(message.getSenderId()));
+        Map<Integer, String> usernames = userDirectory.resolve(senderIds);
+
+        List<MessageDTO> messages = new ArrayList<>(archived.size());
+        for (ArchivedMessage message : archived) {
+            messages.add(MessageDTO.builder()
+                    .id(message.getId())
+                    .conversationId(segment.getConversationId())
+                    .senderId(message.getSenderId())
+                    .senderName(usernames.get(message.getSenderId()))
+                    .body(message.getBody())
+                    .sentAt(message.getSentAt() != null ? Instant.ofEpochMilli(message.getSentAt()) : null)
+                    .build());
+        }
+        return messages;
+    }
+
+    // callers set per-viewer read state, so never hand out the cached instances
+    private static MessageDTO copy(MessageDTO message) {
+        return MessageDTO.builder()
+                .id(message.getId())
+                .conversationId(message.getConversationId())
+                .senderId(message.getSenderId())
+                .senderName(message.getSenderName())
+                .body(message.getBody())
+                .sentAt(message.getSentAt())
+                .build();
+    }
+
+    private byte[] compress(List<Map<String, Object>> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static boolean isBefore(MessageDTO message, KeysetCursor cursor) {
+        int byTime = compareSentAt(message, cursor);
+        return byTime < 0 || (byTime == 0 && message.getId() < cursor.id());
+    }
+
+    private static boolean isAfter(MessageDTO message, KeysetCursor cursor) {
+        int byTime = compareSentAt(message, cursor);
+        return byTime > 0 || (byTime == 0 && message.getId() > cursor.id());
+    }
+
+    private static int compareSentAt(MessageDTO message, KeysetCursor cursor) {
+        return message.getSentAt() == null ? -1 : message.getSentAt().compareTo(cursor.instant());
+    }
+
+    private void pause() {
+        if (config.getPauseBetweenSegmentsMs() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(config.getPauseBetweenSegmentsMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // one message in a segment's payload; sentAt in epoch milliseconds
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class ArchivedMessage {
+        private Integer id;
+        private Integer senderId;
+        private String body;
+        private Long sentAt;
+    }
+}
@@ -0,0 +1,72 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.repository.JpaRepository.FollowRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.esewa.javabackend.utils.TransactionCallbacks.afterCommit;
+
+/**
+ * Cached answer to "does this sender follow this receiver", the part of the messaging
+ * permission check that is not already covered by an existing conversation.
+ *
+ * {@code FollowService} evicts a pair when it is followed or unfollowed on this node; the
+ * TTL bounds how long another node can serve the old answer. Once the {@link FollowGraph} is
+ * loaded it answers instead and the cache is only used before that.
+ */
+@Component
+@RequiredArgsConstructor
+public class MessagePermissionCache {
+
+    private static final long TTL_MS = 60_000;
+    private static final int MAX_ENTRIES = 200_000;
+
+    private final FollowRepository followRepository;
+    private final FollowGraph followGraph;
+    private final Map<Long, Decision> decisions = new ConcurrentHashMap<>();
+
+    public boolean isFollowing(Integer followerId, Integer followeeId) {
+        if (followGraph.isReady()) {
+            return followGraph.follows(followerId, followeeId);
+        }
+        long key = key(followerId, followeeId);
+        long now = System.currentTimeMillis();
+        Decision cached = decisions.get(key);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.following;
+        }
+        boolean following = followRepository.existsByFollowerIdAndFolloweeId(followerId, followeeId);
+        if (decisions.size() >= MAX_ENTRIES) {
+            decisions.clear();
+        }
+        decisions.put(key, new Decision(following, now + TTL_MS));
+        return following;
+    }
+
+    /**
+     * Forgets the pair now and again once the surrounding transaction commits, so a check
+     * racing the follow change cannot re-cache the old answer.
+     */
+    public void evict(Integer followerId, Integer followeeId) {
+        long key = key(followerId, followeeId);
+        decisions.remove(key);
+        afterCommit(() -> decisions.remove(key));
+    }
+
+    private static long key(Integer followerId, Integer followeeId) {
+        return ((long) followerId << 32) | (followeeId & 0xffffffffL);
+    }
+
+    private static class Decision {
+        final boolean following;
+        final long expiresAt;
+
+        Decision(boolean following, long expiresAt) {
+            this.following = following;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
+import com.esewa.javabackend.dto.MessageSearchHitDTO;
+import com.esewa.javabackend.repository.JpaRepository.MessageSearchRepository;
+import com.esewa.javabackend.utils.KeysetCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.List;
+
+/**
+ * Searches the messages of the caller's own conversations.
+ *
+ * Queries use web-search syntax ({@code "exact phrase"}, {@code or}, {@code -excluded}) and
+ * are answered from the GIN index on {@code messages.body_tsv}; results are newest first and
+ * keyset-paginated like the message history.
+ */
+@Service
+@RequiredArgsConstructor
+public class MessageSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final MessageSearchRepository searchRepository;
+    private final DirectConversationResolver directConversations;
+
+    /**
+     * @param otherUserId only search the direct conversation with this user, or null for all
+     */
+    public CursorPageResponse<MessageSearchHitDTO> search(Integer userId, String query, Integer otherUserId,
+                                                          String cursor, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Integer conversationId = null;
+        if (otherUserId != null) {
+            conversationId = directConversations.find(userId, otherUserId).orElse(null);
+            if (conversationId == null) {
+                return CursorPageResponse.<MessageSearchHitDTO>builder().data(List.of()).pageSize(pageSize).build();
+            }
+        }
+
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        // fetch one extra row to know whether another page exists
+        List<MessageSearchHitDTO> rows = searchRepository.search(userId, query.trim(), conversationId,
+                before != null ? before.instant() : null, before != null ? before.id() : null, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<MessageSearchHitDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+        page.forEach(hit -> hit.setHighlight(escape(hit.getHighlight())));
+        MessageSearchHitDTO last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return CursorPageResponse.<MessageSearchHitDTO>builder()
+                .data(page)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? KeysetCursor.encode(last.getSentAt(), last.getMessageId()) : null)
+                .pageSize(pageSize)
+                .build();
+    }
+
+    // the excerpt is raw message text; escape it, then turn the match delimiters into markup
+    static String escape(String highlight) {
+        if (highlight == null) {
+            return null;
+        }
+        return HtmlUtils.htmlEscape(highlight)
+                .replace(String.valueOf(MessageSearchRepository.MATCH_START), "<mark>")
+                .replace(String.valueOf(MessageSearchRepository.MATCH_END), "</mark>");
+    }
+}
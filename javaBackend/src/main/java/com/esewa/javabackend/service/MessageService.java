@@ -1,192 +1,348 @@
 package com.esewa.javabackend.service;
 
 import com.esewa.javabackend.config.kafka.NotificationProducer;
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
 import com.esewa.javabackend.dto.ConversationPreviewDTO;
 import com.esewa.javabackend.dto.MessageDTO;
+import com.esewa.javabackend.dto.MessageHistoryDTO;
 import com.esewa.javabackend.dto.event.InteractionEvent;
 import com.esewa.javabackend.dto.event.NotificationEvent;
 import com.esewa.javabackend.enums.InteractionAction;
 import com.esewa.javabackend.enums.NotificationType;
 import com.esewa.javabackend.enums.ResourceType;
 import com.esewa.javabackend.module.Conversation;
+import com.esewa.javabackend.module.ConversationMember;
 import com.esewa.javabackend.module.Message;
 import com.esewa.javabackend.module.User;
+import com.esewa.javabackend.repository.JpaRepository.ConversationMemberRepository;
 import com.esewa.javabackend.repository.JpaRepository.ConversationRepository;
 import com.esewa.javabackend.repository.JpaRepository.MessageRepository;
 import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import com.esewa.javabackend.utils.KeysetCursor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.esewa.javabackend.utils.TransactionCallbacks.afterCommit;
+import static com.esewa.javabackend.utils.TransactionCallbacks.afterCompletion;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class MessageService {
 
         private final MessageRepository messageRepository;
         private final ConversationRepository conversationRepository;
-        private final FollowService followService;
+        private final MessagePermissionCache permissionCache;
+        private final UserDirectoryCache userDirectory;
         private final UserRepository userRepository;
         private final NotificationProducer notificationProducer;
+        private final ConversationMemberRepository conversationMemberRepository;
+        private final ChatRealtimeService chatRealtimeService;
+        private final DirectConversationResolver directConversations;
+        private final MeterRegistry meterRegistry;
+        private final MessageArchiveService archiveService;
+
+        // Kafka publishing after commit; a full queue falls back to the committing thread. A
+        // pool with a bounded queue only grows past its core size once the queue is full, so
+        // core and max are the same.
+        private final ExecutorService notificationExecutor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(10_000), r -> {
+                                Thread thread = new Thread(r, "message-notification");
+                                thread.setDaemon(true);
+                                return thread;
+                        }, new ThreadPoolExecutor.CallerRunsPolicy());
 
+        private static final int MAX_PAGE_SIZE = 100;
+        private static final int PREVIEW_LENGTH = 255;
+
+        /**
+         * Stores a direct message. Users are referenced by id and checked against the user
+         * directory cache, the permission check is served from caches, and the notification
+         * and socket push are emitted off-thread once the transaction has committed.
+         */
         @Transactional
         public MessageDTO sendMessage(Integer senderId, Integer receiverId, String body) {
+                Timer.Sample timer = Timer.start();
+                // stopped once the transaction has finished, so the commit is part of the time
+                afterCompletion(() -> timer.stop(meterRegistry.timer("chat.message.send")));
+                return doSendMessage(senderId, receiverId, body);
+        }
+
+        private MessageDTO doSendMessage(Integer senderId, Integer receiverId, String body) {
                 // Allow messaging when:
                 // - a conversation between the users already exists, OR
                 // - the sender is following the receiver (one-way follow).
                 // This makes it possible to message users you follow without requiring mutual
                 // follow.
-                boolean conversationExists = conversationRepository.findBetweenUsers(senderId, receiverId).isPresent();
-                if (!conversationExists && !followService.isFollowing(senderId, receiverId)) {
+                Integer existingConversationId = directConversations.find(senderId, receiverId).orElse(null);
+                if (existingConversationId == null && !permissionCache.isFollowing(senderId, receiverId)) {
                         throw new IllegalStateException(
                                         "You can only message users you follow or with whom you already have a conversation.");
                 }
-                User sender = userRepository.findById(senderId)
-                                .orElseThrow(() -> new RuntimeException("Sender not found"));
-                User receiver = userRepository.findById(receiverId)
-                                .orElseThrow(() -> new RuntimeException("Receiver not found"));
-
-                Conversation conversation = conversationRepository
-                                .findBetweenUsers(senderId, receiverId)
-                                .orElseGet(() -> {
-                                        Conversation conv = Conversation.builder()
-                                                        .participants(List.of(sender, receiver))
-                                                        .build();
-                                        return conversationRepository.save(conv);
-                                });
+                Map<Integer, String> usernames = userDirectory.resolve(List.of(senderId, receiverId));
+                if (!usernames.containsKey(senderId)) {
+                        throw new RuntimeException("Sender not found");
+                }
+                if (!usernames.containsKey(receiverId)) {
+                        throw new RuntimeException("Receiver not found");
+                }
+                User sender = userRepository.getReferenceById(senderId);
+                User receiver = userRepository.getReferenceById(receiverId);
+
+                Integer conversationId = existingConversationId != null
+                                ? existingConversationId
+                                : directConversations.findOrCreate(senderId, receiverId);
+                // reference only; the conversation row is never loaded on the send path
+                Conversation conversation = conversationRepository.getReferenceById(conversationId);
 
                 Message message = Message.builder()
                                 .conversation(conversation)
                                 .sender(sender)
                                 .body(body)
-                                .readBy(List.of(senderId))
                                 .sentAt(Instant.now())
                                 .build();
 
                 Message savedMessage = messageRepository.save(message);
+                updateSummaries(conversationId, savedMessage, sender, receiver);
 
-                // Send notification asynchronously; failures here must not block message send.
-                try {
-                        notificationProducer.sendNotification(NotificationEvent.builder()
-                                        .senderId(sender.getId())
-                                        .receiverId(receiver.getId())
-                                        .type(NotificationType.MESSAGE)
-                                        .message(sender.getUsername() + " sent you a message")
-                                        .referenceId(conversation.getId())
-                                        .build());
-                } catch (Exception ex) {
-                        // Log and continue — Kafka may be unavailable in local/dev environments
-                        System.err.println("MessageService: failed to send notification: " + ex.getMessage());
-                }
+                String senderUsername = usernames.get(senderId);
+                NotificationEvent notification = NotificationEvent.builder()
+                                .senderId(senderId)
+                                .receiverId(receiverId)
+                                .type(NotificationType.MESSAGE)
+                                .message(senderUsername + " sent you a message")
+                                .referenceId(conversationId)
+                                .build();
+                afterCommit(() -> notificationExecutor.execute(() -> {
+                        // failures here must not affect the stored message
+                        try {
+                                notificationProducer.sendNotification(notification);
+                        } catch (Exception ex) {
+                                // Kafka may be unavailable in local/dev environments
+                                log.warn("Failed to send message notification for conversation {}: {}",
+                                                conversationId, ex.getMessage());
+                        }
+                }));
 
-                return MessageDTO.builder()
+                MessageDTO sent = MessageDTO.builder()
                                 .id(savedMessage.getId())
-                                .senderId(sender.getId())
-                                .senderName(sender.getUsername())
-                                .receiverId(receiver.getId())
+                                .senderId(senderId)
+                                .senderName(senderUsername)
+                                .receiverId(receiverId)
                                 .body(savedMessage.getBody())
                                 .sentAt(savedMessage.getSentAt())
                                 .isRead(false)
-                                .conversationId(conversation.getId())
+                                .conversationId(conversationId)
                                 .build();
+                chatRealtimeService.messageSent(sent, receiverId);
+                return sent;
         }
 
         @Transactional
         public List<MessageDTO> getMessagesBetweenUsers(Integer user1Id, Integer user2Id) {
-                var maybeConversation = conversationRepository.findBetweenUsers(user1Id, user2Id);
+                var maybeConversation = directConversations.find(user1Id, user2Id);
                 if (maybeConversation.isEmpty()) {
                         // No conversation yet — return empty list instead of throwing so frontend can
                         // handle gracefully
                         return List.of();
                 }
 
-                Conversation conversation = maybeConversation.get();
-                List<Message> messages = messageRepository.findAllByConversationId(conversation.getId());
-
-                return messages.stream()
-                                .map(m -> {
-                                        boolean isRead = false;
-                                        if (m.getReadBy() != null) {
-                                                isRead = m.getReadBy().contains(user1Id);
-                                        }
-                                        return MessageDTO.builder()
-                                                        .id(m.getId())
-                                                        .conversationId(conversation.getId())
-                                                        .senderId(m.getSender() != null ? m.getSender().getId() : null)
-                                                        .senderName(m.getSender() != null ? m.getSender().getUsername()
-                                                                        : null)
-                                                        .body(m.getBody())
-                                                        .sentAt(m.getSentAt())
-                                                        .isRead(isRead)
-                                                        .build();
-                                })
-                                .toList();
+                Integer conversationId = maybeConversation.get();
+                // archived messages are all older than the live ones; beyond the newest of them the
+                // conversation is only reachable through the paginated history
+                List<MessageDTO> messages = new ArrayList<>(archiveService.latest(conversationId));
+                messages.addAll(messageRepository.findAllDtosByConversationId(conversationId));
+                applyReadState(messages, conversationId, user1Id);
+                return messages;
         }
 
+        /**
+         * One page of the conversation between {@code viewerId} and {@code otherUserId}, newest
+         * message first. With {@code before} the page holds the messages just older than that
+         * cursor, with {@code after} the ones just newer; with neither, the latest messages.
+         */
         @Transactional
-        public List<ConversationPreviewDTO> getUserConversations(Integer userId) {
-                User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-
-                List<Conversation> conversations = conversationRepository.findAllByUser(user);
-                List<ConversationPreviewDTO> previews = new ArrayList<>();
-
-                for (Conversation conv : conversations) {
-                        Message lastMessage = messageRepository.findLastMessageByConversationId(conv.getId())
-                                        .orElse(null);
-                        long unreadCount = messageRepository.countUnreadMessages(conv.getId(), userId);
-
-                        // find the other participant
-                        User other = conv.getParticipants().stream()
-                                        .filter(u -> !u.getId().equals(userId))
-                                        .findFirst()
-                                        .orElse(null);
-
-                        if (other == null)
-                                continue;
-
-                        previews.add(ConversationPreviewDTO.builder()
-                                        .conversationId(conv.getId())
-                                        .otherUserId(other.getId())
-                                        .otherUserName(other.getUsername())
-                                        .lastMessage(lastMessage != null ? lastMessage.getBody() : "")
-                                        .lastMessageTime(lastMessage != null ? lastMessage.getSentAt() : null)
-                                        .unreadCount(unreadCount)
-                                        .build());
+        public MessageHistoryDTO getMessageHistory(Integer viewerId, Integer otherUserId, String before, String after,
+                        int size) {
+                if (before != null && after != null) {
+                        throw new IllegalArgumentException("Pass either before or after, not both");
+                }
+                Integer conversationId = directConversations.find(viewerId, otherUserId).orElse(null);
+                if (conversationId == null) {
+                        return MessageHistoryDTO.builder().data(List.of())
+                                        .pageSize(Math.max(1, Math.min(size, MAX_PAGE_SIZE))).build();
                 }
+                return getConversationHistory(conversationId, viewerId, before, after, size);
+        }
 
-                // sort by last message time (latest first)
-                previews.sort(Comparator.comparing(ConversationPreviewDTO::getLastMessageTime,
-                                Comparator.nullsLast(Comparator.reverseOrder())));
+        /**
+         * One history page of any conversation the caller has already checked {@code viewerId}
+         * belongs to; see {@link #getMessageHistory}.
+         */
+        @Transactional
+        public MessageHistoryDTO getConversationHistory(Integer conversationId, Integer viewerId, String before,
+                        String after, int size) {
+                if (before != null && after != null) {
+                        throw new IllegalArgumentException("Pass either before or after, not both");
+                }
+                int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+                KeysetCursor olderThan = KeysetCursor.decode(before);
+                KeysetCursor newerThan = KeysetCursor.decode(after);
+                // fetch one extra row to know whether another page exists
+                PageRequest limit = PageRequest.of(0, pageSize + 1);
+                List<MessageDTO> rows;
+                if (newerThan != null) {
+                        rows = messageRepository.findAfter(conversationId, newerThan.instant(), newerThan.id(), limit);
+                } else if (olderThan != null) {
+                        rows = messageRepository.findBefore(conversationId, olderThan.instant(), olderThan.id(), limit);
+                } else {
+                        rows = messageRepository.findLatest(conversationId, limit);
+                }
+                rows = archiveService.extendHistory(conversationId, rows, olderThan, newerThan, pageSize + 1);
 
-                return previews;
+                boolean more = rows.size() > pageSize;
+                List<MessageDTO> page = new ArrayList<>(more ? rows.subList(0, pageSize) : rows);
+                if (newerThan != null) {
+                        Collections.reverse(page);
+                }
+                applyReadState(page, conversationId, viewerId);
+
+                MessageDTO newest = page.isEmpty() ? null : page.get(0);
+                MessageDTO oldest = page.isEmpty() ? null : page.get(page.size() - 1);
+                return MessageHistoryDTO.builder()
+                                .data(page)
+                                .hasOlder(newerThan != null || more)
+                                .hasNewer(newerThan != null ? more : olderThan != null)
+                                .olderCursor(oldest != null ? KeysetCursor.encode(oldest.getSentAt(), oldest.getId()) : null)
+                                // also handed out on the latest page so clients can poll for new messages
+                                .newerCursor(newest != null ? KeysetCursor.encode(newest.getSentAt(), newest.getId())
+                                                : after)
+                                .pageSize(pageSize)
+                                .build();
+        }
+
+        /**
+         * The user's whole inbox, most recent conversation first.
+         */
+        @Transactional
+        public List<ConversationPreviewDTO> getUserConversations(Integer userId) {
+                return conversationMemberRepository.findInboxPage(userId, Pageable.unpaged());
+        }
+
+        /**
+         * One page of the user's inbox, most recent conversation first. {@code cursor} is the
+         * {@code nextCursor} of the previous page, or null for the first page.
+         */
+        @Transactional
+        public CursorPageResponse<ConversationPreviewDTO> getUserConversationsPage(Integer userId, String cursor,
+                        int size) {
+                int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                // fetch one extra row to know whether another page exists
+                PageRequest limit = PageRequest.of(0, pageSize + 1);
+                List<ConversationPreviewDTO> rows = after == null
+                                ? conversationMemberRepository.findInboxPage(userId, limit)
+                                : conversationMemberRepository.findInboxPageBefore(userId, after.instant(), after.id(),
+                                                limit);
+
+                boolean hasMore = rows.size() > pageSize;
+                List<ConversationPreviewDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+                ConversationPreviewDTO last = page.isEmpty() ? null : page.get(page.size() - 1);
+                return CursorPageResponse.<ConversationPreviewDTO>builder()
+                                .data(page)
+                                .hasMore(hasMore)
+                                .nextCursor(hasMore ? KeysetCursor.encode(last.getLastMessageTime(), last.getConversationId())
+                                                : null)
+                                .pageSize(pageSize)
+                                .build();
         }
 
         @Transactional
         public void markMessagesAsRead(Integer conversationId, Integer userId) {
-                List<Message> messages = messageRepository.findAllByConversationId(conversationId);
-                for (Message m : messages) {
-                        if (m.getReadBy() == null) {
-                                m.setReadBy(new java.util.ArrayList<>());
-                        }
-                        if (!m.getReadBy().contains(userId)) {
-                                m.getReadBy().add(userId);
-                        }
-                }
-                messageRepository.saveAll(messages);
+                conversationMemberRepository.markRead(conversationId, userId);
+        }
+
+        /**
+         * Read receipt: the id of the newest message {@code otherUserId} has read in their
+         * conversation with {@code currentUserId}, or null if none.
+         */
+        @Transactional
+        public Integer getLastReadMessageId(Integer currentUserId, Integer otherUserId) {
+                return directConversations.find(currentUserId, otherUserId)
+                                .flatMap(id -> conversationMemberRepository.findLastReadMessageId(id, otherUserId))
+                                .orElse(null);
         }
 
         @Transactional
         public void markMessagesBetweenUsersAsRead(Integer currentUserId, Integer otherUserId) {
                 // Find conversation between users
-                Conversation conv = conversationRepository.findBetweenUsers(currentUserId, otherUserId)
-                                .orElse(null);
-                if (conv == null)
+                Integer conversationId = directConversations.find(currentUserId, otherUserId).orElse(null);
+                if (conversationId == null)
                         return;
-                markMessagesAsRead(conv.getId(), currentUserId);
+                if (conversationMemberRepository.markRead(conversationId, currentUserId) > 0) {
+                        chatRealtimeService.conversationRead(currentUserId, otherUserId, conversationId,
+                                        conversationMemberRepository.findLastReadMessageId(conversationId, currentUserId)
+                                                        .orElse(null));
+                }
+        }
+
+        private void updateSummaries(Integer conversationId, Message message, User sender, User receiver) {
+                String body = message.getBody() != null ? message.getBody() : "";
+                conversationRepository.recordLastMessage(conversationId, message.getId(),
+                                body.length() > PREVIEW_LENGTH ? body.substring(0, PREVIEW_LENGTH) : body,
+                                message.getSentAt(), sender.getId());
+
+                if (conversationMemberRepository.recordMessage(conversationId, message.getId(), sender.getId(),
+                                message.getSentAt()) == 0) {
+                        // conversation started before summaries existed; seed its members once
+                        Conversation conversation = conversationRepository.getReferenceById(conversationId);
+                        ConversationMember own = newMember(conversation, sender, receiver, 0);
+                        ConversationMember other = newMember(conversation, receiver, sender,
+                                        messageRepository.countMessagesFromOthers(conversationId, receiver.getId()));
+                        own.setLastReadMessageId(message.getId());
+                        own.setLastMessageAt(message.getSentAt());
+                        other.setLastMessageAt(message.getSentAt());
+                        conversationMemberRepository.saveAll(List.of(own, other));
+                }
+        }
+
+        private static ConversationMember newMember(Conversation conversation, User user, User peer, long unread) {
+                return ConversationMember.builder()
+                                .conversation(conversation)
+                                .user(user)
+                                .peer(peer)
+                                .unreadCount((int) unread)
+                                .build();
+        }
+
+        // a message is read by the viewer if they sent it or it is at or below their watermark
+        private void applyReadState(List<MessageDTO> messages, Integer conversationId, Integer viewerId) {
+                int watermark = conversationMemberRepository.findLastReadMessageId(conversationId, viewerId).orElse(0);
+                for (MessageDTO message : messages) {
+                        message.setRead(message.getId() <= watermark || viewerId.equals(message.getSenderId()));
+                }
+        }
+
+        @PreDestroy
+        public void shutdown() {
+                notificationExecutor.shutdown();
         }
 }
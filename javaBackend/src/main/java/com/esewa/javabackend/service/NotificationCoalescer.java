@@ -0,0 +1,127 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import com.esewa.javabackend.enums.NotificationType;
+import com.esewa.javabackend.module.Notification;
+import com.esewa.javabackend.repository.JpaRepository.NotificationBulkRepository;
+import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
+import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Folds repeated notifications about the same thing ("X and 12 others liked your recipe")
+ * into one row.
+ *
+ * An event is merged into the receiver's newest unread notification with the same type and
+ * reference id created within the window; that row's actor count, sample actors, sender and
+ * message are updated in place. Once the receiver reads it, the next event starts a new row.
+ * Events of one consumer batch that share a key are folded together before anything is
+ * written. Notifications are keyed by receiver on Kafka, so merges for one receiver never race.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationCoalescer {
+
+    private static final Set<NotificationType> COALESCED_TYPES = EnumSet.of(
+            NotificationType.FOLLOW,
+            NotificationType.POST_REACTION,
+            NotificationType.RECIPE_REACTION,
+            NotificationType.POST_COMMENT,
+            NotificationType.RECIPE_COMMENT,
+            NotificationType.GROUP_MESSAGE);
+
+    private static final int SAMPLE_ACTORS = 3;
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+
+    @Value("${app.notifications.coalesce-window-minutes:1440}")
+    private long windowMinutes;
+
+    public boolean coalesces(NotificationEvent event) {
+        return COALESCED_TYPES.contains(event.getType()) && event.getReferenceId() != null;
+    }
+
+    /**
+     * The newest unread notification within the window that {@code event} can be folded into.
+     */
+    public Optional<Notification> openAggregate(NotificationEvent event) {
+        LocalDateTime since = LocalDateTime.now().minus(Duration.ofMinutes(windowMinutes));
+        return notificationRepository.findOpenAggregate(event.getReceiverId(), event.getType(),
+                event.getReferenceId(), since, PageRequest.of(0, 1)).stream().findFirst();
+    }
+
+    /**
+     * Folds {@code event} into a stored aggregate. The sender is attached by reference, so no
+     * user row is loaded.
+     */
+    public void fold(Notification aggregate, NotificationEvent event, String senderUsername) {
+        int[] samples = aggregate.getSampleActorIds() != null
+                ? aggregate.getSampleActorIds()
+                : new int[]{aggregate.getSender().getId()};
+        int count = nextCount(aggregate.getActorCount() != null ? aggregate.getActorCount() : 1, samples,
+                event.getSenderId());
+        aggregate.setActorCount(count);
+        aggregate.setSampleActorIds(prepend(samples, event.getSenderId()));
+        aggregate.setSender(userRepository.getReferenceById(event.getSenderId()));
+        aggregate.setMessage(render(senderUsername, count - 1, event.getMessage()));
+    }
+
+    /**
+     * Folds {@code event} into a row of the same batch that has not been inserted yet.
+     */
+    public void fold(NotificationBulkRepository.Row row, NotificationEvent event, String senderUsername) {
+        int count = nextCount(row.getActorCount(), row.getSampleActorIds(), event.getSenderId());
+        row.setActorCount(count);
+        row.setSampleActorIds(prepend(row.getSampleActorIds(), event.getSenderId()));
+        row.setSenderId(event.getSenderId());
+        row.setMessage(render(senderUsername, count - 1, event.getMessage()));
+    }
+
+    // the same actor acting again (e.g. switching reaction) is not a new actor
+    private static int nextCount(int count, int[] samples, int actorId) {
+        return contains(samples, actorId) ? count : count + 1;
+    }
+
+    /**
+     * "alice liked your recipe" with 12 other actors becomes "alice and 12 others liked your recipe".
+     */
+    static String render(String username, int others, String message) {
+        if (others <= 0 || message == null || username == null) {
+            return message;
+        }
+        String action = message.startsWith(username) ? message.substring(username.length()) : " " + message;
+        return username + " and " + others + (others == 1 ? " other" : " others") + action;
+    }
+
+    private static boolean contains(int[] values, int value) {
+        for (int v : values) {
+            if (v == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] prepend(int[] samples, int actorId) {
+        int[] result = new int[Math.min(SAMPLE_ACTORS, samples.length + 1)];
+        result[0] = actorId;
+        int n = 1;
+        for (int i = 0; i < samples.length && n < result.length; i++) {
+            if (samples[i] != actorId) {
+                result[n++] = samples[i];
+            }
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+}
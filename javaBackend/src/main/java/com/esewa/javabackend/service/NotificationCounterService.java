@@ -0,0 +1,132 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Per-user unread notification counters kept in Redis so badge refreshes never touch the
+ * notifications table.
+ *
+ * A counter is seeded from the database on first read and then adjusted atomically. Updates
+ * only apply to counters that already exist: a missing key means "unknown" and is recounted
+ * on the next read rather than guessed. If Redis is unreachable reads fall back to the
+ * database and updates are skipped.
+ *
+ * Seeding raises a marker before counting. An update that finds no counter but a marker
+ * bumps the marker instead, and the seed that follows is then stored with a short TTL: the
+ * update may or may not be in the count, so the counter is recounted soon rather than kept
+ * wrong for hours.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationCounterService {
+
+    private static final String KEY_PREFIX = "notif:unread:";
+    private static final Duration TTL = Duration.ofHours(6);
+    private static final Duration RACED_SEED_TTL = Duration.ofSeconds(30);
+    private static final Duration SEEDING_MARKER_TTL = Duration.ofSeconds(30);
+
+    // INCRBY/DECRBY only if the counter is seeded; a negative result means it drifted, so drop it.
+    // Without a counter, an update during seeding is noted on the marker.
+    static final DefaultRedisScript<Long> ADJUST_IF_PRESENT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then " +
+                    "if redis.call('EXISTS', KEYS[2]) == 1 then redis.call('INCR', KEYS[2]) end " +
+                    "return -1 end " +
+                    "local v = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+                    "if v < 0 then redis.call('DEL', KEYS[1]) return -1 end " +
+                    "return v",
+            Long.class);
+
+    // stores the count unless another reader seeded first; a count raced by an update gets the short TTL
+    static final DefaultRedisScript<Long> SEED = new DefaultRedisScript<>(
+            "local existing = redis.call('GET', KEYS[1]) " +
+                    "if existing then return tonumber(existing) end " +
+                    "local raced = tonumber(redis.call('GET', KEYS[2]) or '0') " +
+                    "redis.call('DEL', KEYS[2]) " +
+                    "local ttl = ARGV[2] " +
+                    "if raced > 0 then ttl = ARGV[3] end " +
+                    "redis.call('SET', KEYS[1], ARGV[1], 'EX', ttl) " +
+                    "return tonumber(ARGV[1])",
+            Long.class);
+
+    private final StringRedisTemplate redis;
+    private final NotificationRepository notificationRepository;
+
+    public long getUnreadCount(Integer userId) {
+        String key = key(userId);
+        try {
+            String cached = redis.opsForValue().get(key);
+            if (cached != null) {
+                return Long.parseLong(cached);
+            }
+            redis.opsForValue().setIfAbsent(seedingKey(userId), "0", SEEDING_MARKER_TTL);
+        } catch (DataAccessException e) {
+            log.debug("Unread counter unavailable for user {}: {}", userId, e.getMessage());
+            return notificationRepository.countByReceiverIdAndIsReadFalse(userId);
+        }
+
+        long count = notificationRepository.countByReceiverIdAndIsReadFalse(userId);
+        try {
+            Long seeded = redis.execute(SEED, List.of(key, seedingKey(userId)), Long.toString(count),
+                    Long.toString(TTL.toSeconds()), Long.toString(RACED_SEED_TTL.toSeconds()));
+            return seeded != null ? seeded : count;
+        } catch (DataAccessException e) {
+            log.debug("Could not seed unread counter for user {}: {}", userId, e.getMessage());
+        }
+        return count;
+    }
+
+    public void increment(Integer userId) {
+        adjust(userId, 1);
+    }
+
+    public void increment(Integer userId, long by) {
+        if (by > 0) {
+            adjust(userId, by);
+        }
+    }
+
+    public void decrement(Integer userId, long by) {
+        if (by > 0) {
+            adjust(userId, -by);
+        }
+    }
+
+    /**
+     * Forgets the counter so the next read recounts from the database.
+     */
+    public void invalidate(Integer userId) {
+        try {
+            redis.delete(key(userId));
+        } catch (DataAccessException e) {
+            log.debug("Could not invalidate unread counter for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void adjust(Integer userId, long delta) {
+        try {
+            redis.execute(ADJUST_IF_PRESENT, List.of(key(userId), seedingKey(userId)), Long.toString(delta));
+        } catch (DataAccessException e) {
+            // a missed update is corrected when the counter expires and is recounted
+            log.debug("Could not adjust unread counter for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    // the braces keep a user's counter and marker in one cluster slot, as the scripts need
+    private static String key(Integer userId) {
+        return KEY_PREFIX + "{" + userId + "}";
+    }
+
+    private static String seedingKey(Integer userId) {
+        return key(userId) + ":seeding";
+    }
+}
@@ -0,0 +1,324 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.NotificationDigestConfig;
+import com.esewa.javabackend.module.NotificationDigestRun;
+import com.esewa.javabackend.repository.JpaRepository.NotificationDigestRunRepository;
+import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
+import com.esewa.javabackend.utils.BackgroundJob;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * E-mail digests of unread notifications, one mail per user and window instead of one per
+ * notification. Runs are checkpointed by receiver id and resume where they stopped.
+ */
+@Service
+@Slf4j
+public class NotificationDigestService {
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("MMM d, HH:mm");
+
+    private final NotificationDigestConfig config;
+    private final NotificationRepository notificationRepository;
+    private final NotificationDigestRunRepository runRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate checkpointTransaction;
+    private final ExecutorService workers;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final BackgroundJob job = new BackgroundJob("notification-digest-run");
+
+    private final DigestTemplate htmlLayout = DigestTemplate.load("templates/email/notification-digest.html");
+    private final DigestTemplate htmlItem = DigestTemplate.load("templates/email/notification-digest-item.html");
+    private final DigestTemplate textLayout = DigestTemplate.load("templates/email/notification-digest.txt");
+    private final DigestTemplate textItem = DigestTemplate.load("templates/email/notification-digest-item.txt");
+    private final DigestTemplate subject;
+
+    private final Counter sent;
+    private final Counter failed;
+
+    public NotificationDigestService(NotificationDigestConfig config,
+                                     NotificationRepository notificationRepository,
+                                     NotificationDigestRunRepository runRepository,
+                                     JavaMailSender mailSender,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry) {
+        this.config = config;
+        this.notificationRepository = notificationRepository;
+        this.runRepository = runRepository;
+        this.mailSender = mailSender;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // checkpoints commit on their own while the read transaction keeps streaming
+        this.checkpointTransaction = new TransactionTemplate(transactionManager);
+        this.checkpointTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // bounded queue; when the workers fall behind the streaming thread sends a chunk itself
+        this.workers = new ThreadPoolExecutor(config.getWorkers(), config.getWorkers(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getWorkers() * 2), r -> {
+                    Thread thread = new Thread(r, "notification-digest");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.subject = DigestTemplate.parse(config.getSubject(), false);
+        this.sent = meterRegistry.counter("notification.digest.sent");
+        this.failed = meterRegistry.counter("notification.digest.failed");
+    }
+
+    @Scheduled(cron = "${app.notifications.digest.cron:0 0 7 * * *}")
+    public void scheduledRun() {
+        if (config.isEnabled()) {
+            job.trigger(this::run);
+        }
+    }
+
+    /**
+     * Sends the digests of the current window, resuming an unfinished run if there is one.
+     *
+     * @return number of digests sent by this call
+     */
+    public int run() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Notification digest run already in progress");
+            return 0;
+        }
+        try {
+            NotificationDigestRun run = checkpointTransaction.execute(status -> currentRun());
+            int before = run.getDigestsSent();
+            Boolean finished = readTransaction.execute(status -> {
+                try (Stream<Object[]> rows = notificationRepository.streamUnreadForDigest(
+                        run.getWindowStart(), run.getWindowEnd(), run.getLastReceiverId())) {
+                    return collect(run, rows);
+                }
+            });
+            if (!Boolean.TRUE.equals(finished)) {
+                log.warn("Notification digest run {} stopped at a failed send; it resumes after receiver {}",
+                        run.getId(), run.getLastReceiverId());
+                return run.getDigestsSent() - before;
+            }
+            run.setCompleted(true);
+            run.setFinishedAt(Instant.now());
+            checkpointTransaction.executeWithoutResult(status -> runRepository.save(run));
+            log.info("Notification digest for {} - {} sent {} mails", run.getWindowStart(), run.getWindowEnd(),
+                    run.getDigestsSent());
+            return run.getDigestsSent() - before;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        job.shutdown();
+        workers.shutdown();
+    }
+
+    private NotificationDigestRun currentRun() {
+        Optional<NotificationDigestRun> last = runRepository.findFirstByOrderByIdDesc();
+        if (last.isPresent() && !last.get().isCompleted()) {
+            log.info("Resuming notification digest run {} after receiver {}", last.get().getId(),
+                    last.get().getLastReceiverId());
+            return last.get();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return runRepository.save(NotificationDigestRun.builder()
+                .windowStart(last.map(NotificationDigestRun::getWindowEnd)
+                        .orElse(now.minusHours(config.getInitialWindowHours())))
+                .windowEnd(now)
+                .lastReceiverId(0)
+                .digestsSent(0)
+                .completed(false)
+                .startedAt(Instant.now())
+                .build());
+    }
+
+    // rows arrive as (receiverId, email, username, message, createdDate), newest first per receiver;
+    // returns false if a send failed and the run has to stop at its checkpoint
+    private boolean collect(NotificationDigestRun run, Stream<Object[]> rows) {
+        List<Digest> batch = new ArrayList<>(config.getCheckpointEvery());
+        Digest current = null;
+        for (Iterator<Object[]> it = rows.iterator(); it.hasNext(); ) {
+            Object[] row = it.next();
+            Integer receiverId = (Integer) row[0];
+            if (current == null || !current.receiverId.equals(receiverId)) {
+                if (current != null && batch.size() == config.getCheckpointEvery() && !flush(run, batch)) {
+                    return false;
+                }
+                current = new Digest(receiverId, (String) row[1], (String) row[2]);
+                batch.add(current);
+            }
+            current.unread++;
+            if (current.items.size() < config.getMaxItems()) {
+                current.items.add(new Object[]{row[3], row[4]});
+            }
+        }
+        return batch.isEmpty() || flush(run, batch);
+    }
+
+    /**
+     * Sends a batch and checkpoints it, up to the first digest that has to be retried.
+     *
+     * @return whether the whole batch was handled
+     */
+    private boolean flush(NotificationDigestRun run, List<Digest> batch) {
+        List<List<Digest>> chunks = new ArrayList<>();
+        List<Future<Sent>> results = new ArrayList<>();
+        List<Digest> deliverable = batch.stream().filter(digest -> digest.email != null && !digest.email.isBlank()).toList();
+        for (int from = 0; from < deliverable.size(); from += config.getMessagesPerConnection()) {
+            List<Digest> chunk = deliverable.subList(from, Math.min(from + config.getMessagesPerConnection(),
+                    deliverable.size()));
+            chunks.add(chunk);
+            results.add(workers.submit(() -> send(run.getWindowStart(), chunk)));
+        }
+        int delivered = 0;
+        Digest retryFrom = null;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                Sent result = results.get(i).get();
+                delivered += result.delivered;
+                if (retryFrom == null && result.retryFrom != null) {
+                    retryFrom = result.retryFrom;
+                }
+            } catch (ExecutionException e) {
+                log.error("Notification digest chunk failed: {}", e.getCause().getMessage());
+                if (retryFrom == null) {
+                    retryFrom = chunks.get(i).get(0);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending notification digests", e);
+            }
+        }
+        // chunks are in receiver order, so everyone before the first failure has been handled
+        int handled = retryFrom == null ? batch.size() : batch.indexOf(retryFrom);
+        if (handled > 0) {
+            run.setLastReceiverId(batch.get(handled - 1).receiverId);
+        }
+        run.setDigestsSent(run.getDigestsSent() + delivered);
+        checkpointTransaction.executeWithoutResult(status -> runRepository.save(run));
+        batch.clear();
+        return retryFrom == null;
+    }
+
+    /**
+     * Sends one chunk over a single SMTP connection.
+     */
+    private Sent send(LocalDateTime since, List<Digest> chunk) {
+        List<MimeMessage> messages = new ArrayList<>(chunk.size());
+        List<Digest> digests = new ArrayList<>(chunk.size());
+        for (Digest digest : chunk) {
+            try {
+                messages.add(compose(since, digest));
+                digests.add(digest);
+            } catch (IllegalStateException e) {
+                failed.increment();
+                log.warn("Skipping notification digest: {}", e.getMessage());
+            }
+        }
+        if (messages.isEmpty()) {
+            return new Sent(0, null);
+        }
+        try {
+            mailSender.send(messages.toArray(MimeMessage[]::new));
+            sent.increment(messages.size());
+            return new Sent(messages.size(), null);
+        } catch (MailException e) {
+            Map<Object, Exception> failedMessages = e instanceof MailSendException sendException
+                    ? sendException.getFailedMessages()
+                    : Map.of();
+            // nothing known about individual messages: the whole chunk is retried
+            Digest retryFrom = failedMessages.isEmpty() ? digests.get(0) : null;
+            int failures = failedMessages.isEmpty() ? messages.size() : failedMessages.size();
+            for (int i = 0; i < messages.size() && retryFrom == null; i++) {
+                Exception cause = failedMessages.get(messages.get(i));
+                if (cause != null && !(cause instanceof SendFailedException)) {
+                    retryFrom = digests.get(i);
+                }
+            }
+            failed.increment(failures);
+            sent.increment(messages.size() - failures);
+            log.warn("{} of {} notification digests not sent: {}", failures, messages.size(), e.getMessage());
+            return new Sent(messages.size() - failures, retryFrom);
+        }
+    }
+
+    private MimeMessage compose(LocalDateTime since, Digest digest) {
+        StringBuilder htmlItems = new StringBuilder();
+        StringBuilder textItems = new StringBuilder();
+        for (Object[] item : digest.items) {
+            Map<String, String> values = Map.of(
+                    "message", item[0] != null ? (String) item[0] : "",
+                    "time", TIME_FORMAT.format((LocalDateTime) item[1]));
+            htmlItems.append(htmlItem.render(values, Map.of())).append('\n');
+            textItems.append(textItem.render(values, Map.of())).append('\n');
+        }
+        int more = digest.unread - digest.items.size();
+        Map<String, String> values = Map.of(
+                "username", digest.username != null ? digest.username : "",
+                "unreadCount", Integer.toString(digest.unread),
+                "since", TIME_FORMAT.format(since),
+                "link", config.getLink());
+        String moreLine = more > 0 ? "and " + more + " more" : "";
+
+        MimeMessage message = mailSender.createMimeMessage();
+        try {
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom(config.getFrom());
+            helper.setTo(digest.email);
+            helper.setSubject(subject.render(values, Map.of()));
+            helper.setText(
+                    textLayout.render(values, Map.of("items", textItems.toString(), "more", moreLine)),
+                    htmlLayout.render(values, Map.of("items", htmlItems.toString(),
+                            "more", moreLine.isEmpty() ? "" : "<p>" + moreLine + "</p>")));
+        } catch (MessagingException e) {
+            throw new IllegalStateException("Cannot compose digest for user " + digest.receiverId, e);
+        }
+        return message;
+    }
+
+    // digests accepted by the mail server, and the first one that has to be sent again
+    private static class Sent {
+        final int delivered;
+        final Digest retryFrom;
+
+        Sent(int delivered, Digest retryFrom) {
+            this.delivered = delivered;
+            this.retryFrom = retryFrom;
+        }
+    }
+
+    private static class Digest {
+        final Integer receiverId;
+        final String email;
+        final String username;
+        final List<Object[]> items = new ArrayList<>();
+        int unread;
+
+        Digest(Integer receiverId, String email, String username) {
+            this.receiverId = receiverId;
+            this.email = email;
+            this.username = username;
+        }
+    }
+}
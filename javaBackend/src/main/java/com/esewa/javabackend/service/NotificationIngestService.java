@@ -0,0 +1,89 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.NotificationDTO;
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import com.esewa.javabackend.module.Notification;
+import com.esewa.javabackend.repository.JpaRepository.NotificationBulkRepository;
+import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Persists a batch of validated notification events in one transaction: coalescible events
+ * are folded into open aggregates (or into each other), everything else is written with a
+ * single multi-row insert.
+ */
+@Service
+@RequiredArgsConstructor
+public class NotificationIngestService {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationBulkRepository bulkRepository;
+    private final NotificationCoalescer coalescer;
+
+    /**
+     * @param events    events whose sender and receiver are known to exist, each with an event id
+     * @param usernames username by user id for every sender and receiver in {@code events}
+     */
+    @Transactional
+    public Result ingest(List<NotificationEvent> events, Map<Integer, String> usernames) {
+        List<NotificationBulkRepository.Row> rows = new ArrayList<>();
+        Map<String, Object> openByKey = new HashMap<>();
+        Set<Notification> touched = new LinkedHashSet<>();
+
+        for (NotificationEvent event : events) {
+            String senderUsername = usernames.get(event.getSenderId());
+            if (!coalescer.coalesces(event)) {
+                rows.add(newRow(event));
+                continue;
+            }
+            String key = event.getReceiverId() + "|" + event.getType() + "|" + event.getReferenceId();
+            Object open = openByKey.computeIfAbsent(key, k -> coalescer.openAggregate(event).orElse(null));
+            if (open instanceof Notification aggregate) {
+                coalescer.fold(aggregate, event, senderUsername);
+                touched.add(aggregate);
+            } else if (open instanceof NotificationBulkRepository.Row row) {
+                coalescer.fold(row, event, senderUsername);
+            } else {
+                NotificationBulkRepository.Row row = newRow(event);
+                rows.add(row);
+                openByKey.put(key, row);
+            }
+        }
+
+        // flushed so the merged aggregates carry their new modified date into the DTOs
+        notificationRepository.saveAllAndFlush(touched);
+        List<NotificationBulkRepository.Row> inserted = bulkRepository.insertAll(rows);
+
+        List<NotificationDTO> created = inserted.stream().map(row -> NotificationService.toDTO(row, usernames)).toList();
+        List<NotificationDTO> updated = touched.stream().map(n -> NotificationService.toDTO(n, usernames)).toList();
+        return new Result(created, updated);
+    }
+
+    private static NotificationBulkRepository.Row newRow(NotificationEvent event) {
+        return NotificationBulkRepository.Row.builder()
+                .receiverId(event.getReceiverId())
+                .senderId(event.getSenderId())
+                .type(event.getType())
+                .message(event.getMessage())
+                .referenceId(event.getReferenceId())
+                .actorCount(1)
+                .sampleActorIds(new int[]{event.getSenderId()})
+                .eventId(event.getEventId())
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        // newly inserted notifications; each adds to its receiver's unread count
+        private final List<NotificationDTO> created;
+        // existing aggregates that absorbed events; unread count unchanged
+        private final List<NotificationDTO> updated;
+    }
+}
@@ -0,0 +1,371 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.NotificationDTO;
+import com.esewa.javabackend.utils.KeysetCursor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Server-Sent Events hub pushing new notifications to connected clients.
+ *
+ * Connections are servlet async requests, so an idle subscriber holds a socket but no thread.
+ * Each stream has a small bounded mailbox drained by at most one task at a time on a
+ * dedicated pool, so writes to one stream are ordered and neither the Kafka consumer nor the
+ * heartbeat waits on a client. A stream whose mailbox overflows, or whose current write has
+ * been blocked for longer than {@code write-timeout-ms}, is closed; the client reconnects and
+ * resumes from its {@code Last-Event-ID}.
+ *
+ * Notifications are published on a Redis channel and every node, including the publisher,
+ * delivers them to the streams it holds, so a user is reached whichever node they are
+ * connected to. If Redis is unavailable the notification is delivered locally only.
+ *
+ * Every event carries a cursor of the notification's last activity (its last merge, or its
+ * creation) and id as its SSE id. A reconnecting client first receives every notification
+ * created or merged into since then; live events arriving meanwhile wait in the mailbox and
+ * are delivered after the replay, skipping those the replay already covered. Merged
+ * aggregates keep their id, so an event is only skipped if the replay sent the same id with
+ * at least as many actors.
+ */
+@Service
+@Slf4j
+public class NotificationPushService implements MessageListener {
+
+    private final NotificationService notificationService;
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer chatRelayListenerContainer;
+    private final Map<Integer, Set<Stream>> subscribers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor sender;
+    private final Counter dropped;
+
+    @Value("${app.notifications.push.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${app.notifications.push.replay-limit:100}")
+    private int replayLimit;
+
+    @Value("${app.notifications.push.stream-queue-size:256}")
+    private int streamQueueSize;
+
+    @Value("${app.notifications.push.write-timeout-ms:10000}")
+    private long writeTimeoutMs;
+
+    @Value("${app.notifications.push.channel:notifications:push}")
+    private String channel;
+
+    public NotificationPushService(NotificationService notificationService,
+                                   StringRedisTemplate redis,
+                                   ObjectMapper objectMapper,
+                                   RedisMessageListenerContainer chatRelayListenerContainer,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.notifications.push.sender-threads:2}") int senderThreads,
+                                   @Value("${app.notifications.push.max-pending-streams:10000}") int maxPendingStreams) {
+        this.notificationService = notificationService;
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.chatRelayListenerContainer = chatRelayListenerContainer;
+        // a stream has at most one task queued or running, so this bounds the backlog by streams
+        this.sender = new ThreadPoolExecutor(senderThreads, senderThreads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxPendingStreams), r -> {
+            Thread thread = new Thread(r, "notification-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dropped = meterRegistry.counter("notification.push.dropped");
+        Gauge.builder("notification.push.connections", this, NotificationPushService::connectionCount)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void listen() {
+        chatRelayListenerContainer.addMessageListener(this, new ChannelTopic(channel));
+    }
+
+    /**
+     * Opens a stream for {@code userId}. When {@code lastEventId} is given, notifications
+     * created or merged into since that event are replayed before live delivery starts.
+     */
+    public SseEmitter subscribe(Integer userId, String lastEventId) {
+        Supplier<List<NotificationDTO>> missed = missedSince(userId, lastEventId);
+        SseEmitter emitter = createEmitter(timeoutMs);
+        Stream stream = new Stream(userId, emitter, streamQueueSize, missed != null);
+        subscribers.compute(userId, (id, streams) -> {
+            Set<Stream> set = streams != null ? streams : ConcurrentHashMap.<Stream>newKeySet();
+            set.add(stream);
+            return set;
+        });
+
+        Runnable remove = () -> unsubscribe(stream);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        if (missed != null) {
+            execute(stream, () -> replay(stream, missed));
+        }
+        return emitter;
+    }
+
+    /**
+     * Delivers a persisted notification to every open stream of its receiver, on any node.
+     * Returns once it is published; nothing waits on a client.
+     */
+    public void push(NotificationDTO notification) {
+        try {
+            redis.convertAndSend(channel, new String(objectMapper.writeValueAsBytes(notification),
+                    StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize notification {}: {}", notification.getId(), e.getMessage());
+        } catch (DataAccessException e) {
+            // single-node fallback: streams on other nodes miss it until their client reconnects
+            log.debug("Notification relay unavailable, delivering locally: {}", e.getMessage());
+            deliver(notification);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            deliver(objectMapper.readValue(message.getBody(), NotificationDTO.class));
+        } catch (Exception e) {
+            log.warn("Dropping unreadable notification push: {}", e.getMessage());
+        }
+    }
+
+    // users without a stream on this node cost a map lookup
+    private void deliver(NotificationDTO notification) {
+        Set<Stream> streams = subscribers.get(notification.getReceiverId());
+        if (streams == null || streams.isEmpty()) {
+            return;
+        }
+        for (Stream stream : streams) {
+            offer(stream, notification);
+        }
+    }
+
+    /**
+     * Keeps idle connections open through proxies, and closes streams stuck on a write.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.push.heartbeat-interval-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        subscribers.values().forEach(streams -> {
+            for (Stream stream : streams) {
+                long startedAt = stream.writeStartedAt;
+                if (startedAt != 0 && now - startedAt > writeTimeoutMs) {
+                    drop(stream, "write blocked for " + (now - startedAt) + " ms");
+                } else {
+                    offer(stream, Stream.HEARTBEAT);
+                }
+            }
+        });
+    }
+
+    public int connectionCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(streams -> streams.forEach(stream -> stream.emitter.complete()));
+        subscribers.clear();
+        sender.shutdownNow();
+    }
+
+    SseEmitter createEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    // what a client resuming from lastEventId missed, or null when there is nothing to resume from.
+    // Plain ids were sent before events carried activity cursors and only cover new notifications.
+    private Supplier<List<NotificationDTO>> missedSince(Integer userId, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            int lastId = Integer.parseInt(lastEventId);
+            return () -> notificationService.getNotificationsAfter(userId, lastId, replayLimit);
+        } catch (NumberFormatException e) {
+            // not a plain id
+        }
+        try {
+            KeysetCursor cursor = KeysetCursor.decode(lastEventId);
+            LocalDateTime activity = cursor.localDateTime();
+            return () -> notificationService.getNotificationsActiveAfter(userId, activity, cursor.id(), replayLimit);
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring unreadable Last-Event-ID of user {}: {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    private void replay(Stream stream, Supplier<List<NotificationDTO>> missed) {
+        try {
+            for (NotificationDTO notification : missed.get()) {
+                if (!write(stream, notification)) {
+                    return;
+                }
+                stream.replayed.put(notification.getId(), actorCount(notification));
+            }
+        } finally {
+            stream.replaying = false;
+        }
+        scheduleDrain(stream);
+    }
+
+    private void offer(Stream stream, Object item) {
+        if (!stream.mailbox.offer(item)) {
+            drop(stream, "more than " + streamQueueSize + " undelivered events");
+            return;
+        }
+        scheduleDrain(stream);
+    }
+
+    private void scheduleDrain(Stream stream) {
+        if (!stream.replaying && stream.scheduled.compareAndSet(false, true)) {
+            execute(stream, () -> drain(stream));
+        }
+    }
+
+    private void execute(Stream stream, Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            drop(stream, "push backlog full");
+        }
+    }
+
+    private void drain(Stream stream) {
+        try {
+            Object item;
+            while ((item = stream.mailbox.poll()) != null) {
+                if (item instanceof NotificationDTO notification && wasReplayed(stream, notification)) {
+                    continue;
+                }
+                if (!write(stream, item)) {
+                    return;
+                }
+            }
+        } finally {
+            stream.scheduled.set(false);
+        }
+        // an offer may have landed after the last poll but before the flag was cleared
+        if (!stream.mailbox.isEmpty()) {
+            scheduleDrain(stream);
+        }
+    }
+
+    private static boolean wasReplayed(Stream stream, NotificationDTO notification) {
+        Integer replayedActors = stream.replayed.get(notification.getId());
+        return replayedActors != null && replayedActors >= actorCount(notification);
+    }
+
+    private boolean write(Stream stream, Object item) {
+        if (stream.closed) {
+            return false;
+        }
+        stream.writeStartedAt = System.currentTimeMillis();
+        try {
+            if (item instanceof NotificationDTO notification) {
+                stream.emitter.send(SseEmitter.event()
+                        .id(eventId(notification))
+                        .name("notification")
+                        .data(notification, MediaType.APPLICATION_JSON));
+            } else {
+                stream.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping notification stream of user {}: {}", stream.userId, e.getMessage());
+            unsubscribe(stream);
+            return false;
+        } finally {
+            stream.writeStartedAt = 0;
+        }
+    }
+
+    private void drop(Stream stream, String reason) {
+        if (stream.closed) {
+            return;
+        }
+        log.debug("Closing notification stream of user {}: {}", stream.userId, reason);
+        dropped.increment();
+        unsubscribe(stream);
+        try {
+            stream.emitter.complete();
+        } catch (RuntimeException e) {
+            // already completed by the container
+        }
+    }
+
+    private void unsubscribe(Stream stream) {
+        stream.closed = true;
+        stream.mailbox.clear();
+        subscribers.computeIfPresent(stream.userId, (id, streams) -> {
+            streams.remove(stream);
+            return streams.isEmpty() ? null : streams;
+        });
+    }
+
+    private static String eventId(NotificationDTO notification) {
+        LocalDateTime activity = notification.getModifiedDate() != null
+                ? notification.getModifiedDate()
+                : notification.getCreatedDate();
+        return activity != null ? KeysetCursor.encode(activity, notification.getId())
+                : String.valueOf(notification.getId());
+    }
+
+    private static int actorCount(NotificationDTO notification) {
+        return notification.getActorCount() != null ? notification.getActorCount() : 1;
+    }
+
+    private static class Stream {
+        static final Object HEARTBEAT = new Object();
+
+        final Integer userId;
+        final SseEmitter emitter;
+        // notifications and heartbeats waiting to be written, in order
+        final Queue<Object> mailbox;
+        // whether a drain task is queued or running; it is the only writer
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        // notification id -> actor count sent by the Last-Event-ID replay
+        final Map<Integer, Integer> replayed = new ConcurrentHashMap<>();
+        volatile boolean replaying;
+        volatile boolean closed;
+        volatile long writeStartedAt;
+
+        Stream(Integer userId, SseEmitter emitter, int queueSize, boolean replaying) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.mailbox = new ArrayBlockingQueue<>(queueSize);
+            this.replaying = replaying;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.NotificationRetentionConfig;
+import com.esewa.javabackend.enums.NotificationType;
+import com.esewa.javabackend.module.NotificationArchiveChunk;
+import com.esewa.javabackend.repository.JpaRepository.NotificationArchiveChunkRepository;
+import com.esewa.javabackend.repository.JpaRepository.NotificationBulkRepository;
+import com.esewa.javabackend.utils.BackgroundJob;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Scheduled retention for the notifications table: expired and old read notifications are
+ * moved in bounded chunks into gzip-compressed {@link NotificationArchiveChunk} rows.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationRetentionService {
+
+    private final NotificationRetentionConfig config;
+    private final NotificationBulkRepository bulkRepository;
+    private final NotificationArchiveChunkRepository archiveRepository;
+    private final NotificationCounterService counterService;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final BackgroundJob job = new BackgroundJob("notification-retention");
+
+    @Scheduled(cron = "${app.notifications.retention.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        if (config.isEnabled()) {
+            job.trigger(this::run);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        job.shutdown();
+    }
+
+    /**
+     * Runs one retention pass.
+     *
+     * @return number of notifications archived
+     */
+    public int run() {
+        LocalDateTime now = LocalDateTime.now();
+        int budget = config.getMaxChunksPerRun();
+        int moved = 0;
+
+        for (NotificationType type : NotificationType.values()) {
+            LocalDateTime before = now.minusDays(config.ttlDaysFor(type));
+            Pass pass = drain("ttl:" + type, budget, before,
+                    (afterId, belowId, limit) -> bulkRepository.deleteExpired(type, before, afterId, belowId, limit));
+            moved += pass.rows;
+            budget -= pass.chunks;
+        }
+        LocalDateTime readBefore = now.minusDays(config.getCompactReadAfterDays());
+        Pass compaction = drain("compaction", budget, readBefore,
+                (afterId, belowId, limit) -> bulkRepository.deleteRead(readBefore, afterId, belowId, limit));
+        moved += compaction.rows;
+
+        if (config.getArchiveRetentionDays() > 0) {
+            int purged = archiveRepository.deleteArchivedBefore(
+                    Instant.now().minus(Duration.ofDays(config.getArchiveRetentionDays())));
+            if (purged > 0) {
+                log.info("Purged {} notification archive chunks", purged);
+            }
+        }
+        if (moved > 0) {
+            log.info("Notification retention archived {} rows", moved);
+        }
+        return moved;
+    }
+
+    private Pass drain(String reason, int maxChunks, LocalDateTime cutoff, ChunkDeleter deleteChunk) {
+        Pass pass = new Pass();
+        if (maxChunks <= 0) {
+            return pass;
+        }
+        Integer firstKept = bulkRepository.firstIdCreatedSince(cutoff);
+        int belowId = firstKept != null ? firstKept : Integer.MAX_VALUE;
+        int[] afterId = {0};
+        while (pass.chunks < maxChunks) {
+            Set<Integer> unreadReceivers = new HashSet<>();
+            Integer count = transactionTemplate.execute(status -> {
+                List<Map<String, Object>> rows = deleteChunk.delete(afterId[0], belowId, config.getChunkSize());
+                if (rows.isEmpty()) {
+                    return 0;
+                }
+                NotificationArchiveChunk chunk = toChunk(reason, rows);
+                afterId[0] = chunk.getMaxNotificationId();
+                archiveRepository.save(chunk);
+                for (Map<String, Object> row : rows) {
+                    if (!Boolean.TRUE.equals(row.get("isRead"))) {
+                        unreadReceivers.add((Integer) row.get("receiverId"));
+                    }
+                }
+                return rows.size();
+            });
+            if (count == null || count == 0) {
+                break;
+            }
+            unreadReceivers.forEach(counterService::invalidate);
+            pass.chunks++;
+            pass.rows += count;
+            if (count < config.getChunkSize()) {
+                break;
+            }
+            pause();
+        }
+        return pass;
+    }
+
+    private NotificationArchiveChunk toChunk(String reason, List<Map<String, Object>> rows) {
+        IntSummaryStatistics ids = rows.stream().mapToInt(r -> (Integer) r.get("id")).summaryStatistics();
+        LocalDateTime oldest = null;
+        LocalDateTime newest = null;
+        for (Map<String, Object> row : rows) {
+            LocalDateTime created = (LocalDateTime) row.get("createdDate");
+            if (created != null) {
+                oldest = oldest == null || created.isBefore(oldest) ? created : oldest;
+                newest = newest == null || created.isAfter(newest) ? created : newest;
+            }
+        }
+        return NotificationArchiveChunk.builder()
+                .reason(reason)
+                .rowCount(rows.size())
+                .minNotificationId(ids.getMin())
+                .maxNotificationId(ids.getMax())
+                .oldestCreatedDate(oldest)
+                .newestCreatedDate(newest)
+                .archivedAt(Instant.now())
+                .payload(compress(rows))
+                .build();
+    }
+
+    private byte[] compress(List<Map<String, Object>> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void pause() {
+        if (config.getPauseBetweenChunksMs() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(config.getPauseBetweenChunksMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    interface ChunkDeleter {
+        List<Map<String, Object>> delete(int afterId, int belowId, int limit);
+    }
+
+    private static class Pass {
+        int chunks;
+        int rows;
+    }
+}
@@ -1,15 +1,27 @@
 package com.esewa.javabackend.service;
 
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
 import com.esewa.javabackend.dto.NotificationDTO;
 import com.esewa.javabackend.module.Notification;
-import com.esewa.javabackend.module.User;
+import com.esewa.javabackend.repository.JpaRepository.NotificationBulkRepository;
 import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
 import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import com.esewa.javabackend.utils.KeysetCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.esewa.javabackend.utils.TransactionCallbacks.afterCommit;
 
 @Service
 @RequiredArgsConstructor
@@ -17,94 +29,179 @@ public class NotificationService {
 
         private final NotificationRepository notificationRepository;
         private final UserRepository userRepository;
+        private final NotificationCounterService counterService;
+
+        private static final int MAX_PAGE_SIZE = 100;
+        private static final int MAX_EXPORT_SIZE = 50_000;
 
+        @Transactional(readOnly = true)
         public List<NotificationDTO> getNotificationsByUser(Integer userId) {
-                java.util.Optional<User> maybeUser = userRepository.findById(userId);
-                if (!maybeUser.isPresent()) {
-                        return java.util.Collections.emptyList();
-                }
+                return notificationRepository.findFeedPage(userId, false, Pageable.unpaged());
+        }
 
-                List<Notification> notifications = notificationRepository
-                                .findByReceiverOrderByCreatedDateDesc(maybeUser.get());
-
-                return notifications.stream()
-                                .map(n -> NotificationDTO.builder()
-                                                .id(n.getId())
-                                                .senderId(n.getSender() != null ? n.getSender().getId() : null)
-                                                .senderUsername(n.getSender() != null ? n.getSender().getUsername()
-                                                                : null)
-                                                .receiverId(n.getReceiver() != null ? n.getReceiver().getId() : null)
-                                                .receiverUsername(
-                                                                n.getReceiver() != null ? n.getReceiver().getUsername()
-                                                                                : null)
-                                                .type(n.getType())
-                                                .message(n.getMessage())
-                                                .referenceId(n.getReferenceId())
-                                                .isRead(n.getIsRead())
-                                                .createdDate(n.getCreatedDate())
-                                                .build())
-                                .collect(java.util.stream.Collectors.toList());
+        /**
+         * One page of the user's notification feed, newest first. {@code cursor} is the
+         * {@code nextCursor} of the previous page, or null for the first page.
+         */
+        @Transactional(readOnly = true)
+        public CursorPageResponse<NotificationDTO> getNotificationsPage(Integer userId, boolean unreadOnly,
+                        String cursor, int size) {
+                int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+                KeysetCursor after = KeysetCursor.decode(cursor);
+                // fetch one extra row to know whether another page exists
+                PageRequest limit = PageRequest.of(0, pageSize + 1);
+                List<NotificationDTO> rows = after == null
+                                ? notificationRepository.findFeedPage(userId, unreadOnly, limit)
+                                : notificationRepository.findFeedPageBefore(userId, unreadOnly, after.localDateTime(),
+                                                after.id(), limit);
+
+                boolean hasMore = rows.size() > pageSize;
+                List<NotificationDTO> page = hasMore ? rows.subList(0, pageSize) : rows;
+                NotificationDTO last = page.isEmpty() ? null : page.get(page.size() - 1);
+                return CursorPageResponse.<NotificationDTO>builder()
+                                .data(page)
+                                .hasMore(hasMore)
+                                .nextCursor(hasMore && last.getCreatedDate() != null
+                                                ? KeysetCursor.encode(last.getCreatedDate(), last.getId())
+                                                : null)
+                                .pageSize(pageSize)
+                                .build();
+        }
+
+        public long getUnreadCount(Integer userId) {
+                return counterService.getUnreadCount(userId);
         }
 
+        @Transactional(readOnly = true)
         public List<NotificationDTO> getUnreadNotifications(Integer userId) {
-                java.util.Optional<User> maybeUser = userRepository.findById(userId);
-                if (!maybeUser.isPresent()) {
-                        return java.util.Collections.emptyList();
+                return notificationRepository.findFeedPage(userId, true, Pageable.unpaged());
+        }
+
+        @Transactional
+        public void markAsRead(Integer notificationId) {
+                Integer receiverId = notificationRepository.findReceiverIdById(notificationId)
+                                .orElseThrow(() -> new RuntimeException("Notification not found"));
+                if (notificationRepository.markRead(notificationId) > 0) {
+                        afterCommit(() -> counterService.decrement(receiverId, 1));
                 }
+        }
 
-                return notificationRepository
-                                .findByReceiverAndIsReadFalseOrderByCreatedDateDesc(maybeUser.get())
-                                .stream()
-                                .map(n -> NotificationDTO.builder()
-                                                .id(n.getId())
-                                                .senderId(n.getSender() != null ? n.getSender().getId() : null)
-                                                .senderUsername(n.getSender() != null ? n.getSender().getUsername()
-                                                                : null)
-                                                .receiverId(n.getReceiver() != null ? n.getReceiver().getId() : null)
-                                                .receiverUsername(
-                                                                n.getReceiver() != null ? n.getReceiver().getUsername()
-                                                                                : null)
-                                                .type(n.getType())
-                                                .message(n.getMessage())
-                                                .referenceId(n.getReferenceId())
-                                                .isRead(n.getIsRead())
-                                                .createdDate(n.getCreatedDate())
-                                                .build())
-                                .collect(java.util.stream.Collectors.toList());
+        @Transactional
+        public int markAllAsRead(Integer userId) {
+                if (!userRepository.existsById(userId)) {
+                        throw new RuntimeException("User not found");
+                }
+                int updated = notificationRepository.markAllRead(userId);
+                // by the rows this statement changed: a notification committed meanwhile stays unread
+                afterCommit(() -> counterService.decrement(userId, updated));
+                return updated;
         }
 
+        /**
+         * Marks every notification at or older than {@code notificationId} (in feed order) as
+         * read, e.g. everything the client has scrolled past.
+         */
         @Transactional
-        public void markAsRead(Integer notificationId) {
-                Notification notification = notificationRepository.findById(notificationId)
+        public int markReadUpTo(Integer userId, Integer notificationId) {
+                LocalDateTime watermark = notificationRepository.findCreatedDateByIdAndReceiver(notificationId, userId)
                                 .orElseThrow(() -> new RuntimeException("Notification not found"));
-                notification.setIsRead(true);
-                notificationRepository.save(notification);
+                int updated = notificationRepository.markReadUpTo(userId, watermark, notificationId);
+                if (updated > 0) {
+                        afterCommit(() -> counterService.decrement(userId, updated));
+                }
+                return updated;
         }
 
         @Transactional
-        public void markAllAsRead(Integer userId) {
-                User user = userRepository.findById(userId)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
-                List<Notification> notifications = notificationRepository
-                                .findByReceiverAndIsReadFalseOrderByCreatedDateDesc(user);
-                notifications.forEach(n -> n.setIsRead(true));
-                notificationRepository.saveAll(notifications);
+        public int deleteNotifications(Integer userId, List<Integer> notificationIds) {
+                if (notificationIds == null || notificationIds.isEmpty()) {
+                        return 0;
+                }
+                int deleted = notificationRepository.deleteByReceiverAndIds(userId, notificationIds);
+                // some of them may have been unread; recount rather than guess
+                afterCommit(() -> counterService.invalidate(userId));
+                return deleted;
         }
 
         @Transactional
-        public List<NotificationDTO> allNotifications() {
-                return notificationRepository.findAll().stream().map(n -> NotificationDTO.builder()
+        public int deleteReadNotifications(Integer userId) {
+                // only read rows go, so the unread count is unaffected
+                return notificationRepository.deleteReadByReceiver(userId);
+        }
+
+        /**
+         * A user's notifications created after {@code lastSeenId}, oldest first, for push clients
+         * resuming from a plain notification id.
+         */
+        @Transactional(readOnly = true)
+        public List<NotificationDTO> getNotificationsAfter(Integer userId, Integer lastSeenId, int limit) {
+                return notificationRepository.findDtosAfter(userId, lastSeenId, PageRequest.of(0, limit));
+        }
+
+        /**
+         * Notifications of {@code userId} created or merged into after the given position, oldest
+         * activity first. A row's activity is its last merge, or its creation if it has none.
+         */
+        @Transactional(readOnly = true)
+        public List<NotificationDTO> getNotificationsActiveAfter(Integer userId, LocalDateTime activity, Integer id,
+                                                                 int limit) {
+                return notificationRepository.findDtosActiveAfter(userId, activity, id, PageRequest.of(0, limit));
+        }
+
+        /**
+         * Maps a managed notification without initialising its sender or receiver; usernames
+         * are taken from {@code usernames}.
+         */
+        public static NotificationDTO toDTO(Notification n, Map<Integer, String> usernames) {
+                Integer senderId = n.getSender() != null ? n.getSender().getId() : null;
+                Integer receiverId = n.getReceiver() != null ? n.getReceiver().getId() : null;
+                return NotificationDTO.builder()
                                 .id(n.getId())
-                                .senderId(n.getSender().getId())
-                                .senderUsername(n.getSender().getUsername())
-                                .receiverId(n.getReceiver().getId())
-                                .receiverUsername(n.getReceiver().getUsername())
+                                .senderId(senderId)
+                                .senderUsername(usernames.get(senderId))
+                                .receiverId(receiverId)
+                                .receiverUsername(usernames.get(receiverId))
                                 .type(n.getType())
                                 .message(n.getMessage())
                                 .referenceId(n.getReferenceId())
                                 .isRead(n.getIsRead())
+                                .actorCount(n.getActorCount() != null ? n.getActorCount() : 1)
+                                .sampleActorIds(n.getSampleActorIds() != null
+                                                ? Arrays.stream(n.getSampleActorIds()).boxed().toList()
+                                                : null)
                                 .createdDate(n.getCreatedDate())
-                                .build())
-                                .toList();
+                                .modifiedDate(n.getModifiedDate())
+                                .build();
+        }
+
+        public static NotificationDTO toDTO(NotificationBulkRepository.Row row, Map<Integer, String> usernames) {
+                return NotificationDTO.builder()
+                                .id(row.getId())
+                                .senderId(row.getSenderId())
+                                .senderUsername(usernames.get(row.getSenderId()))
+                                .receiverId(row.getReceiverId())
+                                .receiverUsername(usernames.get(row.getReceiverId()))
+                                .type(row.getType())
+                                .message(row.getMessage())
+                                .referenceId(row.getReferenceId())
+                                .isRead(false)
+                                .actorCount(row.getActorCount())
+                                .sampleActorIds(Arrays.stream(row.getSampleActorIds()).boxed().toList())
+                                .createdDate(row.getCreatedDate())
+                                .build();
+        }
+
+        /**
+         * Admin export: streams up to {@code limit} notifications with an id above
+         * {@code afterId}, in id order, to {@code sink}. Callers page by passing the last id
+         * they received.
+         */
+        @Transactional(readOnly = true)
+        public void exportNotifications(Integer afterId, int limit, Consumer<NotificationDTO> sink) {
+                int max = Math.max(1, Math.min(limit, MAX_EXPORT_SIZE));
+                try (Stream<NotificationDTO> stream = notificationRepository.streamDtosAfter(
+                                afterId != null ? afterId : 0, Limit.of(max))) {
+                        stream.forEach(sink);
+                }
         }
 }
@@ -107,7 +107,7 @@ public class RecipeCommentReactionService {
             notificationProducer.sendNotification(NotificationEvent.builder()
                     .senderId(user.getId())
                     .receiverId(recipe.getAuthor().getId())
-                    .type(NotificationType.POST_REACTION)
+                    .type(NotificationType.RECIPE_REACTION)
                     .message(user.getUsername() + " " + reactionDTO.getType().toLowerCase() + "d your post")
                     .referenceId(recipe.getId())
                     .build());
@@ -0,0 +1,223 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.RecipeFanoutConfig;
+import com.esewa.javabackend.dto.NotificationDTO;
+import com.esewa.javabackend.enums.FanoutStatus;
+import com.esewa.javabackend.enums.NotificationType;
+import com.esewa.javabackend.module.RecipeFanoutJob;
+import com.esewa.javabackend.module.User;
+import com.esewa.javabackend.repository.JpaRepository.FollowRepository;
+import com.esewa.javabackend.repository.JpaRepository.NotificationBulkRepository;
+import com.esewa.javabackend.repository.JpaRepository.RecipeFanoutJobRepository;
+import com.esewa.javabackend.repository.JpaRepository.UserStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Tells followers about new recipes.
+ *
+ * Publishing a recipe only records a {@link RecipeFanoutJob} in the same transaction. A
+ * scheduled worker then pages the author's followers with keyset queries over
+ * {@code follows} and writes one multi-row insert per page, at most {@code maxPerSecond}
+ * notifications per second in total, so a large fan-out trickles out instead of flooding the
+ * database. Each notification's event id is derived from (recipe, follower), so a page
+ * retried after a crash is not delivered twice.
+ *
+ * A page that fails rolls back and is retried on the next tick; after {@code maxAttempts}
+ * consecutive failures the job is marked {@link FanoutStatus#FAILED} so it cannot hold up
+ * the jobs behind it.
+ *
+ * Authors at or above the pull threshold are never fanned out: their jobs are stored as
+ * {@link FanoutStatus#PULL} and followers read them through {@link #pullFeed(Integer, int)}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecipeFanoutService {
+
+    private static final long TICK_MS = 1000;
+    private static final int MESSAGE_LENGTH = 255;
+
+    private final RecipeFanoutConfig config;
+    private final RecipeFanoutJobRepository jobRepository;
+    private final FollowRepository followRepository;
+    private final UserStatsRepository userStatsRepository;
+    private final NotificationBulkRepository bulkRepository;
+    private final NotificationCounterService counterService;
+    private final NotificationPushService pushService;
+    private final UserDirectoryCache userDirectory;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Records that {@code author} published a recipe. Call inside the publishing transaction.
+     */
+    public void recipePublished(Integer recipeId, String title, User author) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        int followers = userStatsRepository.findFollowersCountByUserId(author.getId()).orElse(0);
+        if (followers == 0) {
+            return;
+        }
+        String message = author.getUsername() + " published a new recipe: " + title;
+        jobRepository.save(RecipeFanoutJob.builder()
+                .recipeId(recipeId)
+                .authorId(author.getId())
+                .message(message.length() > MESSAGE_LENGTH ? message.substring(0, MESSAGE_LENGTH) : message)
+                .status(followers >= config.getPullThreshold() ? FanoutStatus.PULL : FanoutStatus.PENDING)
+                .lastFollowId(0)
+                .delivered(0)
+                .attempts(0)
+                .createdAt(Instant.now())
+                .build());
+    }
+
+    @Scheduled(fixedDelay = TICK_MS)
+    public void work() {
+        if (!config.isEnabled()) {
+            return;
+        }
+        long budget = (long) config.getMaxPerSecond() * TICK_MS / 1000;
+        while (budget > 0) {
+            int limit = (int) Math.min(config.getPageSize(), budget);
+            Integer[] claimed = new Integer[1];
+            Page page;
+            try {
+                page = transactionTemplate.execute(status -> nextPage(limit, claimed));
+            } catch (RuntimeException e) {
+                // the page rolled back, so the job is still first in line; count the failure
+                // separately or it would be retried forever ahead of every other job
+                recordFailure(claimed[0], e);
+                return;
+            }
+            if (page == null) {
+                return;
+            }
+            deliver(page);
+            // finishing a job costs a little budget too, so an empty tail cannot spin forever
+            budget -= Math.max(1, page.scanned);
+        }
+    }
+
+    /**
+     * New recipes from followed authors that are above the fan-out threshold, newest first.
+     */
+    public List<NotificationDTO> pullFeed(Integer userId, int size) {
+        Instant since = Instant.now().minus(Duration.ofDays(config.getPullWindowDays()));
+        List<RecipeFanoutJob> jobs = jobRepository.findPullFeed(userId, since,
+                PageRequest.of(0, Math.max(1, Math.min(size, 100))));
+        Map<Integer, String> usernames = userDirectory.resolve(jobs.stream().map(RecipeFanoutJob::getAuthorId).toList());
+        return jobs.stream()
+                .map(job -> NotificationDTO.builder()
+                        .senderId(job.getAuthorId())
+                        .senderUsername(usernames.get(job.getAuthorId()))
+                        .receiverId(userId)
+                        .type(NotificationType.NEW_RECIPE)
+                        .message(job.getMessage())
+                        .referenceId(job.getRecipeId())
+                        .actorCount(1)
+                        .createdDate(LocalDateTime.ofInstant(job.getCreatedAt(), ZoneId.systemDefault()))
+                        .build())
+                .toList();
+    }
+
+    private Page nextPage(int limit, Integer[] claimedId) {
+        List<RecipeFanoutJob> claimed = jobRepository.claimNext(FanoutStatus.PENDING, PageRequest.of(0, 1));
+        if (claimed.isEmpty()) {
+            return null;
+        }
+        RecipeFanoutJob job = claimed.get(0);
+        claimedId[0] = job.getId();
+        List<Object[]> followers = followRepository.findFollowerPage(job.getAuthorId(), job.getLastFollowId(),
+                PageRequest.of(0, limit));
+
+        List<NotificationBulkRepository.Row> rows = new ArrayList<>(followers.size());
+        for (Object[] follower : followers) {
+            Integer followerId = (Integer) follower[1];
+            rows.add(NotificationBulkRepository.Row.builder()
+                    .receiverId(followerId)
+                    .senderId(job.getAuthorId())
+                    .type(NotificationType.NEW_RECIPE)
+                    .message(job.getMessage())
+                    .referenceId(job.getRecipeId())
+                    .actorCount(1)
+                    .sampleActorIds(new int[]{job.getAuthorId()})
+                    .eventId(UUID.nameUUIDFromBytes(("recipe-fanout:" + job.getRecipeId() + ":" + followerId)
+                            .getBytes(StandardCharsets.UTF_8)))
+                    .build());
+        }
+        List<NotificationBulkRepository.Row> inserted = bulkRepository.insertAll(rows);
+
+        if (!followers.isEmpty()) {
+            job.setLastFollowId((Integer) followers.get(followers.size() - 1)[0]);
+        }
+        job.setDelivered(job.getDelivered() + inserted.size());
+        job.setAttempts(0);
+        if (followers.size() < limit) {
+            job.setStatus(FanoutStatus.DONE);
+            job.setCompletedAt(Instant.now());
+            log.info("Recipe {} announced to {} followers of user {}", job.getRecipeId(), job.getDelivered(),
+                    job.getAuthorId());
+        }
+        jobRepository.save(job);
+        return new Page(job.getAuthorId(), inserted, followers.size());
+    }
+
+    private void recordFailure(Integer jobId, RuntimeException cause) {
+        if (jobId == null) {
+            log.warn("Recipe fan-out could not claim a job: {}", cause.getMessage());
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setAttempts(job.getAttempts() + 1);
+                if (job.getAttempts() >= config.getMaxAttempts()) {
+                    job.setStatus(FanoutStatus.FAILED);
+                    job.setCompletedAt(Instant.now());
+                    log.error("Giving up announcing recipe {} after {} attempts, {} followers notified",
+                            job.getRecipeId(), job.getAttempts(), job.getDelivered(), cause);
+                } else {
+                    log.warn("Recipe fan-out job {} failed (attempt {}): {}", jobId, job.getAttempts(),
+                            cause.getMessage());
+                }
+                jobRepository.save(job);
+            }));
+        } catch (RuntimeException e) {
+            log.warn("Could not record failure of recipe fan-out job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private void deliver(Page page) {
+        if (page.inserted.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> usernames = userDirectory.resolve(List.of(page.authorId));
+        for (NotificationBulkRepository.Row row : page.inserted) {
+            counterService.increment(row.getReceiverId());
+            pushService.push(NotificationService.toDTO(row, usernames));
+        }
+    }
+
+    private static class Page {
+        final Integer authorId;
+        final List<NotificationBulkRepository.Row> inserted;
+        final int scanned;
+
+        Page(Integer authorId, List<NotificationBulkRepository.Row> inserted, int scanned) {
+            this.authorId = authorId;
+            this.inserted = inserted;
+            this.scanned = scanned;
+        }
+    }
+}
@@ -56,6 +56,7 @@ public class RecipeService {
     private final InteractionProducer interactionProducer;
     private final ReactionRepository reactionRepository;
     private final RecipeCommentRepository recipeCommentRepository;
+    private final RecipeFanoutService recipeFanoutService;
 
     private final String className = this.getClass().getName();
 
@@ -65,6 +66,7 @@ public class RecipeService {
         if (recipeDTO == null)
             throw new IllegalArgumentException("RecipeDTO cannot be null");
 
+        boolean isNewRecipe = recipeDTO.getId() == null;
         Recipe recipe = Optional.ofNullable(recipeDTO.getId())
                 .map(id -> recipeRepository.findById(id)
                         .orElseThrow(() -> new RuntimeException("Recipe not found")))
@@ -223,6 +225,11 @@ public class RecipeService {
             log.warn("Interaction producer failed during recipe create: {}", e.getMessage());
         }
 
+        if (isNewRecipe && savedRecipe.isPublic()) {
+            // queued with the recipe; followers are notified by the fan-out worker
+            recipeFanoutService.recipePublished(savedRecipe.getId(), savedRecipe.getTitle(), author);
+        }
+
         return recipe.getId();
     }
 
@@ -0,0 +1,181 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.UserDTO.UserActivityDTO;
+import com.esewa.javabackend.repository.JpaRepository.UserActivityRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Tracks when users were last active without writing the user row on every request.
+ *
+ * Each authenticated request records a timestamp in memory. Pending timestamps are striped by
+ * user id so request threads spread over independent maps; a scheduled flush writes them with
+ * one batched UPDATE, so a user's row is written at most once per flush interval however
+ * busy they are. Flushed timestamps are mirrored into a Redis sorted set so every node can
+ * answer "last seen" lookups; the database column is the fallback.
+ *
+ * Whether a user is online is not decided here: a user counts as online while they have a
+ * chat socket open, as tracked by {@link ChatPresenceStore}. That is what
+ * {@code /api/messages/presence} reports, and {@link #activity} reports the same flag next to
+ * the last activity, so the two endpoints cannot disagree.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserActivityTracker {
+
+    private static final int STRIPES = 16;
+    private static final String REDIS_KEY = "users:last-active";
+
+    // repeated hits within this window do not touch the maps at all
+    private static final long RESOLUTION_MS = 1000;
+
+    private static final int MAX_LOOKUP = 500;
+
+    private final UserActivityRepository activityRepository;
+    private final StringRedisTemplate redis;
+    private final ChatPresenceStore presenceStore;
+
+    // how long this node answers a user's last activity from memory
+    @Value("${app.users.activity.online-window-seconds:300}")
+    private long onlineWindowSeconds;
+
+    @Value("${app.users.activity.redis-retention-hours:24}")
+    private long redisRetentionHours;
+
+    // latest activity per user seen by this node, kept for the window above
+    private final Map<Integer, Long> recent = new ConcurrentHashMap<>();
+
+    // activity not yet written to the database
+    private final List<Map<Integer, Long>> pending = IntStream.range(0, STRIPES)
+            .<Map<Integer, Long>>mapToObj(i -> new ConcurrentHashMap<>())
+            .toList();
+
+    public void record(Integer userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Long previous = recent.get(userId);
+        if (previous != null && now - previous < RESOLUTION_MS) {
+            return;
+        }
+        recent.merge(userId, now, Math::max);
+        stripe(userId).merge(userId, now, Math::max);
+    }
+
+    /**
+     * Online flag and last activity of the given users. The flag is socket presence; the last
+     * activity comes from memory, then Redis, then the database. At most
+     * {@value #MAX_LOOKUP} users per call.
+     */
+    public Map<Integer, UserActivityDTO> activity(Collection<Integer> userIds) {
+        List<Integer> ids = userIds.stream().filter(Objects::nonNull).distinct().limit(MAX_LOOKUP).toList();
+        Map<Integer, Long> lastActive = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            Long at = recent.get(id);
+            if (at != null) {
+                lastActive.put(id, at);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            missing = fromRedis(missing, lastActive);
+        }
+        if (!missing.isEmpty()) {
+            lastActive.putAll(activityRepository.findLastActive(missing));
+        }
+
+        Map<Integer, UserActivityDTO> result = new LinkedHashMap<>();
+        for (Integer id : ids) {
+            Long at = lastActive.get(id);
+            result.put(id, UserActivityDTO.builder()
+                    .userId(id)
+                    .online(presenceStore.isOnline(id))
+                    .lastActiveAt(at != null ? Instant.ofEpochMilli(at) : null)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Writes the activity recorded since the previous flush.
+     */
+    @Scheduled(fixedDelayString = "${app.users.activity.flush-interval-ms:60000}")
+    public void flush() {
+        Map<Integer, Long> batch = new HashMap<>();
+        for (Map<Integer, Long> stripe : pending) {
+            batch.putAll(stripe);
+        }
+        if (!batch.isEmpty()) {
+            try {
+                activityRepository.touchAll(batch);
+                // a newer hit that arrived meanwhile stays pending for the next flush
+                batch.forEach((id, at) -> stripe(id).remove(id, at));
+                mirror(batch);
+                log.debug("Flushed activity of {} users", batch.size());
+            } catch (DataAccessException e) {
+                log.warn("Failed to flush user activity, retrying next interval: {}", e.getMessage());
+            }
+        }
+        evictIdle();
+    }
+
+    private List<Integer> fromRedis(List<Integer> ids, Map<Integer, Long> lastActive) {
+        try {
+            List<Double> scores = redis.opsForZSet().score(REDIS_KEY, ids.stream().map(String::valueOf).toArray());
+            if (scores == null) {
+                return ids;
+            }
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                Double score = scores.get(i);
+                if (score != null) {
+                    lastActive.put(ids.get(i), score.longValue());
+                } else {
+                    missing.add(ids.get(i));
+                }
+            }
+            return missing;
+        } catch (DataAccessException e) {
+            log.debug("Activity lookup in Redis failed: {}", e.getMessage());
+            return ids;
+        }
+    }
+
+    private void mirror(Map<Integer, Long> batch) {
+        Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>();
+        batch.forEach((id, at) -> tuples.add(ZSetOperations.TypedTuple.of(id.toString(), at.doubleValue())));
+        try {
+            redis.opsForZSet().add(REDIS_KEY, tuples);
+            long expired = System.currentTimeMillis() - redisRetentionHours * 60 * 60 * 1000;
+            redis.opsForZSet().removeRangeByScore(REDIS_KEY, 0, expired);
+        } catch (DataAccessException e) {
+            // lookups fall back to the database column
+            log.debug("Could not mirror user activity to Redis: {}", e.getMessage());
+        }
+    }
+
+    // users idle for longer than the window are answered from Redis or the database
+    private void evictIdle() {
+        long idleSince = System.currentTimeMillis() - onlineWindowSeconds * 1000;
+        recent.entrySet().removeIf(e -> e.getValue() < idleSince && !stripe(e.getKey()).containsKey(e.getKey()));
+    }
+
+    private Map<Integer, Long> stripe(Integer userId) {
+        return pending.get(userId & (STRIPES - 1));
+    }
+}
@@ -0,0 +1,60 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of known user ids and their usernames for hot paths that only need to check that a
+ * user exists or to render a name, without loading {@code User} entities.
+ *
+ * Only existing users are cached, so a user created after a miss is found on the next
+ * lookup. Missing ids are resolved in one query per call.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserDirectoryCache {
+
+    private static final int MAX_ENTRIES = 200_000;
+
+    private final UserRepository userRepository;
+    private final Map<Integer, String> usernames = new ConcurrentHashMap<>();
+
+    /**
+     * @return username by id for those of {@code ids} that exist
+     */
+    public Map<Integer, String> resolve(Collection<Integer> ids) {
+        Map<Integer, String> result = new HashMap<>();
+        Set<Integer> missing = new HashSet<>();
+        for (Integer id : ids) {
+            if (id == null) {
+                continue;
+            }
+            String username = usernames.get(id);
+            if (username != null) {
+                result.put(id, username);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            if (usernames.size() + missing.size() > MAX_ENTRIES) {
+                usernames.clear();
+            }
+            for (Object[] row : userRepository.findUsernamesByIds(missing)) {
+                Integer id = (Integer) row[0];
+                String username = row[1] != null ? (String) row[1] : "";
+                usernames.put(id, username);
+                result.put(id, username);
+            }
+        }
+        return result;
+    }
+
+    public void evict(Integer userId) {
+        usernames.remove(userId);
+    }
+}
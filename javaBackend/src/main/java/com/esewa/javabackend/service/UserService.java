@@ -34,11 +34,14 @@ public class UserService {
     private final UserMapper userMapper;
     private final UserStatService userStatService;
     private final com.esewa.javabackend.repository.JpaRepository.UserStatsRepository userStatRepository;
+    private final UserDirectoryCache userDirectory;
     private final String className;
 
     public UserService(UserRepository userRepository, UserMapper userMapper, UserStatService userStatService,
-            com.esewa.javabackend.repository.JpaRepository.UserStatsRepository userStatRepository) {
+            com.esewa.javabackend.repository.JpaRepository.UserStatsRepository userStatRepository,
+            UserDirectoryCache userDirectory) {
         this.userRepository = userRepository;
+        this.userDirectory = userDirectory;
         this.userMapper = userMapper;
         this.userStatService = userStatService;
         this.userStatRepository = userStatRepository;
@@ -59,7 +62,9 @@ public class UserService {
         // mapped.setId(user.getId()); // preserve ID if update
         userMapper.updateEntity(userDTO, user);
 
-        return userRepository.save(user).getId();
+        Integer id = userRepository.save(user).getId();
+        userDirectory.evict(id);
+        return id;
     }
 
     @Transactional
@@ -80,6 +85,7 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         userRepository.delete(user);
+        userDirectory.evict(id);
     }
 
     // Filter / Paginated fetch
@@ -0,0 +1,65 @@
+package com.esewa.javabackend.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A job that runs on its own daemon thread, at most one run at a time.
+ *
+ * {@code @Scheduled} methods share one scheduler thread, so anything that can block for more
+ * than a moment (network sends, long batch loops) is triggered from the schedule and run here
+ * instead. A trigger while a run is in progress is skipped, not queued.
+ */
+@Slf4j
+public class BackgroundJob {
+
+    private final String name;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final ExecutorService executor;
+
+    public BackgroundJob(String name) {
+        this.name = name;
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts {@code task} unless a previous run is still going.
+     *
+     * @return whether a run was started
+     */
+    public boolean trigger(Runnable task) {
+        if (executor.isShutdown() || !running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.error("Background job {} failed", name, e);
+                } finally {
+                    running.set(false);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,72 @@
+package com.esewa.javabackend.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pagination over (timestamp, id) ordered rows.
+ * Encoded as url-safe base64 of "timestamp|id".
+ */
+public final class KeysetCursor {
+
+    private final String time;
+    private final int id;
+
+    private KeysetCursor(String time, int id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    public static String encode(Instant time, Integer id) {
+        return encode(time.toString(), id);
+    }
+
+    public static String encode(LocalDateTime time, Integer id) {
+        return encode(time.toString(), id);
+    }
+
+    /**
+     * Decodes a cursor, returning null for a null/blank cursor (first page).
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new KeysetCursor(raw.substring(0, separator), Integer.parseInt(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public Instant instant() {
+        try {
+            return Instant.parse(time);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor timestamp: " + time);
+        }
+    }
+
+    public LocalDateTime localDateTime() {
+        try {
+            return LocalDateTime.parse(time);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor timestamp: " + time);
+        }
+    }
+
+    public int id() {
+        return id;
+    }
+
+    private static String encode(String time, Integer id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((time + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,99 @@
+package com.esewa.javabackend.utils;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over a sliding time window, used to spot redelivered event ids without a
+ * database lookup.
+ *
+ * The window is split into {@code buckets} slots of {@code bucketMillis}; ids are added to the
+ * current slot and looked up in all of them, and a slot is cleared when time wraps back onto
+ * it. A negative answer is exact within the window, a positive one may be a false positive
+ * and must be confirmed by the caller.
+ */
+public class TimeBucketedBloomFilter {
+
+    private final long bucketMillis;
+    private final int bitsPerBucket;
+    private final int hashes;
+    private final AtomicLongArray[] bits;
+    private final long[] bucketEpochs;
+
+    public TimeBucketedBloomFilter(long bucketMillis, int buckets, int expectedPerBucket, double falsePositiveRate) {
+        this.bucketMillis = bucketMillis;
+        long optimalBits = (long) Math.ceil(-expectedPerBucket * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitsPerBucket = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, optimalBits));
+        this.hashes = Math.max(1, (int) Math.round((double) bitsPerBucket / expectedPerBucket * Math.log(2)));
+        this.bits = new AtomicLongArray[buckets];
+        this.bucketEpochs = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            bits[i] = new AtomicLongArray((bitsPerBucket + 63) / 64);
+            bucketEpochs[i] = -1;
+        }
+    }
+
+    public boolean mightContain(UUID id) {
+        long epoch = rotate();
+        long h1 = mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1;
+        for (int b = 0; b < bits.length; b++) {
+            if (bucketEpochs[b] < epoch - bits.length + 1) {
+                continue;
+            }
+            if (containsAll(bits[b], h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(UUID id) {
+        long epoch = rotate();
+        AtomicLongArray bucket = bits[(int) (epoch % bits.length)];
+        long h1 = mix(id.getMostSignificantBits() ^ id.getLeastSignificantBits());
+        long h2 = mix(id.getLeastSignificantBits() + 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1 + i * h2);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = bucket.get(word);
+            } while ((current & mask) == 0 && !bucket.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    private boolean containsAll(AtomicLongArray bucket, long h1, long h2) {
+        for (int i = 0; i < hashes; i++) {
+            int bit = index(h1 + i * h2);
+            if ((bucket.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private synchronized long rotate() {
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        int slot = (int) (epoch % bits.length);
+        if (bucketEpochs[slot] != epoch) {
+            AtomicLongArray bucket = bits[slot];
+            for (int i = 0; i < bucket.length(); i++) {
+                bucket.set(i, 0);
+            }
+            bucketEpochs[slot] = epoch;
+        }
+        return epoch;
+    }
+
+    private int index(long hash) {
+        return (int) ((hash >>> 1) % bitsPerBucket);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+}
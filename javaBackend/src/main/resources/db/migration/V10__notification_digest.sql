@@ -0,0 +1,13 @@
+-- Notification e-mail digests: one row per run, checkpointed so an interrupted run resumes.
+-- The per-receiver scan of unread notifications uses idx_notifications_receiver_unread (V6).
+
+CREATE TABLE IF NOT EXISTS notification_digest_runs (
+    id               SERIAL PRIMARY KEY,
+    window_start     TIMESTAMP   NOT NULL,
+    window_end       TIMESTAMP   NOT NULL,
+    last_receiver_id INTEGER     NOT NULL DEFAULT 0,
+    digests_sent     INTEGER     NOT NULL DEFAULT 0,
+    completed        BOOLEAN     NOT NULL DEFAULT FALSE,
+    started_at       TIMESTAMPTZ NOT NULL,
+    finished_at      TIMESTAMPTZ
+);
@@ -0,0 +1,51 @@
+-- Denormalized inbox: last message on the conversation, sort key and unread count per member.
+
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_message_id      INTEGER;
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_message_preview VARCHAR(255);
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_message_at      TIMESTAMPTZ;
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS last_sender_id       INTEGER;
+
+CREATE TABLE IF NOT EXISTS conversation_members (
+    id              SERIAL PRIMARY KEY,
+    conversation_id INTEGER NOT NULL REFERENCES conversations (id),
+    user_id         INTEGER NOT NULL REFERENCES users (id),
+    peer_id         INTEGER REFERENCES users (id),
+    last_message_at TIMESTAMPTZ,
+    unread_count    INTEGER NOT NULL DEFAULT 0,
+    UNIQUE (conversation_id, user_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_conversation_members_inbox
+    ON conversation_members (user_id, last_message_at, conversation_id);
+
+-- Backfill from existing messages
+
+UPDATE conversations c
+SET last_message_id      = m.id,
+    last_message_preview = LEFT(m.body, 255),
+    last_message_at      = m.sent_at,
+    last_sender_id       = m.sender_id
+FROM (SELECT DISTINCT ON (conversation_id) id, conversation_id, body, sent_at, sender_id
+      FROM messages
+      ORDER BY conversation_id, sent_at DESC, id DESC) m
+WHERE m.conversation_id = c.id;
+
+-- message_read_by only exists on databases that predate watermarks (V12); a new database has
+-- no messages to count
+DO $$
+BEGIN
+    IF to_regclass('message_read_by') IS NOT NULL THEN
+        INSERT INTO conversation_members (conversation_id, user_id, peer_id, last_message_at, unread_count)
+        SELECT p.conversation_id,
+               p.user_id,
+               (SELECT o.user_id FROM conversation_participants o
+                WHERE o.conversation_id = p.conversation_id AND o.user_id <> p.user_id LIMIT 1),
+               c.last_message_at,
+               (SELECT COUNT(*) FROM messages m
+                WHERE m.conversation_id = p.conversation_id
+                  AND NOT EXISTS (SELECT 1 FROM message_read_by r WHERE r.message_id = m.id AND r.user_id = p.user_id))
+        FROM conversation_participants p
+        JOIN conversations c ON c.id = p.conversation_id
+        ON CONFLICT (conversation_id, user_id) DO NOTHING;
+    END IF;
+END $$;
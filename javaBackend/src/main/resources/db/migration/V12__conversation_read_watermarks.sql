@@ -0,0 +1,28 @@
+-- Read state moves from one message_read_by row per (message, reader) to one watermark per
+-- conversation member: every message with id <= last_read_message_id has been read.
+
+ALTER TABLE conversation_members ADD COLUMN IF NOT EXISTS last_read_message_id INTEGER;
+
+-- newest message the member sent or read; a new database never had message_read_by
+DO $$
+BEGIN
+    IF to_regclass('message_read_by') IS NOT NULL THEN
+        UPDATE conversation_members cm
+        SET last_read_message_id = w.message_id
+        FROM (SELECT m.conversation_id, r.user_id, MAX(m.id) AS message_id
+              FROM messages m
+              JOIN message_read_by r ON r.message_id = m.id
+              GROUP BY m.conversation_id, r.user_id) w
+        WHERE w.conversation_id = cm.conversation_id
+          AND w.user_id = cm.user_id;
+    END IF;
+END $$;
+
+-- recount against the watermark so counts and read flags agree
+UPDATE conversation_members cm
+SET unread_count = (SELECT COUNT(*) FROM messages m
+                    WHERE m.conversation_id = cm.conversation_id
+                      AND m.sender_id <> cm.user_id
+                      AND m.id > COALESCE(cm.last_read_message_id, 0));
+
+DROP TABLE IF EXISTS message_read_by;
@@ -0,0 +1,4 @@
+-- Keyset pagination of a conversation's history in either direction.
+
+CREATE INDEX IF NOT EXISTS idx_messages_conversation_sent
+    ON messages (conversation_id, sent_at, id);
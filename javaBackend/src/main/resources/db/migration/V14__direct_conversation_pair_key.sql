@@ -0,0 +1,32 @@
+-- Direct conversations are keyed by their canonical (min, max) user pair; group conversations
+-- leave both columns null, which the unique constraint ignores.
+
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS direct_user_low  INTEGER;
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS direct_user_high INTEGER;
+
+-- Backfill two-participant conversations. Where races already produced duplicates, the
+-- oldest conversation of a pair takes the key and the others stay reachable by id only.
+WITH pairs AS (
+    SELECT conversation_id,
+           MIN(user_id) AS low,
+           MAX(user_id) AS high,
+           ROW_NUMBER() OVER (PARTITION BY MIN(user_id), MAX(user_id) ORDER BY conversation_id) AS rank
+    FROM conversation_participants
+    GROUP BY conversation_id
+    HAVING COUNT(*) = 2
+)
+UPDATE conversations c
+SET direct_user_low  = p.low,
+    direct_user_high = p.high
+FROM pairs p
+WHERE p.conversation_id = c.id
+  AND p.rank = 1
+  AND c.direct_user_low IS NULL;
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_conversations_direct_pair') THEN
+        ALTER TABLE conversations
+            ADD CONSTRAINT uk_conversations_direct_pair UNIQUE (direct_user_low, direct_user_high);
+    END IF;
+END $$;
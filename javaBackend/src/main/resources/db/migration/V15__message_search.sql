@@ -0,0 +1,10 @@
+-- Full-text search over message bodies. 'simple' keeps words as written (no stemming or
+-- stop words), which suits short, mixed-language chat messages.
+-- Adding a stored generated column rewrites the table once; run it off-peak.
+
+ALTER TABLE messages
+    ADD COLUMN IF NOT EXISTS body_tsv tsvector
+        GENERATED ALWAYS AS (to_tsvector('simple', coalesce(body, ''))) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_messages_body_tsv
+    ON messages USING GIN (body_tsv);
@@ -0,0 +1,15 @@
+-- Group chats: one conversation per group, one conversation_members row per group member
+-- (peer_id stays null). Messages are stored once; members track reading with watermarks.
+
+ALTER TABLE conversations ADD COLUMN IF NOT EXISTS group_id UUID REFERENCES groups (id);
+
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = 'uk_conversations_group') THEN
+        ALTER TABLE conversations ADD CONSTRAINT uk_conversations_group UNIQUE (group_id);
+    END IF;
+END $$;
+
+-- Hibernate's generated check on notifications.type predates NEW_RECIPE and GROUP_MESSAGE;
+-- the enum is validated by the application.
+ALTER TABLE notifications DROP CONSTRAINT IF EXISTS notifications_type_check;
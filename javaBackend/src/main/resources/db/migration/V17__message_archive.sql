@@ -0,0 +1,21 @@
+-- Archive of messages from conversations idle for months, one gzip-compressed JSON array per
+-- segment. Segments are append-only; history reads merge them in front of the live rows.
+
+CREATE TABLE IF NOT EXISTS message_archive_segments (
+    id              BIGSERIAL PRIMARY KEY,
+    conversation_id INTEGER     NOT NULL,
+    message_count   INTEGER     NOT NULL,
+    min_message_id  INTEGER     NOT NULL,
+    max_message_id  INTEGER     NOT NULL,
+    oldest_sent_at  TIMESTAMPTZ,
+    newest_sent_at  TIMESTAMPTZ,
+    archived_at     TIMESTAMPTZ NOT NULL,
+    payload         BYTEA       NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_message_archive_conversation
+    ON message_archive_segments (conversation_id, min_message_id);
+
+-- finds idle conversations without scanning the table
+CREATE INDEX IF NOT EXISTS idx_conversations_last_message_at
+    ON conversations (last_message_at);
@@ -0,0 +1,8 @@
+-- Group unread counts are recounted from each member's watermark instead of incremented in
+-- memory, which needs messages by id within a conversation; and each member remembers the
+-- last message they were notified about, so a member skipped while online is notified later.
+
+CREATE INDEX IF NOT EXISTS idx_messages_conversation_id
+    ON messages (conversation_id, id);
+
+ALTER TABLE conversation_members ADD COLUMN IF NOT EXISTS last_notified_message_id INTEGER;
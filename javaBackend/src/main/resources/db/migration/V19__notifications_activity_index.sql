@@ -0,0 +1,6 @@
+-- A reconnecting notification stream replays what changed since its last event: rows created
+-- or merged into after a (last activity, id) position. Bulk inserts leave modified_date unset
+-- until a row is first updated, hence the COALESCE.
+
+CREATE INDEX IF NOT EXISTS idx_notifications_receiver_activity
+    ON notifications (receiver_id, COALESCE(modified_date, created_date), id);
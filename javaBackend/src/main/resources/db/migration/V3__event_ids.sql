@@ -0,0 +1,8 @@
+-- Producer-assigned event ids so Kafka redeliveries cannot create duplicate rows.
+-- Existing rows keep a NULL event_id (NULLs never conflict in a unique index).
+
+ALTER TABLE interactions ADD COLUMN IF NOT EXISTS event_id UUID;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_interactions_event_id ON interactions (event_id);
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS event_id UUID;
+CREATE UNIQUE INDEX IF NOT EXISTS ux_notifications_event_id ON notifications (event_id);
@@ -0,0 +1,4 @@
+-- Keyset pagination of a user's interactions by action, newest first.
+
+CREATE INDEX IF NOT EXISTS idx_interactions_user_action_created
+    ON interactions (user_id, action, created_at, id);
@@ -0,0 +1,13 @@
+-- Per-user taste vectors over recipe features, fed from the interaction stream.
+
+CREATE TABLE IF NOT EXISTS taste_features (
+    id   SERIAL PRIMARY KEY,
+    name VARCHAR(160) NOT NULL UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS user_taste_profiles (
+    user_id     INTEGER PRIMARY KEY,
+    feature_ids INT4[]      NOT NULL,
+    weights     FLOAT4[]    NOT NULL,
+    updated_at  TIMESTAMPTZ NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Keyset pagination of a user's notification feed, newest first; the partial index serves
+-- the unread-only feed and the unread count.
+
+CREATE INDEX IF NOT EXISTS idx_notifications_receiver_created
+    ON notifications (receiver_id, created_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_notifications_receiver_unread
+    ON notifications (receiver_id, created_date, id)
+    WHERE is_read = false;
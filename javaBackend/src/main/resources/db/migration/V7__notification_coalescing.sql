@@ -0,0 +1,8 @@
+-- Coalesced notifications: one row per (receiver, type, reference) while unread.
+
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS actor_count INTEGER;
+ALTER TABLE notifications ADD COLUMN IF NOT EXISTS sample_actor_ids INT4[];
+
+CREATE INDEX IF NOT EXISTS idx_notifications_open_aggregate
+    ON notifications (receiver_id, type, reference_id, created_date)
+    WHERE is_read = false;
@@ -0,0 +1,16 @@
+-- Archive of notifications removed by the retention job, one gzip-compressed JSON array per chunk.
+
+CREATE TABLE IF NOT EXISTS notification_archive_chunks (
+    id                  BIGSERIAL PRIMARY KEY,
+    reason              VARCHAR(32) NOT NULL,
+    row_count           INTEGER     NOT NULL,
+    min_notification_id INTEGER     NOT NULL,
+    max_notification_id INTEGER     NOT NULL,
+    oldest_created_date TIMESTAMP,
+    newest_created_date TIMESTAMP,
+    archived_at         TIMESTAMPTZ NOT NULL,
+    payload             BYTEA       NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_notification_archive_archived_at
+    ON notification_archive_chunks (archived_at);
@@ -0,0 +1,92 @@
+package com.esewa.javabackend.config.kafka;
+
+import com.esewa.javabackend.dto.event.InteractionEvent;
+import com.esewa.javabackend.enums.InteractionAction;
+import com.esewa.javabackend.enums.ResourceType;
+import com.esewa.javabackend.module.AIML.Interaction;
+import com.esewa.javabackend.module.User;
+import com.esewa.javabackend.repository.JpaRepository.InteractionRepository;
+import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import com.esewa.javabackend.service.AIML.InteractionSummaryCache;
+import com.esewa.javabackend.service.AIML.TasteProfileService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class InteractionConsumerTest {
+
+    private InteractionRepository interactionRepository;
+    private TasteProfileService tasteProfileService;
+    private InteractionConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        interactionRepository = mock(InteractionRepository.class);
+        UserRepository userRepository = mock(UserRepository.class);
+        tasteProfileService = mock(TasteProfileService.class);
+        User user = new User();
+        user.setId(7);
+        when(userRepository.findById(7)).thenReturn(Optional.of(user));
+        consumer = new InteractionConsumer(interactionRepository, userRepository,
+                mock(InteractionSummaryCache.class), tasteProfileService);
+    }
+
+    @Test
+    void redeliveredEventReachesTasteProfileOnce() {
+        InteractionEvent event = event();
+        consumer.consume(event);
+        when(interactionRepository.existsByEventId(event.getEventId())).thenReturn(true);
+
+        consumer.consume(event);
+
+        verify(interactionRepository, times(1)).save(any(Interaction.class));
+        verify(tasteProfileService, times(1)).record(event);
+    }
+
+    @Test
+    void eventRejectedByUniqueEventIdIsNotCounted() {
+        InteractionEvent event = event();
+        when(interactionRepository.save(any(Interaction.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_interactions_event_id"));
+        when(interactionRepository.existsByEventId(event.getEventId())).thenReturn(true);
+
+        consumer.consume(event);
+
+        verify(tasteProfileService, never()).record(any());
+    }
+
+    @Test
+    void otherConstraintViolationsAreNotTakenForDuplicates() {
+        when(interactionRepository.save(any(Interaction.class)))
+                .thenThrow(new DataIntegrityViolationException("fk_interactions_user"));
+
+        assertThatThrownBy(() -> consumer.consume(event())).isInstanceOf(DataIntegrityViolationException.class);
+        verify(tasteProfileService, never()).record(any());
+    }
+
+    @Test
+    void tasteProfileFailureDoesNotFailTheRecord() {
+        doThrow(new IllegalStateException("boom")).when(tasteProfileService).record(any());
+
+        assertThatCode(() -> consumer.consume(event())).doesNotThrowAnyException();
+    }
+
+    private static InteractionEvent event() {
+        return InteractionEvent.builder()
+                .eventId(UUID.randomUUID())
+                .userId(7)
+                .resourceType(ResourceType.RECIPE)
+                .resourceId(3)
+                .action(InteractionAction.SAVE)
+                .value(3.0)
+                .build();
+    }
+}
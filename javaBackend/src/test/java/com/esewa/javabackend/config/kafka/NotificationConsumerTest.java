@@ -0,0 +1,145 @@
+package com.esewa.javabackend.config.kafka;
+
+import com.esewa.javabackend.dto.NotificationDTO;
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import com.esewa.javabackend.enums.NotificationType;
+import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
+import com.esewa.javabackend.service.NotificationCounterService;
+import com.esewa.javabackend.service.NotificationIngestService;
+import com.esewa.javabackend.service.NotificationPushService;
+import com.esewa.javabackend.service.UserDirectoryCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationConsumerTest {
+
+    private NotificationRepository notificationRepository;
+    private NotificationIngestService ingestService;
+    private NotificationPushService pushService;
+    private NotificationCounterService counterService;
+    private KafkaTemplate<String, NotificationEvent> kafkaTemplate;
+    private MeterRegistry meterRegistry;
+    private NotificationConsumer consumer;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        ingestService = mock(NotificationIngestService.class);
+        pushService = mock(NotificationPushService.class);
+        counterService = mock(NotificationCounterService.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        UserDirectoryCache userDirectory = mock(UserDirectoryCache.class);
+        when(userDirectory.resolve(anyCollection())).thenReturn(Map.of(1, "alice", 2, "bob"));
+        when(ingestService.ingest(anyList(), anyMap())).thenAnswer(invocation -> {
+            List<NotificationEvent> events = invocation.getArgument(0);
+            return new NotificationIngestService.Result(events.stream()
+                    .map(e -> NotificationDTO.builder().receiverId(e.getReceiverId()).build()).toList(), List.of());
+        });
+        consumer = new NotificationConsumer(notificationRepository, ingestService, userDirectory, pushService,
+                counterService, kafkaTemplate, meterRegistry);
+    }
+
+    @Test
+    void validEventsOfAPollAreIngestedTogether() {
+        consumer.consume(List.of(record(event(1, 2)), record(event(2, 1)), record(event(1, 2))));
+
+        verify(ingestService, times(1)).ingest(argThat(events -> events.size() == 3), anyMap());
+        verify(pushService, times(3)).push(any());
+        verify(counterService).increment(2, 2);
+        verify(counterService).increment(1, 1);
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void unusableRecordsAreRoutedAsideWithoutStallingTheBatch() {
+        NotificationEvent missingType = event(1, 2);
+        missingType.setType(null);
+
+        consumer.consume(List.of(record(null), record(missingType), record(event(1, 77)), record(event(1, 2))));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, NotificationEvent>> routed = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate, times(2)).send(routed.capture());
+        assertThat(routed.getAllValues()).allSatisfy(r -> assertThat(r.topic()).isEqualTo("notifications.dlt"));
+        assertThat(routed.getAllValues()).extracting(r -> new String(
+                        r.headers().lastHeader("x-dead-letter-reason").value(), StandardCharsets.UTF_8))
+                .containsExactly("missing sender, receiver or type", "unknown sender or receiver");
+        assertThat(meterRegistry.counter("notification.ingest.poison").count()).isEqualTo(1);
+        verify(ingestService).ingest(argThat(events -> events.size() == 1), anyMap());
+    }
+
+    @Test
+    void redeliveredEventsAreSkipped() {
+        NotificationEvent event = event(1, 2);
+        consumer.consume(List.of(record(event), record(event)));
+        when(notificationRepository.existsByEventId(event.getEventId())).thenReturn(true);
+
+        consumer.consume(List.of(record(event)));
+
+        verify(ingestService, times(1)).ingest(argThat(events -> events.size() == 1), anyMap());
+    }
+
+    @Test
+    void failedBatchIsRetriedOneEventAtATimeAndTheOffenderDeadLettered() {
+        NotificationEvent good = event(1, 2);
+        NotificationEvent bad = event(2, 1);
+        doThrow(new DataIntegrityViolationException("value too long"))
+                .when(ingestService).ingest(argThat(events -> events.size() == 2), anyMap());
+        doThrow(new DataIntegrityViolationException("value too long"))
+                .when(ingestService).ingest(eq(List.of(bad)), anyMap());
+
+        consumer.consume(List.of(record(good), record(bad)));
+
+        verify(ingestService).ingest(eq(List.of(good)), anyMap());
+        verify(pushService, times(1)).push(any());
+        verify(counterService).increment(2, 1);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<ProducerRecord<String, NotificationEvent>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertThat(sent.getValue().value()).isSameAs(bad);
+    }
+
+    @Test
+    void transientFailuresAreLeftToTheContainer() {
+        when(ingestService.ingest(anyList(), anyMap())).thenThrow(new QueryTimeoutException("db busy"));
+
+        assertThatThrownBy(() -> consumer.consume(List.of(record(event(1, 2)), record(event(2, 1)))))
+                .isInstanceOf(QueryTimeoutException.class);
+        verify(ingestService, times(1)).ingest(anyList(), anyMap());
+        verifyNoInteractions(kafkaTemplate, pushService);
+    }
+
+    private static NotificationEvent event(int senderId, int receiverId) {
+        return NotificationEvent.builder()
+                .eventId(UUID.randomUUID())
+                .senderId(senderId)
+                .receiverId(receiverId)
+                .type(NotificationType.FOLLOW)
+                .message("followed you")
+                .build();
+    }
+
+    private static ConsumerRecord<String, NotificationEvent> record(NotificationEvent event) {
+        return new ConsumerRecord<>("notifications", 0, 0L, null, event);
+    }
+}
@@ -0,0 +1,117 @@
+package com.esewa.javabackend.config.kafka.serde;
+
+import com.esewa.javabackend.dto.event.InteractionEvent;
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import com.esewa.javabackend.enums.InteractionAction;
+import com.esewa.javabackend.enums.NotificationType;
+import com.esewa.javabackend.enums.ResourceType;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryEventSerdeTest {
+
+    private final BinaryEventSerializer<InteractionEvent> interactionSerializer =
+            new BinaryEventSerializer<>(new InteractionEventCodec());
+    private final BinaryEventDeserializer<InteractionEvent> interactionDeserializer =
+            new BinaryEventDeserializer<>(new InteractionEventCodec(), new JsonDeserializer<>(InteractionEvent.class, false));
+    private final BinaryEventSerializer<NotificationEvent> notificationSerializer =
+            new BinaryEventSerializer<>(new NotificationEventCodec());
+    private final BinaryEventDeserializer<NotificationEvent> notificationDeserializer =
+            new BinaryEventDeserializer<>(new NotificationEventCodec(), new JsonDeserializer<>(NotificationEvent.class, false));
+
+    @Test
+    void interactionRoundTripsEveryField() {
+        InteractionEvent event = InteractionEvent.builder()
+                .eventId(UUID.randomUUID())
+                .userId(123_456)
+                .resourceType(ResourceType.REEL)
+                .resourceId(-5)
+                .action(InteractionAction.UNLIKE)
+                .value(-0.25)
+                .isNew(true)
+                .build();
+
+        InteractionEvent read = interactionDeserializer.deserialize("interactions",
+                interactionSerializer.serialize("interactions", event));
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void interactionRoundTripsMissingFields() {
+        InteractionEvent event = InteractionEvent.builder().userId(1).build();
+
+        InteractionEvent read = interactionDeserializer.deserialize("interactions",
+                interactionSerializer.serialize("interactions", event));
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void notificationRoundTripsEveryField() {
+        NotificationEvent event = NotificationEvent.builder()
+                .eventId(UUID.randomUUID())
+                .senderId(Integer.MAX_VALUE)
+                .receiverId(0)
+                .type(NotificationType.values()[NotificationType.values().length - 1])
+                .message("naïve café 🍜 published a new recipe")
+                .referenceId(42)
+                .build();
+
+        NotificationEvent read = notificationDeserializer.deserialize("notifications",
+                notificationSerializer.serialize("notifications", event));
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void legacyJsonRecordsStillDecode() {
+        NotificationEvent event = NotificationEvent.builder()
+                .senderId(1)
+                .receiverId(2)
+                .type(NotificationType.FOLLOW)
+                .message("hello")
+                .build();
+        byte[] json;
+        try (JsonSerializer<NotificationEvent> serializer = new JsonSerializer<>()) {
+            json = serializer.serialize("notifications", event);
+        }
+
+        NotificationEvent read = notificationDeserializer.deserialize("notifications", json);
+
+        assertThat(read).usingRecursiveComparison().isEqualTo(event);
+    }
+
+    @Test
+    void binaryIsSmallerThanJson() {
+        InteractionEvent event = InteractionEvent.builder()
+                .eventId(UUID.randomUUID())
+                .userId(1001)
+                .resourceType(ResourceType.RECIPE)
+                .resourceId(2002)
+                .action(InteractionAction.VIEW)
+                .value(1.0)
+                .build();
+        byte[] json;
+        try (JsonSerializer<InteractionEvent> serializer = new JsonSerializer<>()) {
+            json = serializer.serialize("interactions", event);
+        }
+
+        assertThat(interactionSerializer.serialize("interactions", event).length).isLessThan(json.length / 2);
+    }
+
+    @Test
+    void rejectsNewerSchemaVersion() {
+        byte[] data = {BinaryEventSerializer.MAGIC, 99, 0};
+
+        assertThatThrownBy(() -> notificationDeserializer.deserialize("notifications", data))
+                .isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,116 @@
+package com.esewa.javabackend.config.kafka.spool;
+
+import com.esewa.javabackend.config.kafka.serde.BinaryEventDeserializer;
+import com.esewa.javabackend.config.kafka.serde.BinaryEventSerializer;
+import com.esewa.javabackend.config.kafka.serde.InteractionEventCodec;
+import com.esewa.javabackend.dto.event.InteractionEvent;
+import com.esewa.javabackend.enums.InteractionAction;
+import com.esewa.javabackend.enums.ResourceType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class EventSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    private KafkaTemplate<String, InteractionEvent> kafkaTemplate;
+    private SpoolJournal journal;
+    private EventSpool<InteractionEvent> spool;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        journal = new SpoolJournal(directory, 64 * 1024, 4);
+        InteractionEventCodec codec = new InteractionEventCodec();
+        spool = new EventSpool<>("interactions", kafkaTemplate, journal, new BinaryEventSerializer<>(codec),
+                new BinaryEventDeserializer<>(codec, null), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    void sendsDirectlyWhileBrokerAcknowledges() {
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        spool.publish(event(1));
+        spool.publish(event(2));
+
+        verify(kafkaTemplate, times(2)).send(anyString(), any(), any());
+        assertThat(spool.isSpooling()).isFalse();
+        assertThat(journal.isEmpty()).isTrue();
+    }
+
+    @Test
+    void spoolsWithoutSendingOnceOutstandingSendsStall() throws InterruptedException {
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(new CompletableFuture<>());
+        spool.setStallTimeoutMs(10);
+
+        spool.publish(event(1));
+        Thread.sleep(30);
+        spool.publish(event(2));
+
+        verify(kafkaTemplate, times(1)).send(anyString(), any(), any());
+        assertThat(spool.isSpooling()).isTrue();
+        assertThat(journal.peek(10)).hasSize(1);
+    }
+
+    @Test
+    void failedCallbackSpoolsTheEventAndLaterEventsKeepOrder() {
+        CompletableFuture<SendResult<String, InteractionEvent>> failed = new CompletableFuture<>();
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(failed);
+
+        spool.publish(event(1));
+        failed.completeExceptionally(new RuntimeException("broker down"));
+        spool.publish(event(2));
+
+        assertThat(spool.isSpooling()).isTrue();
+        assertThat(journal.peek(10)).hasSize(2);
+    }
+
+    @Test
+    void drainReplaysInOrderAndResumesDirectSends() {
+        CompletableFuture<SendResult<String, InteractionEvent>> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("broker down"));
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(failed);
+        spool.publish(event(1));
+        spool.publish(event(2));
+
+        reset(kafkaTemplate);
+        when(kafkaTemplate.send(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        int delivered = spool.drain(10, 1000);
+
+        assertThat(delivered).isEqualTo(2);
+        assertThat(spool.isSpooling()).isFalse();
+        verify(kafkaTemplate, times(2)).send(anyString(), any(), any());
+    }
+
+    private static InteractionEvent event(int userId) {
+        return InteractionEvent.builder()
+                .eventId(UUID.randomUUID())
+                .userId(userId)
+                .resourceType(ResourceType.RECIPE)
+                .resourceId(7)
+                .action(InteractionAction.VIEW)
+                .value(1.0)
+                .build();
+    }
+}
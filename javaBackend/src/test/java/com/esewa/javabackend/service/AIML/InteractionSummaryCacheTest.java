@@ -0,0 +1,124 @@
+package com.esewa.javabackend.service.AIML;
+
+import com.esewa.javabackend.enums.InteractionAction;
+import com.esewa.javabackend.repository.JpaRepository.InteractionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InteractionSummaryCacheTest {
+
+    private static final String KEY = "interactions:summary:{1}";
+    private static final String SEEDING = KEY + ":seeding";
+
+    private StringRedisTemplate redis;
+    private HashOperations<String, Object, Object> hashes;
+    private ValueOperations<String, String> values;
+    private InteractionRepository repository;
+    private InteractionSummaryCache cache;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        hashes = mock(HashOperations.class);
+        values = mock(ValueOperations.class);
+        repository = mock(InteractionRepository.class);
+        when(redis.<Object, Object>opsForHash()).thenReturn(hashes);
+        when(redis.opsForValue()).thenReturn(values);
+        when(repository.countByActionForUser(anyInt()))
+                .thenReturn(List.<Object[]>of(new Object[]{InteractionAction.LIKE, 3L}));
+        cache = new InteractionSummaryCache(redis, repository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void seededSummarySkipsTheDatabase() {
+        when(hashes.entries(KEY)).thenReturn(Map.of("LIKE", "4", "SAVE", "1", "VIEW", "0"));
+
+        assertThat(cache.getSummary(1))
+                .containsOnly(Map.entry(InteractionAction.LIKE, 4L), Map.entry(InteractionAction.SAVE, 1L));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void missRaisesTheMarkerBeforeCountingAndSeedsEveryAction() {
+        when(hashes.entries(KEY)).thenReturn(Map.of());
+        when(redis.execute(eq(InteractionSummaryCache.SEED), anyList(), any(Object[].class))).thenReturn(1L);
+
+        assertThat(cache.getCount(1, InteractionAction.LIKE)).isEqualTo(3);
+
+        InOrder order = inOrder(values, repository, redis);
+        order.verify(values).setIfAbsent(eq(SEEDING), eq("0"), any(Duration.class));
+        order.verify(repository).countByActionForUser(1);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        order.verify(redis).execute(eq(InteractionSummaryCache.SEED), eq(List.of(KEY, SEEDING)), args.capture());
+        // TTLs, then a count for every action
+        List<Object> seeded = List.of(args.getValue());
+        assertThat(seeded).hasSize(2 + InteractionAction.values().length * 2).startsWith("21600", "30");
+        assertThat(seeded.get(seeded.indexOf("LIKE") + 1)).isEqualTo("3");
+        assertThat(seeded.get(seeded.indexOf("SAVE") + 1)).isEqualTo("0");
+    }
+
+    @Test
+    void seedLosingToAnotherReaderReturnsWhatThatReaderStored() {
+        when(hashes.entries(KEY)).thenReturn(Map.of()).thenReturn(Map.of("LIKE", "5"));
+        when(redis.execute(eq(InteractionSummaryCache.SEED), anyList(), any(Object[].class))).thenReturn(0L);
+
+        assertThat(cache.getCount(1, InteractionAction.LIKE)).isEqualTo(5);
+    }
+
+    @Test
+    void incrementCarriesTheMarkerKeyAndWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.increment(1, InteractionAction.LIKE);
+        verifyNoInteractions(redis);
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        verify(redis).execute(InteractionSummaryCache.INCREMENT_IF_PRESENT, List.of(KEY, SEEDING), "LIKE");
+    }
+
+    @Test
+    void rolledBackIncrementIsDiscarded() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.increment(1, InteractionAction.LIKE);
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(redis);
+    }
+
+    @Test
+    void fallsBackToTheDatabaseWhenRedisIsDown() {
+        when(hashes.entries(anyString())).thenThrow(new QueryTimeoutException("redis down"));
+        when(redis.execute(any(), anyList(), any(Object[].class))).thenThrow(new QueryTimeoutException("redis down"));
+
+        assertThat(cache.getCount(1, InteractionAction.LIKE)).isEqualTo(3);
+        cache.increment(1, InteractionAction.LIKE);
+        cache.evict(1);
+    }
+}
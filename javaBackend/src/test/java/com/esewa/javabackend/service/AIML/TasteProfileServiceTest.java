@@ -0,0 +1,141 @@
+package com.esewa.javabackend.service.AIML;
+
+import com.esewa.javabackend.dto.aiml.TasteProfileDTO;
+import com.esewa.javabackend.dto.event.InteractionEvent;
+import com.esewa.javabackend.enums.InteractionAction;
+import com.esewa.javabackend.enums.ResourceType;
+import com.esewa.javabackend.module.AIML.TasteFeature;
+import com.esewa.javabackend.module.AIML.TasteProfile;
+import com.esewa.javabackend.repository.JpaRepository.RecipeRepository;
+import com.esewa.javabackend.repository.JpaRepository.TasteFeatureRepository;
+import com.esewa.javabackend.repository.JpaRepository.TasteProfileRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class TasteProfileServiceTest {
+
+    private TasteProfileRepository profileRepository;
+    private TasteProfileService service;
+
+    @BeforeEach
+    void setUp() {
+        profileRepository = mock(TasteProfileRepository.class);
+        TasteFeatureRepository featureRepository = mock(TasteFeatureRepository.class);
+        RecipeRepository recipeRepository = mock(RecipeRepository.class);
+
+        when(profileRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(recipeRepository.findTasteAttributesById(5))
+                .thenReturn(List.<Object[]>of(new Object[]{"Nepali", "Vegan", 20}));
+        when(recipeRepository.findTagNamesByRecipeId(5)).thenReturn(List.of("Momo"));
+        AtomicInteger ids = new AtomicInteger();
+        when(featureRepository.save(any(TasteFeature.class))).thenAnswer(invocation -> {
+            TasteFeature feature = invocation.getArgument(0);
+            feature.setId(ids.incrementAndGet());
+            return feature;
+        });
+
+        service = new TasteProfileService(profileRepository, featureRepository, recipeRepository);
+        ReflectionTestUtils.setField(service, "halfLifeDays", 14.0);
+        ReflectionTestUtils.setField(service, "readCacheTtlMillis", 60_000L);
+    }
+
+    @Test
+    void unknownUsersAreNotCached() {
+        service.getProfile(404);
+        service.getProfile(404);
+
+        // every lookup goes to the database instead of caching an empty vector
+        verify(profileRepository, times(2)).findById(404);
+    }
+
+    @Test
+    void recordedInteractionsShowUpByDimensionAndArePersisted() {
+        service.record(event(1, InteractionAction.COOK));
+        service.record(event(1, InteractionAction.VIEW));
+
+        TasteProfileDTO profile = service.getProfile(1);
+        assertThat(profile.getCuisines()).containsOnlyKeys("nepali");
+        assertThat(profile.getCuisines().get("nepali")).isCloseTo(4.5f, offset(0.01f));
+        assertThat(profile.getDietaryTypes()).containsOnlyKeys("vegan");
+        assertThat(profile.getTags()).containsOnlyKeys("momo");
+        assertThat(profile.getCookTimes()).containsOnlyKeys("short");
+
+        service.flush();
+
+        ArgumentCaptor<TasteProfile> saved = ArgumentCaptor.forClass(TasteProfile.class);
+        verify(profileRepository).save(saved.capture());
+        assertThat(saved.getValue().getUserId()).isEqualTo(1);
+        assertThat(saved.getValue().getFeatureIds()).hasSize(4).isSorted();
+    }
+
+    @Test
+    void secondFlushOfCleanProfileWritesNothing() {
+        service.record(event(1, InteractionAction.LIKE));
+        service.flush();
+        service.flush();
+
+        verify(profileRepository, times(1)).save(any(TasteProfile.class));
+    }
+
+    @Test
+    void cleanProfilesAreReloadedOnceTheyOutliveTheReadTtl() {
+        when(profileRepository.findById(7)).thenReturn(Optional.of(TasteProfile.builder()
+                .userId(7)
+                .featureIds(new int[0])
+                .weights(new float[0])
+                .updatedAt(Instant.now())
+                .build()));
+
+        service.getProfile(7);
+        service.getProfile(7);
+        verify(profileRepository, times(1)).findById(7);
+
+        ReflectionTestUtils.setField(service, "readCacheTtlMillis", 0L);
+        service.getProfile(7);
+        verify(profileRepository, times(2)).findById(7);
+    }
+
+    @Test
+    void unflushedProfilesOutliveTheReadTtl() {
+        ReflectionTestUtils.setField(service, "readCacheTtlMillis", 0L);
+        service.record(event(1, InteractionAction.LIKE));
+
+        assertThat(service.getProfile(1).getCuisines()).containsOnlyKeys("nepali");
+        verify(profileRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void nonRecipeInteractionsAreIgnored() {
+        service.record(InteractionEvent.builder()
+                .userId(1)
+                .resourceType(ResourceType.POST)
+                .resourceId(5)
+                .action(InteractionAction.LIKE)
+                .build());
+        service.flush();
+
+        verify(profileRepository, never()).save(any(TasteProfile.class));
+    }
+
+    private static InteractionEvent event(int userId, InteractionAction action) {
+        return InteractionEvent.builder()
+                .userId(userId)
+                .resourceType(ResourceType.RECIPE)
+                .resourceId(5)
+                .action(action)
+                .build();
+    }
+}
@@ -0,0 +1,59 @@
+package com.esewa.javabackend.service.AIML;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class TasteVectorTest {
+
+    private static final double DAY = 24 * 60 * 60 * 1000;
+
+    @Test
+    void addKeepsIdsSortedAndAccumulates() {
+        TasteVector vector = TasteVector.empty(0);
+        vector.add(9, 1f);
+        vector.add(3, 2f);
+        vector.add(9, 0.5f);
+
+        assertThat(vector.idsCopy()).containsExactly(3, 9);
+        assertThat(vector.weightsCopy()).containsExactly(2f, 1.5f);
+    }
+
+    @Test
+    void weightsHalveEveryHalfLife() {
+        TasteVector vector = TasteVector.empty(0);
+        vector.add(1, 8f);
+
+        vector.decayTo((long) (2 * DAY), DAY);
+
+        assertThat(vector.weightAt(0)).isCloseTo(2f, offset(0.001f));
+        assertThat(vector.updatedAtMillis()).isEqualTo((long) (2 * DAY));
+    }
+
+    @Test
+    void decayPrunesFadedFeaturesAndNeverGoesBackInTime() {
+        TasteVector vector = TasteVector.empty(1000);
+        vector.add(1, 0.015f);
+        vector.add(2, 5f);
+
+        vector.decayTo(0, DAY);
+        assertThat(vector.size()).isEqualTo(2);
+
+        vector.decayTo(1000 + (long) DAY, DAY);
+        assertThat(vector.idsCopy()).containsExactly(2);
+    }
+
+    @Test
+    void truncateKeepsStrongestByMagnitude() {
+        TasteVector vector = TasteVector.empty(0);
+        vector.add(1, 0.5f);
+        vector.add(2, -4f);
+        vector.add(3, 3f);
+        vector.add(4, 1f);
+
+        vector.truncate(2);
+
+        assertThat(vector.idsCopy()).containsExactly(2, 3);
+    }
+}
@@ -0,0 +1,113 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.ChatRealtimeConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Two nodes sharing a relay: every event either node publishes reaches both, as over Redis.
+ */
+class ChatRealtimeServiceTest {
+
+    private final List<ChatRealtimeService> nodes = new ArrayList<>();
+    private final List<ChatPresenceStore> stores = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        StringRedisTemplate relay = mock(StringRedisTemplate.class);
+        doAnswer(invocation -> {
+            byte[] body = invocation.<String>getArgument(1).getBytes(StandardCharsets.UTF_8);
+            nodes.forEach(node -> node.onMessage(new DefaultMessage("chat:events".getBytes(), body), null));
+            return 1L;
+        }).when(relay).convertAndSend(anyString(), anyString());
+
+        for (int i = 0; i < 2; i++) {
+            ChatPresenceStore store = new ChatPresenceStore();
+            stores.add(store);
+            nodes.add(new ChatRealtimeService(new ChatRealtimeConfig(), store, mock(SimpMessagingTemplate.class),
+                    relay, new ObjectMapper().findAndRegisterModules(), mock(UserActivityTracker.class)));
+        }
+    }
+
+    @Test
+    void disconnectOnOneNodeKeepsAUserConnectedElsewhereOnline() {
+        nodes.get(0).onConnected(connected(7, "a1"));
+        nodes.get(1).onConnected(connected(7, "b1"));
+
+        nodes.get(1).onDisconnected(disconnected(7, "b1"));
+
+        assertThat(stores).allSatisfy(store -> assertThat(store.isOnline(7)).isTrue());
+    }
+
+    @Test
+    void userGoesOfflineOnceEveryNodeHasLostThem() {
+        nodes.get(0).onConnected(connected(7, "a1"));
+        nodes.get(1).onConnected(connected(7, "b1"));
+
+        nodes.get(1).onDisconnected(disconnected(7, "b1"));
+        nodes.get(0).onDisconnected(disconnected(7, "a1"));
+
+        assertThat(stores).allSatisfy(store -> assertThat(store.isOnline(7)).isFalse());
+    }
+
+    @Test
+    void secondSessionOnTheSameNodeKeepsTheUserOnline() {
+        nodes.get(0).onConnected(connected(7, "a1"));
+        nodes.get(0).onConnected(connected(7, "a2"));
+
+        nodes.get(0).onDisconnected(disconnected(7, "a1"));
+        nodes.get(0).onDisconnected(disconnected(7, "a1"));
+
+        assertThat(stores.get(1).isOnline(7)).isTrue();
+    }
+
+    @Test
+    void expiredAnnouncementsLapsePerNode() {
+        ChatPresenceStore store = new ChatPresenceStore();
+        store.markOnline(7, "a", -1);
+        store.markOnline(7, "b", 60_000);
+        store.markOffline(7, "b");
+        store.evictExpired();
+
+        assertThat(store.isOnline(7)).isFalse();
+        assertThat(store.onlineStatus(List.of(7, 8))).containsEntry(7, false).containsEntry(8, false);
+    }
+
+    private static SessionConnectedEvent connected(int userId, String sessionId) {
+        return new SessionConnectedEvent(new Object(), frame(sessionId), principal(userId));
+    }
+
+    private static SessionDisconnectEvent disconnected(int userId, String sessionId) {
+        return new SessionDisconnectEvent(new Object(), frame(sessionId), sessionId, CloseStatus.NORMAL,
+                principal(userId));
+    }
+
+    private static Message<byte[]> frame(String sessionId) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create();
+        headers.setSessionId(sessionId);
+        return MessageBuilder.createMessage(new byte[0], headers.getMessageHeaders());
+    }
+
+    private static Principal principal(int userId) {
+        return () -> Integer.toString(userId);
+    }
+}
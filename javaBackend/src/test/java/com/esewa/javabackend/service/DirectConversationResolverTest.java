@@ -0,0 +1,76 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.repository.JpaRepository.ConversationRepository;
+import com.esewa.javabackend.repository.JpaRepository.DirectConversationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class DirectConversationResolverTest {
+
+    private ConversationRepository conversationRepository;
+    private DirectConversationRepository directConversationRepository;
+    private DirectConversationResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        conversationRepository = mock(ConversationRepository.class);
+        directConversationRepository = mock(DirectConversationRepository.class);
+        when(conversationRepository.findDirectConversationId(anyInt(), anyInt())).thenReturn(Optional.empty());
+        resolver = new DirectConversationResolver(conversationRepository, directConversationRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void looksUpTheCanonicalPairOnceForBothOrders() {
+        when(conversationRepository.findDirectConversationId(3, 8)).thenReturn(Optional.of(42));
+
+        assertThat(resolver.find(8, 3)).contains(42);
+        assertThat(resolver.find(3, 8)).contains(42);
+
+        verify(conversationRepository, times(1)).findDirectConversationId(3, 8);
+    }
+
+    @Test
+    void missesAreNotCached() {
+        assertThat(resolver.find(3, 8)).isEmpty();
+        assertThat(resolver.find(3, 8)).isEmpty();
+
+        verify(conversationRepository, times(2)).findDirectConversationId(3, 8);
+    }
+
+    @Test
+    void losingACreationRaceReturnsTheWinnersConversation() {
+        when(directConversationRepository.insertIfAbsent(3, 8)).thenReturn(Optional.empty());
+        when(conversationRepository.findDirectConversationId(3, 8))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(42));
+
+        assertThat(resolver.findOrCreate(8, 3)).isEqualTo(42);
+    }
+
+    @Test
+    void conversationCreatedInATransactionIsCachedOnlyAfterCommit() {
+        when(directConversationRepository.insertIfAbsent(3, 8)).thenReturn(Optional.of(42));
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertThat(resolver.findOrCreate(3, 8)).isEqualTo(42);
+        assertThat(resolver.find(3, 8)).isEmpty();
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(resolver.find(3, 8)).contains(42);
+    }
+}
@@ -0,0 +1,211 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.FollowGraphConfig;
+import com.esewa.javabackend.repository.JpaRepository.FollowEdgeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FollowGraphTest {
+
+    private FollowEdgeRepository edgeRepository;
+    private StringRedisTemplate redis;
+    private FollowGraphConfig config;
+    private FollowGraph graph;
+
+    // the follows table: 1 -> 2, 1 -> 3, 2 -> 1, 3 -> 1, 9 -> 2
+    private final List<int[]> table = new ArrayList<>(List.of(
+            new int[]{1, 3}, new int[]{9, 2}, new int[]{1, 2}, new int[]{2, 1}, new int[]{3, 1}));
+    private final AtomicInteger scans = new AtomicInteger();
+    // runs in the middle of the next table scan
+    private volatile Runnable duringScan;
+
+    @BeforeEach
+    void setUp() {
+        edgeRepository = mock(FollowEdgeRepository.class);
+        doAnswer(invocation -> {
+            FollowEdgeRepository.EdgeConsumer consumer = invocation.getArgument(0);
+            List<int[]> rows = List.copyOf(table);
+            for (int i = 0; i < rows.size(); i++) {
+                if (i == 2 && duringScan != null) {
+                    duringScan.run();
+                    duringScan = null;
+                }
+                consumer.accept(rows.get(i)[0], rows.get(i)[1]);
+            }
+            scans.incrementAndGet();
+            return null;
+        }).when(edgeRepository).forEachEdge(any());
+        redis = mock(StringRedisTemplate.class);
+        config = new FollowGraphConfig();
+        config.setMaxOverlayEntries(1);
+        graph = new FollowGraph(config, edgeRepository, redis, mock(RedisMessageListenerContainer.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        graph.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void answersFromTheArraysOnceBuilt() {
+        assertThat(graph.isReady()).isFalse();
+        assertThatThrownBy(() -> graph.follows(1, 2)).isInstanceOf(IllegalStateException.class);
+
+        build();
+
+        assertThat(graph.follows(1, 2)).isTrue();
+        assertThat(graph.follows(2, 3)).isFalse();
+        assertThat(graph.isMutual(1, 3)).isTrue();
+        assertThat(graph.isMutual(9, 2)).isFalse();
+        assertThat(graph.following(1)).containsExactly(2, 3);
+        assertThat(graph.followers(2)).containsExactly(1, 9);
+        assertThat(graph.mutuals(1)).containsExactly(2, 3);
+        assertThat(graph.followingCount(1)).isEqualTo(2);
+        assertThat(graph.followerCount(1)).isEqualTo(2);
+        assertThat(graph.followsEach(1, List.of(2, 9))).isEqualTo(Map.of(2, true, 9, false));
+    }
+
+    @Test
+    void unknownUsersHaveNoEdges() {
+        build();
+
+        assertThat(graph.follows(-1, 2)).isFalse();
+        assertThat(graph.follows(1, 1_000)).isFalse();
+        assertThat(graph.following(1_000)).isEmpty();
+        assertThat(graph.followerCount(1_000)).isZero();
+    }
+
+    @Test
+    void overlayAddsAndRemovesEdgesUntilTheNextBuild() {
+        build();
+
+        graph.followed(2, 3);
+        graph.unfollowed(1, 2);
+
+        assertThat(graph.follows(2, 3)).isTrue();
+        assertThat(graph.follows(1, 2)).isFalse();
+        assertThat(graph.following(2)).containsExactly(1, 3);
+        assertThat(graph.followers(2)).containsExactly(9);
+        assertThat(graph.followingCount(1)).isEqualTo(1);
+        assertThat(graph.followerCount(3)).isEqualTo(2);
+        assertThat(graph.mutuals(2)).isEmpty();
+        verify(redis).convertAndSend(config.getChannel(), "2:3:1");
+        verify(redis).convertAndSend(config.getChannel(), "1:2:0");
+    }
+
+    @Test
+    void changesThatUndoEachOtherLeaveNoOverlay() {
+        build();
+
+        graph.unfollowed(1, 2);
+        graph.followed(1, 2);
+        graph.followed(5, 6);
+        graph.unfollowed(5, 6);
+        graph.maintain();
+
+        assertThat(graph.following(1)).containsExactly(2, 3);
+        assertThat(graph.followers(6)).isEmpty();
+        // nothing left in the overlay, so no early rebuild
+        assertThat(scans.get()).isEqualTo(1);
+    }
+
+    @Test
+    void overlayPastItsLimitTriggersARebuildFromTheTable() {
+        build();
+        graph.followed(2, 3);
+        graph.followed(3, 2);
+        table.add(new int[]{2, 3});
+        table.add(new int[]{3, 2});
+        // a follow this node never heard about
+        table.add(new int[]{4, 5});
+
+        graph.maintain();
+
+        await(() -> graph.follows(4, 5));
+        assertThat(scans.get()).isEqualTo(2);
+        assertThat(graph.mutuals(2)).containsExactly(1, 3);
+        assertThat(graph.followingCount(2)).isEqualTo(2);
+    }
+
+    @Test
+    void changesDuringABuildAreReplayedOntoIt() {
+        // one change the scan has already passed, one the table snapshot still contains
+        duringScan = () -> {
+            relay("7:8:1");
+            relay("1:3:0");
+        };
+
+        build();
+
+        assertThat(graph.follows(7, 8)).isTrue();
+        assertThat(graph.follows(1, 3)).isFalse();
+        assertThat(graph.following(1)).containsExactly(2);
+    }
+
+    @Test
+    void localChangesWaitForTheCommit() {
+        build();
+        TransactionSynchronizationManager.initSynchronization();
+
+        graph.followed(2, 3);
+        assertThat(graph.follows(2, 3)).isFalse();
+        verifyNoInteractions(redis);
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        assertThat(graph.follows(2, 3)).isTrue();
+        verify(redis).convertAndSend(config.getChannel(), "2:3:1");
+    }
+
+    @Test
+    void relayedChangesApplyAndMalformedOnesAreIgnored() {
+        build();
+
+        relay("2:3:1");
+        relay("garbage");
+        relay("a:b:1");
+
+        assertThat(graph.follows(2, 3)).isTrue();
+        verifyNoInteractions(redis);
+    }
+
+    private void build() {
+        graph.load();
+        await(graph::isReady);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("condition not met in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void relay(String change) {
+        graph.onMessage(new DefaultMessage(config.getChannel().getBytes(StandardCharsets.UTF_8),
+                change.getBytes(StandardCharsets.UTF_8)), null);
+    }
+}
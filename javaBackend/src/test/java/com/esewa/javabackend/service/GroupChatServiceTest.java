@@ -0,0 +1,127 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.GroupChatConfig;
+import com.esewa.javabackend.config.kafka.NotificationProducer;
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import com.esewa.javabackend.module.Message;
+import com.esewa.javabackend.repository.JpaRepository.ConversationMemberRepository;
+import com.esewa.javabackend.repository.JpaRepository.ConversationRepository;
+import com.esewa.javabackend.repository.JpaRepository.GroupConversationRepository;
+import com.esewa.javabackend.repository.JpaRepository.GroupMemberRepository;
+import com.esewa.javabackend.repository.JpaRepository.GroupRepository;
+import com.esewa.javabackend.repository.JpaRepository.MessageRepository;
+import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GroupChatServiceTest {
+
+    private static final UUID GROUP = UUID.randomUUID();
+    private static final int CONVERSATION = 5;
+    private static final int SENDER = 1;
+
+    private GroupConversationRepository groupConversationRepository;
+    private ChatRealtimeService chatRealtimeService;
+    private NotificationProducer notificationProducer;
+    private GroupChatService service;
+
+    @BeforeEach
+    void setUp() {
+        groupConversationRepository = mock(GroupConversationRepository.class);
+        chatRealtimeService = mock(ChatRealtimeService.class);
+        notificationProducer = mock(NotificationProducer.class);
+        ConversationRepository conversationRepository = mock(ConversationRepository.class);
+        ConversationMemberRepository conversationMemberRepository = mock(ConversationMemberRepository.class);
+        MessageRepository messageRepository = mock(MessageRepository.class);
+        UserDirectoryCache userDirectory = mock(UserDirectoryCache.class);
+
+        when(conversationRepository.findGroupConversationId(GROUP)).thenReturn(Optional.of(CONVERSATION));
+        when(conversationMemberRepository.existsByConversationIdAndUserId(CONVERSATION, SENDER)).thenReturn(true);
+        when(userDirectory.resolve(anyList())).thenReturn(Map.of(SENDER, "alice"));
+        when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            message.setId(40);
+            return message;
+        });
+        when(groupConversationRepository.findGroupName(CONVERSATION)).thenReturn(Optional.of("Bakers"));
+
+        GroupChatConfig config = new GroupChatConfig();
+        config.setMaxUnreadCount(50);
+        service = new GroupChatService(config, mock(GroupRepository.class), mock(GroupMemberRepository.class),
+                groupConversationRepository, conversationRepository, conversationMemberRepository, messageRepository,
+                mock(UserRepository.class), userDirectory, mock(MessageService.class), chatRealtimeService,
+                notificationProducer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void catchUpRecountsOncePerGroupAndRetriesFailures() {
+        service.sendMessage(GROUP, SENDER, "one");
+        service.sendMessage(GROUP, SENDER, "two");
+        when(groupConversationRepository.catchUp(CONVERSATION, 50))
+                .thenThrow(new QueryTimeoutException("slow"))
+                .thenReturn(3);
+
+        service.catchUpMembers();
+        service.catchUpMembers();
+        service.catchUpMembers();
+
+        // failed once, retried once, then nothing left to do
+        verify(groupConversationRepository, times(2)).catchUp(CONVERSATION, 50);
+    }
+
+    @Test
+    void memberSkippedWhileOnlineIsNotifiedOnceOffline() {
+        when(groupConversationRepository.findToNotify(CONVERSATION, 40, SENDER)).thenReturn(List.of(2, 3));
+        when(chatRealtimeService.isOnline(2)).thenReturn(false);
+        when(chatRealtimeService.isOnline(3)).thenReturn(true);
+        service.sendMessage(GROUP, SENDER, "hi");
+
+        service.notifyOfflineMembers();
+
+        verify(groupConversationRepository).markNotified(CONVERSATION, List.of(2), 40);
+        verify(notificationProducer, times(1)).sendNotification(any());
+
+        // member 2 is recorded as notified, member 3 went offline without reading
+        when(groupConversationRepository.findToNotify(CONVERSATION, 40, SENDER)).thenReturn(List.of(3));
+        when(chatRealtimeService.isOnline(3)).thenReturn(false);
+        service.notifyOfflineMembers();
+
+        ArgumentCaptor<NotificationEvent> sent = ArgumentCaptor.forClass(NotificationEvent.class);
+        verify(notificationProducer, times(2)).sendNotification(sent.capture());
+        assertThat(sent.getAllValues()).extracting(NotificationEvent::getReceiverId).containsExactly(2, 3);
+        assertThat(sent.getValue().getMessage()).isEqualTo("alice posted in Bakers");
+        verify(groupConversationRepository).markNotified(CONVERSATION, List.of(3), 40);
+
+        // nobody left to check
+        service.notifyOfflineMembers();
+        verify(groupConversationRepository, times(2)).findToNotify(CONVERSATION, 40, SENDER);
+    }
+
+    @Test
+    void notificationsRunOffTheSchedulerThread() {
+        when(groupConversationRepository.findToNotify(CONVERSATION, 40, SENDER)).thenReturn(List.of(2));
+        service.sendMessage(GROUP, SENDER, "hi");
+
+        service.scheduleNotifications();
+
+        verify(notificationProducer, timeout(1000)).sendNotification(any());
+        verify(groupConversationRepository, timeout(1000)).markNotified(CONVERSATION, List.of(2), 40);
+    }
+}
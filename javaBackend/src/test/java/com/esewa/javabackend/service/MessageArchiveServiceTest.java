@@ -0,0 +1,170 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.MessageArchiveConfig;
+import com.esewa.javabackend.dto.MessageDTO;
+import com.esewa.javabackend.module.MessageArchiveSegment;
+import com.esewa.javabackend.repository.JpaRepository.MessageArchiveRepository;
+import com.esewa.javabackend.repository.JpaRepository.MessageArchiveSegmentRepository;
+import com.esewa.javabackend.utils.KeysetCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MessageArchiveServiceTest {
+
+    private static final int CONVERSATION = 7;
+    private static final Instant START = Instant.parse("2025-01-01T00:00:00Z");
+
+    private MessageArchiveSegmentRepository segmentRepository;
+    private final Map<Long, MessageArchiveSegment> segments = new TreeMap<>();
+    private MessageArchiveService service;
+
+    @BeforeEach
+    void setUp() {
+        MessageArchiveConfig config = new MessageArchiveConfig();
+        config.setSegmentSize(3);
+        config.setPauseBetweenSegmentsMs(0);
+        config.setFullConversationLimit(4);
+
+        // messages 1..7 in the live table, 4 and 5 sent at the same time
+        List<Map<String, Object>> live = IntStream.rangeClosed(1, 7).mapToObj(id -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", id);
+            row.put("senderId", id % 2 + 1);
+            row.put("body", "message " + id);
+            row.put("sentAt", sentAt(id).toEpochMilli());
+            return row;
+        }).collect(Collectors.toCollection(ArrayList::new));
+        MessageArchiveRepository archiveRepository = mock(MessageArchiveRepository.class);
+        when(archiveRepository.findColdConversationIds(any(), eq(0), anyInt())).thenReturn(List.of(CONVERSATION));
+        when(archiveRepository.deleteChunk(eq(CONVERSATION), any(), anyInt())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(2);
+            List<Map<String, Object>> chunk = new ArrayList<>(live.subList(0, Math.min(limit, live.size())));
+            live.removeAll(chunk);
+            // the database returns deleted rows in no particular order
+            Collections.reverse(chunk);
+            return chunk;
+        });
+
+        segmentRepository = mock(MessageArchiveSegmentRepository.class);
+        when(segmentRepository.save(any())).thenAnswer(invocation -> {
+            MessageArchiveSegment segment = invocation.getArgument(0);
+            segment.setId((long) segments.size() + 1);
+            segments.put(segment.getId(), segment);
+            return segment;
+        });
+        when(segmentRepository.findById(anyLong())).thenAnswer(invocation ->
+                Optional.ofNullable(segments.get(invocation.<Long>getArgument(0))));
+        when(segmentRepository.findSegmentIdsNewestFirst(CONVERSATION)).thenAnswer(invocation ->
+                segmentIds(segment -> true, true));
+        when(segmentRepository.findSegmentIdsUpTo(eq(CONVERSATION), any())).thenAnswer(invocation -> {
+            Instant sentAt = invocation.getArgument(1);
+            return segmentIds(segment -> !segment.getOldestSentAt().isAfter(sentAt), true);
+        });
+        when(segmentRepository.findSegmentIdsFrom(eq(CONVERSATION), any())).thenAnswer(invocation -> {
+            Instant sentAt = invocation.getArgument(1);
+            return segmentIds(segment -> !segment.getNewestSentAt().isBefore(sentAt), false);
+        });
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        UserDirectoryCache userDirectory = mock(UserDirectoryCache.class);
+        when(userDirectory.resolve(anyCollection())).thenReturn(Map.of(1, "alice", 2, "bob"));
+
+        service = new MessageArchiveService(config, archiveRepository, segmentRepository, userDirectory,
+                transactionTemplate, new ObjectMapper());
+        assertThat(service.run()).isEqualTo(7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void runWritesOrderedSegmentsWithBounds() {
+        assertThat(segments.values()).extracting(MessageArchiveSegment::getMessageCount).containsExactly(3, 3, 1);
+        MessageArchiveSegment second = segments.get(2L);
+        assertThat(second.getMinMessageId()).isEqualTo(4);
+        assertThat(second.getMaxMessageId()).isEqualTo(6);
+        assertThat(second.getOldestSentAt()).isEqualTo(sentAt(4));
+        assertThat(second.getNewestSentAt()).isEqualTo(sentAt(6));
+    }
+
+    @Test
+    void latestPageMergesLiveRowsWithTheNewestSegmentsOnly() {
+        List<MessageDTO> live = List.of(message(9), message(8));
+
+        List<MessageDTO> page = service.extendHistory(CONVERSATION, live, null, null, 5);
+
+        assertThat(page).extracting(MessageDTO::getId).containsExactly(9, 8, 7, 6, 5);
+        assertThat(page.get(2).getSenderName()).isEqualTo("bob");
+        verify(segmentRepository, never()).findById(1L);
+    }
+
+    @Test
+    void olderCursorSkipsSegmentsAfterItAndBreaksTiesById() {
+        KeysetCursor olderThan = KeysetCursor.decode(KeysetCursor.encode(sentAt(5), 5));
+
+        List<MessageDTO> page = service.extendHistory(CONVERSATION, List.of(), olderThan, null, 3);
+
+        assertThat(page).extracting(MessageDTO::getId).containsExactly(4, 3, 2);
+        verify(segmentRepository, never()).findById(3L);
+    }
+
+    @Test
+    void newerCursorPutsArchivedMessagesBeforeLiveRows() {
+        KeysetCursor newerThan = KeysetCursor.decode(KeysetCursor.encode(sentAt(2), 2));
+
+        List<MessageDTO> page = service.extendHistory(CONVERSATION, List.of(message(8), message(9)), null,
+                newerThan, 7);
+
+        assertThat(page).extracting(MessageDTO::getId).containsExactly(3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void fullPagesStayLiveAndSegmentsAreDecodedOnce() {
+        List<MessageDTO> live = List.of(message(9), message(8));
+        assertThat(service.extendHistory(CONVERSATION, live, null, null, 2)).isSameAs(live);
+        verify(segmentRepository, never()).findSegmentIdsNewestFirst(anyInt());
+
+        assertThat(service.latest(CONVERSATION)).extracting(MessageDTO::getId).containsExactly(4, 5, 6, 7);
+        List<MessageDTO> again = service.latest(CONVERSATION);
+        again.get(0).setRead(true);
+
+        verify(segmentRepository, times(1)).findById(3L);
+        verify(segmentRepository, times(1)).findById(2L);
+        assertThat(service.latest(CONVERSATION).get(0).isRead()).isFalse();
+    }
+
+    private List<Long> segmentIds(Predicate<MessageArchiveSegment> filter, boolean newestFirst) {
+        List<Long> ids = segments.values().stream().filter(filter).map(MessageArchiveSegment::getId)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (newestFirst) {
+            Collections.reverse(ids);
+        }
+        return ids;
+    }
+
+    private static Instant sentAt(int id) {
+        return START.plusSeconds(id == 5 ? 4 : id);
+    }
+
+    private static MessageDTO message(int id) {
+        return MessageDTO.builder().id(id).conversationId(CONVERSATION).sentAt(START.plusSeconds(100 + id)).build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
+import com.esewa.javabackend.dto.MessageSearchHitDTO;
+import com.esewa.javabackend.repository.JpaRepository.MessageSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MessageSearchServiceTest {
+
+    private MessageSearchRepository searchRepository;
+    private DirectConversationResolver directConversations;
+    private MessageSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        searchRepository = mock(MessageSearchRepository.class);
+        directConversations = mock(DirectConversationResolver.class);
+        service = new MessageSearchService(searchRepository, directConversations);
+    }
+
+    @Test
+    void onlyMatchDelimitersBecomeMarkup() {
+        // the body itself contains a literal <mark> and a script tag
+        assertThat(MessageSearchService.escape("say <mark>hi</mark> \u0001pasta\u0002 <script>"))
+                .isEqualTo("say &lt;mark&gt;hi&lt;/mark&gt; <mark>pasta</mark> &lt;script&gt;");
+        assertThat(MessageSearchService.escape(null)).isNull();
+    }
+
+    @Test
+    void pagesWithCursorAndEscapesHighlights() {
+        List<MessageSearchHitDTO> rows = IntStream.rangeClosed(1, 3).mapToObj(i -> MessageSearchHitDTO.builder()
+                .messageId(10 - i).conversationId(4).sentAt(Instant.ofEpochSecond(100 - i))
+                .highlight("<b>\u0001x\u0002").build()).toList();
+        when(searchRepository.search(eq(1), eq("x"), isNull(), isNull(), isNull(), eq(3))).thenReturn(rows);
+
+        CursorPageResponse<MessageSearchHitDTO> page = service.search(1, " x ", null, null, 2);
+
+        assertThat(page.getData()).extracting(MessageSearchHitDTO::getHighlight)
+                .containsOnly("&lt;b&gt;<mark>x</mark>");
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    void unknownConversationAndBadQueries() {
+        when(directConversations.find(1, 2)).thenReturn(Optional.empty());
+
+        assertThat(service.search(1, "x", 2, null, 10).getData()).isEmpty();
+        verifyNoInteractions(searchRepository);
+        assertThatThrownBy(() -> service.search(1, " ", null, null, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.search(1, "x".repeat(201), null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,291 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.kafka.NotificationProducer;
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
+import com.esewa.javabackend.dto.ConversationPreviewDTO;
+import com.esewa.javabackend.dto.MessageDTO;
+import com.esewa.javabackend.dto.MessageHistoryDTO;
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import com.esewa.javabackend.module.ConversationMember;
+import com.esewa.javabackend.module.Message;
+import com.esewa.javabackend.module.User;
+import com.esewa.javabackend.repository.JpaRepository.ConversationMemberRepository;
+import com.esewa.javabackend.repository.JpaRepository.ConversationRepository;
+import com.esewa.javabackend.repository.JpaRepository.FollowRepository;
+import com.esewa.javabackend.repository.JpaRepository.MessageRepository;
+import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class MessageServiceTest {
+
+    private static final int CONVERSATION = 3;
+    private static final int VIEWER = 1;
+    private static final int OTHER = 2;
+    private static final Instant START = Instant.parse("2026-03-01T10:00:00Z");
+
+    private MessageRepository messageRepository;
+    private ConversationMemberRepository conversationMemberRepository;
+    private DirectConversationResolver directConversations;
+    private FollowRepository followRepository;
+    private NotificationProducer notificationProducer;
+    private ChatRealtimeService chatRealtimeService;
+    private MeterRegistry meterRegistry;
+    private MessageService service;
+
+    // messages 1..7, alternating senders; 4 and 5 share a timestamp so the id breaks the tie
+    private final List<MessageDTO> conversation = IntStream.rangeClosed(1, 7)
+            .mapToObj(id -> new MessageDTO(id, CONVERSATION, id % 2 == 0 ? VIEWER : OTHER, "user" + id, "message " + id,
+                    START.plusSeconds(id == 5 ? 4 : id)))
+            .toList();
+
+    @BeforeEach
+    void setUp() {
+        messageRepository = mock(MessageRepository.class);
+        conversationMemberRepository = mock(ConversationMemberRepository.class);
+        directConversations = mock(DirectConversationResolver.class);
+        followRepository = mock(FollowRepository.class);
+        notificationProducer = mock(NotificationProducer.class);
+        chatRealtimeService = mock(ChatRealtimeService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        MessageArchiveService archiveService = mock(MessageArchiveService.class);
+        when(archiveService.extendHistory(anyInt(), anyList(), any(), any(), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        when(directConversations.find(VIEWER, OTHER)).thenReturn(Optional.of(CONVERSATION));
+        when(conversationMemberRepository.findLastReadMessageId(CONVERSATION, VIEWER)).thenReturn(Optional.of(3));
+
+        Comparator<MessageDTO> newestFirst = Comparator.comparing(MessageDTO::getSentAt)
+                .thenComparing(MessageDTO::getId).reversed();
+        when(messageRepository.findLatest(eq(CONVERSATION), any())).thenAnswer(invocation ->
+                limit(conversation.stream().sorted(newestFirst).toList(), invocation.getArgument(1)));
+        when(messageRepository.findBefore(eq(CONVERSATION), any(), anyInt(), any())).thenAnswer(invocation -> {
+            Instant sentAt = invocation.getArgument(1);
+            int id = invocation.getArgument(2);
+            return limit(conversation.stream()
+                    .filter(m -> m.getSentAt().isBefore(sentAt) || m.getSentAt().equals(sentAt) && m.getId() < id)
+                    .sorted(newestFirst).toList(), invocation.getArgument(3));
+        });
+        when(messageRepository.findAfter(eq(CONVERSATION), any(), anyInt(), any())).thenAnswer(invocation -> {
+            Instant sentAt = invocation.getArgument(1);
+            int id = invocation.getArgument(2);
+            return limit(conversation.stream()
+                    .filter(m -> m.getSentAt().isAfter(sentAt) || m.getSentAt().equals(sentAt) && m.getId() > id)
+                    .sorted(newestFirst.reversed()).toList(), invocation.getArgument(3));
+        });
+
+        // send path: users resolve, saved messages get ids, the member summaries exist
+        UserDirectoryCache userDirectory = mock(UserDirectoryCache.class);
+        when(userDirectory.resolve(anyList())).thenAnswer(invocation -> {
+            List<Integer> ids = invocation.getArgument(0);
+            return ids.stream().collect(Collectors.toMap(id -> id, id -> "user" + id));
+        });
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.getReferenceById(anyInt())).thenAnswer(invocation -> {
+            User user = new User();
+            user.setId(invocation.getArgument(0));
+            return user;
+        });
+        when(messageRepository.save(any(Message.class))).thenAnswer(invocation -> {
+            Message message = invocation.getArgument(0);
+            message.setId(100);
+            return message;
+        });
+        when(conversationMemberRepository.recordMessage(anyInt(), anyInt(), anyInt(), any())).thenReturn(1);
+        // the follow graph is still loading, so permission checks go through the cache
+        MessagePermissionCache permissionCache = new MessagePermissionCache(followRepository, mock(FollowGraph.class));
+
+        service = new MessageService(messageRepository, mock(ConversationRepository.class), permissionCache,
+                userDirectory, userRepository, notificationProducer, conversationMemberRepository,
+                chatRealtimeService, directConversations, meterRegistry, archiveService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void latestPageIsNewestFirstWithCursorsBothWays() {
+        MessageHistoryDTO page = service.getMessageHistory(VIEWER, OTHER, null, null, 3);
+
+        assertThat(page.getData()).extracting(MessageDTO::getId).containsExactly(7, 6, 5);
+        assertThat(page.isHasOlder()).isTrue();
+        assertThat(page.isHasNewer()).isFalse();
+        assertThat(page.getNewerCursor()).isNotNull();
+    }
+
+    @Test
+    void scrollingBackVisitsEveryMessageOnceAcrossTiedTimestamps() {
+        MessageHistoryDTO first = service.getMessageHistory(VIEWER, OTHER, null, null, 3);
+        MessageHistoryDTO second = service.getMessageHistory(VIEWER, OTHER, first.getOlderCursor(), null, 3);
+        MessageHistoryDTO third = service.getMessageHistory(VIEWER, OTHER, second.getOlderCursor(), null, 3);
+
+        assertThat(second.getData()).extracting(MessageDTO::getId).containsExactly(4, 3, 2);
+        assertThat(second.isHasNewer()).isTrue();
+        assertThat(third.getData()).extracting(MessageDTO::getId).containsExactly(1);
+        assertThat(third.isHasOlder()).isFalse();
+    }
+
+    @Test
+    void afterCursorReturnsTheMessagesJustNewerStillNewestFirst() {
+        MessageHistoryDTO first = service.getMessageHistory(VIEWER, OTHER, null, null, 3);
+        MessageHistoryDTO back = service.getMessageHistory(VIEWER, OTHER, first.getOlderCursor(), null, 2);
+
+        MessageHistoryDTO forward = service.getMessageHistory(VIEWER, OTHER, null, back.getOlderCursor(), 2);
+
+        assertThat(back.getData()).extracting(MessageDTO::getId).containsExactly(4, 3);
+        assertThat(forward.getData()).extracting(MessageDTO::getId).containsExactly(5, 4);
+        assertThat(forward.isHasNewer()).isTrue();
+        assertThat(forward.isHasOlder()).isTrue();
+    }
+
+    @Test
+    void readStateComesFromTheViewersWatermark() {
+        MessageHistoryDTO page = service.getMessageHistory(VIEWER, OTHER, null, null, 7);
+
+        // 1..3 are below the watermark, even ids were sent by the viewer
+        assertThat(page.getData()).filteredOn(MessageDTO::isRead).extracting(MessageDTO::getId)
+                .containsExactlyInAnyOrder(1, 2, 3, 4, 6);
+        verify(conversationMemberRepository, times(1)).findLastReadMessageId(CONVERSATION, VIEWER);
+    }
+
+    @Test
+    void emptyConversationAndConflictingCursors() {
+        when(directConversations.find(VIEWER, 9)).thenReturn(Optional.empty());
+
+        assertThat(service.getMessageHistory(VIEWER, 9, null, null, 500).getData()).isEmpty();
+        assertThat(service.getMessageHistory(VIEWER, 9, null, null, 500).getPageSize()).isEqualTo(100);
+        assertThatThrownBy(() -> service.getMessageHistory(VIEWER, OTHER, "a", "b", 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void existingConversationSkipsThePermissionCheck() {
+        MessageDTO sent = service.sendMessage(VIEWER, OTHER, "hi");
+
+        assertThat(sent.getConversationId()).isEqualTo(CONVERSATION);
+        verifyNoInteractions(followRepository);
+        verify(directConversations, never()).findOrCreate(anyInt(), anyInt());
+    }
+
+    @Test
+    void cachedFollowDecisionServesRepeatedSends() {
+        when(directConversations.find(VIEWER, 9)).thenReturn(Optional.empty());
+        when(directConversations.findOrCreate(VIEWER, 9)).thenReturn(11);
+        when(followRepository.existsByFollowerIdAndFolloweeId(VIEWER, 9)).thenReturn(true);
+
+        service.sendMessage(VIEWER, 9, "first");
+        service.sendMessage(VIEWER, 9, "second");
+
+        verify(followRepository, times(1)).existsByFollowerIdAndFolloweeId(VIEWER, 9);
+    }
+
+    @Test
+    void strangersCannotMessageEachOther() {
+        when(directConversations.find(VIEWER, 9)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.sendMessage(VIEWER, 9, "hi")).isInstanceOf(IllegalStateException.class);
+        verify(messageRepository, never()).save(any());
+    }
+
+    @Test
+    void notificationAndSendTimerWaitForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.sendMessage(VIEWER, OTHER, "hi");
+
+        verify(notificationProducer, after(100).never()).sendNotification(any());
+        assertThat(meterRegistry.timer("chat.message.send").count()).isZero();
+
+        List<TransactionSynchronization> synchronizations =
+                TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations,
+                TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(notificationProducer, timeout(1000)).sendNotification(any(NotificationEvent.class));
+        assertThat(meterRegistry.timer("chat.message.send").count()).isEqualTo(1);
+    }
+
+    @Test
+    void failedNotificationDoesNotFailTheSend() {
+        doThrow(new RuntimeException("broker down")).when(notificationProducer).sendNotification(any());
+
+        assertThat(service.sendMessage(VIEWER, OTHER, "hi").getId()).isEqualTo(100);
+        verify(notificationProducer, timeout(1000)).sendNotification(any());
+    }
+
+    @Test
+    void inboxPagesFollowTheSummaryRows() {
+        List<ConversationPreviewDTO> rows = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> ConversationPreviewDTO.builder().conversationId(10 + i)
+                        .lastMessageTime(START.minusSeconds(i)).unreadCount(i).build())
+                .toList();
+        when(conversationMemberRepository.findInboxPage(eq(VIEWER), any())).thenReturn(rows);
+
+        CursorPageResponse<ConversationPreviewDTO> first = service.getUserConversationsPage(VIEWER, null, 2);
+        service.getUserConversationsPage(VIEWER, first.getNextCursor(), 2);
+
+        assertThat(first.getData()).extracting(ConversationPreviewDTO::getConversationId).containsExactly(11, 12);
+        assertThat(first.isHasMore()).isTrue();
+        verify(conversationMemberRepository).findInboxPageBefore(eq(VIEWER), eq(START.minusSeconds(2)), eq(12), any());
+    }
+
+    @Test
+    void firstSendWithoutSummariesSeedsBothMembers() {
+        when(conversationMemberRepository.recordMessage(anyInt(), anyInt(), anyInt(), any())).thenReturn(0);
+        when(messageRepository.countMessagesFromOthers(CONVERSATION, OTHER)).thenReturn(4L);
+
+        service.sendMessage(VIEWER, OTHER, "hi");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ConversationMember>> saved = ArgumentCaptor.forClass(List.class);
+        verify(conversationMemberRepository).saveAll(saved.capture());
+        ConversationMember own = saved.getValue().get(0);
+        ConversationMember other = saved.getValue().get(1);
+        assertThat(own.getUnreadCount()).isZero();
+        assertThat(own.getLastReadMessageId()).isEqualTo(100);
+        assertThat(other.getUnreadCount()).isEqualTo(4);
+        assertThat(other.getLastMessageAt()).isEqualTo(own.getLastMessageAt());
+    }
+
+    @Test
+    void readReceiptIsPushedOnlyWhenTheWatermarkMoved() {
+        when(conversationMemberRepository.markRead(CONVERSATION, VIEWER)).thenReturn(1).thenReturn(0);
+
+        service.markMessagesBetweenUsersAsRead(VIEWER, OTHER);
+        service.markMessagesBetweenUsersAsRead(VIEWER, OTHER);
+
+        verify(chatRealtimeService, times(1)).conversationRead(VIEWER, OTHER, CONVERSATION, 3);
+    }
+
+    private static List<MessageDTO> limit(List<MessageDTO> rows, Pageable pageable) {
+        return rows.stream().limit(pageable.getPageSize())
+                .map(m -> new MessageDTO(m.getId(), m.getConversationId(), m.getSenderId(), m.getSenderName(),
+                        m.getBody(), m.getSentAt()))
+                .toList();
+    }
+}
@@ -0,0 +1,84 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationCounterServiceTest {
+
+    private StringRedisTemplate redis;
+    private ValueOperations<String, String> values;
+    private NotificationRepository notificationRepository;
+    private NotificationCounterService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        values = mock(ValueOperations.class);
+        notificationRepository = mock(NotificationRepository.class);
+        when(redis.opsForValue()).thenReturn(values);
+        service = new NotificationCounterService(redis, notificationRepository);
+    }
+
+    @Test
+    void cachedCounterSkipsTheDatabase() {
+        when(values.get("notif:unread:{7}")).thenReturn("4");
+
+        assertThat(service.getUnreadCount(7)).isEqualTo(4);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void missRaisesTheSeedingMarkerBeforeCountingAndSeedsThroughTheScript() {
+        when(notificationRepository.countByReceiverIdAndIsReadFalse(7)).thenReturn(3L);
+        when(redis.execute(eq(NotificationCounterService.SEED), anyList(), any(Object[].class))).thenReturn(3L);
+
+        assertThat(service.getUnreadCount(7)).isEqualTo(3);
+
+        InOrder order = inOrder(values, notificationRepository, redis);
+        order.verify(values).setIfAbsent(eq("notif:unread:{7}:seeding"), eq("0"), any(Duration.class));
+        order.verify(notificationRepository).countByReceiverIdAndIsReadFalse(7);
+        order.verify(redis).execute(NotificationCounterService.SEED,
+                List.of("notif:unread:{7}", "notif:unread:{7}:seeding"), "3", "21600", "30");
+    }
+
+    @Test
+    void seedReturnsTheCounterAnotherReaderStoredFirst() {
+        when(notificationRepository.countByReceiverIdAndIsReadFalse(7)).thenReturn(3L);
+        when(redis.execute(eq(NotificationCounterService.SEED), anyList(), any(Object[].class))).thenReturn(5L);
+
+        assertThat(service.getUnreadCount(7)).isEqualTo(5);
+    }
+
+    @Test
+    void adjustmentsCarryTheMarkerKeySoUpdatesDuringSeedingAreNoticed() {
+        service.increment(7);
+        service.decrement(7, 2);
+
+        verify(redis).execute(NotificationCounterService.ADJUST_IF_PRESENT,
+                List.of("notif:unread:{7}", "notif:unread:{7}:seeding"), "1");
+        verify(redis).execute(NotificationCounterService.ADJUST_IF_PRESENT,
+                List.of("notif:unread:{7}", "notif:unread:{7}:seeding"), "-2");
+    }
+
+    @Test
+    void fallsBackToTheDatabaseWhenRedisIsDown() {
+        when(values.get(anyString())).thenThrow(new QueryTimeoutException("redis down"));
+        when(notificationRepository.countByReceiverIdAndIsReadFalse(7)).thenReturn(2L);
+
+        assertThat(service.getUnreadCount(7)).isEqualTo(2);
+        verify(redis, never()).execute(any(), anyList(), any(Object[].class));
+    }
+}
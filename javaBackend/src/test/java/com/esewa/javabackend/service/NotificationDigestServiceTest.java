@@ -0,0 +1,139 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.NotificationDigestConfig;
+import com.esewa.javabackend.module.NotificationDigestRun;
+import com.esewa.javabackend.repository.JpaRepository.NotificationDigestRunRepository;
+import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class NotificationDigestServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private NotificationDigestConfig config;
+    private NotificationRepository notificationRepository;
+    private NotificationDigestRunRepository runRepository;
+    private AtomicReference<NotificationDigestRun> lastSaved;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() {
+        config = new NotificationDigestConfig();
+        config.setWorkers(1);
+        config.setMessagesPerConnection(1);
+        config.setCheckpointEvery(2);
+        notificationRepository = mock(NotificationRepository.class);
+        runRepository = mock(NotificationDigestRunRepository.class);
+        lastSaved = new AtomicReference<>();
+        when(runRepository.findFirstByOrderByIdDesc()).thenReturn(Optional.empty());
+        when(runRepository.save(any())).thenAnswer(invocation -> {
+            lastSaved.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+        LocalDateTime created = LocalDateTime.now().minusHours(1);
+        when(notificationRepository.streamUnreadForDigest(any(), any(), any())).thenAnswer(invocation -> Stream.of(
+                new Object[]{1, "alice@example.com", "alice", "bob liked your recipe", created},
+                new Object[]{1, "alice@example.com", "alice", "carol followed you", created},
+                new Object[]{2, "bob@example.com", "bob", "alice commented on your post", created},
+                new Object[]{3, "carol@example.com", "carol", "dave liked your recipe", created}));
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @Test
+    void sendsOneDigestPerReceiverAndCompletesTheRun() throws MessagingException {
+        int sent = service(mailSender).run();
+
+        assertThat(sent).isEqualTo(3);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(3);
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("alice@example.com");
+        assertThat(received[0].getSubject()).isEqualTo("You have 2 unread notifications");
+        assertThat(GreenMailUtil.getBody(received[0])).contains("bob liked your recipe", "carol followed you");
+        assertThat(lastSaved.get().isCompleted()).isTrue();
+        assertThat(lastSaved.get().getLastReceiverId()).isEqualTo(3);
+    }
+
+    @Test
+    void unreachableServerLeavesTheRunUnfinishedAtItsCheckpoint() {
+        mailSender.setPort(ServerSetupTest.SMTP.getPort() + 1000);
+
+        int sent = service(mailSender).run();
+
+        assertThat(sent).isZero();
+        assertThat(lastSaved.get().isCompleted()).isFalse();
+        assertThat(lastSaved.get().getLastReceiverId()).isZero();
+    }
+
+    @Test
+    void checkpointStopsBeforeTheFirstMessageTheServerFailed() {
+        JavaMailSenderImpl failing = spy(mailSender);
+        doAnswer(invocation -> {
+            MimeMessage message = invocation.getArgument(0);
+            if ("bob@example.com".equals(message.getAllRecipients()[0].toString())) {
+                throw new MailSendException(Map.of(message, new MessagingException("451 try again later")));
+            }
+            return invocation.callRealMethod();
+        }).when(failing).send(any(MimeMessage[].class));
+
+        int sent = service(failing).run();
+
+        assertThat(sent).isEqualTo(1);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+        assertThat(lastSaved.get().isCompleted()).isFalse();
+        assertThat(lastSaved.get().getLastReceiverId()).isEqualTo(1);
+    }
+
+    @Test
+    void refusedRecipientIsSkippedInsteadOfHoldingTheRun() {
+        JavaMailSenderImpl refusing = spy(mailSender);
+        doAnswer(invocation -> {
+            MimeMessage message = invocation.getArgument(0);
+            if ("bob@example.com".equals(message.getAllRecipients()[0].toString())) {
+                Map<Object, Exception> failed = new LinkedHashMap<>();
+                failed.put(message, new SendFailedException("550 no such user"));
+                throw new MailSendException(failed);
+            }
+            return invocation.callRealMethod();
+        }).when(refusing).send(any(MimeMessage[].class));
+
+        int sent = service(refusing).run();
+
+        assertThat(sent).isEqualTo(2);
+        assertThat(greenMail.getReceivedMessages()).extracting(m -> m.getAllRecipients()[0].toString())
+                .containsExactly("alice@example.com", "carol@example.com");
+        assertThat(lastSaved.get().isCompleted()).isTrue();
+    }
+
+    private NotificationDigestService service(JavaMailSenderImpl sender) {
+        return new NotificationDigestService(config, notificationRepository, runRepository, sender,
+                mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+}
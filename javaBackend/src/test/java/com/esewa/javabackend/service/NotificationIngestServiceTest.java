@@ -0,0 +1,105 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.NotificationDTO;
+import com.esewa.javabackend.dto.event.NotificationEvent;
+import com.esewa.javabackend.enums.NotificationType;
+import com.esewa.javabackend.repository.JpaRepository.NotificationBulkRepository;
+import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
+import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationIngestServiceTest {
+
+    private static final Map<Integer, String> USERNAMES = Map.of(1, "alice", 2, "bob", 3, "carol", 9, "dave");
+
+    private NotificationRepository notificationRepository;
+    private NotificationIngestService service;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        NotificationBulkRepository bulkRepository = mock(NotificationBulkRepository.class);
+        when(bulkRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(notificationRepository.findOpenAggregate(any(), any(), any(), any(), any())).thenReturn(List.of());
+
+        NotificationCoalescer coalescer = new NotificationCoalescer(notificationRepository, mock(UserRepository.class));
+        ReflectionTestUtils.setField(coalescer, "windowMinutes", 1440L);
+        service = new NotificationIngestService(notificationRepository, bulkRepository, coalescer);
+    }
+
+    @Test
+    void foldsReactionsOnTheSameRecipeIntoOneRow() {
+        List<NotificationDTO> created = service.ingest(List.of(
+                event(1, NotificationType.RECIPE_REACTION, 5, "alice liked your recipe"),
+                event(2, NotificationType.RECIPE_REACTION, 5, "bob liked your recipe"),
+                event(3, NotificationType.RECIPE_REACTION, 5, "carol loved your recipe")), USERNAMES).getCreated();
+
+        assertThat(created).hasSize(1);
+        assertThat(created.get(0).getActorCount()).isEqualTo(3);
+        assertThat(created.get(0).getSampleActorIds()).containsExactly(3, 2, 1);
+        assertThat(created.get(0).getMessage()).isEqualTo("carol and 2 others loved your recipe");
+    }
+
+    @Test
+    void postAndRecipeReactionsWithTheSameIdStaySeparate() {
+        List<NotificationDTO> created = service.ingest(List.of(
+                event(1, NotificationType.POST_REACTION, 5, "alice liked your post"),
+                event(2, NotificationType.RECIPE_REACTION, 5, "bob liked your recipe")), USERNAMES).getCreated();
+
+        assertThat(created).extracting(NotificationDTO::getType)
+                .containsExactly(NotificationType.POST_REACTION, NotificationType.RECIPE_REACTION);
+        assertThat(created).allSatisfy(n -> assertThat(n.getActorCount()).isEqualTo(1));
+    }
+
+    @Test
+    void repeatedActorIsNotCountedTwice() {
+        List<NotificationDTO> created = service.ingest(List.of(
+                event(1, NotificationType.RECIPE_REACTION, 5, "alice liked your recipe"),
+                event(1, NotificationType.RECIPE_REACTION, 5, "alice loved your recipe")), USERNAMES).getCreated();
+
+        assertThat(created).singleElement().satisfies(n -> {
+            assertThat(n.getActorCount()).isEqualTo(1);
+            assertThat(n.getMessage()).isEqualTo("alice loved your recipe");
+        });
+    }
+
+    @Test
+    void nonCoalescedTypesAreInsertedAsTheyCome() {
+        List<NotificationDTO> created = service.ingest(List.of(
+                event(1, NotificationType.MESSAGE, 5, "alice sent you a message"),
+                event(1, NotificationType.MESSAGE, 5, "alice sent you a message")), USERNAMES).getCreated();
+
+        assertThat(created).hasSize(2);
+        verify(notificationRepository, never()).findOpenAggregate(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void rendersOtherActors() {
+        assertThat(NotificationCoalescer.render("alice", 0, "alice liked your recipe")).isEqualTo("alice liked your recipe");
+        assertThat(NotificationCoalescer.render("alice", 1, "alice liked your recipe"))
+                .isEqualTo("alice and 1 other liked your recipe");
+        assertThat(NotificationCoalescer.render("alice", 12, "liked your recipe"))
+                .isEqualTo("alice and 12 others liked your recipe");
+    }
+
+    private static NotificationEvent event(int senderId, NotificationType type, int referenceId, String message) {
+        return NotificationEvent.builder()
+                .eventId(UUID.randomUUID())
+                .senderId(senderId)
+                .receiverId(9)
+                .type(type)
+                .referenceId(referenceId)
+                .message(message)
+                .build();
+    }
+}
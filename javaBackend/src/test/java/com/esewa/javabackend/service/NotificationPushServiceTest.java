@@ -0,0 +1,255 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.NotificationDTO;
+import com.esewa.javabackend.utils.KeysetCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationPushServiceTest {
+
+    private static final String CHANNEL = "notifications:push";
+
+    private NotificationService notificationService;
+    private StringRedisTemplate redis;
+    private RecordingPushService pushService;
+
+    @BeforeEach
+    void setUp() {
+        notificationService = mock(NotificationService.class);
+        redis = mock(StringRedisTemplate.class);
+        // Redis hands every published notification back to this node's listener
+        when(redis.convertAndSend(eq(CHANNEL), anyString())).thenAnswer(invocation -> {
+            pushService.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                    invocation.<String>getArgument(1).getBytes(StandardCharsets.UTF_8)), null);
+            return 1L;
+        });
+        pushService = new RecordingPushService(notificationService, redis);
+        ReflectionTestUtils.setField(pushService, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(pushService, "replayLimit", 100);
+        ReflectionTestUtils.setField(pushService, "streamQueueSize", 4);
+        ReflectionTestUtils.setField(pushService, "writeTimeoutMs", 50L);
+        ReflectionTestUtils.setField(pushService, "channel", CHANNEL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pushService.shutdown();
+    }
+
+    @Test
+    void liveEventsAreDeliveredInOrder() {
+        RecordingEmitter emitter = (RecordingEmitter) pushService.subscribe(1, null);
+
+        pushService.push(notification(10, 1));
+        pushService.push(notification(11, 1));
+        pushService.push(notification(12, 1));
+
+        await(() -> emitter.sent.size() == 3);
+        assertThat(emitter.ids()).containsExactly(10, 11, 12);
+    }
+
+    @Test
+    void replayRunsFirstAndLiveDuplicatesAreSkipped() throws InterruptedException {
+        CountDownLatch replayStarted = new CountDownLatch(1);
+        CountDownLatch releaseReplay = new CountDownLatch(1);
+        when(notificationService.getNotificationsAfter(eq(1), eq(4), anyInt())).thenAnswer(invocation -> {
+            replayStarted.countDown();
+            releaseReplay.await(5, TimeUnit.SECONDS);
+            return List.of(notification(5, 1), notification(6, 1));
+        });
+
+        RecordingEmitter emitter = (RecordingEmitter) pushService.subscribe(1, "4");
+        assertThat(replayStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        // published while the replay query runs: 6 is also in the replay, 7 is not
+        pushService.push(notification(6, 1));
+        pushService.push(notification(7, 1));
+        releaseReplay.countDown();
+
+        await(() -> emitter.sent.size() == 3);
+        Thread.sleep(50);
+        assertThat(emitter.ids()).containsExactly(5, 6, 7);
+    }
+
+    @Test
+    void mergedAggregateWithMoreActorsIsStillDelivered() throws InterruptedException {
+        when(notificationService.getNotificationsAfter(eq(1), eq(4), anyInt()))
+                .thenReturn(List.of(notification(5, 2)));
+        RecordingEmitter emitter = (RecordingEmitter) pushService.subscribe(1, "4");
+        await(() -> emitter.sent.size() == 1);
+
+        pushService.push(notification(5, 2));
+        pushService.push(notification(5, 3));
+
+        await(() -> emitter.sent.size() == 2);
+        Thread.sleep(50);
+        assertThat(emitter.sent).extracting(NotificationDTO::getActorCount).containsExactly(2, 3);
+    }
+
+    @Test
+    void eventIdsResumeFromTheLastActivityAndCoverMergedAggregates() {
+        LocalDateTime created = LocalDateTime.of(2024, 5, 1, 10, 0);
+        LocalDateTime merged = created.plusMinutes(5);
+        RecordingEmitter first = (RecordingEmitter) pushService.subscribe(1, null);
+        NotificationDTO aggregate = notification(3, 2);
+        aggregate.setCreatedDate(created);
+        aggregate.setModifiedDate(merged);
+        pushService.push(aggregate);
+        await(() -> first.eventIds.size() == 1);
+        assertThat(first.eventIds).containsExactly(KeysetCursor.encode(merged, 3));
+
+        when(notificationService.getNotificationsActiveAfter(1, merged, 3, 100))
+                .thenReturn(List.of(notification(2, 4)));
+        RecordingEmitter resumed = (RecordingEmitter) pushService.subscribe(1, first.eventIds.get(0));
+
+        // an older notification merged into after the disconnect is replayed
+        await(() -> resumed.sent.size() == 1);
+        assertThat(resumed.ids()).containsExactly(2);
+    }
+
+    @Test
+    void unreadableLastEventIdStartsLiveDeliveryWithoutReplay() {
+        RecordingEmitter emitter = (RecordingEmitter) pushService.subscribe(1, "not a cursor");
+        pushService.push(notification(10, 1));
+
+        await(() -> emitter.sent.size() == 1);
+        verifyNoInteractions(notificationService);
+    }
+
+    @Test
+    void deliversLocallyWhenTheRelayIsDown() {
+        doThrow(new RedisConnectionFailureException("redis down")).when(redis).convertAndSend(eq(CHANNEL), anyString());
+        RecordingEmitter emitter = (RecordingEmitter) pushService.subscribe(1, null);
+
+        pushService.push(notification(10, 1));
+
+        await(() -> emitter.sent.size() == 1);
+        assertThat(emitter.ids()).containsExactly(10);
+    }
+
+    @Test
+    void slowStreamIsClosedWithoutHoldingUpOthers() {
+        RecordingEmitter slow = (RecordingEmitter) pushService.subscribe(1, null);
+        slow.block = new CountDownLatch(1);
+        RecordingEmitter fast = (RecordingEmitter) pushService.subscribe(2, null);
+
+        for (int id = 1; id <= 10; id++) {
+            pushService.push(notification(id, 1, 1));
+        }
+        pushService.push(notification(100, 1, 2));
+
+        await(() -> fast.sent.size() == 1);
+        await(() -> slow.completed);
+        assertThat(pushService.connectionCount()).isEqualTo(1);
+        slow.block.countDown();
+    }
+
+    @Test
+    void heartbeatClosesStreamStuckOnAWrite() throws InterruptedException {
+        RecordingEmitter stuck = (RecordingEmitter) pushService.subscribe(1, null);
+        stuck.block = new CountDownLatch(1);
+        pushService.push(notification(1, 1));
+        await(() -> stuck.writing);
+
+        Thread.sleep(100);
+        pushService.heartbeat();
+
+        assertThat(stuck.completed).isTrue();
+        assertThat(pushService.connectionCount()).isZero();
+        stuck.block.countDown();
+    }
+
+    private static NotificationDTO notification(int id, int actorCount) {
+        return notification(id, actorCount, 1);
+    }
+
+    private static NotificationDTO notification(int id, int actorCount, int receiverId) {
+        return NotificationDTO.builder().id(id).receiverId(receiverId).actorCount(actorCount).build();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("condition not met in time");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    static class RecordingPushService extends NotificationPushService {
+        RecordingPushService(NotificationService notificationService, StringRedisTemplate redis) {
+            super(notificationService, redis, new ObjectMapper().findAndRegisterModules(),
+                    mock(RedisMessageListenerContainer.class), new SimpleMeterRegistry(), 2, 100);
+        }
+
+        @Override
+        SseEmitter createEmitter(long timeout) {
+            return new RecordingEmitter(timeout);
+        }
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+        final List<NotificationDTO> sent = new CopyOnWriteArrayList<>();
+        final List<String> eventIds = new CopyOnWriteArrayList<>();
+        volatile CountDownLatch block;
+        volatile boolean writing;
+        volatile boolean completed;
+
+        RecordingEmitter(long timeout) {
+            super(timeout);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            writing = true;
+            try {
+                if (block != null) {
+                    block.await(5, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (ResponseBodyEmitter.DataWithMediaType item : builder.build()) {
+                if (item.getData() instanceof NotificationDTO notification) {
+                    sent.add(notification);
+                } else if (item.getData() instanceof String text && text.startsWith("id:")) {
+                    eventIds.add(text.substring(3, text.indexOf('\n')));
+                }
+            }
+            writing = false;
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<Integer> ids() {
+            return sent.stream().map(NotificationDTO::getId).toList();
+        }
+    }
+}
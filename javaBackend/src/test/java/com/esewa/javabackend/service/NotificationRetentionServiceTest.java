@@ -0,0 +1,112 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.NotificationRetentionConfig;
+import com.esewa.javabackend.enums.NotificationType;
+import com.esewa.javabackend.module.NotificationArchiveChunk;
+import com.esewa.javabackend.repository.JpaRepository.NotificationArchiveChunkRepository;
+import com.esewa.javabackend.repository.JpaRepository.NotificationBulkRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationRetentionServiceTest {
+
+    private NotificationRetentionConfig config;
+    private NotificationBulkRepository bulkRepository;
+    private NotificationArchiveChunkRepository archiveRepository;
+    private NotificationCounterService counterService;
+    private NotificationRetentionService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        config = new NotificationRetentionConfig();
+        config.setChunkSize(2);
+        config.setPauseBetweenChunksMs(0);
+        config.setArchiveRetentionDays(0);
+        bulkRepository = mock(NotificationBulkRepository.class);
+        archiveRepository = mock(NotificationArchiveChunkRepository.class);
+        counterService = mock(NotificationCounterService.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        when(bulkRepository.deleteExpired(any(), any(), anyInt(), anyInt(), anyInt())).thenReturn(List.of());
+        when(bulkRepository.deleteRead(any(), anyInt(), anyInt(), anyInt())).thenReturn(List.of());
+
+        service = new NotificationRetentionService(config, bulkRepository, archiveRepository, counterService,
+                transactionTemplate, new ObjectMapper().registerModule(new JavaTimeModule()));
+    }
+
+    @Test
+    void chunksWalkForwardFromThePreviousChunkAndStopAtTheCutoffId() {
+        when(bulkRepository.firstIdCreatedSince(any())).thenReturn(500);
+        when(bulkRepository.deleteExpired(eq(NotificationType.MESSAGE), any(), eq(0), eq(500), eq(2)))
+                .thenReturn(List.of(row(10, 1, false), row(11, 1, true)));
+        when(bulkRepository.deleteExpired(eq(NotificationType.MESSAGE), any(), eq(11), eq(500), eq(2)))
+                .thenReturn(List.of(row(40, 2, true)));
+
+        assertThat(service.run()).isEqualTo(3);
+
+        verify(bulkRepository, times(2)).deleteExpired(eq(NotificationType.MESSAGE), any(), anyInt(), anyInt(), anyInt());
+        ArgumentCaptor<NotificationArchiveChunk> chunks = ArgumentCaptor.forClass(NotificationArchiveChunk.class);
+        verify(archiveRepository, times(2)).save(chunks.capture());
+        assertThat(chunks.getAllValues()).extracting(NotificationArchiveChunk::getReason)
+                .containsOnly("ttl:MESSAGE");
+        assertThat(chunks.getAllValues()).extracting(NotificationArchiveChunk::getMinNotificationId)
+                .containsExactly(10, 40);
+    }
+
+    @Test
+    void withoutNewerRowsEveryIdIsInRange() {
+        when(bulkRepository.firstIdCreatedSince(any())).thenReturn(null);
+
+        service.run();
+
+        verify(bulkRepository).deleteRead(any(), eq(0), eq(Integer.MAX_VALUE), eq(2));
+    }
+
+    @Test
+    void invalidatesCountersOnlyForReceiversThatLostUnreadRows() {
+        when(bulkRepository.deleteRead(any(), eq(0), anyInt(), anyInt()))
+                .thenReturn(List.of(row(1, 7, true)));
+        when(bulkRepository.deleteExpired(eq(NotificationType.FOLLOW), any(), eq(0), anyInt(), anyInt()))
+                .thenReturn(List.of(row(2, 8, false)));
+
+        service.run();
+
+        verify(counterService).invalidate(8);
+        verify(counterService, never()).invalidate(7);
+    }
+
+    @Test
+    void stopsWhenTheChunkBudgetIsSpent() {
+        config.setMaxChunksPerRun(1);
+        when(bulkRepository.deleteExpired(eq(NotificationType.FOLLOW), any(), anyInt(), anyInt(), anyInt()))
+                .thenReturn(List.of(row(1, 7, true), row(2, 7, true)));
+
+        assertThat(service.run()).isEqualTo(2);
+
+        verify(bulkRepository, times(1)).deleteExpired(any(), any(), anyInt(), anyInt(), anyInt());
+        verify(bulkRepository, never()).deleteRead(any(), anyInt(), anyInt(), anyInt());
+    }
+
+    private static Map<String, Object> row(int id, int receiverId, boolean read) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", id);
+        row.put("receiverId", receiverId);
+        row.put("isRead", read);
+        row.put("createdDate", LocalDateTime.now().minusDays(400));
+        return row;
+    }
+}
@@ -0,0 +1,154 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.Base.response.CursorPageResponse;
+import com.esewa.javabackend.dto.NotificationDTO;
+import com.esewa.javabackend.enums.NotificationType;
+import com.esewa.javabackend.module.Notification;
+import com.esewa.javabackend.module.User;
+import com.esewa.javabackend.repository.JpaRepository.NotificationRepository;
+import com.esewa.javabackend.repository.JpaRepository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NotificationServiceTest {
+
+    private static final int USER = 4;
+
+    private NotificationRepository notificationRepository;
+    private UserRepository userRepository;
+    private NotificationCounterService counterService;
+    private NotificationService service;
+
+    @BeforeEach
+    void setUp() {
+        notificationRepository = mock(NotificationRepository.class);
+        userRepository = mock(UserRepository.class);
+        counterService = mock(NotificationCounterService.class);
+        service = new NotificationService(notificationRepository, userRepository, counterService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void markingReadDecrementsTheCounterOnlyAfterCommit() {
+        when(notificationRepository.findReceiverIdById(10)).thenReturn(Optional.of(USER));
+        when(notificationRepository.markRead(10)).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+
+        service.markAsRead(10);
+        verifyNoInteractions(counterService);
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        verify(counterService).decrement(USER, 1);
+    }
+
+    @Test
+    void markingAnAlreadyReadNotificationLeavesTheCounter() {
+        when(notificationRepository.findReceiverIdById(10)).thenReturn(Optional.of(USER));
+        when(notificationRepository.markRead(10)).thenReturn(0);
+
+        service.markAsRead(10);
+
+        verifyNoInteractions(counterService);
+        assertThatThrownBy(() -> service.markAsRead(11)).hasMessage("Notification not found");
+    }
+
+    @Test
+    void markAllIsOneStatementAndDecrementsTheCounterByWhatItChanged() {
+        when(userRepository.existsById(USER)).thenReturn(true);
+        when(notificationRepository.markAllRead(USER)).thenReturn(12);
+
+        assertThat(service.markAllAsRead(USER)).isEqualTo(12);
+
+        verify(counterService).decrement(USER, 12);
+        assertThatThrownBy(() -> service.markAllAsRead(5)).hasMessage("User not found");
+    }
+
+    @Test
+    void markReadUpToUsesTheNotificationsPlaceInTheFeed() {
+        LocalDateTime createdDate = LocalDateTime.of(2026, 3, 1, 12, 0);
+        when(notificationRepository.findCreatedDateByIdAndReceiver(10, USER)).thenReturn(Optional.of(createdDate));
+        when(notificationRepository.markReadUpTo(USER, createdDate, 10)).thenReturn(3);
+
+        assertThat(service.markReadUpTo(USER, 10)).isEqualTo(3);
+
+        verify(counterService).decrement(USER, 3);
+    }
+
+    @Test
+    void deletesInvalidateTheCounterOnlyWhenUnreadRowsCanGo() {
+        when(notificationRepository.deleteByReceiverAndIds(USER, List.of(1, 2))).thenReturn(2);
+        when(notificationRepository.deleteReadByReceiver(USER)).thenReturn(5);
+
+        assertThat(service.deleteNotifications(USER, List.of())).isZero();
+        verifyNoInteractions(notificationRepository);
+        assertThat(service.deleteReadNotifications(USER)).isEqualTo(5);
+        verifyNoInteractions(counterService);
+
+        assertThat(service.deleteNotifications(USER, List.of(1, 2))).isEqualTo(2);
+        verify(counterService).invalidate(USER);
+    }
+
+    @Test
+    void feedPagesComeFromTheProjectionWithAKeysetCursor() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 1, 12, 0);
+        List<NotificationDTO> rows = IntStream.rangeClosed(1, 3)
+                .mapToObj(i -> NotificationDTO.builder().id(20 - i).receiverId(USER).senderUsername("user" + i)
+                        .createdDate(start.minusMinutes(i)).build())
+                .toList();
+        when(notificationRepository.findFeedPage(eq(USER), eq(true), any(Pageable.class))).thenReturn(rows);
+
+        CursorPageResponse<NotificationDTO> first = service.getNotificationsPage(USER, true, null, 2);
+        service.getNotificationsPage(USER, true, first.getNextCursor(), 2);
+
+        assertThat(first.getData()).extracting(NotificationDTO::getId).containsExactly(19, 18);
+        assertThat(first.isHasMore()).isTrue();
+        verify(notificationRepository).findFeedPage(USER, true, Pageable.ofSize(3));
+        verify(notificationRepository).findFeedPageBefore(USER, true, start.minusMinutes(2), 18, Pageable.ofSize(3));
+        // the projection already carries the usernames; nothing is loaded per row
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void mappingAnEntityTakesUsernamesFromTheLookup() {
+        User sender = new User();
+        sender.setId(1);
+        User receiver = new User();
+        receiver.setId(USER);
+        Notification notification = Notification.builder()
+                .id(30)
+                .sender(sender)
+                .receiver(receiver)
+                .type(NotificationType.POST_REACTION)
+                .message("reacted to your post")
+                .isRead(false)
+                .build();
+
+        NotificationDTO dto = NotificationService.toDTO(notification, Map.of(1, "alice", USER, "bob"));
+
+        assertThat(dto.getSenderUsername()).isEqualTo("alice");
+        assertThat(dto.getReceiverUsername()).isEqualTo("bob");
+        assertThat(dto.getActorCount()).isEqualTo(1);
+        assertThat(dto.getSampleActorIds()).isNull();
+    }
+}
@@ -0,0 +1,127 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.config.RecipeFanoutConfig;
+import com.esewa.javabackend.enums.FanoutStatus;
+import com.esewa.javabackend.module.RecipeFanoutJob;
+import com.esewa.javabackend.module.User;
+import com.esewa.javabackend.repository.JpaRepository.FollowRepository;
+import com.esewa.javabackend.repository.JpaRepository.NotificationBulkRepository;
+import com.esewa.javabackend.repository.JpaRepository.RecipeFanoutJobRepository;
+import com.esewa.javabackend.repository.JpaRepository.UserStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecipeFanoutServiceTest {
+
+    private RecipeFanoutConfig config;
+    private RecipeFanoutJobRepository jobRepository;
+    private FollowRepository followRepository;
+    private UserStatsRepository userStatsRepository;
+    private NotificationBulkRepository bulkRepository;
+    private RecipeFanoutService service;
+    private RecipeFanoutJob job;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        config = new RecipeFanoutConfig();
+        config.setMaxAttempts(3);
+        config.setPageSize(2);
+        config.setMaxPerSecond(2);
+        jobRepository = mock(RecipeFanoutJobRepository.class);
+        followRepository = mock(FollowRepository.class);
+        userStatsRepository = mock(UserStatsRepository.class);
+        bulkRepository = mock(NotificationBulkRepository.class);
+        UserDirectoryCache userDirectory = mock(UserDirectoryCache.class);
+        when(userDirectory.resolve(any())).thenReturn(Map.of(1, "alice"));
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        service = new RecipeFanoutService(config, jobRepository, followRepository, userStatsRepository,
+                bulkRepository, mock(NotificationCounterService.class), mock(NotificationPushService.class),
+                userDirectory, transactionTemplate);
+
+        job = RecipeFanoutJob.builder().id(9).recipeId(5).authorId(1).message("alice published a new recipe: Dal")
+                .status(FanoutStatus.PENDING).lastFollowId(0).delivered(0).attempts(0).createdAt(Instant.now())
+                .build();
+        when(jobRepository.claimNext(eq(FanoutStatus.PENDING), any())).thenReturn(List.of(job));
+        when(jobRepository.findById(9)).thenReturn(Optional.of(job));
+    }
+
+    @Test
+    void failedPageCountsAnAttemptAndLeavesTheJobPending() {
+        when(followRepository.findFollowerPage(eq(1), eq(0), any()))
+                .thenReturn(List.of(new Object[]{11, 100}, new Object[]{12, 101}));
+        when(bulkRepository.insertAll(anyList())).thenThrow(new DataIntegrityViolationException("rejected"));
+
+        service.work();
+
+        assertThat(job.getAttempts()).isEqualTo(1);
+        assertThat(job.getStatus()).isEqualTo(FanoutStatus.PENDING);
+    }
+
+    @Test
+    void jobFailsAfterMaxAttemptsSoLaterJobsRun() {
+        when(followRepository.findFollowerPage(eq(1), eq(0), any()))
+                .thenReturn(List.<Object[]>of(new Object[]{11, 100}));
+        when(bulkRepository.insertAll(anyList())).thenThrow(new DataIntegrityViolationException("rejected"));
+
+        service.work();
+        service.work();
+        service.work();
+
+        assertThat(job.getAttempts()).isEqualTo(3);
+        assertThat(job.getStatus()).isEqualTo(FanoutStatus.FAILED);
+        assertThat(job.getCompletedAt()).isNotNull();
+    }
+
+    @Test
+    void successfulPageResetsAttemptsAndAdvancesTheCursor() {
+        job.setAttempts(2);
+        when(followRepository.findFollowerPage(eq(1), eq(0), any()))
+                .thenReturn(List.of(new Object[]{11, 100}, new Object[]{12, 101}));
+        when(bulkRepository.insertAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.work();
+
+        assertThat(job.getAttempts()).isZero();
+        assertThat(job.getLastFollowId()).isEqualTo(12);
+        assertThat(job.getDelivered()).isEqualTo(2);
+        assertThat(job.getStatus()).isEqualTo(FanoutStatus.PENDING);
+    }
+
+    @Test
+    void longTitlesAreCutToTheMessageColumn() {
+        when(userStatsRepository.findFollowersCountByUserId(1)).thenReturn(Optional.of(3));
+        User author = new User();
+        author.setId(1);
+        author.setUsername("alice");
+
+        service.recipePublished(5, "x".repeat(400), author);
+
+        ArgumentCaptor<RecipeFanoutJob> saved = ArgumentCaptor.forClass(RecipeFanoutJob.class);
+        verify(jobRepository).save(saved.capture());
+        assertThat(saved.getValue().getMessage()).hasSize(255).startsWith("alice published a new recipe: xxx");
+        assertThat(saved.getValue().getAttempts()).isZero();
+    }
+}
@@ -0,0 +1,65 @@
+package com.esewa.javabackend.service;
+
+import com.esewa.javabackend.dto.UserDTO.UserActivityDTO;
+import com.esewa.javabackend.repository.JpaRepository.UserActivityRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserActivityTrackerTest {
+
+    private UserActivityRepository activityRepository;
+    private StringRedisTemplate redis;
+    private ChatPresenceStore presenceStore;
+    private UserActivityTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        activityRepository = mock(UserActivityRepository.class);
+        redis = mock(StringRedisTemplate.class);
+        when(redis.opsForZSet()).thenThrow(new RedisConnectionFailureException("down"));
+        presenceStore = new ChatPresenceStore();
+        tracker = new UserActivityTracker(activityRepository, redis, presenceStore);
+        ReflectionTestUtils.setField(tracker, "onlineWindowSeconds", 300L);
+        ReflectionTestUtils.setField(tracker, "redisRetentionHours", 24L);
+    }
+
+    @Test
+    void onlineIsSocketPresenceNotRecentRequests() {
+        tracker.record(1);
+        presenceStore.markOnline(2, "node-a", 60_000);
+        when(activityRepository.findLastActive(anyList())).thenReturn(Map.of());
+
+        Map<Integer, UserActivityDTO> activity = tracker.activity(List.of(1, 2));
+
+        // 1 made a request but has no socket, 2 has a socket but no recorded request
+        assertThat(activity.get(1).isOnline()).isFalse();
+        assertThat(activity.get(1).getLastActiveAt()).isNotNull();
+        assertThat(activity.get(2).isOnline()).isTrue();
+        assertThat(activity.get(2).getLastActiveAt()).isNull();
+    }
+
+    @Test
+    void flushWritesEachUserOnceAndFallsBackToTheDatabaseWithoutRedis() {
+        tracker.record(1);
+        tracker.record(1);
+        tracker.record(2);
+
+        tracker.flush();
+        tracker.flush();
+
+        verify(activityRepository, times(1)).touchAll(argThat(batch -> batch.keySet().equals(Set.of(1, 2))));
+        when(activityRepository.findLastActive(List.of(3))).thenReturn(Map.of(3, 1_000L));
+        assertThat(tracker.activity(List.of(3)).get(3).getLastActiveAt().toEpochMilli()).isEqualTo(1_000L);
+    }
+}
@@ -0,0 +1,53 @@
+package com.esewa.javabackend.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetCursorTest {
+
+    @Test
+    void instantCursorRoundTrips() {
+        Instant time = Instant.parse("2026-03-01T10:15:30.123456Z");
+
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(time, 42));
+
+        assertThat(cursor.instant()).isEqualTo(time);
+        assertThat(cursor.id()).isEqualTo(42);
+    }
+
+    @Test
+    void localDateTimeCursorRoundTrips() {
+        LocalDateTime time = LocalDateTime.of(2026, 3, 1, 10, 15, 30, 500);
+
+        KeysetCursor cursor = KeysetCursor.decode(KeysetCursor.encode(time, Integer.MAX_VALUE));
+
+        assertThat(cursor.localDateTime()).isEqualTo(time);
+        assertThat(cursor.id()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = KeysetCursor.encode(Instant.parse("2026-03-01T10:15:30Z"), 7);
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(KeysetCursor.decode(null)).isNull();
+        assertThat(KeysetCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        assertThatThrownBy(() -> KeysetCursor.decode("not a cursor!"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> KeysetCursor.decode(KeysetCursor.encode(LocalDateTime.now(), 1)).instant())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}